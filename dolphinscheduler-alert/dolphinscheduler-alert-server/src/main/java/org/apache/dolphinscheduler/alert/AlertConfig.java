@@ -28,6 +28,16 @@ public final class AlertConfig {
 
     private int waitTimeout;
 
+    private int senderThreads = 4;
+
+    private int senderQueueCapacity = 1000;
+
+    private int maxRetryTimes = 2;
+
+    private int retryInterval = 1000;
+
+    private int alertGroupCacheExpire = 60;
+
     public int getPort() {
         return port;
     }
@@ -43,4 +53,44 @@ public final class AlertConfig {
     public void setWaitTimeout(final int waitTimeout) {
         this.waitTimeout = waitTimeout;
     }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(final int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public int getSenderQueueCapacity() {
+        return senderQueueCapacity;
+    }
+
+    public void setSenderQueueCapacity(final int senderQueueCapacity) {
+        this.senderQueueCapacity = senderQueueCapacity;
+    }
+
+    public int getMaxRetryTimes() {
+        return maxRetryTimes;
+    }
+
+    public void setMaxRetryTimes(final int maxRetryTimes) {
+        this.maxRetryTimes = maxRetryTimes;
+    }
+
+    public int getRetryInterval() {
+        return retryInterval;
+    }
+
+    public void setRetryInterval(final int retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    public int getAlertGroupCacheExpire() {
+        return alertGroupCacheExpire;
+    }
+
+    public void setAlertGroupCacheExpire(final int alertGroupCacheExpire) {
+        this.alertGroupCacheExpire = alertGroupCacheExpire;
+    }
 }
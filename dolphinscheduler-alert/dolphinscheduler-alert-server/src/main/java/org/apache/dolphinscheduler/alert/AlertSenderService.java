@@ -17,8 +17,6 @@
 
 package org.apache.dolphinscheduler.alert;
 
-import com.google.common.collect.Lists;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.dolphinscheduler.alert.api.AlertChannel;
 import org.apache.dolphinscheduler.alert.api.AlertConstants;
 import org.apache.dolphinscheduler.alert.api.AlertData;
@@ -34,40 +32,116 @@ import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.entity.Alert;
 import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseCommand;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseResult;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.stereotype.Service;
 
-import javax.annotation.Nullable;
+import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Send the pending alerts.
+ * <p>
+ * Each alert plugin instance has its own bounded pool, so a slow or broken plugin instance only delays its own alerts.
+ * The sending is interrupted and failed if it doesn't finish in the wait timeout, for both the async and sync sending.
+ * An alert is sent to its plugin instances in parallel, the failed sending is retried with exponential backoff, and
+ * the alerts stay pending until the send results of all the plugin instances are written in batch.
+ */
 @Service
 public final class AlertSenderService extends Thread {
 
     private static final Logger logger = LoggerFactory.getLogger(AlertSenderService.class);
 
+    private static final int SEND_RESULT_BATCH_SIZE = 100;
+
+    private static final long SEND_RESULT_FLUSH_INTERVAL_MILLIS = 1000L;
+
     private final AlertDao alertDao;
     private final AlertPluginManager alertPluginManager;
     private final AlertConfig alertConfig;
 
+    /**
+     * Alert group id -> the alert plugin instances bound to it, null if the cache is disabled.
+     */
+    private final LoadingCache<Integer, List<AlertPluginInstance>> alertGroupInstanceCache;
+
+    /**
+     * The alerts being sent, they are skipped by the next polls until their send results are written.
+     */
+    private final Set<Integer> sendingAlertIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Alert plugin instance id -> the pool to send the alerts of it.
+     */
+    private final Map<Integer, ThreadPoolExecutor> alertChannelExecutors = new ConcurrentHashMap<>();
+
+    /**
+     * Schedule the retries and the flushes of the send results.
+     */
+    private final ScheduledExecutorService alertSendScheduler = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("AlertSendScheduler").build());
+
+    private final Queue<AlertSendResult> alertSendResults = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean alertSendResultFlushScheduled = new AtomicBoolean(false);
+
     public AlertSenderService(AlertDao alertDao, AlertPluginManager alertPluginManager, AlertConfig alertConfig) {
         this.alertDao = alertDao;
         this.alertPluginManager = alertPluginManager;
         this.alertConfig = alertConfig;
+        int alertGroupCacheExpire = alertConfig.getAlertGroupCacheExpire();
+        this.alertGroupInstanceCache = alertGroupCacheExpire <= 0 ? null
+                : CacheBuilder.newBuilder()
+                        .expireAfterWrite(alertGroupCacheExpire, TimeUnit.SECONDS)
+                        .build(new CacheLoader<Integer, List<AlertPluginInstance>>() {
+
+                            @Override
+                            public List<AlertPluginInstance> load(Integer alertGroupId) {
+                                List<AlertPluginInstance> alertInstanceList =
+                                        alertDao.listInstanceByAlertGroupId(alertGroupId);
+                                return alertInstanceList == null ? Collections.emptyList() : alertInstanceList;
+                            }
+                        });
     }
 
     @Override
     public synchronized void start() {
         super.setName("AlertSenderService");
+        AlertServerMetrics.registerSendingAlertGauge(sendingAlertIds::size);
         super.start();
     }
 
@@ -86,17 +160,32 @@ public final class AlertSenderService extends Thread {
         }
     }
 
+    /**
+     * Send the alerts to their alert plugin instances asynchronously, the alerts still being sent are skipped, and
+     * the alerts can't be queued by all their alert plugin instances are left to the next poll.
+     *
+     * @param alerts pending alerts
+     */
     public void send(List<Alert> alerts) {
         for (Alert alert : alerts) {
             // get alert group from alert
             int alertId = Optional.ofNullable(alert.getId()).orElse(0);
             int alertGroupId = Optional.ofNullable(alert.getAlertGroupId()).orElse(0);
-            List<AlertPluginInstance> alertInstanceList = alertDao.listInstanceByAlertGroupId(alertGroupId);
+            if (!sendingAlertIds.add(alertId)) {
+                continue;
+            }
+            List<AlertPluginInstance> alertInstanceList = listAlertGroupInstances(alertGroupId);
             if (CollectionUtils.isEmpty(alertInstanceList)) {
                 logger.error("send alert msg fail,no bind plugin instance.");
                 List<AlertResult> alertResults = Lists.newArrayList(new AlertResult("false",
                         "no bind plugin instance"));
-                alertDao.updateAlert(AlertStatus.EXECUTION_FAILURE, JSONUtils.toJsonString(alertResults), alertId);
+                addAlertSendResult(new AlertSendResult(alertId, AlertStatus.EXECUTION_FAILURE,
+                        JSONUtils.toJsonString(alertResults), Collections.emptyList()));
+                continue;
+            }
+            if (!isAlertChannelsAvailable(alertInstanceList)) {
+                logger.warn("The alert plugin instances of alert {} are busy, the alert will be sent later", alertId);
+                sendingAlertIds.remove(alertId);
                 continue;
             }
             AlertData alertData = AlertData.builder()
@@ -108,35 +197,155 @@ public final class AlertSenderService extends Thread {
                     .alertType(alert.getAlertType().getCode())
                     .build();
 
-            int sendSuccessCount = 0;
-            List<AlertResult> alertResults = new ArrayList<>();
+            AlertDelivery alertDelivery = new AlertDelivery(alertId, alertInstanceList.size());
             for (AlertPluginInstance instance : alertInstanceList) {
-                AlertResult alertResult = this.alertResultHandler(instance, alertData);
-                if (alertResult != null) {
-                    AlertStatus sendStatus = Boolean.parseBoolean(String.valueOf(alertResult.getStatus()))
-                            ? AlertStatus.EXECUTION_SUCCESS
-                            : AlertStatus.EXECUTION_FAILURE;
-                    alertDao.addAlertSendStatus(sendStatus, JSONUtils.toJsonString(alertResult), alertId,
-                            instance.getId());
-                    if (sendStatus.equals(AlertStatus.EXECUTION_SUCCESS)) {
-                        sendSuccessCount++;
-                        AlertServerMetrics.incAlertSuccessCount();
-                    } else {
-                        AlertServerMetrics.incAlertFailCount();
-                    }
-                    alertResults.add(alertResult);
+                // the failed pre check is not retried
+                AlertResult checkResult = this.alertChannelPreCheck(instance, alertData);
+                if (checkResult != null) {
+                    alertDelivery.addResult(instance, checkResult);
+                    continue;
                 }
+                sendToAlertChannel(alertDelivery, instance, alertData, 0);
             }
-            AlertStatus alertStatus = AlertStatus.EXECUTION_SUCCESS;
-            if (sendSuccessCount == 0) {
-                alertStatus = AlertStatus.EXECUTION_FAILURE;
-            } else if (sendSuccessCount < alertInstanceList.size()) {
-                alertStatus = AlertStatus.EXECUTION_PARTIAL_SUCCESS;
+        }
+    }
+
+    private List<AlertPluginInstance> listAlertGroupInstances(int alertGroupId) {
+        if (alertGroupInstanceCache == null) {
+            return alertDao.listInstanceByAlertGroupId(alertGroupId);
+        }
+        try {
+            return alertGroupInstanceCache.get(alertGroupId);
+        } catch (Exception e) {
+            logger.error("Get the alert plugin instances of alert group {} error", alertGroupId, e);
+            return alertDao.listInstanceByAlertGroupId(alertGroupId);
+        }
+    }
+
+    private boolean isAlertChannelsAvailable(List<AlertPluginInstance> alertInstanceList) {
+        for (AlertPluginInstance instance : alertInstanceList) {
+            if (getAlertChannelExecutor(instance).getQueue().remainingCapacity() == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private ThreadPoolExecutor getAlertChannelExecutor(AlertPluginInstance instance) {
+        return alertChannelExecutors.computeIfAbsent(instance.getId(), instanceId -> {
+            int threads = Math.max(1, alertConfig.getSenderThreads());
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(Math.max(1, alertConfig.getSenderQueueCapacity())),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("AlertSender-" + instanceId + "-%d")
+                            .build());
+            executor.allowCoreThreadTimeOut(true);
+            AlertServerMetrics.registerAlertChannelQueueGauge(String.valueOf(instance.getInstanceName()),
+                    executor.getQueue()::size);
+            return executor;
+        });
+    }
+
+    /**
+     * Send the alert to the alert plugin instance in its pool, retry if failed.
+     */
+    private void sendToAlertChannel(AlertDelivery alertDelivery, AlertPluginInstance instance, AlertData alertData,
+                                    int retryTimes) {
+        CompletableFuture<AlertResult> sending;
+        try {
+            sending = sendAlert(instance, alertData);
+        } catch (RejectedExecutionException e) {
+            logger.error("Alert Plugin {} reject alert {}", instance.getInstanceName(), alertData.getId(), e);
+            alertDelivery.addResult(instance, new AlertResult("false", "the alert plugin instance is busy"));
+            return;
+        }
+        sending.thenAccept(alertResult -> {
+            if (!isSuccess(alertResult) && retryTimes < alertConfig.getMaxRetryTimes()
+                    && !ServerLifeCycleManager.isStopped()) {
+                long retryInterval = Math.max(0L, (long) alertConfig.getRetryInterval()) << Math.min(retryTimes, 16);
+                logger.warn("Alert Plugin {} send alert {} failed, will retry after {} ms, retry times: {}",
+                        instance.getInstanceName(), alertData.getId(), retryInterval, retryTimes + 1);
+                try {
+                    alertSendScheduler.schedule(
+                            () -> sendToAlertChannel(alertDelivery, instance, alertData, retryTimes + 1),
+                            retryInterval, TimeUnit.MILLISECONDS);
+                    AlertServerMetrics.incAlertRetryCount();
+                    return;
+                } catch (RejectedExecutionException e) {
+                    logger.warn("Alert sender is stopped, alert {} will not be retried", alertData.getId());
+                }
+            }
+            alertDelivery.addResult(instance, alertResult);
+        });
+    }
+
+    private void addAlertSendResult(AlertSendResult alertSendResult) {
+        alertSendResults.add(alertSendResult);
+        scheduleAlertSendResultFlush(alertSendResults.size() >= SEND_RESULT_BATCH_SIZE ? 0
+                : SEND_RESULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    private void scheduleAlertSendResultFlush(long delayMillis) {
+        if (alertSendResultFlushScheduled.compareAndSet(false, true)) {
+            try {
+                alertSendScheduler.schedule(this::flushAlertSendResults, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                alertSendResultFlushScheduled.set(false);
             }
-            alertDao.updateAlert(alertStatus, JSONUtils.toJsonString(alertResults), alertId);
         }
     }
 
+    /**
+     * Write the send results in batches, the failed batch will be written again later.
+     */
+    private void flushAlertSendResults() {
+        alertSendResultFlushScheduled.set(false);
+        while (!alertSendResults.isEmpty()) {
+            List<AlertSendResult> batch = new ArrayList<>(SEND_RESULT_BATCH_SIZE);
+            AlertSendResult alertSendResult;
+            while (batch.size() < SEND_RESULT_BATCH_SIZE && (alertSendResult = alertSendResults.poll()) != null) {
+                batch.add(alertSendResult);
+            }
+            List<Alert> alerts = new ArrayList<>(batch.size());
+            List<AlertSendStatus> sendStatuses = new ArrayList<>();
+            for (AlertSendResult result : batch) {
+                Alert alert = new Alert();
+                alert.setId(result.alertId);
+                alert.setAlertStatus(result.alertStatus);
+                alert.setLog(result.log);
+                alerts.add(alert);
+                sendStatuses.addAll(result.sendStatuses);
+            }
+            try {
+                alertDao.saveAlertSendResults(alerts, sendStatuses);
+            } catch (Exception e) {
+                logger.error("Save the send results of {} alerts error, will retry later", batch.size(), e);
+                alertSendResults.addAll(batch);
+                scheduleAlertSendResultFlush(SEND_RESULT_FLUSH_INTERVAL_MILLIS);
+                return;
+            }
+            for (AlertSendResult result : batch) {
+                sendingAlertIds.remove(result.alertId);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        for (ThreadPoolExecutor executor : alertChannelExecutors.values()) {
+            executor.shutdown();
+        }
+        try {
+            for (ThreadPoolExecutor executor : alertChannelExecutors.values()) {
+                executor.awaitTermination(Constants.SERVER_CLOSE_WAIT_TIME.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        alertSendScheduler.shutdownNow();
+        // the alerts still being retried are left pending, they will be sent after restart
+        flushAlertSendResults();
+    }
+
     /**
      * sync send alert handler
      *
@@ -167,7 +376,10 @@ public final class AlertSenderService extends Thread {
         }
 
         for (AlertPluginInstance instance : alertInstanceList) {
-            AlertResult alertResult = this.alertResultHandler(instance, alertData);
+            AlertResult alertResult = this.alertChannelPreCheck(instance, alertData);
+            if (alertResult == null) {
+                alertResult = this.sendAlertAndWait(instance, alertData);
+            }
             if (alertResult != null) {
                 AlertSendResponseResult alertSendResponseResult = new AlertSendResponseResult(
                         Boolean.parseBoolean(String.valueOf(alertResult.getStatus())), alertResult.getMessage());
@@ -180,13 +392,13 @@ public final class AlertSenderService extends Thread {
     }
 
     /**
-     * alert result handler
+     * check whether the alert should be sent to the alert plugin instance, the failed check is not retried
      *
      * @param instance  instance
      * @param alertData alertData
-     * @return AlertResult
+     * @return the failed result, null if the alert should be sent
      */
-    private @Nullable AlertResult alertResultHandler(AlertPluginInstance instance, AlertData alertData) {
+    private @Nullable AlertResult alertChannelPreCheck(AlertPluginInstance instance, AlertData alertData) {
         String pluginInstanceName = instance.getInstanceName();
         int pluginDefineId = instance.getPluginDefineId();
         Optional<AlertChannel> alertChannelOptional = alertPluginManager.getAlertChannel(instance.getPluginDefineId());
@@ -197,8 +409,6 @@ public final class AlertSenderService extends Thread {
             logger.error("Alert Plugin {} send error : not found plugin {}", pluginInstanceName, pluginDefineId);
             return new AlertResult("false", message);
         }
-        AlertChannel alertChannel = alertChannelOptional.get();
-
         Map<String, String> paramsMap = JSONUtils.toMap(instance.getPluginInstanceParams());
         String instanceWarnType = WarningType.ALL.getDescp();
 
@@ -242,40 +452,217 @@ public final class AlertSenderService extends Thread {
             return new AlertResult("false", message);
         }
 
+        return null;
+    }
+
+    /**
+     * Send the alert in the pool of the alert plugin instance and wait for the result, the sending is failed if the
+     * pool is full.
+     *
+     * @param instance  instance
+     * @param alertData alertData
+     * @return AlertResult
+     */
+    private AlertResult sendAlertAndWait(AlertPluginInstance instance, AlertData alertData) {
+        try {
+            // the sending is completed by the timeout result if it doesn't finish in the wait timeout
+            return sendAlert(instance, alertData).get();
+        } catch (RejectedExecutionException e) {
+            logger.error("Alert Plugin {} reject alert, the alert plugin instance is busy", instance.getInstanceName());
+            return new AlertResult("false", "the alert plugin instance is busy");
+        } catch (InterruptedException e) {
+            logger.error("send alert error alert data id :{},", alertData.getId(), e);
+            Thread.currentThread().interrupt();
+            return new AlertResult("false", e.getMessage());
+        } catch (ExecutionException e) {
+            logger.error("send alert error alert data id :{},", alertData.getId(), e);
+            return new AlertResult("false", String.valueOf(e.getCause()));
+        }
+    }
+
+    /**
+     * Send the alert in the pool of the alert plugin instance, which has passed the pre check.
+     *
+     * @return the future completed by the send result, or by the timeout result if the sending doesn't finish in the
+     *         wait timeout
+     * @throws RejectedExecutionException if the pool of the alert plugin instance is full
+     */
+    private CompletableFuture<AlertResult> sendAlert(AlertPluginInstance instance, AlertData alertData) {
+        AlertSending alertSending = new AlertSending(instance, alertData);
+        getAlertChannelExecutor(instance).execute(alertSending);
+        return alertSending.result;
+    }
+
+    private AlertResult doSendAlert(AlertPluginInstance instance, AlertData alertData) {
+        Optional<AlertChannel> alertChannelOptional = alertPluginManager.getAlertChannel(instance.getPluginDefineId());
+        if (!alertChannelOptional.isPresent()) {
+            return new AlertResult("false", String.format(
+                    "Alert Plugin %s send error: the channel doesn't exist, pluginDefineId: %s",
+                    instance.getInstanceName(), instance.getPluginDefineId()));
+        }
+        AlertChannel alertChannel = alertChannelOptional.get();
+        Map<String, String> paramsMap = JSONUtils.toMap(instance.getPluginInstanceParams());
         AlertInfo alertInfo = AlertInfo.builder()
                 .alertData(alertData)
                 .alertParams(paramsMap)
                 .alertPluginInstanceId(instance.getId())
                 .build();
-        int waitTimeout = alertConfig.getWaitTimeout();
         try {
             AlertResult alertResult;
-            if (waitTimeout <= 0) {
-                if (alertData.getAlertType() == AlertType.CLOSE_ALERT.getCode()) {
-                    alertResult = alertChannel.closeAlert(alertInfo);
-                } else {
-                    alertResult = alertChannel.process(alertInfo);
-                }
+            if (alertData.getAlertType() == AlertType.CLOSE_ALERT.getCode()) {
+                alertResult = alertChannel.closeAlert(alertInfo);
             } else {
-                CompletableFuture<AlertResult> future;
-                if (alertData.getAlertType() == AlertType.CLOSE_ALERT.getCode()) {
-                    future = CompletableFuture.supplyAsync(() -> alertChannel.closeAlert(alertInfo));
-                } else {
-                    future = CompletableFuture.supplyAsync(() -> alertChannel.process(alertInfo));
-                }
-                alertResult = future.get(waitTimeout, TimeUnit.MILLISECONDS);
+                alertResult = alertChannel.process(alertInfo);
             }
             if (alertResult == null) {
                 throw new RuntimeException("Alert result cannot be null");
             }
             return alertResult;
-        } catch (InterruptedException e) {
-            logger.error("send alert error alert data id :{},", alertData.getId(), e);
-            Thread.currentThread().interrupt();
-            return new AlertResult("false", e.getMessage());
         } catch (Exception e) {
             logger.error("send alert error alert data id :{},", alertData.getId(), e);
             return new AlertResult("false", e.getMessage());
         }
     }
+
+    private static boolean isSuccess(AlertResult alertResult) {
+        return Boolean.parseBoolean(String.valueOf(alertResult.getStatus()));
+    }
+
+    /**
+     * Collect the send results of an alert from its alert plugin instances.
+     */
+    private final class AlertDelivery {
+
+        private final int alertId;
+
+        private final int alertInstanceCount;
+
+        private final List<AlertResult> alertResults = new ArrayList<>();
+
+        private final List<AlertSendStatus> sendStatuses = new ArrayList<>();
+
+        private int sendSuccessCount;
+
+        private AlertDelivery(int alertId, int alertInstanceCount) {
+            this.alertId = alertId;
+            this.alertInstanceCount = alertInstanceCount;
+        }
+
+        private void addResult(AlertPluginInstance instance, AlertResult alertResult) {
+            AlertStatus sendStatus = isSuccess(alertResult)
+                    ? AlertStatus.EXECUTION_SUCCESS
+                    : AlertStatus.EXECUTION_FAILURE;
+            if (sendStatus.equals(AlertStatus.EXECUTION_SUCCESS)) {
+                AlertServerMetrics.incAlertSuccessCount();
+            } else {
+                AlertServerMetrics.incAlertFailCount();
+            }
+            AlertSendStatus alertSendStatus = new AlertSendStatus();
+            alertSendStatus.setAlertId(alertId);
+            alertSendStatus.setAlertPluginInstanceId(instance.getId());
+            alertSendStatus.setSendStatus(sendStatus);
+            alertSendStatus.setLog(JSONUtils.toJsonString(alertResult));
+            alertSendStatus.setCreateTime(new Date());
+            synchronized (this) {
+                if (sendStatus.equals(AlertStatus.EXECUTION_SUCCESS)) {
+                    sendSuccessCount++;
+                }
+                alertResults.add(alertResult);
+                sendStatuses.add(alertSendStatus);
+                if (sendStatuses.size() < alertInstanceCount) {
+                    return;
+                }
+            }
+            AlertStatus alertStatus = AlertStatus.EXECUTION_SUCCESS;
+            if (sendSuccessCount == 0) {
+                alertStatus = AlertStatus.EXECUTION_FAILURE;
+            } else if (sendSuccessCount < alertInstanceCount) {
+                alertStatus = AlertStatus.EXECUTION_PARTIAL_SUCCESS;
+            }
+            addAlertSendResult(new AlertSendResult(alertId, alertStatus, JSONUtils.toJsonString(alertResults),
+                    sendStatuses));
+        }
+    }
+
+    /**
+     * Send an alert to an alert plugin instance in its pool. The wait timeout starts when the sending starts, the
+     * sending is interrupted and the result is the timeout result if it doesn't finish in time, so it is either the
+     * send result or the timeout result, never both.
+     */
+    private final class AlertSending extends FutureTask<AlertResult> {
+
+        private final CompletableFuture<AlertResult> result = new CompletableFuture<>();
+
+        private final AlertPluginInstance instance;
+
+        private final AlertData alertData;
+
+        private volatile int waitTimeout;
+
+        private volatile long startTime;
+
+        private AlertSending(AlertPluginInstance instance, AlertData alertData) {
+            super(() -> AlertSenderService.this.doSendAlert(instance, alertData));
+            this.instance = instance;
+            this.alertData = alertData;
+        }
+
+        @Override
+        public void run() {
+            startTime = System.currentTimeMillis();
+            waitTimeout = alertConfig.getWaitTimeout();
+            if (waitTimeout > 0) {
+                try {
+                    alertSendScheduler.schedule(() -> {
+                        if (cancel(true)) {
+                            logger.error("send alert timeout alert data id :{}, timeout: {} ms", alertData.getId(),
+                                    waitTimeout);
+                        }
+                    }, waitTimeout, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    logger.warn("Alert sender is stopped, alert {} is sent without timeout", alertData.getId());
+                }
+            }
+            super.run();
+        }
+
+        @Override
+        protected void done() {
+            AlertResult alertResult;
+            if (isCancelled()) {
+                alertResult = new AlertResult("false", String.format("send alert timeout after %s ms", waitTimeout));
+            } else {
+                try {
+                    alertResult = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    alertResult = new AlertResult("false", e.getMessage());
+                }
+            }
+            AlertServerMetrics.recordAlertChannelSendTime(String.valueOf(instance.getInstanceName()),
+                    isSuccess(alertResult), System.currentTimeMillis() - startTime);
+            result.complete(alertResult);
+        }
+    }
+
+    /**
+     * The send result of an alert waiting to be written.
+     */
+    private static final class AlertSendResult {
+
+        private final int alertId;
+
+        private final AlertStatus alertStatus;
+
+        private final String log;
+
+        private final List<AlertSendStatus> sendStatuses;
+
+        private AlertSendResult(int alertId, AlertStatus alertStatus, String log,
+                                List<AlertSendStatus> sendStatuses) {
+            this.alertId = alertId;
+            this.alertStatus = alertStatus;
+            this.log = log;
+            this.sendStatuses = sendStatuses;
+        }
+    }
 }
@@ -17,11 +17,13 @@
 
 package org.apache.dolphinscheduler.alert;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -39,12 +41,45 @@ public class AlertServerMetrics {
                     .description("Alert failure count")
                     .register(Metrics.globalRegistry);
 
+    private final Counter alertRetryCounter =
+            Counter.builder("ds.alert.send.retry.count")
+                    .description("Alert send retry count")
+                    .register(Metrics.globalRegistry);
+
     public void registerPendingAlertGauge(final Supplier<Number> supplier) {
         Gauge.builder("ds.alert.pending", supplier)
                 .description("Number of pending alert")
                 .register(Metrics.globalRegistry);
     }
 
+    public void registerSendingAlertGauge(final Supplier<Number> supplier) {
+        Gauge.builder("ds.alert.sending", supplier)
+                .description("Number of alert being sent")
+                .register(Metrics.globalRegistry);
+    }
+
+    public void registerAlertChannelQueueGauge(final String pluginInstanceName, final Supplier<Number> supplier) {
+        Gauge.builder("ds.alert.channel.queue.size", supplier)
+                .tag("plugin_instance", pluginInstanceName)
+                .description("Number of alert waiting to be sent by the alert plugin instance")
+                .register(Metrics.globalRegistry);
+    }
+
+    public void recordAlertChannelSendTime(final String pluginInstanceName, final boolean success,
+                                           final long milliseconds) {
+        Timer.builder("ds.alert.channel.send.duration")
+                .tag("plugin_instance", pluginInstanceName)
+                .tag("status", success ? "success" : "fail")
+                .publishPercentiles(0.5, 0.75, 0.95, 0.99)
+                .description("Time cost of sending an alert by the alert plugin instance")
+                .register(Metrics.globalRegistry)
+                .record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    public void incAlertRetryCount() {
+        alertRetryCounter.increment();
+    }
+
     public void incAlertSuccessCount() {
         alertSuccessCounter.increment();
     }
@@ -25,21 +25,29 @@ import org.apache.dolphinscheduler.alert.AlertPluginManager;
 import org.apache.dolphinscheduler.alert.AlertSenderService;
 import org.apache.dolphinscheduler.alert.api.AlertChannel;
 import org.apache.dolphinscheduler.alert.api.AlertResult;
+import org.apache.dolphinscheduler.common.enums.AlertStatus;
+import org.apache.dolphinscheduler.common.enums.AlertType;
 import org.apache.dolphinscheduler.common.enums.WarningType;
 import org.apache.dolphinscheduler.dao.AlertDao;
 import org.apache.dolphinscheduler.dao.PluginDao;
 import org.apache.dolphinscheduler.dao.entity.Alert;
 import org.apache.dolphinscheduler.dao.entity.AlertPluginInstance;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 import org.apache.dolphinscheduler.dao.entity.PluginDefine;
 import org.apache.dolphinscheduler.remote.command.alert.AlertSendResponseCommand;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -185,4 +193,130 @@ public class AlertSenderServiceTest {
         when(alertDao.listInstanceByAlertGroupId(1)).thenReturn(new ArrayList<>());
         alertSenderService.send(alertList);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSendInParallelWithRetry() {
+        when(alertConfig.getSenderThreads()).thenReturn(2);
+        when(alertConfig.getSenderQueueCapacity()).thenReturn(10);
+        when(alertConfig.getMaxRetryTimes()).thenReturn(1);
+        when(alertConfig.getRetryInterval()).thenReturn(10);
+        when(alertConfig.getAlertGroupCacheExpire()).thenReturn(60);
+        AlertSenderService sender = new AlertSenderService(alertDao, alertPluginManager, alertConfig);
+
+        int alertGroupId = 1;
+        Alert alert = new Alert();
+        alert.setId(1);
+        alert.setAlertGroupId(alertGroupId);
+        alert.setTitle("alert mail test title");
+        alert.setContent("alert mail test content");
+        alert.setWarningType(WarningType.FAILURE);
+        alert.setAlertType(AlertType.PROCESS_INSTANCE_FAILURE);
+
+        AlertPluginInstance mailInstance = new AlertPluginInstance(1, null, "alert-instance-mail");
+        mailInstance.setId(1);
+        AlertPluginInstance httpInstance = new AlertPluginInstance(2, null, "alert-instance-http");
+        httpInstance.setId(2);
+        when(alertDao.listInstanceByAlertGroupId(alertGroupId)).thenReturn(Arrays.asList(mailInstance, httpInstance));
+
+        // the mail plugin fails at the first time, then succeeds after retry
+        AlertChannel mailChannel = mock(AlertChannel.class);
+        when(mailChannel.process(Mockito.any())).thenReturn(new AlertResult("false", "connect timeout"),
+                new AlertResult("true", "success"));
+        AlertChannel httpChannel = mock(AlertChannel.class);
+        when(httpChannel.process(Mockito.any())).thenReturn(new AlertResult("true", "success"));
+        when(alertPluginManager.getAlertChannel(1)).thenReturn(Optional.of(mailChannel));
+        when(alertPluginManager.getAlertChannel(2)).thenReturn(Optional.of(httpChannel));
+
+        sender.send(Collections.singletonList(alert));
+        // the alert being sent is skipped
+        sender.send(Collections.singletonList(alert));
+
+        ArgumentCaptor<List<Alert>> alertsCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<AlertSendStatus>> sendStatusesCaptor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(alertDao, Mockito.timeout(5000)).saveAlertSendResults(alertsCaptor.capture(),
+                sendStatusesCaptor.capture());
+        Assert.assertEquals(1, alertsCaptor.getValue().size());
+        Assert.assertEquals(AlertStatus.EXECUTION_SUCCESS, alertsCaptor.getValue().get(0).getAlertStatus());
+        Assert.assertEquals(2, sendStatusesCaptor.getValue().size());
+        Mockito.verify(mailChannel, Mockito.times(2)).process(Mockito.any());
+        Mockito.verify(httpChannel, Mockito.times(1)).process(Mockito.any());
+        Mockito.verify(alertDao, Mockito.times(1)).listInstanceByAlertGroupId(alertGroupId);
+
+        // the alert plugin instances bound to the alert group are cached
+        Alert anotherAlert = new Alert();
+        anotherAlert.setId(2);
+        anotherAlert.setAlertGroupId(alertGroupId);
+        anotherAlert.setTitle("alert mail test title");
+        anotherAlert.setContent("alert mail test content");
+        anotherAlert.setWarningType(WarningType.FAILURE);
+        anotherAlert.setAlertType(AlertType.PROCESS_INSTANCE_FAILURE);
+        sender.send(Collections.singletonList(anotherAlert));
+        Mockito.verify(alertDao, Mockito.timeout(5000).times(2)).saveAlertSendResults(Mockito.any(), Mockito.any());
+        Mockito.verify(alertDao, Mockito.times(1)).listInstanceByAlertGroupId(alertGroupId);
+        sender.close();
+    }
+
+    @Test
+    public void testSyncHandlerTimeout() {
+        int alertGroupId = 1;
+        AlertPluginInstance alertPluginInstance = new AlertPluginInstance(1, null, "alert-instance-slow");
+        alertPluginInstance.setId(1);
+        when(alertDao.listInstanceByAlertGroupId(alertGroupId))
+                .thenReturn(Collections.singletonList(alertPluginInstance));
+        AlertChannel slowChannel = mock(AlertChannel.class);
+        when(slowChannel.process(Mockito.any())).thenAnswer(invocation -> {
+            Thread.sleep(3000);
+            return new AlertResult("true", "success");
+        });
+        when(alertPluginManager.getAlertChannel(1)).thenReturn(Optional.of(slowChannel));
+        when(alertConfig.getWaitTimeout()).thenReturn(100);
+
+        long startTime = System.currentTimeMillis();
+        AlertSendResponseCommand alertSendResponseCommand =
+                alertSenderService.syncHandler(alertGroupId, "title", "content", WarningType.ALL.getCode());
+        Assert.assertTrue(System.currentTimeMillis() - startTime < 3000);
+        Assert.assertFalse(alertSendResponseCommand.isSuccess());
+        Assert.assertTrue(alertSendResponseCommand.getResResults().get(0).getMessage().contains("timeout"));
+    }
+
+    @Test
+    public void testTimeoutSendingIsInterrupted() throws InterruptedException {
+        when(alertConfig.getSenderThreads()).thenReturn(1);
+        when(alertConfig.getSenderQueueCapacity()).thenReturn(1);
+        when(alertConfig.getAlertGroupCacheExpire()).thenReturn(60);
+        when(alertConfig.getWaitTimeout()).thenReturn(100);
+        AlertSenderService sender = new AlertSenderService(alertDao, alertPluginManager, alertConfig);
+
+        int alertGroupId = 1;
+        AlertPluginInstance alertPluginInstance = new AlertPluginInstance(1, null, "alert-instance-hanging");
+        alertPluginInstance.setId(1);
+        when(alertDao.listInstanceByAlertGroupId(alertGroupId))
+                .thenReturn(Collections.singletonList(alertPluginInstance));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AlertChannel hangingChannel = mock(AlertChannel.class);
+        when(hangingChannel.process(Mockito.any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return new AlertResult("true", "success");
+        }).thenReturn(new AlertResult("true", "success"));
+        when(alertPluginManager.getAlertChannel(1)).thenReturn(Optional.of(hangingChannel));
+
+        long startTime = System.currentTimeMillis();
+        AlertSendResponseCommand alertSendResponseCommand =
+                sender.syncHandler(alertGroupId, "title", "content", WarningType.ALL.getCode());
+        Assert.assertFalse(alertSendResponseCommand.isSuccess());
+        Assert.assertTrue(alertSendResponseCommand.getResResults().get(0).getMessage().contains("timeout"));
+        Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+        // the only thread of the alert plugin instance is released by the interruption
+        alertSendResponseCommand = sender.syncHandler(alertGroupId, "title", "content", WarningType.ALL.getCode());
+        Assert.assertTrue(alertSendResponseCommand.isSuccess());
+        Assert.assertTrue(System.currentTimeMillis() - startTime < 5000);
+        sender.close();
+    }
 }
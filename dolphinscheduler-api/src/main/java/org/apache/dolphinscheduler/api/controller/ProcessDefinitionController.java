@@ -723,11 +723,13 @@ public class ProcessDefinitionController extends BaseController {
      * @param loginUser login user
      * @param projectCode project code
      * @param codes process definition codes
+     * @param compress whether to compress the response by gzip
      * @param response response
      */
     @ApiOperation(value = "batchExportByCodes", notes = "BATCH_EXPORT_PROCESS_DEFINITION_BY_CODES_NOTES")
     @ApiImplicitParams({
-            @ApiImplicitParam(name = "codes", value = "PROCESS_DEFINITION_CODE", required = true, dataTypeClass = String.class)
+            @ApiImplicitParam(name = "codes", value = "PROCESS_DEFINITION_CODE", required = true, dataTypeClass = String.class),
+            @ApiImplicitParam(name = "compress", value = "EXPORT_COMPRESS", required = false, dataTypeClass = boolean.class, example = "false")
     })
     @PostMapping(value = "/batch-export")
     @ResponseBody
@@ -735,9 +737,11 @@ public class ProcessDefinitionController extends BaseController {
     public void batchExportProcessDefinitionByCodes(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
                                                     @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
                                                     @RequestParam("codes") String codes,
+                                                    @RequestParam(value = "compress", required = false, defaultValue = "false") boolean compress,
                                                     HttpServletResponse response) {
         try {
-            processDefinitionService.batchExportProcessDefinitionByCodes(loginUser, projectCode, codes, response);
+            processDefinitionService.batchExportProcessDefinitionByCodes(loginUser, projectCode, codes, compress,
+                    response);
         } catch (Exception e) {
             logger.error(Status.BATCH_EXPORT_PROCESS_DEFINE_BY_IDS_ERROR.getMsg(), e);
         }
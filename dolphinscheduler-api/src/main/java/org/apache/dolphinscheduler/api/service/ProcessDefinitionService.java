@@ -236,11 +236,13 @@ public interface ProcessDefinitionService {
      * @param loginUser login user
      * @param projectCode project code
      * @param codes process definition codes
+     * @param compress whether to compress the response by gzip
      * @param response http servlet response
      */
     void batchExportProcessDefinitionByCodes(User loginUser,
                                              long projectCode,
                                              String codes,
+                                             boolean compress,
                                              HttpServletResponse response);
 
     /**
@@ -248,7 +250,7 @@ public interface ProcessDefinitionService {
      *
      * @param loginUser login user
      * @param projectCode project code
-     * @param file process metadata json file
+     * @param file process metadata json file, may be compressed by gzip
      * @return import process
      */
     Map<String, Object> importProcessDefinition(User loginUser,
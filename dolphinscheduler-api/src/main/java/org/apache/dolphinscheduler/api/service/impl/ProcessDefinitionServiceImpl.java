@@ -56,7 +56,6 @@ import org.apache.dolphinscheduler.api.service.ProjectService;
 import org.apache.dolphinscheduler.api.service.SchedulerService;
 import org.apache.dolphinscheduler.api.service.WorkFlowLineageService;
 import org.apache.dolphinscheduler.api.utils.CheckUtils;
-import org.apache.dolphinscheduler.api.utils.FileUtils;
 import org.apache.dolphinscheduler.api.utils.PageInfo;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.constants.Constants;
@@ -70,7 +69,6 @@ import org.apache.dolphinscheduler.common.enums.TimeoutFlag;
 import org.apache.dolphinscheduler.common.enums.UserType;
 import org.apache.dolphinscheduler.common.enums.WarningType;
 import org.apache.dolphinscheduler.common.graph.DAG;
-import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
 import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
 import org.apache.dolphinscheduler.common.utils.CodeGenerateUtils;
 import org.apache.dolphinscheduler.common.utils.CodeGenerateUtils.CodeGenerateException;
@@ -119,10 +117,13 @@ import org.apache.dolphinscheduler.service.task.TaskPluginManager;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -137,13 +138,14 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
-import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 
 import lombok.NonNull;
@@ -152,17 +154,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Lists;
 
 /**
@@ -175,6 +184,18 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
 
     private static final String RELEASESTATE = "releaseState";
 
+    /**
+     * the number of process definitions queried at a time when exporting
+     */
+    private static final int EXPORT_BATCH_SIZE = 100;
+
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * the number of process definitions imported in one transaction
+     */
+    private static final int IMPORT_BATCH_SIZE = 100;
+
     @Autowired
     private ProjectMapper projectMapper;
 
@@ -233,6 +254,18 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
     @Autowired
     private WorkFlowLineageService workFlowLineageService;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * The tree views of the finished process instances, bounded by the count of the instances in them.
+     */
+    private final Cache<String, TreeViewCacheEntry> treeViewCache = CacheBuilder.newBuilder()
+            .maximumWeight(1_000_000)
+            .weigher((String key, TreeViewCacheEntry entry) -> entry.weight)
+            .expireAfterWrite(10, TimeUnit.MINUTES)
+            .build();
+
     /**
      * create process definition
      *
@@ -997,7 +1030,7 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
      * batch export process definition by codes
      */
     @Override
-    public void batchExportProcessDefinitionByCodes(User loginUser, long projectCode, String codes,
+    public void batchExportProcessDefinitionByCodes(User loginUser, long projectCode, String codes, boolean compress,
                                                     HttpServletResponse response) {
         if (StringUtils.isEmpty(codes)) {
             return;
@@ -1011,46 +1044,41 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         }
         Set<Long> defineCodeSet = Lists.newArrayList(codes.split(Constants.COMMA)).stream().map(Long::parseLong)
                 .collect(Collectors.toSet());
-        List<ProcessDefinition> processDefinitionList = processDefinitionMapper.queryByCodes(defineCodeSet);
-        if (CollectionUtils.isEmpty(processDefinitionList)) {
-            return;
-        }
-        // check processDefinition exist in project
-        List<ProcessDefinition> processDefinitionListInProject = processDefinitionList.stream()
-                .filter(o -> projectCode == o.getProjectCode()).collect(Collectors.toList());
-        List<DagDataSchedule> dagDataSchedules =
-                processDefinitionListInProject.stream().map(this::exportProcessDagData).collect(Collectors.toList());
-        if (CollectionUtils.isNotEmpty(dagDataSchedules)) {
-            downloadProcessDefinitionFile(response, dagDataSchedules);
-        }
+        downloadProcessDefinitionFile(response, projectCode, defineCodeSet, compress);
     }
 
     /**
-     * download the process definition file
+     * Download the process definition file, the process definitions are queried in batches and written one by one,
+     * so the whole file is never kept in memory. Nothing is written if none of the process definitions exists in
+     * the project.
      */
-    protected void downloadProcessDefinitionFile(HttpServletResponse response, List<DagDataSchedule> dagDataSchedules) {
-        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
-        BufferedOutputStream buff = null;
-        ServletOutputStream out = null;
+    protected void downloadProcessDefinitionFile(HttpServletResponse response, long projectCode,
+                                                 Collection<Long> codes, boolean compress) {
+        JsonGenerator generator = null;
         try {
-            out = response.getOutputStream();
-            buff = new BufferedOutputStream(out);
-            buff.write(JSONUtils.toJsonString(dagDataSchedules).getBytes(StandardCharsets.UTF_8));
-            buff.flush();
-            buff.close();
+            for (List<Long> batchCodes : Lists.partition(new ArrayList<>(codes), EXPORT_BATCH_SIZE)) {
+                for (ProcessDefinition processDefinition : processDefinitionMapper.queryByCodes(batchCodes)) {
+                    // check processDefinition exist in project
+                    if (projectCode != processDefinition.getProjectCode()) {
+                        continue;
+                    }
+                    if (generator == null) {
+                        generator = createExportGenerator(response, compress);
+                        generator.writeStartArray();
+                    }
+                    generator.writeObject(exportProcessDagData(processDefinition));
+                }
+            }
+            if (generator != null) {
+                generator.writeEndArray();
+            }
         } catch (IOException e) {
             logger.warn("export process fail", e);
         } finally {
-            if (null != buff) {
+            if (generator != null) {
                 try {
-                    buff.close();
-                } catch (Exception e) {
-                    logger.warn("export process buffer not close", e);
-                }
-            }
-            if (null != out) {
-                try {
-                    out.close();
+                    // close the gzip and servlet output stream as well
+                    generator.close();
                 } catch (Exception e) {
                     logger.warn("export process output stream not close", e);
                 }
@@ -1058,6 +1086,18 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
         }
     }
 
+    private JsonGenerator createExportGenerator(HttpServletResponse response, boolean compress) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        OutputStream out = response.getOutputStream();
+        if (compress) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            out = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE);
+        } else {
+            out = new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+        }
+        return JSONUtils.createGenerator(out);
+    }
+
     /**
      * get export process dag data
      *
@@ -1075,7 +1115,8 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
     }
 
     /**
-     * import process definition
+     * Import process definition, the file is parsed incrementally and the process definitions are imported in
+     * transactions of {@link #IMPORT_BATCH_SIZE} process definitions, the file may be compressed by gzip.
      *
      * @param loginUser login user
      * @param projectCode project code
@@ -1083,29 +1124,74 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
      * @return import process
      */
     @Override
-    @Transactional
     public Map<String, Object> importProcessDefinition(User loginUser, long projectCode, MultipartFile file) {
         Map<String, Object> result;
-        String dagDataScheduleJson = FileUtils.file2String(file);
-        List<DagDataSchedule> dagDataScheduleList = JSONUtils.toList(dagDataScheduleJson, DagDataSchedule.class);
         Project project = projectMapper.queryByCode(projectCode);
         result = projectService.checkProjectAndAuth(loginUser, project, projectCode, WORKFLOW_EXPORT);
         if (result.get(Constants.STATUS) != Status.SUCCESS) {
             return result;
         }
-        // check file content
-        if (CollectionUtils.isEmpty(dagDataScheduleList)) {
-            putMsg(result, Status.DATA_IS_NULL, "fileContent");
-            return result;
-        }
-        for (DagDataSchedule dagDataSchedule : dagDataScheduleList) {
-            if (!checkAndImport(loginUser, projectCode, result, dagDataSchedule, EMPTY_STRING)) {
+        int importedCount = 0;
+        try (JsonParser parser = JSONUtils.createParser(openImportStream(file))) {
+            if (parser.nextToken() == JsonToken.START_ARRAY) {
+                List<DagDataSchedule> dagDataSchedules = new ArrayList<>(IMPORT_BATCH_SIZE);
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    dagDataSchedules.add(parser.readValueAs(DagDataSchedule.class));
+                    if (dagDataSchedules.size() >= IMPORT_BATCH_SIZE) {
+                        if (!importProcessDefinitions(loginUser, projectCode, result, dagDataSchedules)) {
+                            return result;
+                        }
+                        importedCount += dagDataSchedules.size();
+                        dagDataSchedules.clear();
+                    }
+                }
+                if (!dagDataSchedules.isEmpty()) {
+                    if (!importProcessDefinitions(loginUser, projectCode, result, dagDataSchedules)) {
+                        return result;
+                    }
+                    importedCount += dagDataSchedules.size();
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Read process definition file error, projectCode:{}, imported:{}.", projectCode,
+                    importedCount, e);
+            if (importedCount > 0) {
+                putMsg(result, Status.IMPORT_PROCESS_DEFINE_ERROR);
                 return result;
             }
         }
+        // check file content
+        if (importedCount == 0) {
+            putMsg(result, Status.DATA_IS_NULL, "fileContent");
+        }
         return result;
     }
 
+    /**
+     * import the process definitions in one transaction
+     */
+    private boolean importProcessDefinitions(User loginUser, long projectCode, Map<String, Object> result,
+                                             List<DagDataSchedule> dagDataSchedules) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            for (DagDataSchedule dagDataSchedule : dagDataSchedules) {
+                if (!checkAndImport(loginUser, projectCode, result, dagDataSchedule, EMPTY_STRING)) {
+                    // roll back the process definitions imported before
+                    status.setRollbackOnly();
+                    return false;
+                }
+            }
+            return true;
+        }));
+    }
+
+    private InputStream openImportStream(MultipartFile file) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(file.getInputStream());
+        in.mark(2);
+        int magic = in.read() | (in.read() << 8);
+        in.reset();
+        return magic == GZIPInputStream.GZIP_MAGIC ? new GZIPInputStream(in) : in;
+    }
+
     @Override
     @Transactional
     public Map<String, Object> importSqlProcessDefinition(User loginUser, long projectCode, MultipartFile file) {
@@ -1724,32 +1810,77 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
             putMsg(result, Status.PROCESS_DEFINE_NOT_EXIST, String.valueOf(code));
             return result;
         }
-        DAG<String, TaskNode, TaskNodeRelation> dag = processService.genDagGraph(processDefinition);
-        // nodes that is running
-        Map<String, List<TreeViewDto>> runningNodeMap = new ConcurrentHashMap<>();
-
-        // nodes that is waiting to run
-        Map<String, List<TreeViewDto>> waitingRunningNodeMap = new ConcurrentHashMap<>();
-
-        // List of process instances
+        // List of process instances, the latest first
         List<ProcessInstance> processInstanceList = processInstanceService.queryByProcessDefineCode(code, limit);
-        processInstanceList.forEach(processInstance -> processInstance
-                .setDuration(DateUtils.format2Duration(processInstance.getStartTime(), processInstance.getEndTime())));
-        List<TaskDefinitionLog> taskDefinitionList = processService.genTaskDefineList(processTaskRelationMapper
-                .queryByProcessCode(processDefinition.getProjectCode(), processDefinition.getCode()));
-        Map<Long, TaskDefinitionLog> taskDefinitionMap = taskDefinitionList.stream()
-                .collect(Collectors.toMap(TaskDefinitionLog::getCode, taskDefinitionLog -> taskDefinitionLog));
-
         if (limit > processInstanceList.size()) {
             limit = processInstanceList.size();
         }
+        processInstanceList = processInstanceList.subList(0, limit);
+
+        String cacheKey = treeViewCacheKey(processDefinition, processInstanceList);
+        TreeViewCacheEntry cacheEntry = cacheKey == null ? null : treeViewCache.getIfPresent(cacheKey);
+        TreeViewDto parentTreeViewDto;
+        if (cacheEntry != null) {
+            parentTreeViewDto = cacheEntry.tree;
+        } else {
+            DAG<String, TaskNode, TaskNodeRelation> dag = processService.genDagGraph(processDefinition);
+            int nodeCount = dag.getNodesCount();
+            parentTreeViewDto = buildTreeView(dag, processInstanceList);
+            if (cacheKey != null) {
+                treeViewCache.put(cacheKey, new TreeViewCacheEntry(parentTreeViewDto, (nodeCount + 1) * (limit + 1)));
+            }
+        }
+        result.put(Constants.DATA_LIST, parentTreeViewDto);
+        result.put(Constants.STATUS, Status.SUCCESS);
+        result.put(Constants.MSG, Status.SUCCESS.getMsg());
+        return result;
+    }
+
+    /**
+     * The tree view only changes with the definition version, the process instances and their task instances, so it
+     * can be cached when all the process instances are finished. The states of the task instances are a part of the
+     * key, since they can still be changed after the process instance is finished, e.g. forced success. The key is
+     * null if the tree view should not be cached.
+     */
+    private String treeViewCacheKey(ProcessDefinition processDefinition, List<ProcessInstance> processInstanceList) {
+        if (processInstanceList.isEmpty()) {
+            return null;
+        }
+        // the instances may be rerun, so the end time is a part of the key as well as the latest instance id
+        int instancesHash = 1;
+        for (ProcessInstance processInstance : processInstanceList) {
+            if (processInstance.getState() == null || !processInstance.getState().isFinished()
+                    || processInstance.getEndTime() == null) {
+                return null;
+            }
+            instancesHash = 31 * instancesHash
+                    + Objects.hash(processInstance.getId(), processInstance.getEndTime().getTime());
+        }
+        int taskInstancesHash = 1;
+        List<Integer> processInstanceIds =
+                processInstanceList.stream().map(ProcessInstance::getId).collect(Collectors.toList());
+        for (TaskInstance taskInstance : taskInstanceMapper.queryStatesByProcessInstanceIds(processInstanceIds)) {
+            taskInstancesHash = 31 * taskInstancesHash + Objects.hash(taskInstance.getId(),
+                    taskInstance.getTaskCode(), taskInstance.getProcessInstanceId(), taskInstance.getState(),
+                    taskInstance.getStartTime(), taskInstance.getEndTime(), taskInstance.getHost());
+        }
+        return processDefinition.getCode() + "_" + processDefinition.getVersion() + "_"
+                + processInstanceList.size() + "_" + processInstanceList.get(0).getId() + "_" + instancesHash + "_"
+                + taskInstancesHash;
+    }
 
+    /**
+     * Build the tree view with one query of the task instances, which are indexed by task code and process instance
+     * id. Every task node is built once and shared by its upstream nodes.
+     */
+    private TreeViewDto buildTreeView(DAG<String, TaskNode, TaskNodeRelation> dag,
+                                      List<ProcessInstance> processInstanceList) {
         TreeViewDto parentTreeViewDto = new TreeViewDto();
         parentTreeViewDto.setName("DAG");
         parentTreeViewDto.setType("");
         parentTreeViewDto.setCode(0L);
         // Specify the process definition, because it is a TreeView for a process definition
-        for (int i = limit - 1; i >= 0; i--) {
+        for (int i = processInstanceList.size() - 1; i >= 0; i--) {
             ProcessInstance processInstance = processInstanceList.get(i);
             Date endTime = processInstance.getEndTime() == null ? new Date() : processInstance.getEndTime();
             parentTreeViewDto.getInstances()
@@ -1760,93 +1891,95 @@ public class ProcessDefinitionServiceImpl extends BaseServiceImpl implements Pro
                             DateUtils.format2Readable(endTime.getTime() - processInstance.getStartTime().getTime())));
         }
 
-        List<TreeViewDto> parentTreeViewDtoList = new ArrayList<>();
-        parentTreeViewDtoList.add(parentTreeViewDto);
-        // Here is the encapsulation task instance
+        // the nodes reachable from the begin nodes, in breadth-first order
+        List<String> nodeCodes = new ArrayList<>(dag.getNodesCount());
+        Set<String> visitedNodeCodes = new HashSet<>();
         for (String startNode : dag.getBeginNode()) {
-            runningNodeMap.put(startNode, parentTreeViewDtoList);
-        }
-
-        while (!ServerLifeCycleManager.isStopped()) {
-            Set<String> postNodeList;
-            Set<Map.Entry<String, List<TreeViewDto>>> entries = runningNodeMap.entrySet();
-            List<Integer> processInstanceIds = processInstanceList.stream()
-                    .limit(limit).map(ProcessInstance::getId).collect(Collectors.toList());
-            List<Long> nodeCodes = entries.stream().map(e -> Long.parseLong(e.getKey())).collect(Collectors.toList());
-            List<TaskInstance> taskInstances;
-            if (processInstanceIds.isEmpty() || nodeCodes.isEmpty()) {
-                taskInstances = Collections.emptyList();
-            } else {
-                taskInstances = taskInstanceMapper.queryByProcessInstanceIdsAndTaskCodes(processInstanceIds, nodeCodes);
+            if (visitedNodeCodes.add(startNode)) {
+                nodeCodes.add(startNode);
             }
-            for (Map.Entry<String, List<TreeViewDto>> en : entries) {
-                String nodeCode = en.getKey();
-                parentTreeViewDtoList = en.getValue();
-
-                TreeViewDto treeViewDto = new TreeViewDto();
-                TaskNode taskNode = dag.getNode(nodeCode);
-                treeViewDto.setType(taskNode.getType());
-                treeViewDto.setCode(taskNode.getCode());
-                treeViewDto.setName(taskNode.getName());
-                // set treeViewDto instances
-                for (int i = limit - 1; i >= 0; i--) {
-                    ProcessInstance processInstance = processInstanceList.get(i);
-                    TaskInstance taskInstance = null;
-                    for (TaskInstance instance : taskInstances) {
-                        if (instance.getTaskCode() == Long.parseLong(nodeCode)
-                                && instance.getProcessInstanceId() == processInstance.getId()) {
-                            taskInstance = instance;
-                            break;
-                        }
-                    }
-                    if (taskInstance == null) {
-                        treeViewDto.getInstances().add(new Instance(-1, "not running", 0, "null"));
-                    } else {
-                        Date startTime = taskInstance.getStartTime() == null ? new Date() : taskInstance.getStartTime();
-                        Date endTime = taskInstance.getEndTime() == null ? new Date() : taskInstance.getEndTime();
-
-                        long subProcessCode = 0L;
-                        // if process is sub process, the return sub id, or sub id=0
-                        if (taskInstance.isSubProcess()) {
-                            TaskDefinition taskDefinition = taskDefinitionMap.get(taskInstance.getTaskCode());
-                            subProcessCode = Long.parseLong(JSONUtils.parseObject(
-                                    taskDefinition.getTaskParams()).path(CMD_PARAM_SUB_PROCESS_DEFINE_CODE).asText());
-                        }
-                        treeViewDto.getInstances().add(new Instance(taskInstance.getId(), taskInstance.getName(),
-                                taskInstance.getTaskCode(),
-                                taskInstance.getTaskType(), taskInstance.getState().name(),
-                                taskInstance.getStartTime(), taskInstance.getEndTime(),
-                                taskInstance.getHost(),
-                                DateUtils.format2Readable(endTime.getTime() - startTime.getTime()), subProcessCode));
-                    }
+        }
+        for (int i = 0; i < nodeCodes.size(); i++) {
+            for (String postNode : dag.getSubsequentNodes(nodeCodes.get(i))) {
+                if (visitedNodeCodes.add(postNode)) {
+                    nodeCodes.add(postNode);
                 }
-                for (TreeViewDto pTreeViewDto : parentTreeViewDtoList) {
-                    pTreeViewDto.getChildren().add(treeViewDto);
+            }
+        }
+
+        Map<Long, Map<Integer, TaskInstance>> taskInstanceIndex = new HashMap<>();
+        if (!processInstanceList.isEmpty() && !nodeCodes.isEmpty()) {
+            List<Integer> processInstanceIds =
+                    processInstanceList.stream().map(ProcessInstance::getId).collect(Collectors.toList());
+            List<Long> taskCodes = nodeCodes.stream().map(Long::parseLong).collect(Collectors.toList());
+            for (TaskInstance taskInstance : taskInstanceMapper.queryByProcessInstanceIdsAndTaskCodes(
+                    processInstanceIds, taskCodes)) {
+                taskInstanceIndex.computeIfAbsent(taskInstance.getTaskCode(), k -> new HashMap<>())
+                        .putIfAbsent(taskInstance.getProcessInstanceId(), taskInstance);
+            }
+        }
+
+        Map<String, TreeViewDto> treeViewDtoMap = new HashMap<>();
+        for (String nodeCode : nodeCodes) {
+            TaskNode taskNode = dag.getNode(nodeCode);
+            TreeViewDto treeViewDto = new TreeViewDto();
+            treeViewDto.setType(taskNode.getType());
+            treeViewDto.setCode(taskNode.getCode());
+            treeViewDto.setName(taskNode.getName());
+            Map<Integer, TaskInstance> nodeTaskInstances =
+                    taskInstanceIndex.getOrDefault(taskNode.getCode(), Collections.emptyMap());
+            Long subProcessCode = null;
+            // set treeViewDto instances
+            for (int i = processInstanceList.size() - 1; i >= 0; i--) {
+                TaskInstance taskInstance = nodeTaskInstances.get(processInstanceList.get(i).getId());
+                if (taskInstance == null) {
+                    treeViewDto.getInstances().add(new Instance(-1, "not running", 0, "null"));
+                    continue;
                 }
-                postNodeList = dag.getSubsequentNodes(nodeCode);
-                if (CollectionUtils.isNotEmpty(postNodeList)) {
-                    for (String nextNodeCode : postNodeList) {
-                        List<TreeViewDto> treeViewDtoList = waitingRunningNodeMap.get(nextNodeCode);
-                        if (CollectionUtils.isEmpty(treeViewDtoList)) {
-                            treeViewDtoList = new ArrayList<>();
-                        }
-                        treeViewDtoList.add(treeViewDto);
-                        waitingRunningNodeMap.put(nextNodeCode, treeViewDtoList);
-                    }
+                Date startTime = taskInstance.getStartTime() == null ? new Date() : taskInstance.getStartTime();
+                Date endTime = taskInstance.getEndTime() == null ? new Date() : taskInstance.getEndTime();
+                // if process is sub process, the return sub id, or sub id=0
+                if (subProcessCode == null) {
+                    subProcessCode = taskInstance.isSubProcess()
+                            ? Long.parseLong(JSONUtils.parseObject(taskNode.getParams())
+                                    .path(CMD_PARAM_SUB_PROCESS_DEFINE_CODE).asText())
+                            : 0L;
                 }
-                runningNodeMap.remove(nodeCode);
+                treeViewDto.getInstances().add(new Instance(taskInstance.getId(), taskInstance.getName(),
+                        taskInstance.getTaskCode(),
+                        taskInstance.getTaskType(), taskInstance.getState().name(),
+                        taskInstance.getStartTime(), taskInstance.getEndTime(),
+                        taskInstance.getHost(),
+                        DateUtils.format2Readable(endTime.getTime() - startTime.getTime()), subProcessCode));
             }
-            if (waitingRunningNodeMap.size() == 0) {
-                break;
-            } else {
-                runningNodeMap.putAll(waitingRunningNodeMap);
-                waitingRunningNodeMap.clear();
+            treeViewDtoMap.put(nodeCode, treeViewDto);
+        }
+
+        for (String startNode : dag.getBeginNode()) {
+            parentTreeViewDto.getChildren().add(treeViewDtoMap.get(startNode));
+        }
+        for (String nodeCode : nodeCodes) {
+            List<TreeViewDto> children = treeViewDtoMap.get(nodeCode).getChildren();
+            for (String postNode : dag.getSubsequentNodes(nodeCode)) {
+                children.add(treeViewDtoMap.get(postNode));
             }
         }
-        result.put(Constants.DATA_LIST, parentTreeViewDto);
-        result.put(Constants.STATUS, Status.SUCCESS);
-        result.put(Constants.MSG, Status.SUCCESS.getMsg());
-        return result;
+        return parentTreeViewDto;
+    }
+
+    /**
+     * The cached tree view, the weight is about the count of the instances in it.
+     */
+    private static final class TreeViewCacheEntry {
+
+        private final TreeViewDto tree;
+
+        private final int weight;
+
+        private TreeViewCacheEntry(TreeViewDto tree, int weight) {
+            this.tree = tree;
+            this.weight = weight;
+        }
     }
 
     /**
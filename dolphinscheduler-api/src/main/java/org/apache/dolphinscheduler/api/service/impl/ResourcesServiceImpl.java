@@ -64,6 +64,7 @@ import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.rmi.ServerException;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -727,10 +728,8 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
         }
         // query tenant
         String tenantCode = tenantMapper.queryById(loginUser.getTenantId()).getTenantCode();
-        // random file name
-        String localFilename = FileUtils.getUploadFilename(tenantCode, UUID.randomUUID().toString());
 
-        // save file to hdfs, and delete original file
+        // stream the file to the storage without a local copy
         String fileName = storageOperate.getFileName(type, tenantCode, fullName);
         String resourcePath = storageOperate.getDir(type, tenantCode);
         try {
@@ -738,10 +737,10 @@ public class ResourcesServiceImpl extends BaseServiceImpl implements ResourcesSe
             if (!storageOperate.exists(tenantCode, resourcePath)) {
                 storageOperate.createTenantDirIfNotExists(tenantCode);
             }
-            org.apache.dolphinscheduler.api.utils.FileUtils.copyInputStreamToFile(file, localFilename);
-            storageOperate.upload(tenantCode, localFilename, fileName, true, true);
+            try (InputStream inputStream = file.getInputStream()) {
+                storageOperate.upload(tenantCode, inputStream, file.getSize(), fileName, true);
+            }
         } catch (Exception e) {
-            FileUtils.deleteFile(localFilename);
             logger.error(e.getMessage(), e);
             return false;
         }
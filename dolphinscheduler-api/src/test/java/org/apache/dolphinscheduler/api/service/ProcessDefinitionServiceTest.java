@@ -22,6 +22,7 @@ import static org.apache.dolphinscheduler.api.constants.ApiFuncIdentificationCon
 import static org.apache.dolphinscheduler.api.constants.ApiFuncIdentificationConstant.WORKFLOW_CREATE;
 import static org.apache.dolphinscheduler.api.constants.ApiFuncIdentificationConstant.WORKFLOW_DEFINITION;
 import static org.apache.dolphinscheduler.api.constants.ApiFuncIdentificationConstant.WORKFLOW_DEFINITION_DELETE;
+import static org.apache.dolphinscheduler.api.constants.ApiFuncIdentificationConstant.WORKFLOW_DEFINITION_EXPORT;
 import static org.apache.dolphinscheduler.api.constants.ApiFuncIdentificationConstant.WORKFLOW_IMPORT;
 import static org.apache.dolphinscheduler.api.constants.ApiFuncIdentificationConstant.WORKFLOW_TREE_VIEW;
 import static org.apache.dolphinscheduler.api.constants.ApiFuncIdentificationConstant.WORKFLOW_UPDATE;
@@ -30,7 +31,9 @@ import static org.apache.dolphinscheduler.common.constants.Constants.DEFAULT;
 import static org.apache.dolphinscheduler.common.constants.Constants.EMPTY_STRING;
 import static org.mockito.ArgumentMatchers.isA;
 
+import org.apache.dolphinscheduler.api.dto.DagDataSchedule;
 import org.apache.dolphinscheduler.api.enums.Status;
+import org.apache.dolphinscheduler.api.dto.treeview.TreeViewDto;
 import org.apache.dolphinscheduler.api.exceptions.ServiceException;
 import org.apache.dolphinscheduler.api.service.impl.ProcessDefinitionServiceImpl;
 import org.apache.dolphinscheduler.api.service.impl.ProjectServiceImpl;
@@ -41,17 +44,21 @@ import org.apache.dolphinscheduler.common.enums.Priority;
 import org.apache.dolphinscheduler.common.enums.ProcessExecutionTypeEnum;
 import org.apache.dolphinscheduler.common.enums.ReleaseState;
 import org.apache.dolphinscheduler.common.enums.UserType;
+import org.apache.dolphinscheduler.common.enums.WorkflowExecutionStatus;
 import org.apache.dolphinscheduler.common.enums.WarningType;
 import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.entity.DagData;
 import org.apache.dolphinscheduler.dao.entity.DataSource;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelation;
 import org.apache.dolphinscheduler.dao.entity.Project;
 import org.apache.dolphinscheduler.dao.entity.Schedule;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskMainInfo;
 import org.apache.dolphinscheduler.dao.entity.Tenant;
 import org.apache.dolphinscheduler.dao.entity.User;
@@ -62,16 +69,22 @@ import org.apache.dolphinscheduler.dao.mapper.ProcessTaskRelationMapper;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.ScheduleMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
+import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
 import org.apache.dolphinscheduler.dao.mapper.TenantMapper;
 import org.apache.dolphinscheduler.dao.mapper.UserMapper;
 import org.apache.dolphinscheduler.dao.model.PageListingResult;
 import org.apache.dolphinscheduler.dao.repository.ProcessDefinitionDao;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.service.model.TaskNode;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.spi.enums.DbType;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -83,6 +96,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -98,6 +112,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockMultipartFile;
 
 import com.google.common.collect.ImmutableSet;
@@ -168,6 +184,9 @@ public class ProcessDefinitionServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private TaskInstanceMapper taskInstanceMapper;
+
     protected User user;
     protected Exception exception;
     protected final static long projectCode = 1L;
@@ -781,6 +800,86 @@ public class ProcessDefinitionServiceTest {
         Assert.assertEquals(Status.SUCCESS, taskNotNuLLRes.get(Constants.STATUS));
     }
 
+    @Test
+    public void testViewTreeWithTaskInstances() {
+        User loginUser = new User();
+        loginUser.setId(1);
+        loginUser.setUserType(UserType.ADMIN_USER);
+        Project project1 = getProject(1);
+        Map<String, Object> result = new HashMap<>();
+        result.put(Constants.STATUS, Status.SUCCESS);
+        Mockito.when(projectMapper.queryByCode(1)).thenReturn(project1);
+        Mockito.when(projectService.checkProjectAndAuth(loginUser, project1, 1, WORKFLOW_TREE_VIEW)).thenReturn(result);
+        ProcessDefinition processDefinition = getProcessDefinition();
+        Mockito.when(processDefinitionMapper.queryByCode(46L)).thenReturn(processDefinition);
+
+        // 1 -> 2 -> 3, 1 -> 3
+        DAG<String, TaskNode, TaskNodeRelation> dag = new DAG<>();
+        for (long code = 1; code <= 3; code++) {
+            TaskNode taskNode = new TaskNode();
+            taskNode.setCode(code);
+            taskNode.setName("task" + code);
+            taskNode.setType("SHELL");
+            dag.addNode(String.valueOf(code), taskNode);
+        }
+        dag.addEdge("1", "2");
+        dag.addEdge("2", "3");
+        dag.addEdge("1", "3");
+        Mockito.when(processService.genDagGraph(processDefinition)).thenReturn(dag);
+
+        List<ProcessInstance> processInstances = new ArrayList<>();
+        processInstances.add(getFinishedProcessInstance(11));
+        processInstances.add(getFinishedProcessInstance(10));
+        Mockito.when(processInstanceService.queryByProcessDefineCode(46L, 10)).thenReturn(processInstances);
+        List<TaskInstance> taskInstances = new ArrayList<>();
+        taskInstances.add(getTaskInstance(100, 1L, 10));
+        taskInstances.add(getTaskInstance(101, 1L, 11));
+        taskInstances.add(getTaskInstance(102, 3L, 11));
+        Mockito.when(taskInstanceMapper.queryByProcessInstanceIdsAndTaskCodes(Mockito.anyList(), Mockito.anyList()))
+                .thenReturn(taskInstances);
+        Mockito.when(taskInstanceMapper.queryStatesByProcessInstanceIds(Mockito.anyList())).thenReturn(taskInstances);
+
+        Map<String, Object> viewTreeRes =
+                processDefinitionService.viewTree(loginUser, processDefinition.getProjectCode(), 46, 10);
+        Assert.assertEquals(Status.SUCCESS, viewTreeRes.get(Constants.STATUS));
+        TreeViewDto root = (TreeViewDto) viewTreeRes.get(Constants.DATA_LIST);
+        Assert.assertEquals(1, root.getChildren().size());
+        Assert.assertEquals(Integer.valueOf(10), root.getInstances().get(0).getId());
+
+        TreeViewDto task1 = root.getChildren().get(0);
+        Assert.assertEquals(1L, task1.getCode());
+        Assert.assertEquals(Integer.valueOf(100), task1.getInstances().get(0).getId());
+        Assert.assertEquals(Integer.valueOf(101), task1.getInstances().get(1).getId());
+        Assert.assertEquals(2, task1.getChildren().size());
+
+        TreeViewDto task3 = task1.getChildren().stream().filter(t -> t.getCode() == 3L).findFirst().get();
+        Assert.assertEquals(Integer.valueOf(-1), task3.getInstances().get(0).getId());
+        Assert.assertEquals(Integer.valueOf(102), task3.getInstances().get(1).getId());
+
+        // the tree view of the finished instances is cached
+        Map<String, Object> cachedRes =
+                processDefinitionService.viewTree(loginUser, processDefinition.getProjectCode(), 46, 10);
+        Assert.assertSame(root, cachedRes.get(Constants.DATA_LIST));
+        Mockito.verify(processService, Mockito.times(1)).genDagGraph(processDefinition);
+        Mockito.verify(taskInstanceMapper, Mockito.times(1))
+                .queryByProcessInstanceIdsAndTaskCodes(Mockito.anyList(), Mockito.anyList());
+
+        // the cached tree view is not used after the state of a task instance is changed, e.g. forced success
+        List<TaskInstance> changedTaskInstances = new ArrayList<>();
+        changedTaskInstances.add(getTaskInstance(100, 1L, 10));
+        changedTaskInstances.add(getTaskInstance(101, 1L, 11));
+        changedTaskInstances.add(getTaskInstance(102, 3L, 11));
+        changedTaskInstances.get(2).setState(TaskExecutionStatus.FORCED_SUCCESS);
+        Mockito.when(taskInstanceMapper.queryStatesByProcessInstanceIds(Mockito.anyList()))
+                .thenReturn(changedTaskInstances);
+        Mockito.when(taskInstanceMapper.queryByProcessInstanceIdsAndTaskCodes(Mockito.anyList(), Mockito.anyList()))
+                .thenReturn(changedTaskInstances);
+        Map<String, Object> changedRes =
+                processDefinitionService.viewTree(loginUser, processDefinition.getProjectCode(), 46, 10);
+        Assert.assertNotSame(root, changedRes.get(Constants.DATA_LIST));
+        Mockito.verify(processService, Mockito.times(2)).genDagGraph(processDefinition);
+    }
+
     @Test
     public void testUpdateProcessDefinition() {
         User loginUser = new User();
@@ -807,7 +906,7 @@ public class ProcessDefinitionServiceTest {
 
     @Test
     public void testBatchExportProcessDefinitionByCodes() {
-        processDefinitionService.batchExportProcessDefinitionByCodes(null, 1L, null, null);
+        processDefinitionService.batchExportProcessDefinitionByCodes(null, 1L, null, false, null);
 
         User loginUser = new User();
         loginUser.setId(1);
@@ -820,7 +919,7 @@ public class ProcessDefinitionServiceTest {
         putMsg(result, Status.PROJECT_NOT_FOUND);
         Mockito.when(projectMapper.queryByCode(projectCode)).thenReturn(getProject(projectCode));
         processDefinitionService.batchExportProcessDefinitionByCodes(
-                loginUser, projectCode, "1", null);
+                loginUser, projectCode, "1", false, null);
 
         ProcessDefinition processDefinition = new ProcessDefinition();
         processDefinition.setId(1);
@@ -831,10 +930,45 @@ public class ProcessDefinitionServiceTest {
 
         DagData dagData = new DagData(getProcessDefinition(), null, null);
         Mockito.when(processService.genDagData(Mockito.any())).thenReturn(dagData);
-        processDefinitionService.batchExportProcessDefinitionByCodes(loginUser, projectCode, "1", response);
+        processDefinitionService.batchExportProcessDefinitionByCodes(loginUser, projectCode, "1", false, response);
         Assert.assertNotNull(processDefinitionService.exportProcessDagData(processDefinition));
     }
 
+    @Test
+    public void testBatchExportProcessDefinitionByCodesCompressed() throws Exception {
+        User loginUser = new User();
+        loginUser.setId(1);
+        loginUser.setUserType(UserType.ADMIN_USER);
+        long projectCode = 1L;
+        Project project = getProject(projectCode);
+        Map<String, Object> result = new HashMap<>();
+        putMsg(result, Status.SUCCESS);
+        Mockito.when(projectMapper.queryByCode(projectCode)).thenReturn(project);
+        Mockito.when(projectService.checkProjectAndAuth(loginUser, project, projectCode, WORKFLOW_DEFINITION_EXPORT))
+                .thenReturn(result);
+
+        ProcessDefinition processDefinition = getProcessDefinition();
+        ProcessDefinition otherProjectProcessDefinition = getProcessDefinition();
+        otherProjectProcessDefinition.setCode(47L);
+        otherProjectProcessDefinition.setProjectCode(2L);
+        Mockito.when(processDefinitionMapper.queryByCodes(Mockito.anyCollection()))
+                .thenReturn(Lists.newArrayList(processDefinition, otherProjectProcessDefinition));
+        Mockito.when(processService.genDagData(processDefinition))
+                .thenReturn(new DagData(processDefinition, null, null));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        processDefinitionService.batchExportProcessDefinitionByCodes(loginUser, projectCode, "46,47", true, response);
+
+        Assert.assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            List<DagDataSchedule> dagDataSchedules =
+                    JSONUtils.toList(IOUtils.toString(in, StandardCharsets.UTF_8), DagDataSchedule.class);
+            Assert.assertEquals(1, dagDataSchedules.size());
+            Assert.assertEquals(processDefinition.getName(),
+                    dagDataSchedules.get(0).getProcessDefinition().getName());
+        }
+    }
+
     @Test
     public void testImportSqlProcessDefinition() throws Exception {
         int userId = 10;
@@ -916,6 +1050,28 @@ public class ProcessDefinitionServiceTest {
         return processDefinition;
     }
 
+    private ProcessInstance getFinishedProcessInstance(int id) {
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(id);
+        processInstance.setProcessDefinitionCode(46L);
+        processInstance.setState(WorkflowExecutionStatus.SUCCESS);
+        processInstance.setStartTime(new Date(id * 1000L));
+        processInstance.setEndTime(new Date(id * 2000L));
+        return processInstance;
+    }
+
+    private TaskInstance getTaskInstance(int id, long taskCode, int processInstanceId) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        taskInstance.setTaskCode(taskCode);
+        taskInstance.setProcessInstanceId(processInstanceId);
+        taskInstance.setTaskType("SHELL");
+        taskInstance.setState(TaskExecutionStatus.SUCCESS);
+        taskInstance.setStartTime(new Date(id * 1000L));
+        taskInstance.setEndTime(new Date(id * 2000L));
+        return taskInstance;
+    }
+
     /**
      * get mock Project
      *
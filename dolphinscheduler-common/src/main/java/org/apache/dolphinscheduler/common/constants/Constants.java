@@ -150,6 +150,30 @@ public final class Constants {
     public static final String ALIBABA_CLOUD_OSS_BUCKET_NAME = "resource.alibaba.cloud.oss.bucket.name";
     public static final String ALIBABA_CLOUD_OSS_END_POINT = "resource.alibaba.cloud.oss.endpoint";
 
+    /**
+     * the part size of the multipart uploads and the ranged downloads of the resource storage
+     */
+    public static final String RESOURCE_TRANSFER_PART_SIZE = "resource.transfer.part.size";
+    public static final long DEFAULT_RESOURCE_TRANSFER_PART_SIZE = 16L * 1024 * 1024;
+
+    /**
+     * the max parts transferred in parallel by an upload or a download of the resource storage
+     */
+    public static final String RESOURCE_TRANSFER_CONCURRENCY = "resource.transfer.concurrency";
+    public static final int DEFAULT_RESOURCE_TRANSFER_CONCURRENCY = 4;
+
+    /**
+     * the threads transferring the parts of all the uploads and downloads of the resource storage
+     */
+    public static final String RESOURCE_TRANSFER_THREADS = "resource.transfer.threads";
+    public static final int DEFAULT_RESOURCE_TRANSFER_THREADS = 16;
+
+    /**
+     * the max bytes of the parts buffered in memory by all the uploads of the resource storage
+     */
+    public static final String RESOURCE_TRANSFER_MAX_BUFFER_SIZE = "resource.transfer.max.buffer.size";
+    public static final long DEFAULT_RESOURCE_TRANSFER_MAX_BUFFER_SIZE = 256L * 1024 * 1024;
+
     /**
      * comma ,
      */
@@ -343,6 +343,21 @@ public class DAG<Node, NodeInfo, EdgeInfo> {
         }
     }
 
+    /**
+     * Create an immutable copy of this DAG, which can be shared by threads without lock, and the queries don't allocate.
+     *
+     * @return immutable DAG
+     */
+    public ImmutableDAG<Node, NodeInfo, EdgeInfo> freeze() {
+        lock.readLock().lock();
+
+        try {
+            return new ImmutableDAG<>(nodesMap, edgesMap);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * if tho node does not exist,add this node
      *
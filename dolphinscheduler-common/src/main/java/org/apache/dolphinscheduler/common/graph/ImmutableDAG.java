@@ -0,0 +1,348 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.graph;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable DAG, it is created by {@link DAG#freeze()} and can be shared by threads without lock.
+ * <p>
+ * The nodes are indexed by int, the edges are kept as compressed sparse row adjacency arrays in both directions,
+ * the in-degrees, begin/end nodes and topological order are computed once when it is created, and the neighbor
+ * sets returned are read-only views over the adjacency arrays, so the queries don't allocate.
+ */
+public final class ImmutableDAG<Node, NodeInfo, EdgeInfo> extends DAG<Node, NodeInfo, EdgeInfo> {
+
+    private final Object[] nodes;
+
+    private final Object[] nodeInfos;
+
+    private final Map<Node, Integer> nodeIndexes;
+
+    /**
+     * The subsequent nodes of node i are successors[successorOffsets[i]] until successors[successorOffsets[i + 1]].
+     */
+    private final int[] successorOffsets;
+
+    private final int[] successors;
+
+    /**
+     * The previous nodes of node i are predecessors[predecessorOffsets[i]] until predecessors[predecessorOffsets[i + 1]].
+     */
+    private final int[] predecessorOffsets;
+
+    private final int[] predecessors;
+
+    private final Set<Node>[] subsequentNodeSets;
+
+    private final Set<Node>[] previousNodeSets;
+
+    private final Set<Node> beginNodes;
+
+    private final Set<Node> endNodes;
+
+    private final boolean acyclic;
+
+    private final List<Node> topologicalOrder;
+
+    ImmutableDAG(Map<Node, NodeInfo> nodesMap, Map<Node, Map<Node, EdgeInfo>> edgesMap) {
+        int nodeCount = nodesMap.size();
+        this.nodes = new Object[nodeCount];
+        this.nodeInfos = new Object[nodeCount];
+        this.nodeIndexes = new HashMap<>(nodeCount * 4 / 3 + 1);
+        int index = 0;
+        for (Map.Entry<Node, NodeInfo> entry : nodesMap.entrySet()) {
+            nodes[index] = entry.getKey();
+            nodeInfos[index] = entry.getValue();
+            nodeIndexes.put(entry.getKey(), index);
+            index++;
+        }
+
+        int edgeCount = 0;
+        int[] indegrees = new int[nodeCount];
+        this.successorOffsets = new int[nodeCount + 1];
+        for (int i = 0; i < nodeCount; i++) {
+            Map<Node, EdgeInfo> toNodes = edgesMap.get(node(i));
+            int outDegree = toNodes == null ? 0 : toNodes.size();
+            successorOffsets[i + 1] = successorOffsets[i] + outDegree;
+            edgeCount += outDegree;
+            if (toNodes != null) {
+                for (Node toNode : toNodes.keySet()) {
+                    indegrees[nodeIndexes.get(toNode)]++;
+                }
+            }
+        }
+        this.successors = new int[edgeCount];
+        this.predecessorOffsets = new int[nodeCount + 1];
+        for (int i = 0; i < nodeCount; i++) {
+            predecessorOffsets[i + 1] = predecessorOffsets[i] + indegrees[i];
+        }
+        this.predecessors = new int[edgeCount];
+        int[] predecessorPositions = Arrays.copyOf(predecessorOffsets, nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            Map<Node, EdgeInfo> toNodes = edgesMap.get(node(i));
+            if (toNodes == null) {
+                continue;
+            }
+            int position = successorOffsets[i];
+            for (Node toNode : toNodes.keySet()) {
+                int to = nodeIndexes.get(toNode);
+                successors[position++] = to;
+                predecessors[predecessorPositions[to]++] = i;
+            }
+        }
+
+        this.subsequentNodeSets = newNeighborSets(successorOffsets, successors);
+        this.previousNodeSets = newNeighborSets(predecessorOffsets, predecessors);
+
+        Set<Node> begin = new LinkedHashSet<>();
+        Set<Node> end = new LinkedHashSet<>();
+        for (int i = 0; i < nodeCount; i++) {
+            if (indegrees[i] == 0) {
+                begin.add(node(i));
+            }
+            if (successorOffsets[i + 1] == successorOffsets[i]) {
+                end.add(node(i));
+            }
+        }
+        this.beginNodes = Collections.unmodifiableSet(begin);
+        this.endNodes = Collections.unmodifiableSet(end);
+
+        // Kahn's algorithm over the index arrays
+        int[] remainIndegrees = indegrees.clone();
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if (remainIndegrees[i] == 0) {
+                queue[tail++] = i;
+            }
+        }
+        while (head < tail) {
+            int v = queue[head++];
+            for (int j = successorOffsets[v]; j < successorOffsets[v + 1]; j++) {
+                if (--remainIndegrees[successors[j]] == 0) {
+                    queue[tail++] = successors[j];
+                }
+            }
+        }
+        this.acyclic = tail == nodeCount;
+        List<Node> order = new ArrayList<>(tail);
+        for (int i = 0; i < tail; i++) {
+            order.add(node(queue[i]));
+        }
+        this.topologicalOrder = Collections.unmodifiableList(order);
+    }
+
+    @Override
+    public void addNode(Node node, NodeInfo nodeInfo) {
+        throw new UnsupportedOperationException("The DAG is immutable");
+    }
+
+    @Override
+    public boolean addEdge(Node fromNode, Node toNode) {
+        throw new UnsupportedOperationException("The DAG is immutable");
+    }
+
+    @Override
+    public boolean addEdge(Node fromNode, Node toNode, EdgeInfo edge, boolean createNode) {
+        throw new UnsupportedOperationException("The DAG is immutable");
+    }
+
+    @Override
+    public ImmutableDAG<Node, NodeInfo, EdgeInfo> freeze() {
+        return this;
+    }
+
+    @Override
+    public boolean containsNode(Node node) {
+        return nodeIndexes.containsKey(node);
+    }
+
+    @Override
+    public boolean containsEdge(Node fromNode, Node toNode) {
+        Integer from = nodeIndexes.get(fromNode);
+        Integer to = nodeIndexes.get(toNode);
+        if (from == null || to == null) {
+            return false;
+        }
+        for (int j = successorOffsets[from]; j < successorOffsets[from + 1]; j++) {
+            if (successors[j] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public NodeInfo getNode(Node node) {
+        Integer index = nodeIndexes.get(node);
+        return index == null ? null : (NodeInfo) nodeInfos[index];
+    }
+
+    @Override
+    public int getNodesCount() {
+        return nodes.length;
+    }
+
+    @Override
+    public int getEdgesCount() {
+        return successors.length;
+    }
+
+    @Override
+    public Collection<Node> getBeginNode() {
+        return beginNodes;
+    }
+
+    @Override
+    public Collection<Node> getEndNode() {
+        return endNodes;
+    }
+
+    @Override
+    public Set<Node> getPreviousNodes(Node node) {
+        Integer index = nodeIndexes.get(node);
+        return index == null ? Collections.emptySet() : previousNodeSets[index];
+    }
+
+    @Override
+    public Set<Node> getSubsequentNodes(Node node) {
+        Integer index = nodeIndexes.get(node);
+        return index == null ? Collections.emptySet() : subsequentNodeSets[index];
+    }
+
+    @Override
+    public int getIndegree(Node node) {
+        Integer index = nodeIndexes.get(node);
+        return index == null ? 0 : predecessorOffsets[index + 1] - predecessorOffsets[index];
+    }
+
+    @Override
+    public boolean hasCycle() {
+        return !acyclic;
+    }
+
+    @Override
+    public List<Node> topologicalSort() throws Exception {
+        if (!acyclic) {
+            throw new Exception("serious error: graph has cycle ! ");
+        }
+        return topologicalOrder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node node(int index) {
+        return (Node) nodes[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Node>[] newNeighborSets(int[] offsets, int[] neighbors) {
+        Set<Node>[] sets = new Set[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            sets[i] = offsets[i] == offsets[i + 1]
+                    ? Collections.emptySet()
+                    : new NeighborSet(neighbors, offsets[i], offsets[i + 1]);
+        }
+        return sets;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder edges = new StringBuilder();
+        for (int i = 0; i < nodes.length; i++) {
+            if (successorOffsets[i] != successorOffsets[i + 1]) {
+                edges.append(node(i)).append("->").append(subsequentNodeSets[i]).append(' ');
+            }
+        }
+        return "ImmutableDAG{"
+                + "nodes=" + Arrays.toString(nodes)
+                + ", edges=" + edges.toString().trim()
+                + '}';
+    }
+
+    /**
+     * Read-only view of a slice of the adjacency array.
+     */
+    private final class NeighborSet extends AbstractSet<Node> {
+
+        private final int[] neighbors;
+
+        private final int from;
+
+        private final int to;
+
+        private NeighborSet(int[] neighbors, int from, int to) {
+            this.neighbors = neighbors;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<Node> iterator() {
+            return new Iterator<Node>() {
+
+                private int position = from;
+
+                @Override
+                public boolean hasNext() {
+                    return position < to;
+                }
+
+                @Override
+                public Node next() {
+                    if (position >= to) {
+                        throw new NoSuchElementException();
+                    }
+                    return node(neighbors[position++]);
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            Integer index = nodeIndexes.get(o);
+            if (index == null) {
+                return false;
+            }
+            for (int j = from; j < to; j++) {
+                if (neighbors[j] == index) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+}
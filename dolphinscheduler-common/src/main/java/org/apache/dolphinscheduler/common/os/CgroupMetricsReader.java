@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Read the cpu and memory limits and usages of the cgroup the server runs in, supports cgroup v1 and v2.
+ * <p>
+ * The cgroup filesystem is expected to be mounted at the cgroup of the server, which is the case in containers.
+ * The values are -1 if the files can not be read, e.g. the cgroup controller is not mounted.
+ */
+abstract class CgroupMetricsReader {
+
+    /**
+     * The cpu time used and the throttling of a cgroup, which are accumulated since the cgroup created.
+     */
+    static final class CpuStat {
+
+        final long usageNanos;
+
+        final long periods;
+
+        final long throttledPeriods;
+
+        CpuStat(long usageNanos, long periods, long throttledPeriods) {
+            this.usageNanos = usageNanos;
+            this.periods = periods;
+            this.throttledPeriods = throttledPeriods;
+        }
+    }
+
+    protected final Path root;
+
+    CgroupMetricsReader(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * @param root the mount point of the cgroup filesystem, e.g. /sys/fs/cgroup
+     * @return the reader, or null if there is no cgroup filesystem
+     */
+    static CgroupMetricsReader of(Path root) {
+        if (Files.exists(root.resolve("cgroup.controllers"))) {
+            return new CgroupV2MetricsReader(root);
+        }
+        if (Files.isDirectory(root.resolve("cpu")) || Files.isDirectory(root.resolve("memory"))) {
+            return new CgroupV1MetricsReader(root);
+        }
+        return null;
+    }
+
+    /**
+     * @return cpu quota in cores, -1 if there is no quota
+     */
+    abstract double getCpuQuota();
+
+    abstract CpuStat getCpuStat();
+
+    /**
+     * @return memory limit in bytes, -1 if there is no limit
+     */
+    abstract long getMemoryLimit();
+
+    /**
+     * @return memory used excluding the inactive page cache which can be reclaimed, in bytes
+     */
+    abstract long getMemoryWorkingSet();
+
+    protected String readFirstLine(String file) {
+        try {
+            List<String> lines = Files.readAllLines(root.resolve(file), StandardCharsets.UTF_8);
+            return lines.isEmpty() ? null : lines.get(0).trim();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    protected long readLong(String file) {
+        String line = readFirstLine(file);
+        try {
+            return line == null ? -1 : Long.parseLong(line);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Read the value of a key in the flat keyed file, e.g. cpu.stat and memory.stat.
+     */
+    protected long readKeyedLong(String file, String key) {
+        try {
+            for (String line : Files.readAllLines(root.resolve(file), StandardCharsets.UTF_8)) {
+                int separator = line.indexOf(' ');
+                if (separator > 0 && key.equals(line.substring(0, separator))) {
+                    return Long.parseLong(line.substring(separator + 1).trim());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // unknown
+        }
+        return -1;
+    }
+
+    private static final class CgroupV1MetricsReader extends CgroupMetricsReader {
+
+        /**
+         * cgroup v1 uses a page aligned max long value as no limit
+         */
+        private static final long UNLIMITED_MEMORY = Long.MAX_VALUE / 2;
+
+        private CgroupV1MetricsReader(Path root) {
+            super(root);
+        }
+
+        @Override
+        double getCpuQuota() {
+            long quota = readLong("cpu/cpu.cfs_quota_us");
+            long period = readLong("cpu/cpu.cfs_period_us");
+            return quota <= 0 || period <= 0 ? -1 : quota / (double) period;
+        }
+
+        @Override
+        CpuStat getCpuStat() {
+            return new CpuStat(readLong("cpuacct/cpuacct.usage"),
+                    readKeyedLong("cpu/cpu.stat", "nr_periods"),
+                    readKeyedLong("cpu/cpu.stat", "nr_throttled"));
+        }
+
+        @Override
+        long getMemoryLimit() {
+            long limit = readLong("memory/memory.limit_in_bytes");
+            return limit <= 0 || limit >= UNLIMITED_MEMORY ? -1 : limit;
+        }
+
+        @Override
+        long getMemoryWorkingSet() {
+            long usage = readLong("memory/memory.usage_in_bytes");
+            if (usage < 0) {
+                return -1;
+            }
+            long inactiveFile = readKeyedLong("memory/memory.stat", "total_inactive_file");
+            return inactiveFile < 0 ? usage : Math.max(usage - inactiveFile, 0);
+        }
+    }
+
+    private static final class CgroupV2MetricsReader extends CgroupMetricsReader {
+
+        private CgroupV2MetricsReader(Path root) {
+            super(root);
+        }
+
+        @Override
+        double getCpuQuota() {
+            // "$MAX $PERIOD", the max is "max" if there is no quota
+            String line = readFirstLine("cpu.max");
+            if (line == null) {
+                return -1;
+            }
+            String[] values = line.split("\\s+");
+            try {
+                if (values.length != 2 || "max".equals(values[0])) {
+                    return -1;
+                }
+                long quota = Long.parseLong(values[0]);
+                long period = Long.parseLong(values[1]);
+                return quota <= 0 || period <= 0 ? -1 : quota / (double) period;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        CpuStat getCpuStat() {
+            long usageMicros = readKeyedLong("cpu.stat", "usage_usec");
+            return new CpuStat(usageMicros < 0 ? -1 : usageMicros * 1000,
+                    readKeyedLong("cpu.stat", "nr_periods"),
+                    readKeyedLong("cpu.stat", "nr_throttled"));
+        }
+
+        @Override
+        long getMemoryLimit() {
+            String line = readFirstLine("memory.max");
+            if (line == null || "max".equals(line)) {
+                return -1;
+            }
+            try {
+                long limit = Long.parseLong(line);
+                return limit <= 0 ? -1 : limit;
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        long getMemoryWorkingSet() {
+            long usage = readLong("memory.current");
+            if (usage < 0) {
+                return -1;
+            }
+            long inactiveFile = readKeyedLong("memory.stat", "inactive_file");
+            return inactiveFile < 0 ? usage : Math.max(usage - inactiveFile, 0);
+        }
+    }
+}
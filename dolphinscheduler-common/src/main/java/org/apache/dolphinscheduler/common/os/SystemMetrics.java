@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable snapshot of the system metrics sampled by {@link SystemMetricsSampler}, the values are not rounded.
+ * <p>
+ * If the server runs in a cgroup with cpu quota or memory limit, the values are the ones of the cgroup instead of
+ * the host.
+ */
+@Value
+@Builder
+public class SystemMetrics {
+
+    /**
+     * the time the metrics are sampled, in milliseconds
+     */
+    long sampleTime;
+
+    /**
+     * cpu usage in [0, 1] of the host, or of the cpu quota in cgroup, -1 if unknown
+     */
+    double cpuUsage;
+
+    /**
+     * 1 minute load average of the host, or the 1 minute average of the cpus used and throttled in cgroup,
+     * -1 if unknown
+     */
+    double loadAverage;
+
+    /**
+     * cpu quota of the cgroup in cores, -1 if there is no cpu quota
+     */
+    double cpuQuota;
+
+    /**
+     * total memory of the host or memory limit of the cgroup, in bytes
+     */
+    long totalMemory;
+
+    /**
+     * available memory, in bytes
+     */
+    long availableMemory;
+
+    /**
+     * free disk space of the working directory, in bytes
+     */
+    long diskAvailable;
+
+    /**
+     * @return memory usage in [0, 1]
+     */
+    public double getMemoryUsage() {
+        return totalMemory <= 0 ? 0 : (totalMemory - availableMemory) / (double) totalMemory;
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Paths;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import oshi.SystemInfo;
+import oshi.hardware.CentralProcessor;
+import oshi.hardware.GlobalMemory;
+import oshi.hardware.HardwareAbstractionLayer;
+
+/**
+ * Sample the system metrics in a background thread, the callers read the latest {@link SystemMetrics} snapshot
+ * without lock or system call.
+ * <p>
+ * If the server runs in a cgroup with cpu quota, the cpu usage is the usage of the quota, and the load average is
+ * the 1 minute exponentially-damped moving average of the cpus used plus the quota throttled, so the cgroup
+ * saturated and throttled in every period has a load of 2 * quota. If the cgroup has a memory limit lower than the
+ * host memory, the memory is the limit and the working set of the cgroup.
+ */
+public final class SystemMetricsSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemMetricsSampler.class);
+
+    private static final long SAMPLE_INTERVAL_MILLIS = 1000L;
+
+    private static final long LOAD_AVERAGE_WINDOW_MILLIS = 60_000L;
+
+    private static final String CGROUP_ROOT = "/sys/fs/cgroup";
+
+    private static final SystemMetricsSampler INSTANCE =
+            new SystemMetricsSampler(CgroupMetricsReader.of(Paths.get(CGROUP_ROOT)));
+
+    static {
+        ScheduledExecutorService sampleExecutor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("SystemMetricsSampler").build());
+        sampleExecutor.scheduleWithFixedDelay(INSTANCE::sampleQuietly, SAMPLE_INTERVAL_MILLIS,
+                SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private final HardwareAbstractionLayer hal = new SystemInfo().getHardware();
+
+    private final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
+
+    private final File workDir = new File(".");
+
+    /**
+     * null if the server doesn't run in a cgroup
+     */
+    private final CgroupMetricsReader cgroupReader;
+
+    private long[] prevTicks = new long[CentralProcessor.TickType.values().length];
+
+    private long prevSampleNanos;
+
+    private CgroupMetricsReader.CpuStat prevCpuStat;
+
+    private double cgroupLoadAverage = -1;
+
+    private volatile SystemMetrics snapshot;
+
+    SystemMetricsSampler(CgroupMetricsReader cgroupReader) {
+        this.cgroupReader = cgroupReader;
+        sample();
+    }
+
+    /**
+     * @return the latest sampled system metrics
+     */
+    public static SystemMetrics getSnapshot() {
+        return INSTANCE.snapshot;
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (Throwable e) {
+            logger.error("Sample system metrics error", e);
+        }
+    }
+
+    synchronized SystemMetrics sample() {
+        long sampleNanos = System.nanoTime();
+        CentralProcessor processor = hal.getProcessor();
+        double cpuUsage = processor.getSystemCpuLoadBetweenTicks(prevTicks);
+        prevTicks = processor.getSystemCpuLoadTicks();
+
+        double loadAverage = osBean.getSystemLoadAverage();
+        if (loadAverage < 0) {
+            loadAverage = processor.getSystemLoadAverage(1)[0];
+        }
+
+        GlobalMemory memory = hal.getMemory();
+        long totalMemory = memory.getTotal();
+        long availableMemory = memory.getAvailable();
+        double cpuQuota = -1;
+
+        if (cgroupReader != null) {
+            long memoryLimit = cgroupReader.getMemoryLimit();
+            if (memoryLimit > 0 && memoryLimit < totalMemory) {
+                long workingSet = cgroupReader.getMemoryWorkingSet();
+                totalMemory = memoryLimit;
+                availableMemory = Math.min(availableMemory,
+                        workingSet < 0 ? memoryLimit : Math.max(memoryLimit - workingSet, 0));
+            }
+
+            cpuQuota = cgroupReader.getCpuQuota();
+            if (cpuQuota > 0) {
+                CgroupMetricsReader.CpuStat cpuStat = cgroupReader.getCpuStat();
+                if (prevCpuStat != null && cpuStat.usageNanos >= 0 && prevCpuStat.usageNanos >= 0
+                        && sampleNanos > prevSampleNanos) {
+                    long elapsedNanos = sampleNanos - prevSampleNanos;
+                    double usedCpus = (cpuStat.usageNanos - prevCpuStat.usageNanos) / (double) elapsedNanos;
+                    long periods = cpuStat.periods - prevCpuStat.periods;
+                    long throttledPeriods = cpuStat.throttledPeriods - prevCpuStat.throttledPeriods;
+                    double throttledRatio =
+                            periods > 0 && throttledPeriods > 0 ? throttledPeriods / (double) periods : 0;
+                    double load = usedCpus + cpuQuota * throttledRatio;
+                    double decay = Math.exp(-TimeUnit.NANOSECONDS.toMillis(elapsedNanos)
+                            / (double) LOAD_AVERAGE_WINDOW_MILLIS);
+                    cgroupLoadAverage = cgroupLoadAverage < 0 ? load : cgroupLoadAverage * decay + load * (1 - decay);
+                    cpuUsage = Math.min(usedCpus / cpuQuota, 1D);
+                }
+                prevCpuStat = cpuStat;
+                if (cgroupLoadAverage >= 0) {
+                    loadAverage = cgroupLoadAverage;
+                }
+            }
+        }
+        prevSampleNanos = sampleNanos;
+
+        SystemMetrics systemMetrics = SystemMetrics.builder()
+                .sampleTime(System.currentTimeMillis())
+                .cpuUsage(Double.isNaN(cpuUsage) ? -1 : cpuUsage)
+                .loadAverage(Double.isNaN(loadAverage) || loadAverage < 0 ? -1 : loadAverage)
+                .cpuQuota(cpuQuota)
+                .totalMemory(totalMemory)
+                .availableMemory(availableMemory)
+                .diskAvailable(workDir.getFreeSpace())
+                .build();
+        snapshot = systemMetrics;
+        return systemMetrics;
+    }
+}
@@ -27,6 +27,7 @@ import static org.apache.dolphinscheduler.common.constants.DateConstants.YYYY_MM
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -42,6 +43,7 @@ import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -374,6 +376,28 @@ public class JSONUtils {
         }
     }
 
+    /**
+     * Create a generator to write json to the stream incrementally, the objects written by
+     * {@link JsonGenerator#writeObject(Object)} are serialized the same as {@link #toJsonString(Object)}.
+     *
+     * @param out output stream, closed when the generator is closed
+     * @return json generator
+     */
+    public static JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+    }
+
+    /**
+     * Create a parser to read json from the stream incrementally, the objects read by
+     * {@link JsonParser#readValueAs(Class)} are deserialized the same as {@link #parseObject(String, Class)}.
+     *
+     * @param in input stream, closed when the parser is closed
+     * @return json parser
+     */
+    public static JsonParser createParser(InputStream in) throws IOException {
+        return objectMapper.getFactory().createParser(in);
+    }
+
     /**
      * json serializer
      */
@@ -18,26 +18,19 @@
 package org.apache.dolphinscheduler.common.utils;
 
 import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.common.os.SystemMetrics;
+import org.apache.dolphinscheduler.common.os.SystemMetricsSampler;
 import org.apache.dolphinscheduler.common.shell.ShellExecutor;
 
-import oshi.SystemInfo;
-import oshi.hardware.CentralProcessor;
-import oshi.hardware.GlobalMemory;
-import oshi.hardware.HardwareAbstractionLayer;
-
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
 
 import java.io.BufferedReader;
-import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.lang.management.ManagementFactory;
-import java.lang.management.OperatingSystemMXBean;
 import java.lang.management.RuntimeMXBean;
-import java.math.RoundingMode;
-import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -55,7 +48,6 @@ public class OSUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(OSUtils.class);
 
-    private static final SystemInfo SI = new SystemInfo();
     public static final String TWO_DECIMAL = "0.00";
 
     /**
@@ -64,10 +56,7 @@ public class OSUtils {
      */
     public static final double NEGATIVE_ONE = -1;
 
-    private static final HardwareAbstractionLayer hal = SI.getHardware();
-    private static long[] prevTicks = new long[CentralProcessor.TickType.values().length];
-    private static long prevTickTime = 0L;
-    private static double cpuUsage = 0.0D;
+    private static final double GB = 1024.0 * 1024 * 1024;
 
     private OSUtils() {
         throw new UnsupportedOperationException("Construct OSUtils");
@@ -86,12 +75,7 @@ public class OSUtils {
      * @return percent %
      */
     public static double memoryUsage() {
-        GlobalMemory memory = hal.getMemory();
-        double memoryUsage = (memory.getTotal() - memory.getAvailable()) * 1.0 / memory.getTotal();
-
-        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-        df.setRoundingMode(RoundingMode.HALF_UP);
-        return Double.parseDouble(df.format(memoryUsage));
+        return round(SystemMetricsSampler.getSnapshot().getMemoryUsage());
     }
 
     /**
@@ -101,14 +85,7 @@ public class OSUtils {
      * @return disk free size, unit: GB
      */
     public static double diskAvailable() {
-        File file = new File(".");
-        long freeSpace = file.getFreeSpace(); // unallocated / free disk space in bytes.
-
-        double diskAvailable = freeSpace / 1024.0 / 1024 / 1024;
-
-        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-        df.setRoundingMode(RoundingMode.HALF_UP);
-        return Double.parseDouble(df.format(diskAvailable));
+        return round(SystemMetricsSampler.getSnapshot().getDiskAvailable() / GB);
     }
 
     /**
@@ -119,12 +96,7 @@ public class OSUtils {
      * @return available Physical Memory Size, unit: G
      */
     public static double availablePhysicalMemorySize() {
-        GlobalMemory memory = hal.getMemory();
-        double availablePhysicalMemorySize = memory.getAvailable() / 1024.0 / 1024 / 1024;
-
-        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-        df.setRoundingMode(RoundingMode.HALF_UP);
-        return Double.parseDouble(df.format(availablePhysicalMemorySize));
+        return round(SystemMetricsSampler.getSnapshot().getAvailableMemory() / GB);
     }
 
     /**
@@ -133,20 +105,8 @@ public class OSUtils {
      * @return load average
      */
     public static double loadAverage() {
-        double loadAverage;
-        try {
-            OperatingSystemMXBean osBean = ManagementFactory.getPlatformMXBean(OperatingSystemMXBean.class);
-            loadAverage = osBean.getSystemLoadAverage();
-        } catch (Exception e) {
-            logger.error("get operation system load average exception, try another method ", e);
-            loadAverage = hal.getProcessor().getSystemLoadAverage(1)[0];
-            if (Double.isNaN(loadAverage)) {
-                return NEGATIVE_ONE;
-            }
-        }
-        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-        df.setRoundingMode(RoundingMode.HALF_UP);
-        return Double.parseDouble(df.format(loadAverage));
+        double loadAverage = SystemMetricsSampler.getSnapshot().getLoadAverage();
+        return loadAverage < 0 ? NEGATIVE_ONE : round(loadAverage);
     }
 
     /**
@@ -155,24 +115,15 @@ public class OSUtils {
      * @return cpu usage
      */
     public static double cpuUsage() {
-        CentralProcessor processor = hal.getProcessor();
-
-        // Check if > ~ 0.95 seconds since last tick count.
-        long now = System.currentTimeMillis();
-        if (now - prevTickTime > 950) {
-            // Enough time has elapsed.
-            cpuUsage = processor.getSystemCpuLoadBetweenTicks(prevTicks);
-            prevTickTime = System.currentTimeMillis();
-            prevTicks = processor.getSystemCpuLoadTicks();
-        }
-
-        if (Double.isNaN(cpuUsage)) {
-            return NEGATIVE_ONE;
-        }
+        double cpuUsage = SystemMetricsSampler.getSnapshot().getCpuUsage();
+        return cpuUsage < 0 ? NEGATIVE_ONE : round(cpuUsage);
+    }
 
-        DecimalFormat df = new DecimalFormat(TWO_DECIMAL);
-        df.setRoundingMode(RoundingMode.HALF_UP);
-        return Double.parseDouble(df.format(cpuUsage));
+    /**
+     * Keep 2 decimal, round half up
+     */
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
     }
 
     public static List<String> getUserList() {
@@ -473,10 +424,11 @@ public class OSUtils {
      * @return True, if the cpu or memory exceed the given thredshod.
      */
     public static Boolean isOverload(double maxCpuLoadAvg, double reservedMemory) {
+        SystemMetrics systemMetrics = SystemMetricsSampler.getSnapshot();
         // system load average
-        double loadAverage = loadAverage();
+        double loadAverage = round(systemMetrics.getLoadAverage());
         // system available physical memory
-        double availablePhysicalMemorySize = availablePhysicalMemorySize();
+        double availablePhysicalMemorySize = round(systemMetrics.getAvailableMemory() / GB);
         if (loadAverage > maxCpuLoadAvg || availablePhysicalMemorySize < reservedMemory) {
             logger.warn(
                     "Current cpu load average {} is too high or available memory {}G is too low, under max.cpuLoad.avg={} and reserved.memory={}G",
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.graph;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ImmutableDAGTest {
+
+    private DAG<Integer, String, String> graph;
+
+    @Before
+    public void setup() {
+        //         1->2
+        //         2->5
+        //         3->5
+        //         4->6
+        //         5->6
+        //         6->7
+        graph = new DAG<>();
+        for (int i = 1; i <= 7; ++i) {
+            graph.addNode(i, "v(" + i + ")");
+        }
+        graph.addEdge(1, 2);
+        graph.addEdge(2, 5);
+        graph.addEdge(3, 5);
+        graph.addEdge(4, 6);
+        graph.addEdge(5, 6);
+        graph.addEdge(6, 7);
+    }
+
+    @Test
+    public void testSameAsDAG() throws Exception {
+        ImmutableDAG<Integer, String, String> immutableDAG = graph.freeze();
+
+        Assert.assertEquals(graph.getNodesCount(), immutableDAG.getNodesCount());
+        Assert.assertEquals(graph.getEdgesCount(), immutableDAG.getEdgesCount());
+        Assert.assertEquals(new HashSet<>(graph.getBeginNode()), new HashSet<>(immutableDAG.getBeginNode()));
+        Assert.assertEquals(new HashSet<>(graph.getEndNode()), new HashSet<>(immutableDAG.getEndNode()));
+        for (int i = 0; i <= 8; i++) {
+            Assert.assertEquals(graph.containsNode(i), immutableDAG.containsNode(i));
+            Assert.assertEquals(graph.getNode(i), immutableDAG.getNode(i));
+            Assert.assertEquals(graph.getIndegree(i), immutableDAG.getIndegree(i));
+            Assert.assertEquals(graph.getPreviousNodes(i), immutableDAG.getPreviousNodes(i));
+            Assert.assertEquals(graph.getSubsequentNodes(i), immutableDAG.getSubsequentNodes(i));
+        }
+        Assert.assertTrue(immutableDAG.containsEdge(5, 6));
+        Assert.assertFalse(immutableDAG.containsEdge(6, 5));
+        Assert.assertFalse(immutableDAG.hasCycle());
+        Assert.assertEquals(graph.topologicalSort(), immutableDAG.topologicalSort());
+    }
+
+    @Test
+    public void testTopologicalSort() throws Exception {
+        List<Integer> topologicalOrder = graph.freeze().topologicalSort();
+        Assert.assertEquals(7, topologicalOrder.size());
+        for (int[] edge : new int[][]{{1, 2}, {2, 5}, {3, 5}, {4, 6}, {5, 6}, {6, 7}}) {
+            Assert.assertTrue(topologicalOrder.indexOf(edge[0]) < topologicalOrder.indexOf(edge[1]));
+        }
+    }
+
+    @Test
+    public void testImmutable() {
+        ImmutableDAG<Integer, String, String> immutableDAG = graph.freeze();
+        // the later changes of the DAG are not seen
+        graph.addNode(8, "v(8)");
+        Assert.assertFalse(immutableDAG.containsNode(8));
+        Assert.assertSame(immutableDAG, immutableDAG.freeze());
+        Assert.assertThrows(UnsupportedOperationException.class, () -> immutableDAG.addEdge(7, 1));
+        Assert.assertThrows(UnsupportedOperationException.class,
+                () -> immutableDAG.getSubsequentNodes(1).addAll(Arrays.asList(3, 4)));
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.os;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CgroupMetricsReaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCgroupV1() throws IOException {
+        Path root = folder.getRoot().toPath();
+        write(root, "cpu/cpu.cfs_quota_us", "150000");
+        write(root, "cpu/cpu.cfs_period_us", "100000");
+        write(root, "cpu/cpu.stat", "nr_periods 20\nnr_throttled 5\nthrottled_time 1000");
+        write(root, "cpuacct/cpuacct.usage", "3000000000");
+        write(root, "memory/memory.limit_in_bytes", "1073741824");
+        write(root, "memory/memory.usage_in_bytes", "536870912");
+        write(root, "memory/memory.stat", "cache 100\ntotal_inactive_file 134217728");
+
+        CgroupMetricsReader reader = CgroupMetricsReader.of(root);
+        Assert.assertNotNull(reader);
+        Assert.assertEquals(1.5, reader.getCpuQuota(), 0.001);
+        CgroupMetricsReader.CpuStat cpuStat = reader.getCpuStat();
+        Assert.assertEquals(3000000000L, cpuStat.usageNanos);
+        Assert.assertEquals(20, cpuStat.periods);
+        Assert.assertEquals(5, cpuStat.throttledPeriods);
+        Assert.assertEquals(1073741824L, reader.getMemoryLimit());
+        Assert.assertEquals(536870912L - 134217728L, reader.getMemoryWorkingSet());
+    }
+
+    @Test
+    public void testCgroupV1Unlimited() throws IOException {
+        Path root = folder.getRoot().toPath();
+        write(root, "cpu/cpu.cfs_quota_us", "-1");
+        write(root, "cpu/cpu.cfs_period_us", "100000");
+        write(root, "memory/memory.limit_in_bytes", "9223372036854771712");
+
+        CgroupMetricsReader reader = CgroupMetricsReader.of(root);
+        Assert.assertNotNull(reader);
+        Assert.assertEquals(-1, reader.getCpuQuota(), 0.001);
+        Assert.assertEquals(-1, reader.getMemoryLimit());
+        Assert.assertEquals(-1, reader.getCpuStat().usageNanos);
+    }
+
+    @Test
+    public void testCgroupV2() throws IOException {
+        Path root = folder.getRoot().toPath();
+        write(root, "cgroup.controllers", "cpu memory");
+        write(root, "cpu.max", "200000 100000");
+        write(root, "cpu.stat", "usage_usec 2500000\nuser_usec 2000000\nnr_periods 10\nnr_throttled 2");
+        write(root, "memory.max", "536870912");
+        write(root, "memory.current", "268435456");
+        write(root, "memory.stat", "anon 100\ninactive_file 67108864");
+
+        CgroupMetricsReader reader = CgroupMetricsReader.of(root);
+        Assert.assertNotNull(reader);
+        Assert.assertEquals(2, reader.getCpuQuota(), 0.001);
+        CgroupMetricsReader.CpuStat cpuStat = reader.getCpuStat();
+        Assert.assertEquals(2500000000L, cpuStat.usageNanos);
+        Assert.assertEquals(10, cpuStat.periods);
+        Assert.assertEquals(2, cpuStat.throttledPeriods);
+        Assert.assertEquals(536870912L, reader.getMemoryLimit());
+        Assert.assertEquals(268435456L - 67108864L, reader.getMemoryWorkingSet());
+    }
+
+    @Test
+    public void testCgroupV2Unlimited() throws IOException {
+        Path root = folder.getRoot().toPath();
+        write(root, "cgroup.controllers", "cpu memory");
+        write(root, "cpu.max", "max 100000");
+        write(root, "memory.max", "max");
+
+        CgroupMetricsReader reader = CgroupMetricsReader.of(root);
+        Assert.assertNotNull(reader);
+        Assert.assertEquals(-1, reader.getCpuQuota(), 0.001);
+        Assert.assertEquals(-1, reader.getMemoryLimit());
+        Assert.assertEquals(-1, reader.getMemoryWorkingSet());
+    }
+
+    @Test
+    public void testNoCgroup() {
+        Assert.assertNull(CgroupMetricsReader.of(folder.getRoot().toPath()));
+    }
+
+    @Test
+    public void testSampleInCgroup() throws IOException {
+        Path root = folder.getRoot().toPath();
+        write(root, "cgroup.controllers", "cpu memory");
+        write(root, "cpu.max", "200000 100000");
+        write(root, "cpu.stat", "usage_usec 0\nnr_periods 0\nnr_throttled 0");
+        write(root, "memory.max", "1048576");
+        write(root, "memory.current", "524288");
+
+        SystemMetricsSampler sampler = new SystemMetricsSampler(CgroupMetricsReader.of(root));
+        write(root, "cpu.stat", "usage_usec 100000000\nnr_periods 10\nnr_throttled 10");
+        SystemMetrics systemMetrics = sampler.sample();
+
+        Assert.assertEquals(2, systemMetrics.getCpuQuota(), 0.001);
+        Assert.assertEquals(1048576L, systemMetrics.getTotalMemory());
+        Assert.assertEquals(524288L, systemMetrics.getAvailableMemory());
+        Assert.assertEquals(0.5, systemMetrics.getMemoryUsage(), 0.001);
+        // the cgroup is saturated and throttled
+        Assert.assertEquals(1, systemMetrics.getCpuUsage(), 0.001);
+        Assert.assertTrue(systemMetrics.getLoadAverage() >= 2);
+    }
+
+    private void write(Path root, String file, String content) throws IOException {
+        Path path = root.resolve(file);
+        Files.createDirectories(path.getParent());
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
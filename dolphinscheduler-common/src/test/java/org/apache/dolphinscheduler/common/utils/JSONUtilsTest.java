@@ -17,6 +17,9 @@
 
 package org.apache.dolphinscheduler.common.utils;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.node.ArrayNode;
@@ -24,9 +27,12 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -194,4 +200,31 @@ public class JSONUtilsTest {
         Assert.assertEquals(localDateTime, timeList.get(0));
     }
 
+    @Test
+    public void testGeneratorAndParser() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = JSONUtils.createGenerator(out)) {
+            generator.writeStartArray();
+            for (int i = 0; i < 3; i++) {
+                Map<String, Object> map = new HashMap<>();
+                map.put("id", i);
+                map.put("time", new Date(0));
+                generator.writeObject(map);
+            }
+            generator.writeEndArray();
+        }
+        Assert.assertEquals(3, JSONUtils.toList(out.toString("UTF-8"), Map.class).size());
+
+        List<Integer> ids = new ArrayList<>();
+        try (JsonParser parser = JSONUtils.createParser(new ByteArrayInputStream(out.toByteArray()))) {
+            Assert.assertEquals(JsonToken.START_ARRAY, parser.nextToken());
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                Map<?, ?> map = parser.readValueAs(Map.class);
+                Assert.assertEquals(JSONUtils.toJsonString(new Date(0)).replace(""", ""), map.get("time"));
+                ids.add((Integer) map.get("id"));
+            }
+        }
+        Assert.assertEquals(Arrays.asList(0, 1, 2), ids);
+    }
+
 }
@@ -50,6 +50,7 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
@@ -136,6 +137,29 @@ public class AlertDao {
         return alertSendStatusMapper.insert(alertSendStatus);
     }
 
+    /**
+     * save the send results of the alerts in one transaction, the send status of each alert plugin instance is
+     * inserted or updated in batch, then the alerts are updated, so the results can be saved again if it failed
+     *
+     * @param alerts alerts with the alert status and log to update
+     * @param alertSendStatuses send status of the alert plugin instances
+     */
+    @Transactional
+    public void saveAlertSendResults(List<Alert> alerts, List<AlertSendStatus> alertSendStatuses) {
+        if (!alertSendStatuses.isEmpty()) {
+            alertSendStatusMapper.batchInsertOrUpdate(alertSendStatuses);
+        }
+        Date now = new Date();
+        for (Alert alert : alerts) {
+            Alert updateAlert = new Alert();
+            updateAlert.setId(alert.getId());
+            updateAlert.setAlertStatus(alert.getAlertStatus());
+            updateAlert.setUpdateTime(now);
+            updateAlert.setLog(alert.getLog());
+            alertMapper.updateById(updateAlert);
+        }
+    }
+
     /**
      * MasterServer or WorkerServer stopped
      *
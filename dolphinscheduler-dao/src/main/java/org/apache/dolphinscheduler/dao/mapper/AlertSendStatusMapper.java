@@ -19,7 +19,20 @@ package org.apache.dolphinscheduler.dao.mapper;
 
 import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
 
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 
 public interface AlertSendStatusMapper extends BaseMapper<AlertSendStatus> {
+
+    /**
+     * batch insert alert send status, the send status and log are updated if the alert plugin instance of the alert
+     * already has a send status
+     *
+     * @param alertSendStatuses alert send status list
+     * @return affected rows
+     */
+    int batchInsertOrUpdate(@Param("alertSendStatuses") List<AlertSendStatus> alertSendStatuses);
 }
@@ -46,6 +46,16 @@ public interface ProcessDefinitionLogMapper extends BaseMapper<ProcessDefinition
     @Cacheable(sync = true)
     ProcessDefinitionLog queryByDefinitionCodeAndVersion(@Param("code") long code, @Param("version") int version);
 
+    /**
+     * query the id of the process definition log by process definition code and version number, the version number
+     * may be reused after the version is deleted, while the id is not
+     *
+     * @param code process definition code
+     * @param version version number
+     * @return the id of the process definition log, or null if it doesn't exist
+     */
+    Integer queryIdByDefinitionCodeAndVersion(@Param("code") long code, @Param("version") int version);
+
     /**
      * query process definition log by name
      *
@@ -78,6 +78,16 @@ public interface TaskDefinitionLogMapper extends BaseMapper<TaskDefinitionLog> {
      */
     List<TaskDefinitionLog> queryByTaskDefinitions(@Param("taskDefinitions") Collection<TaskDefinition> taskDefinitions);
 
+    /**
+     * query the flags of the task definition logs, only the id, code, version and flag are selected, the flag is the
+     * only column of a task definition log updated after it is inserted, and the id changes if the version is deleted
+     * and inserted again
+     *
+     * @param taskDefinitions taskDefinition list, it should not be empty
+     * @return the task definition logs with id, code, version and flag
+     */
+    List<TaskDefinitionLog> queryFlagsByTaskDefinitions(@Param("taskDefinitions") Collection<TaskDefinition> taskDefinitions);
+
     /**
      * batch insert task definition logs
      *
@@ -49,6 +49,23 @@ public interface TaskGroupMapper extends BaseMapper<TaskGroup> {
     int releaseTaskGroupResource(@Param("id") int id, @Param("useSize") int useSize,
                                  @Param("queueId") int queueId, @Param("queueStatus") int queueStatus);
 
+    /**
+     * increase the use size of the task group if it is not full, the closed task group is never full
+     *
+     * @param id primary key
+     * @param openStatus the status of the open task group
+     * @return affected rows
+     */
+    int increaseUseSize(@Param("id") int id, @Param("openStatus") int openStatus);
+
+    /**
+     * decrease the use size of the task group if it is used
+     *
+     * @param id primary key
+     * @return affected rows
+     */
+    int decreaseUseSize(@Param("id") int id);
+
     /**
      * select task groups paging
      *
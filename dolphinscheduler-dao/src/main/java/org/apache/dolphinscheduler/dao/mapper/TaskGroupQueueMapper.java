@@ -57,6 +57,18 @@ public interface TaskGroupQueueMapper extends BaseMapper<TaskGroupQueue> {
      */
     List<TaskGroupQueue> queryByStatus(@Param("status") int status);
 
+    /**
+     * query the task group queues of the task groups in the master slot by status, in the order of creation
+     *
+     * @param statuses statuses
+     * @param masterSize master size
+     * @param slot master slot
+     * @return task group queues with the arbitration columns only
+     */
+    List<TaskGroupQueue> queryByStatusAndGroupSlot(@Param("statuses") List<Integer> statuses,
+                                                   @Param("masterSize") int masterSize,
+                                                   @Param("slot") int slot);
+
     /**
      * delete by task id
      *
@@ -91,6 +103,41 @@ public interface TaskGroupQueueMapper extends BaseMapper<TaskGroupQueue> {
 
     int updateInQueueCAS(@Param("oldValue") int oldValue, @Param("newValue") int newValue, @Param("id") int id);
 
+    /**
+     * update status by task id if the status is the old status
+     *
+     * @param taskId task id
+     * @param oldStatus old status
+     * @param newStatus new status
+     * @return affected rows
+     */
+    int updateStatusByTaskIdCAS(@Param("taskId") int taskId, @Param("oldStatus") int oldStatus,
+                                @Param("newStatus") int newStatus);
+
+    /**
+     * update status by task id if the status is the old status and the task is not force started,
+     * the force started tasks are not counted in the use size
+     *
+     * @param taskId task id
+     * @param oldStatus old status
+     * @param newStatus new status
+     * @return affected rows
+     */
+    int acquireByTaskIdCAS(@Param("taskId") int taskId, @Param("oldStatus") int oldStatus,
+                           @Param("newStatus") int newStatus);
+
+    /**
+     * update status by task id and put the task out of queue if the status is the old status,
+     * it is used to wait for the task group again
+     *
+     * @param taskId task id
+     * @param oldStatus old status
+     * @param newStatus new status
+     * @return affected rows
+     */
+    int requeueByTaskIdCAS(@Param("taskId") int taskId, @Param("oldStatus") int oldStatus,
+                           @Param("newStatus") int newStatus);
+
     void modifyPriority(@Param("queueId") int queueId, @Param("priority") int priority);
 
     IPage<TaskGroupQueue> queryTaskGroupQueueByTaskGroupIdPaging(Page<TaskGroupQueue> page, @Param("taskName")String taskName
@@ -26,6 +26,7 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 import org.apache.ibatis.annotations.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -40,6 +41,9 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
     List<TaskInstance> findValidTaskListByProcessId(@Param("processInstanceId") Integer processInstanceId,
                                                     @Param("flag") Flag flag);
 
+    List<TaskInstance> findValidTaskListByProcessIds(@Param("processInstanceIds") Collection<Integer> processInstanceIds,
+                                                     @Param("flag") Flag flag);
+
     List<TaskInstance> queryByHostAndStatus(@Param("host") String host,
                                             @Param("states") int[] stateArray);
 
@@ -56,6 +60,12 @@ public interface TaskInstanceMapper extends BaseMapper<TaskInstance> {
     List<TaskInstance> queryByProcessInstanceIdsAndTaskCodes(@Param("processInstanceIds") List<Integer> processInstanceIds,
                                                   @Param("taskCodes") List<Long> taskCodes);
 
+    /**
+     * Query the states of the available task instances of the process instances, only the id, task code, process
+     * instance id, state, start time, end time and host are returned.
+     */
+    List<TaskInstance> queryStatesByProcessInstanceIds(@Param("processInstanceIds") List<Integer> processInstanceIds);
+
     Integer countTask(@Param("projectCodes") Long[] projectCodes,
                       @Param("taskIds") int[] taskIds);
 
@@ -20,7 +20,11 @@ package org.apache.dolphinscheduler.dao;
 import org.apache.dolphinscheduler.common.enums.AlertStatus;
 import org.apache.dolphinscheduler.common.enums.ProfileType;
 import org.apache.dolphinscheduler.dao.entity.Alert;
+import org.apache.dolphinscheduler.dao.entity.AlertSendStatus;
+import org.apache.dolphinscheduler.dao.mapper.AlertSendStatusMapper;
 
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 
 import org.junit.Assert;
@@ -35,6 +39,8 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+
 @ActiveProfiles(ProfileType.H2)
 @RunWith(SpringRunner.class)
 @SpringBootApplication(scanBasePackageClasses = DaoConfiguration.class)
@@ -46,6 +52,9 @@ public class AlertDaoTest {
     @Autowired
     private AlertDao alertDao;
 
+    @Autowired
+    private AlertSendStatusMapper alertSendStatusMapper;
+
     @Test
     public void testAlertDao() {
         Alert alert = new Alert();
@@ -67,6 +76,60 @@ public class AlertDaoTest {
         Assert.assertEquals(1, insertCount);
     }
 
+    @Test
+    public void testSaveAlertSendResults() {
+        Alert alert = new Alert();
+        alert.setTitle("Batch Alert");
+        alert.setContent("batch alert content");
+        alert.setAlertGroupId(1);
+        alert.setAlertStatus(AlertStatus.WAIT_EXECUTION);
+        alertDao.addAlert(alert);
+
+        List<AlertSendStatus> sendStatuses = Arrays.asList(
+                newAlertSendStatus(alert.getId(), 1, AlertStatus.EXECUTION_SUCCESS),
+                newAlertSendStatus(alert.getId(), 2, AlertStatus.EXECUTION_FAILURE));
+        alert.setAlertStatus(AlertStatus.EXECUTION_PARTIAL_SUCCESS);
+        alert.setLog("partial success");
+        alertDao.saveAlertSendResults(Arrays.asList(alert), sendStatuses);
+
+        Assert.assertTrue(alertDao.listPendingAlerts()
+                .stream()
+                .noneMatch(pendingAlert -> pendingAlert.getId().equals(alert.getId())));
+    }
+
+    @Test
+    public void testSaveAlertSendResultsAgain() {
+        Alert alert = new Alert();
+        alert.setTitle("Batch Alert");
+        alert.setContent("batch alert content");
+        alert.setAlertGroupId(1);
+        alert.setAlertStatus(AlertStatus.WAIT_EXECUTION);
+        alertDao.addAlert(alert);
+        alert.setAlertStatus(AlertStatus.EXECUTION_FAILURE);
+        alertDao.saveAlertSendResults(Arrays.asList(alert),
+                Arrays.asList(newAlertSendStatus(alert.getId(), 1, AlertStatus.EXECUTION_FAILURE)));
+
+        // the results are saved again, e.g. retried after a failure
+        alert.setAlertStatus(AlertStatus.EXECUTION_SUCCESS);
+        alertDao.saveAlertSendResults(Arrays.asList(alert),
+                Arrays.asList(newAlertSendStatus(alert.getId(), 1, AlertStatus.EXECUTION_SUCCESS)));
+
+        List<AlertSendStatus> sendStatuses = alertSendStatusMapper.selectList(
+                new QueryWrapper<AlertSendStatus>().eq("alert_id", alert.getId()));
+        Assert.assertEquals(1, sendStatuses.size());
+        Assert.assertEquals(AlertStatus.EXECUTION_SUCCESS, sendStatuses.get(0).getSendStatus());
+    }
+
+    private AlertSendStatus newAlertSendStatus(int alertId, int alertPluginInstanceId, AlertStatus sendStatus) {
+        AlertSendStatus alertSendStatus = new AlertSendStatus();
+        alertSendStatus.setAlertId(alertId);
+        alertSendStatus.setAlertPluginInstanceId(alertPluginInstanceId);
+        alertSendStatus.setSendStatus(sendStatus);
+        alertSendStatus.setLog(sendStatus.name());
+        alertSendStatus.setCreateTime(new Date());
+        return alertSendStatus;
+    }
+
     @Test
     public void testSendServerStoppedAlert() {
         int alertGroupId = 1;
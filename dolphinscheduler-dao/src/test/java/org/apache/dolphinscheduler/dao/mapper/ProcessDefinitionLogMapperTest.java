@@ -130,6 +130,15 @@ public class ProcessDefinitionLogMapperTest extends BaseDaoTest {
         Assert.assertNotEquals(null, processDefinitionLogs);
     }
 
+    @Test
+    public void testQueryIdByDefinitionCodeAndVersion() {
+        ProcessDefinitionLog processDefinitionLog = insertOne();
+
+        Assert.assertEquals(processDefinitionLog.getId(),
+                processDefinitionLogMapper.queryIdByDefinitionCodeAndVersion(1L, 1));
+        Assert.assertNull(processDefinitionLogMapper.queryIdByDefinitionCodeAndVersion(1L, 100));
+    }
+
     @Test
     public void testQueryMaxVersionForDefinition() {
         insertOne();
@@ -17,11 +17,13 @@
 
 package org.apache.dolphinscheduler.dao.mapper;
 
+import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.dao.BaseDaoTest;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinition;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -94,4 +96,21 @@ public class TaskDefinitionLogMapperTest extends BaseDaoTest {
         Assert.assertNotEquals(taskDefinitionLogs.size(), 0);
     }
 
+    @Test
+    public void testQueryFlagsByTaskDefinitions() {
+        TaskDefinitionLog taskDefinitionLog = insertOne();
+        taskDefinitionLog.setFlag(Flag.NO);
+        taskDefinitionLogMapper.updateById(taskDefinitionLog);
+
+        TaskDefinition taskDefinition = new TaskDefinition(taskDefinitionLog.getCode(), taskDefinitionLog.getVersion());
+        List<TaskDefinitionLog> taskDefinitionLogs =
+                taskDefinitionLogMapper.queryFlagsByTaskDefinitions(Collections.singletonList(taskDefinition));
+        Assert.assertEquals(1, taskDefinitionLogs.size());
+        Assert.assertEquals(taskDefinitionLog.getId(), taskDefinitionLogs.get(0).getId());
+        Assert.assertEquals(taskDefinitionLog.getCode(), taskDefinitionLogs.get(0).getCode());
+        Assert.assertEquals(taskDefinitionLog.getVersion(), taskDefinitionLogs.get(0).getVersion());
+        Assert.assertEquals(Flag.NO, taskDefinitionLogs.get(0).getFlag());
+        Assert.assertNull(taskDefinitionLogs.get(0).getName());
+    }
+
 }
@@ -70,6 +70,21 @@ public class TaskGroupMapperTest extends BaseDaoTest {
         Assert.assertEquals(i, 1);
     }
 
+    @Test
+    public void testIncreaseAndDecreaseUseSize() {
+        TaskGroup taskGroup = insertOne();
+        taskGroup.setGroupSize(1);
+        taskGroupMapper.updateById(taskGroup);
+
+        Assert.assertEquals(1, taskGroupMapper.increaseUseSize(taskGroup.getId(), 1));
+        Assert.assertEquals(0, taskGroupMapper.increaseUseSize(taskGroup.getId(), 1));
+        Assert.assertEquals(1, taskGroupMapper.selectById(taskGroup.getId()).getUseSize());
+
+        Assert.assertEquals(1, taskGroupMapper.decreaseUseSize(taskGroup.getId()));
+        Assert.assertEquals(0, taskGroupMapper.decreaseUseSize(taskGroup.getId()));
+        Assert.assertEquals(0, taskGroupMapper.selectById(taskGroup.getId()).getUseSize());
+    }
+
     /**
      * test CheckName
      */
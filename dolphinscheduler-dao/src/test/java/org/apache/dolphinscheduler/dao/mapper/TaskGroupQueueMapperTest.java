@@ -21,6 +21,7 @@ import org.apache.dolphinscheduler.common.enums.TaskGroupQueueStatus;
 import org.apache.dolphinscheduler.dao.BaseDaoTest;
 import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -86,6 +87,20 @@ public class TaskGroupQueueMapperTest extends BaseDaoTest {
 
     }
 
+    @Test
+    public void testQueryByStatusAndGroupSlot() {
+        TaskGroupQueue taskGroupQueue = insertOne();
+        List<Integer> statuses = Arrays.asList(TaskGroupQueueStatus.WAIT_QUEUE.getCode(),
+                TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode());
+
+        List<TaskGroupQueue> taskGroupQueues = taskGroupQueueMapper.queryByStatusAndGroupSlot(statuses, 3, 1);
+        Assert.assertEquals(1, taskGroupQueues.size());
+        Assert.assertEquals(taskGroupQueue.getTaskId(), taskGroupQueues.get(0).getTaskId());
+        Assert.assertEquals(TaskGroupQueueStatus.ACQUIRE_SUCCESS, taskGroupQueues.get(0).getStatus());
+
+        Assert.assertTrue(taskGroupQueueMapper.queryByStatusAndGroupSlot(statuses, 3, 0).isEmpty());
+    }
+
     @Test
     public void testUpdateStatusByTaskId() {
         TaskGroupQueue taskGroupQueue = insertOne();
@@ -93,6 +108,56 @@ public class TaskGroupQueueMapperTest extends BaseDaoTest {
         Assert.assertEquals(i, 1);
     }
 
+    @Test
+    public void testUpdateStatusByTaskIdCAS() {
+        TaskGroupQueue taskGroupQueue = insertOne();
+        int i = taskGroupQueueMapper.updateStatusByTaskIdCAS(taskGroupQueue.getTaskId(),
+                TaskGroupQueueStatus.WAIT_QUEUE.getCode(), TaskGroupQueueStatus.RELEASE.getCode());
+        Assert.assertEquals(0, i);
+        i = taskGroupQueueMapper.updateStatusByTaskIdCAS(taskGroupQueue.getTaskId(),
+                TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode(), TaskGroupQueueStatus.RELEASE.getCode());
+        Assert.assertEquals(1, i);
+        Assert.assertEquals(TaskGroupQueueStatus.RELEASE,
+                taskGroupQueueMapper.selectById(taskGroupQueue.getId()).getStatus());
+    }
+
+    @Test
+    public void testAcquireByTaskIdCAS() {
+        TaskGroupQueue taskGroupQueue = insertOne();
+        taskGroupQueue.setStatus(TaskGroupQueueStatus.WAIT_QUEUE);
+        taskGroupQueue.setForceStart(1);
+        taskGroupQueueMapper.updateById(taskGroupQueue);
+        // the force started task is not granted
+        int i = taskGroupQueueMapper.acquireByTaskIdCAS(taskGroupQueue.getTaskId(),
+                TaskGroupQueueStatus.WAIT_QUEUE.getCode(), TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode());
+        Assert.assertEquals(0, i);
+
+        taskGroupQueue.setForceStart(0);
+        taskGroupQueueMapper.updateById(taskGroupQueue);
+        i = taskGroupQueueMapper.acquireByTaskIdCAS(taskGroupQueue.getTaskId(),
+                TaskGroupQueueStatus.WAIT_QUEUE.getCode(), TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode());
+        Assert.assertEquals(1, i);
+        Assert.assertEquals(TaskGroupQueueStatus.ACQUIRE_SUCCESS,
+                taskGroupQueueMapper.selectById(taskGroupQueue.getId()).getStatus());
+    }
+
+    @Test
+    public void testRequeueByTaskIdCAS() {
+        TaskGroupQueue taskGroupQueue = insertOne();
+        taskGroupQueue.setStatus(TaskGroupQueueStatus.RELEASE);
+        taskGroupQueue.setInQueue(1);
+        taskGroupQueueMapper.updateById(taskGroupQueue);
+        int i = taskGroupQueueMapper.requeueByTaskIdCAS(taskGroupQueue.getTaskId(),
+                TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode(), TaskGroupQueueStatus.WAIT_QUEUE.getCode());
+        Assert.assertEquals(0, i);
+        i = taskGroupQueueMapper.requeueByTaskIdCAS(taskGroupQueue.getTaskId(),
+                TaskGroupQueueStatus.RELEASE.getCode(), TaskGroupQueueStatus.WAIT_QUEUE.getCode());
+        Assert.assertEquals(1, i);
+        TaskGroupQueue requeued = taskGroupQueueMapper.selectById(taskGroupQueue.getId());
+        Assert.assertEquals(TaskGroupQueueStatus.WAIT_QUEUE, requeued.getStatus());
+        Assert.assertEquals(0, requeued.getInQueue());
+    }
+
     @Test
     public void testDeleteByTaskId() {
         TaskGroupQueue taskGroupQueue = insertOne();
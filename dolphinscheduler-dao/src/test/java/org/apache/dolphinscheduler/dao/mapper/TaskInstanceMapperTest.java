@@ -27,6 +27,7 @@ import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -189,6 +190,26 @@ public class TaskInstanceMapperTest extends BaseDaoTest {
         Assert.assertNotEquals(taskInstances1.size(), 0);
     }
 
+    /**
+     * test find valid task list by process instance ids
+     */
+    @Test
+    public void testFindValidTaskListByProcessIds() {
+        ProcessInstance processInstance = insertProcessInstance();
+        int otherProcessInstanceId = processInstance.getId() + 1;
+        TaskInstance task = insertTaskInstance(processInstance.getId());
+        TaskInstance task2 = insertTaskInstance(otherProcessInstanceId);
+        TaskInstance task3 = insertTaskInstance(otherProcessInstanceId);
+        task3.setFlag(Flag.NO);
+        taskInstanceMapper.updateById(task3);
+
+        List<TaskInstance> taskInstances = taskInstanceMapper.findValidTaskListByProcessIds(
+                Arrays.asList(processInstance.getId(), otherProcessInstanceId), Flag.YES);
+        Assert.assertEquals(2, taskInstances.size());
+        Assert.assertTrue(taskInstances.stream().anyMatch(taskInstance -> taskInstance.getId().equals(task.getId())));
+        Assert.assertTrue(taskInstances.stream().anyMatch(taskInstance -> taskInstance.getId().equals(task2.getId())));
+    }
+
     /**
      * test query by host and status
      */
@@ -289,6 +310,20 @@ public class TaskInstanceMapperTest extends BaseDaoTest {
         Assert.assertEquals(taskInstances.size(), 1);
     }
 
+    @Test
+    public void testQueryStatesByProcessInstanceIds() {
+        ProcessInstance processInstance = insertProcessInstance();
+        TaskInstance task = insertTaskInstance(processInstance.getId());
+
+        List<TaskInstance> taskInstances = taskInstanceMapper.queryStatesByProcessInstanceIds(
+                Collections.singletonList(processInstance.getId()));
+        taskInstanceMapper.deleteById(task.getId());
+        Assert.assertEquals(1, taskInstances.size());
+        Assert.assertEquals(task.getId(), taskInstances.get(0).getId());
+        Assert.assertEquals(task.getState(), taskInstances.get(0).getState());
+        Assert.assertNull(taskInstances.get(0).getTaskParams());
+    }
+
     /**
      * test count task instance
      */
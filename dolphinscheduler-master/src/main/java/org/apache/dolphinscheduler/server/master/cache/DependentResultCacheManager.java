@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache;
+
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.DependResult;
+import org.apache.dolphinscheduler.plugin.task.api.model.DateInterval;
+import org.apache.dolphinscheduler.plugin.task.api.model.DependentItem;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * cache of the dependent results shared by the dependent tasks of the master
+ */
+public interface DependentResultCacheManager {
+
+    /**
+     * get the dependent result of the upstream workflow/task in the date interval, it is resolved by the supplier
+     * if it is not cached or has been invalidated, only the results waited by the dependent tasks are cached
+     *
+     * @param definitionCode upstream workflow definition code
+     * @param depTaskCode    upstream task code, or {@link org.apache.dolphinscheduler.common.constants.Constants#DEPENDENT_ALL_TASK_CODE}
+     * @param dateInterval   date interval
+     * @param resultSupplier resolve the dependent result from database
+     * @return DependResult
+     */
+    DependResult getDependResult(long definitionCode, long depTaskCode, DateInterval dateInterval,
+                                 Supplier<DependResult> resultSupplier);
+
+    /**
+     * the dependent task will be notified once the upstream workflows/tasks of the dependent items finish
+     *
+     * @param dependentItems dependent items
+     * @param taskInstance   dependent task instance
+     */
+    void addWaitingDependent(Collection<DependentItem> dependentItems, TaskInstance taskInstance);
+
+    /**
+     * the dependent task will not be notified anymore
+     *
+     * @param taskInstance dependent task instance
+     */
+    void removeWaitingDependent(TaskInstance taskInstance);
+
+    /**
+     * invalidate the cached dependent results of the upstream task, and notify the dependent tasks waiting for it
+     *
+     * @param definitionCode upstream workflow definition code
+     * @param taskCode       upstream task code
+     */
+    void upstreamTaskFinished(long definitionCode, long taskCode);
+
+    /**
+     * invalidate the cached dependent results of the upstream workflow and its tasks, and notify the dependent tasks
+     * waiting for them
+     *
+     * @param definitionCode upstream workflow definition code
+     */
+    void upstreamWorkflowFinished(long definitionCode);
+}
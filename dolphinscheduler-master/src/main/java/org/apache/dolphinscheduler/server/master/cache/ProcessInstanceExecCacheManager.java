@@ -67,5 +67,12 @@ public interface ProcessInstanceExecCacheManager {
      */
     Collection<WorkflowExecuteRunnable> getAll();
 
+    /**
+     * get the number of cached WorkflowExecuteThread
+     *
+     * @return the number of cached WorkflowExecuteThread
+     */
+    int size();
+
     void clearCache();
 }
\ No newline at end of file
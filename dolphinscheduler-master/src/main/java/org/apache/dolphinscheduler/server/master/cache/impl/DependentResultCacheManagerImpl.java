@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import org.apache.dolphinscheduler.common.enums.StateEventType;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.DependResult;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.plugin.task.api.model.DateInterval;
+import org.apache.dolphinscheduler.plugin.task.api.model.DependentItem;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
+import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * The dependent results are cached by upstream workflow definition and task, only for the upstreams waited by the
+ * dependent tasks. The results of an upstream task are invalidated once a task instance of it is finished by this
+ * master, the results of the upstream workflow and all of its tasks are invalidated once a workflow instance of it is
+ * finished, and the dependent tasks waiting for them are notified to check again. The upstream workflows run by other
+ * masters are not seen here, so the results also expire after {@link MasterConfig#getDependentResultCacheExpire()}.
+ */
+@Component
+public class DependentResultCacheManagerImpl implements DependentResultCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(DependentResultCacheManagerImpl.class);
+
+    /**
+     * purge the expired results of an upstream when it has more results than this
+     */
+    private static final int PURGE_THRESHOLD = 64;
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    @Lazy
+    @Autowired
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    /**
+     * upstream -> the dependent tasks waiting for it and the dependent results, removed once no dependent task waits
+     */
+    private final ConcurrentHashMap<Upstream, UpstreamDependents> upstreamDependents = new ConcurrentHashMap<>();
+
+    @Override
+    public DependResult getDependResult(long definitionCode, long depTaskCode, DateInterval dateInterval,
+                                        Supplier<DependResult> resultSupplier) {
+        long expireMillis = masterConfig.getDependentResultCacheExpire().toMillis();
+        if (expireMillis <= 0) {
+            return resultSupplier.get();
+        }
+        UpstreamDependents dependents = upstreamDependents.get(new Upstream(definitionCode, depTaskCode));
+        if (dependents == null) {
+            // no dependent task waits for it, the result would never be invalidated
+            return resultSupplier.get();
+        }
+        String resultKey = dateInterval.getStartTime().getTime() + "_" + dateInterval.getEndTime().getTime();
+        long now = System.currentTimeMillis();
+        DependResult cachedResult = dependents.getResult(resultKey, now);
+        if (cachedResult != null) {
+            TaskMetrics.incDependentResultCache(true);
+            return cachedResult;
+        }
+        TaskMetrics.incDependentResultCache(false);
+        long version = dependents.getVersion();
+        DependResult result = resultSupplier.get();
+        dependents.putResult(resultKey, result, now + expireMillis, version);
+        return result;
+    }
+
+    @Override
+    public void addWaitingDependent(Collection<DependentItem> dependentItems, TaskInstance taskInstance) {
+        WaitingDependent waitingDependent = new WaitingDependent(taskInstance);
+        for (DependentItem dependentItem : dependentItems) {
+            upstreamDependents.compute(new Upstream(dependentItem.getDefinitionCode(), dependentItem.getDepTaskCode()),
+                    (upstream, dependents) -> {
+                        UpstreamDependents newDependents = dependents == null ? new UpstreamDependents() : dependents;
+                        newDependents.add(waitingDependent);
+                        return newDependents;
+                    });
+        }
+    }
+
+    @Override
+    public void removeWaitingDependent(TaskInstance taskInstance) {
+        WaitingDependent waitingDependent = new WaitingDependent(taskInstance);
+        for (Upstream upstream : upstreamDependents.keySet()) {
+            upstreamDependents.computeIfPresent(upstream,
+                    (key, dependents) -> dependents.remove(waitingDependent) ? null : dependents);
+        }
+    }
+
+    @Override
+    public void upstreamTaskFinished(long definitionCode, long taskCode) {
+        UpstreamDependents dependents = upstreamDependents.get(new Upstream(definitionCode, taskCode));
+        if (dependents != null) {
+            notifyDependents(definitionCode, dependents.invalidate());
+        }
+    }
+
+    @Override
+    public void upstreamWorkflowFinished(long definitionCode) {
+        Set<WaitingDependent> waitingDependents = new HashSet<>();
+        for (Map.Entry<Upstream, UpstreamDependents> entry : upstreamDependents.entrySet()) {
+            if (entry.getKey().definitionCode == definitionCode) {
+                waitingDependents.addAll(entry.getValue().invalidate());
+            }
+        }
+        notifyDependents(definitionCode, waitingDependents);
+    }
+
+    private void notifyDependents(long definitionCode, Collection<WaitingDependent> waitingDependents) {
+        for (WaitingDependent dependent : waitingDependents) {
+            logger.info("Upstream of workflow {} finished, notify dependent task instance {}", definitionCode,
+                    dependent.taskInstanceId);
+            TaskStateEvent stateEvent = TaskStateEvent.builder()
+                    .processInstanceId(dependent.processInstanceId)
+                    .taskInstanceId(dependent.taskInstanceId)
+                    .taskCode(dependent.taskCode)
+                    .type(StateEventType.TASK_STATE_CHANGE)
+                    .status(TaskExecutionStatus.RUNNING_EXECUTION)
+                    .build();
+            try {
+                workflowExecuteThreadPool.submitStateEvent(stateEvent);
+            } catch (Exception e) {
+                logger.error("Notify dependent task instance {} error", dependent.taskInstanceId, e);
+            }
+        }
+    }
+
+    /**
+     * The upstream workflow definition and task, the task code is
+     * {@link org.apache.dolphinscheduler.common.constants.Constants#DEPENDENT_ALL_TASK_CODE} if depending on the
+     * whole workflow.
+     */
+    private static final class Upstream {
+
+        private final long definitionCode;
+
+        private final long taskCode;
+
+        private Upstream(long definitionCode, long taskCode) {
+            this.definitionCode = definitionCode;
+            this.taskCode = taskCode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Upstream upstream = (Upstream) o;
+            return definitionCode == upstream.definitionCode && taskCode == upstream.taskCode;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(definitionCode, taskCode);
+        }
+    }
+
+    /**
+     * The dependent tasks waiting for an upstream and the dependent results of it.
+     */
+    private static final class UpstreamDependents {
+
+        private final Set<WaitingDependent> waitingDependents = new HashSet<>();
+
+        private final Map<String, CachedDependResult> results = new HashMap<>();
+
+        /**
+         * increased once invalidated, the results resolved before invalidated will not be cached
+         */
+        private long version;
+
+        synchronized void add(WaitingDependent waitingDependent) {
+            waitingDependents.add(waitingDependent);
+        }
+
+        /**
+         * @return true if there is no dependent task waiting anymore
+         */
+        synchronized boolean remove(WaitingDependent waitingDependent) {
+            waitingDependents.remove(waitingDependent);
+            return waitingDependents.isEmpty();
+        }
+
+        synchronized long getVersion() {
+            return version;
+        }
+
+        synchronized DependResult getResult(String resultKey, long now) {
+            CachedDependResult cachedResult = results.get(resultKey);
+            if (cachedResult == null || cachedResult.expireTime <= now) {
+                return null;
+            }
+            return cachedResult.result;
+        }
+
+        synchronized void putResult(String resultKey, DependResult result, long expireTime, long resolvedVersion) {
+            if (resolvedVersion != version) {
+                return;
+            }
+            if (results.size() >= PURGE_THRESHOLD) {
+                long now = System.currentTimeMillis();
+                Iterator<CachedDependResult> iterator = results.values().iterator();
+                while (iterator.hasNext()) {
+                    if (iterator.next().expireTime <= now) {
+                        iterator.remove();
+                    }
+                }
+            }
+            results.put(resultKey, new CachedDependResult(result, expireTime));
+        }
+
+        /**
+         * @return the dependent tasks waiting for the upstream
+         */
+        synchronized Set<WaitingDependent> invalidate() {
+            version++;
+            results.clear();
+            return new HashSet<>(waitingDependents);
+        }
+    }
+
+    private static final class CachedDependResult {
+
+        private final DependResult result;
+
+        private final long expireTime;
+
+        private CachedDependResult(DependResult result, long expireTime) {
+            this.result = result;
+            this.expireTime = expireTime;
+        }
+    }
+
+    private static final class WaitingDependent {
+
+        private final int processInstanceId;
+
+        private final int taskInstanceId;
+
+        private final long taskCode;
+
+        private WaitingDependent(TaskInstance taskInstance) {
+            this.processInstanceId = taskInstance.getProcessInstanceId();
+            this.taskInstanceId = taskInstance.getId();
+            this.taskCode = taskInstance.getTaskCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return taskInstanceId == ((WaitingDependent) o).taskInstanceId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Integer.hashCode(taskInstanceId);
+        }
+    }
+}
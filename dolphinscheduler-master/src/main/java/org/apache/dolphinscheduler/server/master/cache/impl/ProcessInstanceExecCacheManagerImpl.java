@@ -71,6 +71,11 @@ public class ProcessInstanceExecCacheManagerImpl implements ProcessInstanceExecC
         return ImmutableList.copyOf(processInstanceExecMaps.values());
     }
 
+    @Override
+    public int size() {
+        return processInstanceExecMaps.size();
+    }
+
     @Override
     public void clearCache() {
         processInstanceExecMaps.clear();
@@ -22,6 +22,7 @@ import static org.apache.dolphinscheduler.common.constants.Constants.REGISTRY_DO
 import lombok.Data;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.registry.api.ConnectStrategyProperties;
+import org.apache.dolphinscheduler.remote.command.CommandBodySerializer;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostSelector;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskExecuteRunnable;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
@@ -51,10 +52,25 @@ public class MasterConfig implements Validator {
      * The max batch size used to fetch command from database.
      */
     private int fetchCommandNum = 10;
+    /**
+     * The max idle interval between two command fetches when there is no command in database.
+     * The master will be woken up by the command notify, the polling is only used as a fallback,
+     * the idle interval will backoff from 1s to this value.
+     */
+    private Duration commandFetchMaxInterval = Duration.ofSeconds(10);
     /**
      * The thread number used to prepare processInstance. This number shouldn't bigger than fetchCommandNum.
      */
     private int preExecThreads = 10;
+    /**
+     * The master will stop fetching command if the workflow event queue size is bigger than this value.
+     */
+    private int maxWorkflowEventQueueSize = 1000;
+    /**
+     * The master will stop fetching command if the running workflow instances is bigger than this value,
+     * the default value -1 means no limit.
+     */
+    private int maxRunningWorkflowInstances = -1;
     /**
      * todo: We may need to split the process/task into different thread size.
      * The thread number used to handle processInstance and task event.
@@ -65,6 +81,10 @@ public class MasterConfig implements Validator {
      * The task dispatch thread pool size.
      */
     private int dispatchTaskNumber = 3;
+    /**
+     * The max number of task instances updated in one batch.
+     */
+    private int taskInstanceBatchUpdateSize = 100;
     /**
      * Worker select strategy.
      */
@@ -85,10 +105,37 @@ public class MasterConfig implements Validator {
      * state wheel check interval, if this value is bigger, may increase the delay of task/processInstance.
      */
     private Duration stateWheelInterval = Duration.ofMillis(5);
+    /**
+     * The dependent results are shared by the dependent tasks until the upstream workflow/task finishes on this master
+     * or this time passes, 0 means no cache.
+     */
+    private Duration dependentResultCacheExpire = Duration.ofSeconds(30);
+    /**
+     * The interval to rebuild the task groups arbitrated by this master from the task group queue records, in case of
+     * lost acquire/release requests, the task groups are also rebuilt when the masters change.
+     */
+    private Duration taskGroupReconcileInterval = Duration.ofMinutes(1);
+    /**
+     * The body serializer of the task dispatch command, PROTOSTUFF is smaller and faster than JSON, but it can only be
+     * enabled after all of the workers are upgraded.
+     */
+    private CommandBodySerializer taskCommandSerializer = CommandBodySerializer.JSON;
     private double maxCpuLoadAvg = -1;
     private double reservedMemory = 0.3;
     private Duration failoverInterval = Duration.ofMinutes(10);
     private boolean killYarnJobWhenTaskFailover = true;
+    /**
+     * The thread pool size to failover the task instances of the workflow instances in parallel.
+     */
+    private int failoverThreads = 10;
+    /**
+     * The max number of workflow instances written to database in one batch when failover.
+     */
+    private int failoverBatchSize = 500;
+    /**
+     * The max number of the definition logs of each kind cached by code and version, 0 means disabled.
+     */
+    private long metadataCacheSize = 10000;
     private ConnectStrategyProperties registryDisconnectStrategy = new ConnectStrategyProperties();
 
     private Duration workerGroupRefreshInterval = Duration.ofSeconds(10L);
@@ -113,15 +160,24 @@ public class MasterConfig implements Validator {
         if (masterConfig.getFetchCommandNum() <= 0) {
             errors.rejectValue("fetch-command-num", null, "should be a positive value");
         }
+        if (masterConfig.getCommandFetchMaxInterval().toMillis() <= 0) {
+            errors.rejectValue("command-fetch-max-interval", null, "should be a valid duration");
+        }
         if (masterConfig.getPreExecThreads() <= 0) {
             errors.rejectValue("per-exec-threads", null, "should be a positive value");
         }
+        if (masterConfig.getMaxWorkflowEventQueueSize() <= 0) {
+            errors.rejectValue("max-workflow-event-queue-size", null, "should be a positive value");
+        }
         if (masterConfig.getExecThreads() <= 0) {
             errors.rejectValue("exec-threads", null, "should be a positive value");
         }
         if (masterConfig.getDispatchTaskNumber() <= 0) {
             errors.rejectValue("dispatch-task-number", null, "should be a positive value");
         }
+        if (masterConfig.getTaskInstanceBatchUpdateSize() <= 0) {
+            errors.rejectValue("task-instance-batch-update-size", null, "should be a positive value");
+        }
         if (masterConfig.getHeartbeatInterval().toMillis() < 0) {
             errors.rejectValue("heartbeat-interval", null, "should be a valid duration");
         }
@@ -134,9 +190,24 @@ public class MasterConfig implements Validator {
         if (masterConfig.getStateWheelInterval().toMillis() <= 0) {
             errors.rejectValue("state-wheel-interval", null, "should be a valid duration");
         }
+        if (masterConfig.getDependentResultCacheExpire().toMillis() < 0) {
+            errors.rejectValue("dependent-result-cache-expire", null, "should be a valid duration");
+        }
+        if (masterConfig.getTaskGroupReconcileInterval().toMillis() <= 0) {
+            errors.rejectValue("task-group-reconcile-interval", null, "should be a valid duration");
+        }
         if (masterConfig.getFailoverInterval().toMillis() <= 0) {
             errors.rejectValue("failover-interval", null, "should be a valid duration");
         }
+        if (masterConfig.getFailoverThreads() <= 0) {
+            errors.rejectValue("failover-threads", null, "should be a positive value");
+        }
+        if (masterConfig.getFailoverBatchSize() <= 0) {
+            errors.rejectValue("failover-batch-size", null, "should be a positive value");
+        }
+        if (masterConfig.getMetadataCacheSize() < 0) {
+            errors.rejectValue("metadata-cache-size", null, "should not be negative");
+        }
         if (masterConfig.getMaxCpuLoadAvg() <= 0) {
             masterConfig.setMaxCpuLoadAvg(Runtime.getRuntime().availableProcessors() * 2);
         }
@@ -152,18 +223,28 @@ public class MasterConfig implements Validator {
     private void printConfig() {
         logger.info("Master config: listenPort -> {} ", listenPort);
         logger.info("Master config: fetchCommandNum -> {} ", fetchCommandNum);
+        logger.info("Master config: commandFetchMaxInterval -> {} ", commandFetchMaxInterval);
         logger.info("Master config: preExecThreads -> {} ", preExecThreads);
+        logger.info("Master config: maxWorkflowEventQueueSize -> {} ", maxWorkflowEventQueueSize);
+        logger.info("Master config: maxRunningWorkflowInstances -> {} ", maxRunningWorkflowInstances);
         logger.info("Master config: execThreads -> {} ", execThreads);
         logger.info("Master config: dispatchTaskNumber -> {} ", dispatchTaskNumber);
+        logger.info("Master config: taskInstanceBatchUpdateSize -> {} ", taskInstanceBatchUpdateSize);
         logger.info("Master config: hostSelector -> {} ", hostSelector);
         logger.info("Master config: heartbeatInterval -> {} ", heartbeatInterval);
         logger.info("Master config: taskCommitRetryTimes -> {} ", taskCommitRetryTimes);
         logger.info("Master config: taskCommitInterval -> {} ", taskCommitInterval);
         logger.info("Master config: stateWheelInterval -> {} ", stateWheelInterval);
+        logger.info("Master config: dependentResultCacheExpire -> {} ", dependentResultCacheExpire);
+        logger.info("Master config: taskGroupReconcileInterval -> {} ", taskGroupReconcileInterval);
+        logger.info("Master config: taskCommandSerializer -> {} ", taskCommandSerializer);
         logger.info("Master config: maxCpuLoadAvg -> {} ", maxCpuLoadAvg);
         logger.info("Master config: reservedMemory -> {} ", reservedMemory);
         logger.info("Master config: failoverInterval -> {} ", failoverInterval);
         logger.info("Master config: killYarnJobWhenTaskFailover -> {} ", killYarnJobWhenTaskFailover);
+        logger.info("Master config: failoverThreads -> {} ", failoverThreads);
+        logger.info("Master config: failoverBatchSize -> {} ", failoverBatchSize);
+        logger.info("Master config: metadataCacheSize -> {} ", metadataCacheSize);
         logger.info("Master config: registryDisconnectStrategy -> {} ", registryDisconnectStrategy);
         logger.info("Master config: masterAddress -> {} ", masterAddress);
         logger.info("Master config: masterRegistryPath -> {} ", masterRegistryPath);
@@ -17,7 +17,7 @@
 
 package org.apache.dolphinscheduler.server.master.consumer;
 
-import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
 import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
@@ -37,7 +37,6 @@ import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
-import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.queue.TaskPriority;
 import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
 import org.slf4j.Logger;
@@ -46,12 +45,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CountDownLatch;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -67,16 +71,15 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     private static final Logger logger = LoggerFactory.getLogger(TaskPriorityQueueConsumer.class);
 
     /**
-     * taskUpdateQueue
+     * The max delay to retry the dispatch failed task.
      */
-    @Autowired
-    private TaskPriorityQueue<TaskPriority> taskPriorityQueue;
+    private static final long DISPATCH_RETRY_MAX_DELAY_MILLIS = 10 * Constants.SLEEP_TIME_MILLIS;
 
     /**
-     * processService
+     * taskUpdateQueue
      */
     @Autowired
-    private ProcessService processService;
+    private TaskPriorityQueue<TaskPriority> taskPriorityQueue;
 
     /**
      * executor dispatcher
@@ -107,6 +110,32 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
      */
     private ThreadPoolExecutor consumerThreadPoolExecutor;
 
+    /**
+     * Used to limit the number of in-flight dispatching tasks.
+     */
+    private Semaphore dispatchPermits;
+
+    /**
+     * The waiting tasks of each worker group, only accessed by the consumer thread.
+     * The worker groups are dispatched in round-robin, so a saturated worker group will not starve the others.
+     */
+    private final Map<String, PriorityQueue<TaskPriority>> workerGroupTaskQueues = new HashMap<>();
+
+    /**
+     * The worker groups which have waiting tasks, in round-robin order, only accessed by the consumer thread.
+     */
+    private final Deque<String> activeWorkerGroups = new ArrayDeque<>();
+
+    /**
+     * The dispatch failed tasks, will be put back to the worker group queue once the retry delay is over.
+     */
+    private final DelayQueue<DispatchRetryTask> dispatchRetryTasks = new DelayQueue<>();
+
+    /**
+     * The dispatch failed times of the task, key is the task instance id.
+     */
+    private final Map<Integer, Integer> dispatchFailedTimes = new ConcurrentHashMap<>();
+
     protected TaskPriorityQueueConsumer() {
         super("TaskPriorityQueueConsumeThread");
     }
@@ -115,6 +144,7 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     public void init() {
         this.consumerThreadPoolExecutor = (ThreadPoolExecutor) ThreadUtils
                 .newDaemonFixedThreadExecutor("TaskUpdateQueueConsumerThread", masterConfig.getDispatchTaskNumber());
+        this.dispatchPermits = new Semaphore(masterConfig.getDispatchTaskNumber());
         logger.info("Task priority queue consume thread staring");
         super.start();
         logger.info("Task priority queue consume thread started");
@@ -122,23 +152,52 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
 
     @Override
     public void run() {
-        int fetchTaskNum = masterConfig.getDispatchTaskNumber();
         while (!ServerLifeCycleManager.isStopped()) {
             try {
-                List<TaskPriority> failedDispatchTasks = this.batchDispatch(fetchTaskNum);
-
-                if (CollectionUtils.isNotEmpty(failedDispatchTasks)) {
-                    logger.info("{} tasks dispatch failed, will retry to dispatch", failedDispatchTasks.size());
-                    TaskMetrics.incTaskDispatchFailed(failedDispatchTasks.size());
-                    for (TaskPriority dispatchFailedTask : failedDispatchTasks) {
-                        taskPriorityQueue.put(dispatchFailedTask);
-                    }
-                    // If the all task dispatch failed, will sleep for 1s to avoid the master cpu higher.
-                    if (fetchTaskNum == failedDispatchTasks.size()) {
-                        logger.info("All tasks dispatch failed, will sleep a while to avoid the master cpu higher");
-                        TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS);
-                    }
+                // wait until there is an idle dispatch thread, we don't wait the whole batch finished
+                dispatchPermits.acquire();
+                TaskPriority taskPriority;
+                try {
+                    taskPriority = nextDispatchTask();
+                } catch (Exception e) {
+                    dispatchPermits.release();
+                    throw e;
+                }
+                if (taskPriority == null) {
+                    dispatchPermits.release();
+                    continue;
                 }
+                // the dispatch thread is returned once the command is written, the permit is held until
+                // the dispatch is finished, the result is handled in the dispatch threads rather than the netty
+                // event loop, see dispatchTaskAsync
+                consumerThreadPoolExecutor.execute(() -> {
+                    try {
+                        this.dispatchTaskAsync(taskPriority).whenComplete((result, ex) -> {
+                            try {
+                                if (ex != null) {
+                                    TaskMetrics.incTaskDispatchError();
+                                    logger.error("dispatcher task error, taskPriority: {}", taskPriority, ex);
+                                    retryDispatchLater(taskPriority);
+                                } else if (result) {
+                                    dispatchFailedTimes.remove(taskPriority.getTaskId());
+                                } else {
+                                    retryDispatchLater(taskPriority);
+                                }
+                            } finally {
+                                dispatchPermits.release();
+                            }
+                        });
+                    } catch (Exception e) {
+                        TaskMetrics.incTaskDispatchError();
+                        logger.error("dispatcher task error, taskPriority: {}", taskPriority, e);
+                        retryDispatchLater(taskPriority);
+                        dispatchPermits.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                logger.warn("Task priority queue consume thread interrupted, will exit the loop", e);
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
                 TaskMetrics.incTaskDispatchError();
                 logger.error("dispatcher task error", e);
@@ -147,35 +206,84 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     }
 
     /**
-     * batch dispatch with thread pool
+     * Get the next task to dispatch, the worker groups are picked in round-robin.
+     *
+     * @return the next task, return null if there is no task to dispatch in a while
      */
-    public List<TaskPriority> batchDispatch(int fetchTaskNum) throws TaskPriorityQueueException, InterruptedException {
-        List<TaskPriority> failedDispatchTasks = Collections.synchronizedList(new ArrayList<>());
-        CountDownLatch latch = new CountDownLatch(fetchTaskNum);
-
-        for (int i = 0; i < fetchTaskNum; i++) {
-            TaskPriority taskPriority = taskPriorityQueue.poll(Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
-            if (Objects.isNull(taskPriority)) {
-                latch.countDown();
-                continue;
+    private TaskPriority nextDispatchTask() throws TaskPriorityQueueException, InterruptedException {
+        transferDispatchRetryTasks();
+        TaskPriority taskPriority;
+        while ((taskPriority = taskPriorityQueue.poll(0, TimeUnit.MILLISECONDS)) != null) {
+            addToWorkerGroupQueue(taskPriority);
+        }
+        if (activeWorkerGroups.isEmpty()) {
+            // wait for the new task or the next retry task
+            DispatchRetryTask nextRetryTask = dispatchRetryTasks.peek();
+            long waitMillis = nextRetryTask == null
+                    ? Constants.SLEEP_TIME_MILLIS
+                    : Math.min(Constants.SLEEP_TIME_MILLIS,
+                            Math.max(nextRetryTask.getDelay(TimeUnit.MILLISECONDS), 1));
+            taskPriority = taskPriorityQueue.poll(waitMillis, TimeUnit.MILLISECONDS);
+            if (taskPriority != null) {
+                addToWorkerGroupQueue(taskPriority);
             }
+            transferDispatchRetryTasks();
+        }
+        String workerGroup = activeWorkerGroups.poll();
+        if (workerGroup == null) {
+            return null;
+        }
+        PriorityQueue<TaskPriority> workerGroupTaskQueue = workerGroupTaskQueues.get(workerGroup);
+        taskPriority = workerGroupTaskQueue.poll();
+        if (workerGroupTaskQueue.isEmpty()) {
+            workerGroupTaskQueues.remove(workerGroup);
+        } else {
+            activeWorkerGroups.add(workerGroup);
+        }
+        return taskPriority;
+    }
 
-            consumerThreadPoolExecutor.submit(() -> {
-                try {
-                    boolean dispatchResult = this.dispatchTask(taskPriority);
-                    if (!dispatchResult) {
-                        failedDispatchTasks.add(taskPriority);
-                    }
-                } finally {
-                    // make sure the latch countDown
-                    latch.countDown();
-                }
-            });
+    private void addToWorkerGroupQueue(TaskPriority taskPriority) {
+        String workerGroup = getWorkerGroup(taskPriority);
+        PriorityQueue<TaskPriority> workerGroupTaskQueue = workerGroupTaskQueues.get(workerGroup);
+        if (workerGroupTaskQueue == null) {
+            workerGroupTaskQueue = new PriorityQueue<>();
+            workerGroupTaskQueues.put(workerGroup, workerGroupTaskQueue);
+            activeWorkerGroups.add(workerGroup);
+        }
+        workerGroupTaskQueue.add(taskPriority);
+    }
+
+    private void transferDispatchRetryTasks() {
+        DispatchRetryTask dispatchRetryTask;
+        while ((dispatchRetryTask = dispatchRetryTasks.poll()) != null) {
+            addToWorkerGroupQueue(dispatchRetryTask.getTaskPriority());
         }
+    }
 
-        latch.await();
+    private String getWorkerGroup(TaskPriority taskPriority) {
+        if (StringUtils.isNotEmpty(taskPriority.getGroupName())) {
+            return taskPriority.getGroupName();
+        }
+        TaskExecutionContext context = taskPriority.getTaskExecutionContext();
+        if (context != null && StringUtils.isNotEmpty(context.getWorkerGroup())) {
+            return context.getWorkerGroup();
+        }
+        return Constants.DEFAULT_WORKER_GROUP;
+    }
 
-        return failedDispatchTasks;
+    /**
+     * Retry the dispatch failed task with an exponential delay, so that the failed tasks will not make the master
+     * busy, and will not block the other tasks.
+     */
+    private void retryDispatchLater(TaskPriority taskPriority) {
+        TaskMetrics.incTaskDispatchFailed(1);
+        int failedTimes = dispatchFailedTimes.merge(taskPriority.getTaskId(), 1, Integer::sum);
+        long delayMillis = Math.min(DISPATCH_RETRY_MAX_DELAY_MILLIS,
+                Constants.SLEEP_TIME_MILLIS_SHORT << Math.min(failedTimes - 1, 16));
+        logger.info("Task dispatch failed {} times, will retry to dispatch after {} ms, taskInstanceId: {}",
+                failedTimes, delayMillis, taskPriority.getTaskId());
+        dispatchRetryTasks.add(new DispatchRetryTask(taskPriority, System.currentTimeMillis() + delayMillis));
     }
 
     /**
@@ -185,14 +293,24 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
      * @return dispatch result, return true if dispatch success, return false if dispatch failed.
      */
     protected boolean dispatchTask(TaskPriority taskPriority) {
+        return dispatchTaskAsync(taskPriority).join();
+    }
+
+    /**
+     * Dispatch task to worker without blocking the current thread on the network.
+     *
+     * @param taskPriority taskPriority
+     * @return the future of the dispatch result, it's completed with true if dispatch success or the task
+     *         should be dropped, with false if dispatch failed, it's never completed exceptionally.
+     */
+    protected CompletableFuture<Boolean> dispatchTaskAsync(TaskPriority taskPriority) {
         TaskMetrics.incTaskDispatch();
-        boolean result = false;
         try {
             WorkflowExecuteRunnable workflowExecuteRunnable =
                     processInstanceExecCacheManager.getByProcessInstanceId(taskPriority.getProcessInstanceId());
             if (workflowExecuteRunnable == null) {
                 logger.error("Cannot find the related processInstance of the task, taskPriority: {}", taskPriority);
-                return true;
+                return CompletableFuture.completedFuture(true);
             }
             Optional<TaskInstance> taskInstanceOptional =
                     workflowExecuteRunnable.getTaskInstance(taskPriority.getTaskId());
@@ -200,7 +318,7 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
                 logger.error("Cannot find the task instance from related processInstance, taskPriority: {}",
                         taskPriority);
                 // we return true, so that we will drop this task.
-                return true;
+                return CompletableFuture.completedFuture(true);
             }
             TaskInstance taskInstance = taskInstanceOptional.get();
             TaskExecutionContext context = taskPriority.getTaskExecutionContext();
@@ -208,31 +326,36 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
                     new ExecutionContext(toCommand(context), ExecutorType.WORKER, context.getWorkerGroup(),
                             taskInstance);
 
-            if (isTaskNeedToCheck(taskPriority)) {
-                if (taskInstanceIsFinalState(taskPriority.getTaskId())) {
-                    // when task finish, ignore this task, there is no need to dispatch anymore
-                    logger.info("Task {} is already finished, no need to dispatch, task instance id: {}",
-                            taskInstance.getName(), taskInstance.getId());
-                    return true;
-                }
+            if (taskInstanceIsFinalState(taskInstance)) {
+                // when task finish, ignore this task, there is no need to dispatch anymore
+                logger.info("Task {} is already finished, no need to dispatch, task instance id: {}",
+                        taskInstance.getName(), taskInstance.getId());
+                return CompletableFuture.completedFuture(true);
             }
 
-            result = dispatcher.dispatch(executionContext);
-
-            if (result) {
-                logger.info("Master success dispatch task to worker, taskInstanceId: {}, worker: {}",
-                        taskPriority.getTaskId(),
-                        executionContext.getHost());
-                addDispatchEvent(context, executionContext);
-            } else {
-                logger.info("Master failed to dispatch task to worker, taskInstanceId: {}, worker: {}",
-                        taskPriority.getTaskId(),
-                        executionContext.getHost());
-            }
+            // the dispatch future may be completed by the netty event loop, which should not be blocked by the
+            // task event service and the retry
+            return dispatcher.dispatchAsync(executionContext).handleAsync((result, ex) -> {
+                if (ex != null) {
+                    logger.error("Master dispatch task to worker error, taskPriority: {}", taskPriority, ex);
+                    return false;
+                }
+                if (result) {
+                    logger.info("Master success dispatch task to worker, taskInstanceId: {}, worker: {}",
+                            taskPriority.getTaskId(),
+                            executionContext.getHost());
+                    addDispatchEvent(context, executionContext);
+                } else {
+                    logger.info("Master failed to dispatch task to worker, taskInstanceId: {}, worker: {}",
+                            taskPriority.getTaskId(),
+                            executionContext.getHost());
+                }
+                return result;
+            }, consumerThreadPoolExecutor);
         } catch (RuntimeException | ExecuteException e) {
             logger.error("Master dispatch task to worker error, taskPriority: {}", taskPriority, e);
         }
-        return result;
+        return CompletableFuture.completedFuture(false);
     }
 
     /**
@@ -250,30 +373,44 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
                 masterConfig.getMasterAddress(),
                 taskExecutionContext.getHost(),
                 System.currentTimeMillis());
-        return requestCommand.convert2Command();
+        return requestCommand.convert2Command(masterConfig.getTaskCommandSerializer());
     }
 
     /**
      * taskInstance is final state
      * success，failure，kill，stop，pause，threadwaiting is final state
+     * The state is maintained by the {@link WorkflowExecuteRunnable}, so we don't need to query it from database.
      *
-     * @param taskInstanceId taskInstanceId
+     * @param taskInstance taskInstance
      * @return taskInstance is final state
      */
-    public boolean taskInstanceIsFinalState(int taskInstanceId) {
-        TaskInstance taskInstance = processService.findTaskInstanceById(taskInstanceId);
-        return taskInstance.getState().isFinished();
+    public boolean taskInstanceIsFinalState(TaskInstance taskInstance) {
+        return taskInstance.getState() != null && taskInstance.getState().isFinished();
     }
 
-    /**
-     * check if task need to check state, if true, refresh the checkpoint
-     */
-    private boolean isTaskNeedToCheck(TaskPriority taskPriority) {
-        long now = System.currentTimeMillis();
-        if (now - taskPriority.getCheckpoint() > Constants.SECOND_TIME_MILLIS) {
-            taskPriority.setCheckpoint(now);
-            return true;
+    private static class DispatchRetryTask implements Delayed {
+
+        private final TaskPriority taskPriority;
+
+        private final long retryTime;
+
+        DispatchRetryTask(TaskPriority taskPriority, long retryTime) {
+            this.taskPriority = taskPriority;
+            this.retryTime = retryTime;
+        }
+
+        TaskPriority getTaskPriority() {
+            return taskPriority;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(retryTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), other.getDelay(TimeUnit.MILLISECONDS));
         }
-        return false;
     }
 }
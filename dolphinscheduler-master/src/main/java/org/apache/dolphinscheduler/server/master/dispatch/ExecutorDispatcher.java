@@ -27,6 +27,7 @@ import org.apache.dolphinscheduler.server.master.dispatch.host.HostManager;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
@@ -76,12 +77,59 @@ public class ExecutorDispatcher implements InitializingBean {
      */
     public Boolean dispatch(final ExecutionContext context) throws ExecuteException {
         // get executor manager
+        ExecutorManager<Boolean> executorManager = getExecutorManager(context);
+
+        // host select
+        if (!selectHost(context)) {
+            return false;
+        }
+        executorManager.beforeExecute(context);
+        try {
+            // task execute
+            return executorManager.execute(context);
+        } finally {
+            executorManager.afterExecute(context);
+        }
+    }
+
+    /**
+     * task dispatch without blocking the current thread on the network
+     *
+     * @param context context
+     * @return the future of the result, it's failed with {@link ExecuteException} if error
+     * @throws ExecuteException if there is no executor manager for the context
+     */
+    public CompletableFuture<Boolean> dispatchAsync(final ExecutionContext context) throws ExecuteException {
+        ExecutorManager<Boolean> executorManager = getExecutorManager(context);
+        if (!selectHost(context)) {
+            return CompletableFuture.completedFuture(false);
+        }
+        executorManager.beforeExecute(context);
+        CompletableFuture<Boolean> result;
+        try {
+            result = executorManager.executeAsync(context);
+        } catch (RuntimeException e) {
+            executorManager.afterExecute(context);
+            throw e;
+        }
+        return result.whenComplete((success, ex) -> {
+            try {
+                executorManager.afterExecute(context);
+            } catch (ExecuteException e) {
+                logger.error("after execute : {} error", context.getCommand(), e);
+            }
+        });
+    }
+
+    private ExecutorManager<Boolean> getExecutorManager(ExecutionContext context) throws ExecuteException {
         ExecutorManager<Boolean> executorManager = this.executorManagers.get(context.getExecutorType());
         if (executorManager == null) {
             throw new ExecuteException("no ExecutorManager for type : " + context.getExecutorType());
         }
+        return executorManager;
+    }
 
-        // host select
+    private boolean selectHost(ExecutionContext context) {
         Host host = hostManager.select(context);
         if (StringUtils.isEmpty(host.getAddress())) {
             logger.warn("fail to execute : {} due to no suitable worker, current task needs worker group {} to execute",
@@ -89,13 +137,7 @@ public class ExecutorDispatcher implements InitializingBean {
             return false;
         }
         context.setHost(host);
-        executorManager.beforeExecute(context);
-        try {
-            // task execute
-            return executorManager.execute(context);
-        } finally {
-            executorManager.afterExecute(context);
-        }
+        return true;
     }
 
     /**
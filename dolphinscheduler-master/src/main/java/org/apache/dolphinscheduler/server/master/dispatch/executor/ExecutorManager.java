@@ -20,6 +20,8 @@ package org.apache.dolphinscheduler.server.master.dispatch.executor;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  *  executor manager
  */
@@ -41,6 +43,13 @@ public interface ExecutorManager<T> {
      */
     T execute(ExecutionContext context) throws ExecuteException;
 
+    /**
+     * execute task without blocking the current thread
+     * @param context context
+     * @return the future of the result, it's failed with {@link ExecuteException} if error
+     */
+    CompletableFuture<T> executeAsync(ExecutionContext context);
+
     /**
      * execute task directly without retry
      * @param context context
@@ -48,6 +57,13 @@ public interface ExecutorManager<T> {
      */
     void executeDirectly(ExecutionContext context) throws ExecuteException;
 
+    /**
+     * execute task directly without retry and without blocking the current thread
+     * @param context context
+     * @return the future which is failed with {@link ExecuteException} if error
+     */
+    CompletableFuture<Void> executeDirectlyAsync(ExecutionContext context);
+
     /**
      *  after execute
      * @param context context
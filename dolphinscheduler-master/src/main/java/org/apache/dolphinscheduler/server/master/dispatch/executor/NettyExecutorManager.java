@@ -18,15 +18,17 @@
 package org.apache.dolphinscheduler.server.master.dispatch.executor;
 
 import org.apache.dolphinscheduler.common.constants.Constants;
-import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
+import org.apache.dolphinscheduler.remote.future.ResponseFutureTable;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.server.master.metrics.MasterServerMetrics;
 import org.apache.dolphinscheduler.server.master.processor.TaskExecuteResponseProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskExecuteRunningProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskKillResponseProcessor;
@@ -39,8 +41,15 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,6 +64,11 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
 
     private final Logger logger = LoggerFactory.getLogger(NettyExecutorManager.class);
 
+    /**
+     * The retry times of sending a command to a host.
+     */
+    private static final int SEND_RETRY_TIMES = 3;
+
     /**
      * server node manager
      */
@@ -72,18 +86,32 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
      */
     private final NettyRemotingClient nettyRemotingClient;
 
+    /**
+     * Used to schedule the retries of the failed sending.
+     */
+    private final ScheduledExecutorService retryExecutor;
+
     /**
      * constructor
      */
     public NettyExecutorManager() {
         final NettyClientConfig clientConfig = new NettyClientConfig();
         this.nettyRemotingClient = new NettyRemotingClient(clientConfig);
+        this.retryExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("NettyExecutorRetry"));
     }
 
     @PostConstruct
     public void init() {
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_KILL_RESPONSE, taskKillResponseProcessor);
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_REJECT, taskRecallProcessor);
+        MasterServerMetrics.registerRpcInFlightRequestsGauge(ResponseFutureTable::getInFlightRequests);
+        MasterServerMetrics.registerRpcTimeoutRequestsCounter(ResponseFutureTable::getTimeoutRequests);
+    }
+
+    @PreDestroy
+    public void close() {
+        this.retryExecutor.shutdownNow();
+        this.nettyRemotingClient.close();
     }
 
     /**
@@ -95,49 +123,64 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
      */
     @Override
     public Boolean execute(ExecutionContext context) throws ExecuteException {
-        // all nodes
-        Set<String> allNodes = getAllNodes(context);
-        // fail nodes
-        Set<String> failNodeSet = new HashSet<>();
-        // build command accord executeContext
+        return join(executeAsync(context));
+    }
+
+    /**
+     * Send the command to the host of the context, if failed, send it to the other nodes one by one, the current
+     * thread is not blocked.
+     *
+     * @param context context
+     * @return the future of the result, it's failed with {@link ExecuteException} if failed to send to all nodes
+     */
+    @Override
+    public CompletableFuture<Boolean> executeAsync(ExecutionContext context) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        executeAsync(context, context.getHost(), getAllNodes(context), new HashSet<>(), result);
+        return result;
+    }
+
+    private void executeAsync(ExecutionContext context,
+                              Host host,
+                              Set<String> allNodes,
+                              Set<String> failNodeSet,
+                              CompletableFuture<Boolean> result) {
         Command command = context.getCommand();
-        // execute task host
-        Host host = context.getHost();
-        boolean success = false;
-        while (!success) {
-            try {
-                doExecute(host, command);
-                success = true;
+        doExecuteAsync(host, command).whenComplete((ignored, ex) -> {
+            if (ex == null) {
                 context.setHost(host);
                 // We set the host to taskInstance to avoid when the worker down, this taskInstance may not be
                 // failovered, due to the taskInstance's host
                 // is not belongs to the down worker ISSUE-10842.
                 context.getTaskInstance().setHost(host.getAddress());
-            } catch (ExecuteException ex) {
-                logger.error("Execute command {} error", command, ex);
-                try {
-                    failNodeSet.add(host.getAddress());
-                    Set<String> tmpAllIps = new HashSet<>(allNodes);
-                    Collection<String> remained = CollectionUtils.subtract(tmpAllIps, failNodeSet);
-                    if (remained != null && remained.size() > 0) {
-                        host = Host.of(remained.iterator().next());
-                        logger.error("retry execute command : {} host : {}", command, host);
-                    } else {
-                        throw new ExecuteException("fail after try all nodes");
-                    }
-                } catch (Throwable t) {
-                    throw new ExecuteException("fail after try all nodes");
+                result.complete(true);
+                return;
+            }
+            logger.error("Execute command {} error", command, ex);
+            try {
+                failNodeSet.add(host.getAddress());
+                Collection<String> remained = CollectionUtils.subtract(allNodes, failNodeSet);
+                if (remained.isEmpty()) {
+                    result.completeExceptionally(new ExecuteException("fail after try all nodes"));
+                    return;
                 }
+                Host nextHost = Host.of(remained.iterator().next());
+                logger.error("retry execute command : {} host : {}", command, nextHost);
+                executeAsync(context, nextHost, allNodes, failNodeSet, result);
+            } catch (Throwable t) {
+                result.completeExceptionally(new ExecuteException("fail after try all nodes"));
             }
-        }
-
-        return success;
+        });
     }
 
     @Override
     public void executeDirectly(ExecutionContext context) throws ExecuteException {
-        Host host = context.getHost();
-        doExecute(host, context.getCommand());
+        join(executeDirectlyAsync(context));
+    }
+
+    @Override
+    public CompletableFuture<Void> executeDirectlyAsync(ExecutionContext context) {
+        return doExecuteAsync(context.getHost(), context.getCommand());
     }
 
     /**
@@ -148,22 +191,55 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
      * @throws ExecuteException if error throws ExecuteException
      */
     public void doExecute(final Host host, final Command command) throws ExecuteException {
-        // retry count，default retry 3
-        int retryCount = 3;
-        boolean success = false;
-        do {
+        join(doExecuteAsync(host, command));
+    }
+
+    /**
+     * Send the command to the host without blocking, the failed sending is retried after a while.
+     *
+     * @param host host
+     * @param command command
+     * @return the future which is completed once the command has been sent, it's failed with
+     *         {@link ExecuteException} if all the retries are failed
+     */
+    public CompletableFuture<Void> doExecuteAsync(final Host host, final Command command) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        doExecuteAsync(host, command, SEND_RETRY_TIMES, result);
+        return result;
+    }
+
+    private void doExecuteAsync(Host host, Command command, int retryCount, CompletableFuture<Void> result) {
+        nettyRemotingClient.sendOnewayAsync(host, command).whenComplete((ignored, ex) -> {
+            if (ex == null) {
+                result.complete(null);
+                return;
+            }
+            logger.error("Send command to {} error, command: {}", host, command, ex);
+            if (retryCount <= 0) {
+                result.completeExceptionally(
+                        new ExecuteException(String.format("send command : %s to %s error", command, host)));
+                return;
+            }
             try {
-                nettyRemotingClient.send(host, command);
-                success = true;
-            } catch (Exception ex) {
-                logger.error("Send command to {} error, command: {}", host, command, ex);
-                retryCount--;
-                ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
+                retryExecutor.schedule(() -> doExecuteAsync(host, command, retryCount - 1, result),
+                        Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(new ExecuteException("the executor manager has been closed", e));
             }
-        } while (retryCount >= 0 && !success);
+        });
+    }
 
-        if (!success) {
-            throw new ExecuteException(String.format("send command : %s to %s error", command, host));
+    private <T> T join(CompletableFuture<T> future) throws ExecuteException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ExecuteException) {
+                throw (ExecuteException) e.getCause();
+            }
+            throw new ExecuteException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecuteException(e);
         }
     }
 
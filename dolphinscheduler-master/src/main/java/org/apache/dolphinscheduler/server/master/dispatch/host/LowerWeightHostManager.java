@@ -17,28 +17,26 @@
 
 package org.apache.dolphinscheduler.server.master.dispatch.host;
 
-import org.apache.commons.collections4.CollectionUtils;
 import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.model.WorkerHeartBeat;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWeight;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWorker;
-import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightRoundRobin;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightHostSnapshot;
 import org.apache.dolphinscheduler.server.master.registry.WorkerInfoChangeListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * lower weight host manager
@@ -48,25 +46,13 @@ public class LowerWeightHostManager extends CommonHostManager {
     private final Logger logger = LoggerFactory.getLogger(LowerWeightHostManager.class);
 
     /**
-     * selector
+     * worker host weight snapshots, key is worker group, the whole map is copied and swapped on heartbeat change,
+     * so the dispatch threads can read it without lock.
      */
-    private LowerWeightRoundRobin selector;
-
-    /**
-     * worker host weights
-     */
-    private ConcurrentHashMap<String, Set<HostWeight>> workerHostWeightsMap;
-
-    /**
-     * worker group host lock
-     */
-    private Lock lock;
+    private volatile Map<String, LowerWeightHostSnapshot> workerHostWeightSnapshots = Collections.emptyMap();
 
     @PostConstruct
     public void init() {
-        this.selector = new LowerWeightRoundRobin();
-        this.workerHostWeightsMap = new ConcurrentHashMap<>();
-        this.lock = new ReentrantLock();
         serverNodeManager.addWorkerInfoChangeListener(new WorkerWeightListener());
     }
 
@@ -78,9 +64,9 @@ public class LowerWeightHostManager extends CommonHostManager {
      */
     @Override
     public Host select(ExecutionContext context) {
-        Set<HostWeight> workerHostWeights = getWorkerHostWeights(context.getWorkerGroup());
-        if (CollectionUtils.isNotEmpty(workerHostWeights)) {
-            return selector.select(workerHostWeights).getHost();
+        LowerWeightHostSnapshot snapshot = workerHostWeightSnapshots.get(context.getWorkerGroup());
+        if (snapshot != null) {
+            return snapshot.select();
         }
         return new Host();
     }
@@ -107,21 +93,22 @@ public class LowerWeightHostManager extends CommonHostManager {
     private void syncWorkerResources(final Map<String, Set<String>> workerGroupNodes,
                                      final Map<String, WorkerHeartBeat> workerNodeInfoMap) {
         try {
-            Map<String, Set<HostWeight>> workerHostWeights = new HashMap<>();
+            Map<String, LowerWeightHostSnapshot> snapshots = new HashMap<>();
             for (Map.Entry<String, Set<String>> entry : workerGroupNodes.entrySet()) {
                 String workerGroup = entry.getKey();
                 Set<String> nodes = entry.getValue();
-                Set<HostWeight> hostWeights = new HashSet<>(nodes.size());
+                List<HostWeight> hostWeights = new ArrayList<>(nodes.size());
                 for (String node : nodes) {
                     WorkerHeartBeat heartbeat = workerNodeInfoMap.getOrDefault(node, null);
                     Optional<HostWeight> hostWeightOpt = getHostWeight(node, workerGroup, heartbeat);
                     hostWeightOpt.ifPresent(hostWeights::add);
                 }
-                if (!hostWeights.isEmpty()) {
-                    workerHostWeights.put(workerGroup, hostWeights);
+                LowerWeightHostSnapshot snapshot = LowerWeightHostSnapshot.of(hostWeights);
+                if (snapshot != null) {
+                    snapshots.put(workerGroup, snapshot);
                 }
             }
-            syncWorkerHostWeight(workerHostWeights);
+            this.workerHostWeightSnapshots = Collections.unmodifiableMap(snapshots);
         } catch (Throwable ex) {
             logger.error("Sync worker resource error", ex);
         }
@@ -152,23 +139,4 @@ public class LowerWeightHostManager extends CommonHostManager {
                         heartBeat.getStartupTime()));
     }
 
-    private void syncWorkerHostWeight(Map<String, Set<HostWeight>> workerHostWeights) {
-        lock.lock();
-        try {
-            workerHostWeightsMap.clear();
-            workerHostWeightsMap.putAll(workerHostWeights);
-        } finally {
-            lock.unlock();
-        }
-    }
-
-    private Set<HostWeight> getWorkerHostWeights(String workerGroup) {
-        lock.lock();
-        try {
-            return workerHostWeightsMap.get(workerGroup);
-        } finally {
-            lock.unlock();
-        }
-    }
-
 }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.host.assign;
+
+import org.apache.dolphinscheduler.remote.utils.Host;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Immutable snapshot of the host weights of one worker group.
+ * <p>
+ * The snapshot is built once for each heartbeat change, it keeps only the hosts which can be assigned task
+ * (the hosts with the least waiting task count, the same as {@link LowerWeightRoundRobin}), and unrolls the
+ * lower weight round robin of these hosts into a schedule of host indexes. Selecting a host is then a lock-free
+ * cursor increment over the primitive schedule, without allocation.
+ * <p>
+ * Since the host weights are rebuilt on each heartbeat change, the round robin state of
+ * {@link LowerWeightRoundRobin} only lives as long as a snapshot, so the schedule gives the same sequence
+ * during the lifetime of the snapshot, and replays it if there are more selections than the schedule length.
+ */
+public final class LowerWeightHostSnapshot {
+
+    /**
+     * The schedule length of each host, the schedule is replayed after that.
+     */
+    static final int SCHEDULE_ROUNDS_PER_HOST = 16;
+
+    static final int MAX_SCHEDULE_LENGTH = 4096;
+
+    private final Host[] hosts;
+
+    private final double[] weights;
+
+    private final int[] schedule;
+
+    private final AtomicInteger cursor = new AtomicInteger();
+
+    private LowerWeightHostSnapshot(Host[] hosts, double[] weights, int[] schedule) {
+        this.hosts = hosts;
+        this.weights = weights;
+        this.schedule = schedule;
+    }
+
+    /**
+     * Build the snapshot, the iteration order of the host weights will be kept when there are equal weights.
+     *
+     * @param hostWeights host weights of the worker group
+     * @return the snapshot, or null if the host weights is empty
+     */
+    public static LowerWeightHostSnapshot of(Collection<HostWeight> hostWeights) {
+        if (hostWeights == null || hostWeights.isEmpty()) {
+            return null;
+        }
+        int minWaitingTaskCount = Integer.MAX_VALUE;
+        int candidateCount = 0;
+        for (HostWeight hostWeight : hostWeights) {
+            if (hostWeight.getWaitingTaskCount() < minWaitingTaskCount) {
+                minWaitingTaskCount = hostWeight.getWaitingTaskCount();
+                candidateCount = 1;
+            } else if (hostWeight.getWaitingTaskCount() == minWaitingTaskCount) {
+                candidateCount++;
+            }
+        }
+        Host[] hosts = new Host[candidateCount];
+        double[] weights = new double[candidateCount];
+        int i = 0;
+        for (HostWeight hostWeight : hostWeights) {
+            if (hostWeight.getWaitingTaskCount() == minWaitingTaskCount) {
+                hosts[i] = hostWeight.getHost();
+                weights[i] = hostWeight.getWeight();
+                i++;
+            }
+        }
+        return new LowerWeightHostSnapshot(hosts, weights, buildSchedule(weights));
+    }
+
+    /**
+     * Unroll the lower weight round robin, see {@link LowerWeightRoundRobin#doSelect(Collection)}.
+     */
+    static int[] buildSchedule(double[] weights) {
+        if (weights.length == 1) {
+            return new int[]{0};
+        }
+        double totalWeight = 0;
+        for (double weight : weights) {
+            totalWeight += weight;
+        }
+        double[] currentWeights = weights.clone();
+        int[] schedule = new int[Math.min(weights.length * SCHEDULE_ROUNDS_PER_HOST, MAX_SCHEDULE_LENGTH)];
+        for (int round = 0; round < schedule.length; round++) {
+            int lower = 0;
+            for (int i = 0; i < weights.length; i++) {
+                currentWeights[i] += weights[i];
+                if (currentWeights[i] < currentWeights[lower]) {
+                    lower = i;
+                }
+            }
+            currentWeights[lower] += totalWeight;
+            schedule[round] = lower;
+        }
+        return schedule;
+    }
+
+    /**
+     * Select the next host, this can be called concurrently.
+     */
+    public Host select() {
+        int next = cursor.getAndIncrement() & Integer.MAX_VALUE;
+        return hosts[schedule[next % schedule.length]];
+    }
+
+    public int size() {
+        return hosts.length;
+    }
+
+    public Host getHost(int index) {
+        return hosts[index];
+    }
+
+    public double getWeight(int index) {
+        return weights[index];
+    }
+}
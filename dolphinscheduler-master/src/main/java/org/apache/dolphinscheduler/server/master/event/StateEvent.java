@@ -45,4 +45,9 @@ public interface StateEvent {
     @Nullable
     String getContext();
 
+    /**
+     * The time when the event is created, used to measure the event handle latency.
+     */
+    long getCreateTime();
+
 }
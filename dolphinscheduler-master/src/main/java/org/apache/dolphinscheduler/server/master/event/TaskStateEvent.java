@@ -49,4 +49,7 @@ public class TaskStateEvent implements StateEvent {
 
     private String context;
 
+    @Builder.Default
+    private long createTime = System.currentTimeMillis();
+
 }
@@ -45,4 +45,7 @@ public class WorkflowStateEvent implements StateEvent {
     private Channel channel;
 
     private String context;
+
+    @Builder.Default
+    private long createTime = System.currentTimeMillis();
 }
@@ -17,7 +17,11 @@
 
 package org.apache.dolphinscheduler.server.master.metrics;
 
+import java.util.function.Supplier;
+
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import lombok.experimental.UtilityClass;
 
@@ -40,12 +44,48 @@ public class MasterServerMetrics {
                     .description("Master server consume command count")
                     .register(Metrics.globalRegistry);
 
+    /**
+     * Used to measure the master server stop consuming command due to back pressure.
+     */
+    private final Counter masterBackPressureCounter =
+            Counter.builder("ds.master.back.pressure.count")
+                    .description("Master server back pressure count")
+                    .register(Metrics.globalRegistry);
+
     public void incMasterOverload() {
         masterOverloadCounter.increment();
     }
 
+    public void incMasterBackPressure() {
+        masterBackPressureCounter.increment();
+    }
+
     public void incMasterConsumeCommand(int commandCount) {
         masterConsumeCommandCounter.increment(commandCount);
     }
 
+    public synchronized void registerStateWheelSizeGauge(Supplier<Number> function) {
+        Gauge.builder("ds.master.state.wheel.size", function)
+                .description("The number of checks in master state wheel")
+                .register(Metrics.globalRegistry);
+    }
+
+    public synchronized void registerStateWheelFireLagGauge(Supplier<Number> function) {
+        Gauge.builder("ds.master.state.wheel.fire.lag", function)
+                .description("The lag(ms) from the deadline to the check fired in master state wheel")
+                .register(Metrics.globalRegistry);
+    }
+
+    public synchronized void registerRpcInFlightRequestsGauge(Supplier<Number> function) {
+        Gauge.builder("ds.master.rpc.request.inflight", function)
+                .description("The number of rpc requests waiting for the response in master")
+                .register(Metrics.globalRegistry);
+    }
+
+    public synchronized void registerRpcTimeoutRequestsCounter(Supplier<Number> function) {
+        FunctionCounter.builder("ds.master.rpc.request.timeout.count", function, value -> value.get().doubleValue())
+                .description("The number of rpc requests timeout in master")
+                .register(Metrics.globalRegistry);
+    }
+
 }
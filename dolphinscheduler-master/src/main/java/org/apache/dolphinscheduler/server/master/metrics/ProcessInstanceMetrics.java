@@ -26,6 +26,7 @@ import java.util.function.Supplier;
 import com.google.common.collect.ImmutableSet;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
@@ -39,7 +40,20 @@ public class ProcessInstanceMetrics {
     private final Set<String> processInstanceStates = ImmutableSet.of(
             "submit", "timeout", "finish", "failover", "success", "fail", "stop");
 
+    private final Map<String, Timer> failoverPhaseTimers = new HashMap<>();
+
+    private final Set<String> failoverPhases = ImmutableSet.of("query", "load", "task", "write");
+
     static {
+        for (final String phase : failoverPhases) {
+            failoverPhaseTimers.put(
+                    phase,
+                    Timer.builder("ds.workflow.failover.phase.duration")
+                            .tag("phase", phase)
+                            .description(String.format("Master failover %s phase duration", phase))
+                            .register(Metrics.globalRegistry)
+            );
+        }
         for (final String state : processInstanceStates) {
             processInstanceCounters.put(
                     state,
@@ -62,6 +76,31 @@ public class ProcessInstanceMetrics {
             .description("Process instance generated duration")
             .register(Metrics.globalRegistry);
 
+    private final Timer commandPickupLatencyTimer =
+        Timer.builder("ds.workflow.command.pickup.latency")
+            .description("Duration from the command created to the process instance generated")
+            .register(Metrics.globalRegistry);
+
+    private final Counter commandNotifyCounter =
+        Counter.builder("ds.workflow.command.notify.count")
+            .description("Command notify received count")
+            .register(Metrics.globalRegistry);
+
+    private final Timer stateEventLatencyTimer =
+        Timer.builder("ds.workflow.state.event.latency")
+            .description("Duration from the state event created to handled")
+            .register(Metrics.globalRegistry);
+
+    private final DistributionSummary stateEventMailboxDepth =
+        DistributionSummary.builder("ds.workflow.state.event.mailbox.depth")
+            .description("The pending state event size of the workflow instance when it begin to handle events")
+            .register(Metrics.globalRegistry);
+
+    private final Timer failoverTimer =
+        Timer.builder("ds.workflow.failover.duration")
+            .description("Duration to failover the workflow instances of a master")
+            .register(Metrics.globalRegistry);
+
     public void recordCommandQueryTime(long milliseconds) {
         commandQueryTimer.record(milliseconds, TimeUnit.MILLISECONDS);
     }
@@ -70,6 +109,30 @@ public class ProcessInstanceMetrics {
         processInstanceGenerateTimer.record(milliseconds, TimeUnit.MILLISECONDS);
     }
 
+    public void recordCommandPickupLatency(long milliseconds) {
+        commandPickupLatencyTimer.record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordStateEventLatency(long milliseconds) {
+        stateEventLatencyTimer.record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordStateEventMailboxDepth(int depth) {
+        stateEventMailboxDepth.record(depth);
+    }
+
+    public void recordFailoverTime(long milliseconds) {
+        failoverTimer.record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    public void recordFailoverPhaseTime(final String phase, long milliseconds) {
+        failoverPhaseTimers.get(phase).record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
+    public void incCommandNotify() {
+        commandNotifyCounter.increment();
+    }
+
     public synchronized void registerProcessInstanceRunningGauge(Supplier<Number> function) {
         Gauge.builder("ds.workflow.instance.running", function)
             .description("The current running process instance count")
@@ -19,13 +19,16 @@ package org.apache.dolphinscheduler.server.master.metrics;
 
 import com.facebook.presto.jdbc.internal.guava.collect.ImmutableSet;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import lombok.experimental.UtilityClass;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 @UtilityClass
@@ -63,6 +66,34 @@ public class TaskMetrics {
                     .description("Number of errors during task dispatch")
                     .register(Metrics.globalRegistry);
 
+    private final DistributionSummary taskInstanceBatchUpdateSize =
+            DistributionSummary.builder("ds.task.instance.batch.update.size")
+                    .description("The number of task instances updated in one batch")
+                    .register(Metrics.globalRegistry);
+
+    private final Counter dependentResultCacheHitCounter =
+            Counter.builder("ds.task.dependent.result.cache.count")
+                    .tag("result", "hit")
+                    .description("The number of dependent results resolved from cache")
+                    .register(Metrics.globalRegistry);
+
+    private final Counter dependentResultCacheMissCounter =
+            Counter.builder("ds.task.dependent.result.cache.count")
+                    .tag("result", "miss")
+                    .description("The number of dependent results resolved from database")
+                    .register(Metrics.globalRegistry);
+
+    private final Timer taskGroupWaitTimer =
+            Timer.builder("ds.task.group.wait.time")
+                    .description("The time tasks wait for the task group resource on the arbitrating master")
+                    .register(Metrics.globalRegistry);
+
+    public synchronized void registerTaskGroupWaiting(Supplier<Number> consumer) {
+        Gauge.builder("ds.task.group.waiting", consumer)
+                .description("The number of tasks waiting for the task groups arbitrated by this master")
+                .register(Metrics.globalRegistry);
+    }
+
     public synchronized void registerTaskPrepared(Supplier<Number> consumer) {
         Gauge.builder("ds.task.prepared", consumer)
                 .description("Task prepared count")
@@ -81,6 +112,22 @@ public class TaskMetrics {
         taskDispatchCounter.increment();
     }
 
+    public void recordTaskInstanceBatchUpdateSize(int size) {
+        taskInstanceBatchUpdateSize.record(size);
+    }
+
+    public void incDependentResultCache(boolean hit) {
+        if (hit) {
+            dependentResultCacheHitCounter.increment();
+        } else {
+            dependentResultCacheMissCounter.increment();
+        }
+    }
+
+    public void recordTaskGroupWaitTime(long waitMillis) {
+        taskGroupWaitTimer.record(waitMillis, TimeUnit.MILLISECONDS);
+    }
+
     public void incTaskInstanceByState(final String state) {
         if (taskInstanceCounters.get(state) == null) {
             return;
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskGroupQueueChangeCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.server.master.runner.TaskGroupArbiter;
+import org.apache.dolphinscheduler.service.utils.LoggerUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.channel.Channel;
+
+/**
+ * handle the task group acquire/release requests from the masters running the tasks
+ */
+@Component
+public class TaskGroupQueueChangeProcessor implements NettyRequestProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskGroupQueueChangeProcessor.class);
+
+    @Autowired
+    private TaskGroupArbiter taskGroupArbiter;
+
+    @Override
+    public void process(Channel channel, Command command) {
+        Preconditions.checkArgument(CommandType.TASK_GROUP_ACQUIRE_REQUEST == command.getType()
+                || CommandType.TASK_GROUP_RELEASE_REQUEST == command.getType(),
+                String.format("invalid command type: %s", command.getType()));
+
+        TaskGroupQueueChangeCommand request =
+                JSONUtils.parseObject(command.getBody(), TaskGroupQueueChangeCommand.class);
+        try {
+            LoggerUtils.setWorkflowAndTaskInstanceIDMDC(request.getProcessInstanceId(), request.getTaskInstanceId());
+            logger.info("Received task group request: {}, command type: {}", request, command.getType());
+            if (CommandType.TASK_GROUP_ACQUIRE_REQUEST == command.getType()) {
+                taskGroupArbiter.arbitrateAcquire(request);
+            } else {
+                taskGroupArbiter.arbitrateRelease(request);
+            }
+        } finally {
+            LoggerUtils.removeWorkflowAndTaskInstanceIdMDC();
+        }
+    }
+
+}
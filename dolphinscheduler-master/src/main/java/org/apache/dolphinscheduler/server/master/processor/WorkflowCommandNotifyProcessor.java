@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.processor;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.WorkflowCommandNotifyCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.server.master.runner.MasterSchedulerBootstrap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.channel.Channel;
+
+/**
+ * handle the workflow command notify received from api/master, used to wake up the command loop.
+ */
+@Component
+public class WorkflowCommandNotifyProcessor implements NettyRequestProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(WorkflowCommandNotifyProcessor.class);
+
+    @Autowired
+    private MasterSchedulerBootstrap masterSchedulerBootstrap;
+
+    @Override
+    public void process(Channel channel, Command command) {
+        Preconditions.checkArgument(CommandType.WORKFLOW_COMMAND_NOTIFY == command.getType(),
+                String.format("invalid command type: %s", command.getType()));
+
+        WorkflowCommandNotifyCommand notifyCommand =
+                JSONUtils.parseObject(command.getBody(), WorkflowCommandNotifyCommand.class);
+        if (notifyCommand == null) {
+            logger.warn("Received an empty workflow command notify, will be ignored");
+            return;
+        }
+        logger.debug("Received workflow command notify, commandId: {}", notifyCommand.getCommandId());
+        masterSchedulerBootstrap.notifyCommandAvailable(notifyCommand.getCommandId());
+    }
+
+}
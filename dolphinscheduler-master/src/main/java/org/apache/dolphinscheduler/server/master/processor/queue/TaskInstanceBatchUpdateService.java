@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor.queue;
+
+import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
+import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.utils.TaskInstanceUtils;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Batched task instance updater.
+ * <p>
+ * The task event handlers submit the task instance here instead of updating it directly. The flush thread writes the
+ * pending update as soon as it is submitted, the updates submitted by the handlers of different workflow instances
+ * while a batch is being written are flushed in the next jdbc batch and one transaction, so there is no extra latency
+ * under low load and the batch grows with the concurrency.
+ * <p>
+ * The events of one workflow instance are handled one by one and each handler waits for its update, so there is at
+ * most one pending update of a task instance.
+ * <p>
+ * A snapshot of the task instance is taken when it is submitted, so the flush thread never reads the task instance
+ * which is being changed by the workflow. If the batch failed, the whole transaction is rolled back and the failure
+ * is thrown to the handlers, so they can roll back the task instance in memory like updating it directly.
+ */
+@Component
+public class TaskInstanceBatchUpdateService {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskInstanceBatchUpdateService.class);
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    private final Object lock = new Object();
+
+    /**
+     * The updates wait to flush, guarded by lock.
+     */
+    private final Deque<PendingUpdate> pendingUpdates = new ArrayDeque<>();
+
+    private Thread flushThread;
+
+    /**
+     * Guarded by lock.
+     */
+    private boolean stopped;
+
+    @PostConstruct
+    public void start() {
+        this.flushThread = new TaskInstanceFlushThread();
+        logger.info("TaskInstance batch update thread starting");
+        this.flushThread.start();
+        logger.info("TaskInstance batch update thread started");
+    }
+
+    @PreDestroy
+    public void stop() {
+        try {
+            if (this.flushThread != null) {
+                this.flushThread.interrupt();
+            }
+            List<PendingUpdate> remainUpdates;
+            synchronized (lock) {
+                stopped = true;
+                remainUpdates = drain(Integer.MAX_VALUE);
+            }
+            if (!remainUpdates.isEmpty()) {
+                flush(remainUpdates);
+            }
+        } catch (Exception e) {
+            logger.error("TaskInstanceBatchUpdateService stop error:", e);
+        }
+    }
+
+    /**
+     * Submit the task instance to update and wait until the batch which contains it is committed.
+     *
+     * @param taskInstance task instance
+     * @return false if the task instance doesn't exist in database
+     * @throws ExecutionException if the batch failed, the cause is the error of the batch
+     */
+    public boolean updateAndWait(TaskInstance taskInstance) throws ExecutionException, InterruptedException {
+        try {
+            return update(taskInstance).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    /**
+     * Submit the task instance to update.
+     *
+     * @param taskInstance task instance
+     * @return the future will be completed after the update is committed, the result is false if the task instance
+     * doesn't exist in database, the future is completed exceptionally if the batch failed.
+     */
+    public CompletableFuture<Boolean> update(TaskInstance taskInstance) {
+        TaskInstance snapshot = new TaskInstance();
+        TaskInstanceUtils.copyTaskInstance(taskInstance, snapshot);
+        synchronized (lock) {
+            if (stopped) {
+                CompletableFuture<Boolean> future = new CompletableFuture<>();
+                future.completeExceptionally(
+                        new IllegalStateException("TaskInstanceBatchUpdateService is already stopped"));
+                return future;
+            }
+            PendingUpdate pendingUpdate = new PendingUpdate(snapshot);
+            pendingUpdates.add(pendingUpdate);
+            if (pendingUpdates.size() == 1) {
+                lock.notifyAll();
+            }
+            return pendingUpdate.future;
+        }
+    }
+
+    /**
+     * Drain the pending updates, should be called with lock.
+     */
+    private List<PendingUpdate> drain(int maxSize) {
+        List<PendingUpdate> updates = new ArrayList<>(Math.min(maxSize, pendingUpdates.size()));
+        while (!pendingUpdates.isEmpty() && updates.size() < maxSize) {
+            updates.add(pendingUpdates.poll());
+        }
+        return updates;
+    }
+
+    /**
+     * Flush the updates in one batch, the futures of the updates are completed after the batch is committed or
+     * rolled back.
+     */
+    private void flush(List<PendingUpdate> updates) {
+        List<TaskInstance> taskInstances = new ArrayList<>(updates.size());
+        for (PendingUpdate update : updates) {
+            taskInstances.add(update.taskInstance);
+        }
+        int[] updateCounts = null;
+        Exception error = null;
+        try {
+            updateCounts = processService.batchUpdateTaskInstance(taskInstances);
+            TaskMetrics.recordTaskInstanceBatchUpdateSize(updates.size());
+        } catch (Exception e) {
+            logger.error("Batch update task instances error, the batch is rolled back, size: {}", updates.size(), e);
+            error = e;
+        }
+        for (int i = 0; i < updates.size(); i++) {
+            PendingUpdate update = updates.get(i);
+            if (error != null) {
+                update.future.completeExceptionally(error);
+                continue;
+            }
+            if (updateCounts[i] == 0) {
+                logger.warn("Update task instance failed, the task instance doesn't exist in db, taskInstanceId: {}",
+                        update.taskInstance.getId());
+            }
+            update.future.complete(updateCounts[i] != 0);
+        }
+    }
+
+    private static class PendingUpdate {
+
+        private final TaskInstance taskInstance;
+
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        PendingUpdate(TaskInstance taskInstance) {
+            this.taskInstance = taskInstance;
+        }
+    }
+
+    class TaskInstanceFlushThread extends BaseDaemonThread {
+
+        protected TaskInstanceFlushThread() {
+            super("TaskInstanceBatchUpdateThread");
+        }
+
+        @Override
+        public void run() {
+            while (!ServerLifeCycleManager.isStopped()) {
+                try {
+                    List<PendingUpdate> updates;
+                    int batchSize = masterConfig.getTaskInstanceBatchUpdateSize();
+                    synchronized (lock) {
+                        while (pendingUpdates.isEmpty()) {
+                            lock.wait();
+                        }
+                        // don't wait for more updates, the updates submitted during this flush form the next batch
+                        updates = drain(batchSize);
+                    }
+                    flush(updates);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    logger.warn("TaskInstance batch update thread interrupted, will return this loop");
+                    break;
+                } catch (Exception e) {
+                    logger.error("TaskInstance batch update thread error", e);
+                }
+            }
+        }
+    }
+}
@@ -124,6 +124,21 @@ public class ServerNodeManager implements InitializingBean {
         return totalSlot;
     }
 
+    /**
+     * get the address of the master at the given slot
+     *
+     * @param slot slot
+     * @return master address, or null if there is no master at the slot
+     */
+    public String getMasterAddress(int slot) {
+        masterLock.lock();
+        try {
+            return masterPriorityQueue.getAddr(slot);
+        } finally {
+            masterLock.unlock();
+        }
+    }
+
     @Override
     public void afterPropertiesSet() {
 
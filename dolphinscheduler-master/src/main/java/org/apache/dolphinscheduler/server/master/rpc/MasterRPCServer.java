@@ -27,8 +27,10 @@ import org.apache.dolphinscheduler.server.master.processor.TaskEventProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskExecuteResponseProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskExecuteRunningProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskExecuteStartProcessor;
+import org.apache.dolphinscheduler.server.master.processor.TaskGroupQueueChangeProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskKillResponseProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskRecallProcessor;
+import org.apache.dolphinscheduler.server.master.processor.WorkflowCommandNotifyProcessor;
 import org.apache.dolphinscheduler.server.master.processor.WorkflowExecutingDataRequestProcessor;
 import org.apache.dolphinscheduler.service.log.LoggerRequestProcessor;
 
@@ -59,6 +61,9 @@ public class MasterRPCServer implements AutoCloseable {
     @Autowired
     private TaskEventProcessor taskEventProcessor;
 
+    @Autowired
+    private TaskGroupQueueChangeProcessor taskGroupQueueChangeProcessor;
+
     @Autowired
     private StateEventProcessor stateEventProcessor;
 
@@ -80,6 +85,9 @@ public class MasterRPCServer implements AutoCloseable {
     @Autowired
     private TaskExecuteStartProcessor taskExecuteStartProcessor;
 
+    @Autowired
+    private WorkflowCommandNotifyProcessor workflowCommandNotifyProcessor;
+
     public void start() {
         logger.info("Starting Master RPC Server...");
         // init remoting server
@@ -92,11 +100,17 @@ public class MasterRPCServer implements AutoCloseable {
         this.nettyRemotingServer.registerProcessor(CommandType.STATE_EVENT_REQUEST, stateEventProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_FORCE_STATE_EVENT_REQUEST, taskEventProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_WAKEUP_EVENT_REQUEST, taskEventProcessor);
+        this.nettyRemotingServer.registerProcessor(CommandType.TASK_GROUP_ACQUIRE_REQUEST,
+                taskGroupQueueChangeProcessor);
+        this.nettyRemotingServer.registerProcessor(CommandType.TASK_GROUP_RELEASE_REQUEST,
+                taskGroupQueueChangeProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.CACHE_EXPIRE, cacheProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_REJECT, taskRecallProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.WORKFLOW_EXECUTING_DATA_REQUEST,
                 workflowExecutingDataRequestProcessor);
         this.nettyRemotingServer.registerProcessor(CommandType.TASK_EXECUTE_START, taskExecuteStartProcessor);
+        this.nettyRemotingServer.registerProcessor(CommandType.WORKFLOW_COMMAND_NOTIFY,
+                workflowCommandNotifyProcessor);
 
         // logger server
         this.nettyRemotingServer.registerProcessor(CommandType.GET_LOG_BYTES_REQUEST, loggerRequestProcessor);
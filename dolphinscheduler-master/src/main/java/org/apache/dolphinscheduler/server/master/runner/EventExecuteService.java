@@ -20,7 +20,6 @@ package org.apache.dolphinscheduler.server.master.runner;
 import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.lifecycle.ServerLifeCycleManager;
 import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
-import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.cache.StreamTaskInstanceExecCacheManager;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 import java.util.concurrent.TimeUnit;
@@ -30,20 +29,20 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+/**
+ * Used to trigger the stream task events.
+ * <p>
+ * The workflow events are not scanned here, the workflow will be submitted to {@link WorkflowExecuteThreadPool}
+ * once it receives a state event.
+ */
 @Service
 public class EventExecuteService extends BaseDaemonThread {
 
     private static final Logger logger = LoggerFactory.getLogger(EventExecuteService.class);
 
-    @Autowired
-    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
-
     @Autowired
     private StreamTaskInstanceExecCacheManager streamTaskInstanceExecCacheManager;
 
-    @Autowired
-    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
-
     @Autowired
     private StreamTaskExecuteThreadPool streamTaskExecuteThreadPool;
 
@@ -62,7 +61,6 @@ public class EventExecuteService extends BaseDaemonThread {
     public void run() {
         while (!ServerLifeCycleManager.isStopped()) {
             try {
-                workflowEventHandler();
                 streamTaskEventHandler();
                 TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS_SHORT);
             } catch (InterruptedException interruptedException) {
@@ -75,18 +73,6 @@ public class EventExecuteService extends BaseDaemonThread {
         }
     }
 
-    private void workflowEventHandler() {
-        for (WorkflowExecuteRunnable workflowExecuteThread : this.processInstanceExecCacheManager.getAll()) {
-            try {
-                LoggerUtils.setWorkflowInstanceIdMDC(workflowExecuteThread.getProcessInstance().getId());
-                workflowExecuteThreadPool.executeEvent(workflowExecuteThread);
-
-            } finally {
-                LoggerUtils.removeWorkflowInstanceIdMDC();
-            }
-        }
-    }
-
     private void streamTaskEventHandler() {
         for (StreamTaskExecuteRunnable streamTaskExecuteRunnable : streamTaskInstanceExecCacheManager.getAll()) {
             try {
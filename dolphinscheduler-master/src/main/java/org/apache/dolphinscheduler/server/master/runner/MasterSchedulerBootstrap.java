@@ -27,6 +27,7 @@ import org.apache.dolphinscheduler.common.utils.OSUtils;
 import org.apache.dolphinscheduler.dao.entity.Command;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceDao;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
@@ -43,11 +44,15 @@ import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 import org.apache.commons.collections4.CollectionUtils;
 
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -91,6 +96,12 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
     @Autowired
     private CuringParamsService curingGlobalParamsService;
 
+    @Autowired
+    private DependentResultCacheManager dependentResultCacheManager;
+
+    @Autowired
+    private TaskGroupArbiter taskGroupArbiter;
+
     @Autowired
     private WorkflowEventQueue workflowEventQueue;
 
@@ -102,6 +113,26 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
 
     private String masterAddress;
 
+    /**
+     * Released when a new command which belongs to this master is created, used to wake up the command loop.
+     */
+    private final Semaphore commandAvailableSignal = new Semaphore(0);
+
+    /**
+     * The current idle interval when there is no command, will backoff until {@link MasterConfig#getCommandFetchMaxInterval()}.
+     */
+    private long commandFetchIdleInterval = Constants.SLEEP_TIME_MILLIS;
+
+    /**
+     * The commands which are transforming to process instance, they are still in database until transformed.
+     */
+    private final Set<Integer> inFlightCommandIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Used to limit the number of in-flight commands.
+     */
+    private Semaphore inFlightCommandPermits;
+
     protected MasterSchedulerBootstrap() {
         super("MasterCommandLoopThread");
     }
@@ -113,6 +144,7 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
         this.masterPrepareExecService = (ThreadPoolExecutor) ThreadUtils
                 .newDaemonFixedThreadExecutor("MasterPreExecThread", masterConfig.getPreExecThreads());
         this.masterAddress = NetUtils.getAddr(masterConfig.getListenPort());
+        this.inFlightCommandPermits = new Semaphore(masterConfig.getFetchCommandNum());
     }
 
     @Override
@@ -141,7 +173,6 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
                     logger.warn("The current server {} is not at running status, cannot consumes commands.", this.masterAddress);
                     Thread.sleep(Constants.SLEEP_TIME_MILLIS);
                 }
-                // todo: if the workflow event queue is much, we need to handle the back pressure
                 boolean isOverload =
                         OSUtils.isOverload(masterConfig.getMaxCpuLoadAvg(), masterConfig.getReservedMemory());
                 if (isOverload) {
@@ -150,43 +181,34 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
                     Thread.sleep(Constants.SLEEP_TIME_MILLIS);
                     continue;
                 }
-                List<Command> commands = findCommands();
-                if (CollectionUtils.isEmpty(commands)) {
-                    // indicate that no command ,sleep for 1s
-                    Thread.sleep(Constants.SLEEP_TIME_MILLIS);
+                if (isBackPressure()) {
+                    MasterServerMetrics.incMasterBackPressure();
+                    Thread.sleep(Constants.SLEEP_TIME_MILLIS_SHORT);
                     continue;
                 }
-
-                List<ProcessInstance> processInstances = command2ProcessInstance(commands);
-                if (CollectionUtils.isEmpty(processInstances)) {
-                    // indicate that the command transform to processInstance error, sleep for 1s
-                    Thread.sleep(Constants.SLEEP_TIME_MILLIS);
+                // drain the signals, the commands notified before this fetch will be found by this fetch
+                commandAvailableSignal.drainPermits();
+                List<Command> commands = findCommands();
+                if (CollectionUtils.isEmpty(commands)) {
+                    // indicate that no command, wait until a command is notified/finished or the idle interval is over
+                    waitForCommand();
                     continue;
                 }
+                commandFetchIdleInterval = Constants.SLEEP_TIME_MILLIS;
                 MasterServerMetrics.incMasterConsumeCommand(commands.size());
 
-                processInstances.forEach(processInstance -> {
+                for (Command command : commands) {
+                    // block here if the in-flight window is full, the completed command will release the permit
+                    inFlightCommandPermits.acquire();
+                    inFlightCommandIds.add(command.getId());
                     try {
-                        LoggerUtils.setWorkflowInstanceIdMDC(processInstance.getId());
-                        if (processInstanceExecCacheManager.contains(processInstance.getId())) {
-                            logger.error(
-                                    "The workflow instance is already been cached, this case shouldn't be happened");
-                        }
-                        WorkflowExecuteRunnable workflowRunnable = new WorkflowExecuteRunnable(processInstance,
-                                processService,
-                                processInstanceDao,
-                                nettyExecutorManager,
-                                processAlertManager,
-                                masterConfig,
-                                stateWheelExecuteThread,
-                                curingGlobalParamsService);
-                        processInstanceExecCacheManager.cache(processInstance.getId(), workflowRunnable);
-                        workflowEventQueue.addEvent(new WorkflowEvent(WorkflowEventType.START_WORKFLOW,
-                                processInstance.getId()));
-                    } finally {
-                        LoggerUtils.removeWorkflowInstanceIdMDC();
+                        masterPrepareExecService.execute(() -> command2ProcessInstance(command));
+                    } catch (Exception ex) {
+                        inFlightCommandIds.remove(command.getId());
+                        inFlightCommandPermits.release();
+                        throw ex;
                     }
-                });
+                }
             } catch (InterruptedException interruptedException) {
                 logger.warn("Master schedule bootstrap interrupted, close the loop", interruptedException);
                 Thread.currentThread().interrupt();
@@ -199,48 +221,127 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
         }
     }
 
-    private List<ProcessInstance> command2ProcessInstance(List<Command> commands) throws InterruptedException {
+    /**
+     * Notify the command loop that a new command is created, the command loop will be woken up if the command
+     * belongs to the slot of this master.
+     *
+     * @param commandId command id
+     */
+    public void notifyCommandAvailable(int commandId) {
+        ProcessInstanceMetrics.incCommandNotify();
+        int masterSize = serverNodeManager.getMasterSize();
+        if (masterSize > 0 && commandId % masterSize != serverNodeManager.getSlot()) {
+            return;
+        }
+        wakeUpCommandLoop();
+    }
+
+    private void wakeUpCommandLoop() {
+        if (commandAvailableSignal.availablePermits() == 0) {
+            commandAvailableSignal.release();
+        }
+    }
+
+    private void waitForCommand() throws InterruptedException {
+        boolean notified = commandAvailableSignal.tryAcquire(commandFetchIdleInterval, TimeUnit.MILLISECONDS);
+        if (notified) {
+            commandFetchIdleInterval = Constants.SLEEP_TIME_MILLIS;
+        } else {
+            commandFetchIdleInterval = Math.min(commandFetchIdleInterval * 2,
+                    Math.max(masterConfig.getCommandFetchMaxInterval().toMillis(), Constants.SLEEP_TIME_MILLIS));
+        }
+    }
+
+    /**
+     * Whether the workflows generated by this master are more than it can handle, if true we will stop fetching command.
+     */
+    private boolean isBackPressure() {
+        int workflowEventQueueSize = workflowEventQueue.size();
+        if (workflowEventQueueSize >= masterConfig.getMaxWorkflowEventQueueSize()) {
+            logger.warn("The workflow event queue size: {} is bigger than threshold: {}, cannot consumes commands.",
+                    workflowEventQueueSize, masterConfig.getMaxWorkflowEventQueueSize());
+            return true;
+        }
+        int maxRunningWorkflowInstances = masterConfig.getMaxRunningWorkflowInstances();
+        int runningWorkflowInstances = processInstanceExecCacheManager.size();
+        if (maxRunningWorkflowInstances > 0 && runningWorkflowInstances >= maxRunningWorkflowInstances) {
+            logger.warn("The running workflow instance size: {} is bigger than threshold: {}, cannot consumes commands.",
+                    runningWorkflowInstances, maxRunningWorkflowInstances);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Transform the command to process instance, and submit the process instance directly once it is generated,
+     * so a slow command will not block other commands.
+     */
+    private void command2ProcessInstance(Command command) {
         long commandTransformStartTime = System.currentTimeMillis();
-        logger.info("Master schedule bootstrap transforming command to ProcessInstance, commandSize: {}",
-                commands.size());
-        List<ProcessInstance> processInstances = Collections.synchronizedList(new ArrayList<>(commands.size()));
-        CountDownLatch latch = new CountDownLatch(commands.size());
-        for (final Command command : commands) {
-            masterPrepareExecService.execute(() -> {
-                try {
-                    // Note: this check is not safe, the slot may change after command transform.
-                    // We use the database transaction in `handleCommand` so that we can guarantee the command will
-                    // always be executed
-                    // by only one master
-                    SlotCheckState slotCheckState = slotCheck(command);
-                    if (slotCheckState.equals(SlotCheckState.CHANGE) || slotCheckState.equals(SlotCheckState.INJECT)) {
-                        logger.info("Master handle command {} skip, slot check state: {}", command.getId(),
-                                slotCheckState);
-                        return;
-                    }
-                    ProcessInstance processInstance = processService.handleCommand(masterAddress, command);
-                    if (processInstance != null) {
-                        processInstances.add(processInstance);
-                        logger.info("Master handle command {} end, create process instance {}", command.getId(),
-                                processInstance.getId());
-                    }
-                } catch (Exception e) {
-                    logger.error("Master handle command {} error ", command.getId(), e);
-                    processService.moveToErrorCommand(command, e.toString());
-                } finally {
-                    latch.countDown();
+        // whether the command has been removed from database, either consumed or moved to the error table
+        boolean commandRemoved = false;
+        try {
+            // Note: this check is not safe, the slot may change after command transform.
+            // We use the database transaction in `handleCommand` so that we can guarantee the command will
+            // always be executed
+            // by only one master
+            SlotCheckState slotCheckState = slotCheck(command);
+            if (slotCheckState.equals(SlotCheckState.CHANGE) || slotCheckState.equals(SlotCheckState.INJECT)) {
+                logger.info("Master handle command {} skip, slot check state: {}", command.getId(),
+                        slotCheckState);
+                return;
+            }
+            ProcessInstance processInstance = processService.handleCommand(masterAddress, command);
+            commandRemoved = true;
+            if (processInstance != null) {
+                logger.info("Master handle command {} end, create process instance {}", command.getId(),
+                        processInstance.getId());
+                if (command.getStartTime() != null) {
+                    ProcessInstanceMetrics.recordCommandPickupLatency(
+                            System.currentTimeMillis() - command.getStartTime().getTime());
                 }
-            });
+                ProcessInstanceMetrics
+                        .recordProcessInstanceGenerateTime(System.currentTimeMillis() - commandTransformStartTime);
+                submitProcessInstance(processInstance);
+            }
+        } catch (Exception e) {
+            logger.error("Master handle command {} error ", command.getId(), e);
+            processService.moveToErrorCommand(command, e.toString());
+            commandRemoved = true;
+        } finally {
+            inFlightCommandIds.remove(command.getId());
+            inFlightCommandPermits.release();
+            // the next page can be fetched once the command is removed from database, the skipped command is still
+            // there, waking up for it would spin the loop on the same page
+            if (commandRemoved) {
+                wakeUpCommandLoop();
+            }
         }
+    }
 
-        // make sure to finish handling command each time before next scan
-        latch.await();
-        logger.info(
-                "Master schedule bootstrap transformed command to ProcessInstance, commandSize: {}, processInstanceSize: {}",
-                commands.size(), processInstances.size());
-        ProcessInstanceMetrics
-                .recordProcessInstanceGenerateTime(System.currentTimeMillis() - commandTransformStartTime);
-        return processInstances;
+    private void submitProcessInstance(ProcessInstance processInstance) {
+        try {
+            LoggerUtils.setWorkflowInstanceIdMDC(processInstance.getId());
+            if (processInstanceExecCacheManager.contains(processInstance.getId())) {
+                logger.error(
+                        "The workflow instance is already been cached, this case shouldn't be happened");
+            }
+            WorkflowExecuteRunnable workflowRunnable = new WorkflowExecuteRunnable(processInstance,
+                    processService,
+                    processInstanceDao,
+                    nettyExecutorManager,
+                    processAlertManager,
+                    masterConfig,
+                    stateWheelExecuteThread,
+                    curingGlobalParamsService,
+                    dependentResultCacheManager,
+                    taskGroupArbiter);
+            processInstanceExecCacheManager.cache(processInstance.getId(), workflowRunnable);
+            workflowEventQueue.addEvent(new WorkflowEvent(WorkflowEventType.START_WORKFLOW,
+                    processInstance.getId()));
+        } finally {
+            LoggerUtils.removeWorkflowInstanceIdMDC();
+        }
     }
 
     private List<Command> findCommands() throws MasterException {
@@ -253,13 +354,20 @@ public class MasterSchedulerBootstrap extends BaseDaemonThread implements AutoCl
                 return Collections.emptyList();
             }
             int pageNumber = 0;
-            int pageSize = masterConfig.getFetchCommandNum();
+            // snapshot the in-flight commands before the query, a command which is removed from database during the
+            // query may still be returned, it should be skipped as well
+            final Set<Integer> skippedCommandIds = new HashSet<>(inFlightCommandIds);
+            // the in-flight commands are still in database, fetch more to skip them
+            int pageSize = masterConfig.getFetchCommandNum() + skippedCommandIds.size();
             final List<Command> result =
-                    processService.findCommandPageBySlot(pageSize, pageNumber, masterCount, thisMasterSlot);
+                    processService.findCommandPageBySlot(pageSize, pageNumber, masterCount, thisMasterSlot)
+                            .stream()
+                            .filter(command -> !skippedCommandIds.contains(command.getId()))
+                            .collect(Collectors.toList());
             if (CollectionUtils.isNotEmpty(result)) {
                 logger.info(
-                        "Master schedule bootstrap loop command success, command size: {}, current slot: {}, total slot size: {}",
-                        result.size(), thisMasterSlot, masterCount);
+                        "Master schedule bootstrap loop command success, command size: {}, in-flight command size: {}, current slot: {}, total slot size: {}",
+                        result.size(), inFlightCommandIds.size(), thisMasterSlot, masterCount);
             }
             ProcessInstanceMetrics.recordCommandQueryTime(System.currentTimeMillis() - scheduleStartTime);
             return result;
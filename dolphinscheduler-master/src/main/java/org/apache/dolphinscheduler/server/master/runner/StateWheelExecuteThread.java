@@ -33,7 +33,10 @@ import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheM
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
 import org.apache.dolphinscheduler.server.master.event.WorkflowStateEvent;
+import org.apache.dolphinscheduler.server.master.metrics.MasterServerMetrics;
 import org.apache.dolphinscheduler.server.master.runner.task.TaskInstanceKey;
+import org.apache.dolphinscheduler.server.master.runner.wheel.HashedTimingWheel;
+import org.apache.dolphinscheduler.server.master.runner.wheel.HashedTimingWheel.Timeout;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,8 +45,10 @@ import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Check thread
@@ -51,31 +56,51 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  * 2. dependent task state check
  * 3. retry task check
  * 4. timeout process check
+ * <p>
+ * The checks are kept in timing wheels keyed by the time they should be checked, so each round only visits the
+ * checks whose time has come. The timeout checks are scheduled at the deadline, the retry and state checks are
+ * scheduled every state wheel interval.
  */
 @Component
 public class StateWheelExecuteThread extends BaseDaemonThread {
 
     private static final Logger logger = LoggerFactory.getLogger(StateWheelExecuteThread.class);
 
+    private static final int TICKS_PER_WHEEL = 1024;
+
     /**
-     * ProcessInstance timeout check list, element is the processInstanceId.
+     * ProcessInstance timeout check handles, key is the processInstanceId.
      */
-    private final ConcurrentLinkedQueue<Integer> processInstanceTimeoutCheckList = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<Integer, Timeout<Integer>> processInstanceTimeoutCheckMap =
+            new ConcurrentHashMap<>();
 
     /**
-     * task time out check list
+     * task time out check handles
      */
-    private final ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceTimeoutCheckList = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<TaskInstanceKey, Timeout<TaskInstanceKey>> taskInstanceTimeoutCheckMap =
+            new ConcurrentHashMap<>();
 
     /**
-     * task retry check list
+     * task retry check handles
      */
-    private final ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceRetryCheckList = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<TaskInstanceKey, Timeout<TaskInstanceKey>> taskInstanceRetryCheckMap =
+            new ConcurrentHashMap<>();
 
     /**
-     * task state check list
+     * task state check handles
      */
-    private final ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceStateCheckList = new ConcurrentLinkedQueue<>();
+    private final ConcurrentHashMap<TaskInstanceKey, Timeout<TaskInstanceKey>> taskInstanceStateCheckMap =
+            new ConcurrentHashMap<>();
+
+    private HashedTimingWheel<Integer> processInstanceTimeoutWheel;
+
+    private HashedTimingWheel<TaskInstanceKey> taskInstanceTimeoutWheel;
+
+    private HashedTimingWheel<TaskInstanceKey> taskInstanceRetryWheel;
+
+    private HashedTimingWheel<TaskInstanceKey> taskInstanceStateWheel;
+
+    private long checkInterval;
 
     @Autowired
     private MasterConfig masterConfig;
@@ -93,18 +118,32 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
 
     @PostConstruct
     public void startWheelThread() {
+        checkInterval = masterConfig.getStateWheelInterval().toMillis();
+        processInstanceTimeoutWheel = new HashedTimingWheel<>(checkInterval, TICKS_PER_WHEEL);
+        taskInstanceTimeoutWheel = new HashedTimingWheel<>(checkInterval, TICKS_PER_WHEEL);
+        taskInstanceRetryWheel = new HashedTimingWheel<>(checkInterval, TICKS_PER_WHEEL);
+        taskInstanceStateWheel = new HashedTimingWheel<>(checkInterval, TICKS_PER_WHEEL);
+        MasterServerMetrics.registerStateWheelSizeGauge(() -> processInstanceTimeoutWheel.size()
+                + taskInstanceTimeoutWheel.size()
+                + taskInstanceRetryWheel.size()
+                + taskInstanceStateWheel.size());
+        MasterServerMetrics.registerStateWheelFireLagGauge(() -> Math.max(
+                Math.max(processInstanceTimeoutWheel.getLastFireLagMillis(),
+                        taskInstanceTimeoutWheel.getLastFireLagMillis()),
+                Math.max(taskInstanceRetryWheel.getLastFireLagMillis(),
+                        taskInstanceStateWheel.getLastFireLagMillis())));
         super.start();
     }
 
     @Override
     public void run() {
-        final long checkInterval = masterConfig.getStateWheelInterval().toMillis();
         while (!ServerLifeCycleManager.isStopped()) {
             try {
-                checkTask4Timeout();
-                checkTask4Retry();
-                checkTask4State();
-                checkProcess4Timeout();
+                long now = System.currentTimeMillis();
+                checkTask4Timeout(taskInstanceTimeoutWheel.advance(now));
+                checkTask4Retry(taskInstanceRetryWheel.advance(now));
+                checkTask4State(taskInstanceStateWheel.advance(now));
+                checkProcess4Timeout(processInstanceTimeoutWheel.advance(now));
             } catch (Exception e) {
                 logger.error("state wheel thread check error:", e);
             }
@@ -119,22 +158,27 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
     }
 
     public void addProcess4TimeoutCheck(ProcessInstance processInstance) {
-        processInstanceTimeoutCheckList.add(processInstance.getId());
-        logger.info("Success add workflow instance {} into timeout check list", processInstance.getId());
+        long deadline = getDeadline(processInstance.getStartTime(),
+                (long) processInstance.getTimeout() * Constants.SEC_2_MINUTES_TIME_UNIT);
+        if (addCheck(processInstanceTimeoutCheckMap, processInstanceTimeoutWheel, processInstance.getId(),
+                deadline)) {
+            logger.info("Success add workflow instance {} into timeout check list", processInstance.getId());
+        }
     }
 
     public void removeProcess4TimeoutCheck(int processInstanceId) {
-        boolean removeFlag = processInstanceTimeoutCheckList.remove(processInstanceId);
+        boolean removeFlag = removeCheck(processInstanceTimeoutCheckMap, processInstanceId);
         if (removeFlag) {
             logger.info("Success remove workflow instance {} from timeout check list", processInstanceId);
         }
     }
 
-    private void checkProcess4Timeout() {
-        if (processInstanceTimeoutCheckList.isEmpty()) {
-            return;
-        }
-        for (Integer processInstanceId : processInstanceTimeoutCheckList) {
+    private void checkProcess4Timeout(List<Timeout<Integer>> expiredChecks) {
+        for (Timeout<Integer> check : expiredChecks) {
+            Integer processInstanceId = check.getItem();
+            if (processInstanceTimeoutCheckMap.get(processInstanceId) != check) {
+                continue;
+            }
             try {
                 LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
                 WorkflowExecuteRunnable workflowExecuteThread = processInstanceExecCacheManager.getByProcessInstanceId(
@@ -142,12 +186,14 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
                 if (workflowExecuteThread == null) {
                     logger.warn(
                             "Check workflow timeout failed, can not find workflowExecuteThread from cache manager, will remove this workflowInstance from check list");
-                    processInstanceTimeoutCheckList.remove(processInstanceId);
+                    processInstanceTimeoutCheckMap.remove(processInstanceId, check);
                     continue;
                 }
                 ProcessInstance processInstance = workflowExecuteThread.getProcessInstance();
                 if (processInstance == null) {
                     logger.warn("Check workflow timeout failed, the workflowInstance is null");
+                    rescheduleCheck(processInstanceTimeoutCheckMap, processInstanceTimeoutWheel, check,
+                            System.currentTimeMillis() + checkInterval);
                     continue;
                 }
                 long timeRemain = DateUtils.getRemainTime(processInstance.getStartTime(),
@@ -156,11 +202,17 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
                 if (timeRemain < 0) {
                     logger.info("Workflow instance {} timeout, adding timeout event", processInstance.getId());
                     addProcessTimeoutEvent(processInstance);
-                    processInstanceTimeoutCheckList.remove(processInstance.getId());
+                    processInstanceTimeoutCheckMap.remove(processInstanceId, check);
                     logger.info("Workflow instance timeout, added timeout event");
+                } else {
+                    rescheduleCheck(processInstanceTimeoutCheckMap, processInstanceTimeoutWheel, check,
+                            getDeadline(processInstance.getStartTime(),
+                                    (long) processInstance.getTimeout() * Constants.SEC_2_MINUTES_TIME_UNIT));
                 }
             } catch (Exception ex) {
-                logger.error("Check workflow instance timeout error");
+                logger.error("Check workflow instance timeout error, processInstanceId: {}", processInstanceId, ex);
+                rescheduleCheck(processInstanceTimeoutCheckMap, processInstanceTimeoutWheel, check,
+                        System.currentTimeMillis() + checkInterval);
             } finally {
                 LoggerUtils.removeWorkflowInstanceIdMDC();
             }
@@ -170,7 +222,7 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
     public void addTask4TimeoutCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
         logger.info("Adding task instance into timeout check list");
-        if (taskInstanceTimeoutCheckList.contains(taskInstanceKey)) {
+        if (taskInstanceTimeoutCheckMap.containsKey(taskInstanceKey)) {
             logger.warn("Task instance is already in timeout check list");
             return;
         }
@@ -180,7 +232,9 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             return;
         }
         if (TimeoutFlag.OPEN == taskDefinition.getTimeoutFlag()) {
-            taskInstanceTimeoutCheckList.add(taskInstanceKey);
+            long deadline = getDeadline(taskInstance.getStartTime(),
+                    (long) taskDefinition.getTimeout() * Constants.SEC_2_MINUTES_TIME_UNIT);
+            addCheck(taskInstanceTimeoutCheckMap, taskInstanceTimeoutWheel, taskInstanceKey, deadline);
             logger.info("Timeout flag is open, added task instance into timeout check list");
         }
 
@@ -188,14 +242,14 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
 
     public void removeTask4TimeoutCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        taskInstanceTimeoutCheckList.remove(taskInstanceKey);
+        removeCheck(taskInstanceTimeoutCheckMap, taskInstanceKey);
         logger.info("remove task instance from timeout check list");
     }
 
     public void addTask4RetryCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         logger.info("Adding task instance into retry check list");
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        if (taskInstanceRetryCheckList.contains(taskInstanceKey)) {
+        if (taskInstanceRetryCheckMap.containsKey(taskInstanceKey)) {
             logger.warn("Task instance is already in retry check list");
             return;
         }
@@ -204,48 +258,52 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             logger.error("Add task instance into retry check list error, taskDefinition is null");
             return;
         }
-        taskInstanceRetryCheckList.add(taskInstanceKey);
+        // the retry check also need to find the workflow stop in time, so it is checked every interval
+        addCheck(taskInstanceRetryCheckMap, taskInstanceRetryWheel, taskInstanceKey,
+                System.currentTimeMillis() + checkInterval);
         logger.info("[WorkflowInstance-{}][TaskInstanceKey-{}:{}] Added task instance into retry check list",
                 processInstance.getId(), taskInstance.getTaskCode(), taskInstance.getTaskDefinitionVersion());
     }
 
     public void removeTask4RetryCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        taskInstanceRetryCheckList.remove(taskInstanceKey);
+        removeCheck(taskInstanceRetryCheckMap, taskInstanceKey);
         logger.info("remove task instance from retry check list");
     }
 
     public void addTask4StateCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         logger.info("Adding task instance into state check list");
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        if (taskInstanceStateCheckList.contains(taskInstanceKey)) {
+        if (taskInstanceStateCheckMap.containsKey(taskInstanceKey)) {
             logger.warn("Task instance is already in state check list");
             return;
         }
         if (taskInstance.isDependTask() || taskInstance.isSubProcess()) {
-            taskInstanceStateCheckList.add(taskInstanceKey);
+            addCheck(taskInstanceStateCheckMap, taskInstanceStateWheel, taskInstanceKey,
+                    System.currentTimeMillis() + checkInterval);
             logger.info("Added task instance into state check list");
         }
     }
 
     public void removeTask4StateCheck(@NonNull ProcessInstance processInstance, @NonNull TaskInstance taskInstance) {
         TaskInstanceKey taskInstanceKey = TaskInstanceKey.getTaskInstanceKey(processInstance, taskInstance);
-        taskInstanceStateCheckList.remove(taskInstanceKey);
+        removeCheck(taskInstanceStateCheckMap, taskInstanceKey);
         logger.info("Removed task instance from state check list");
     }
 
     public void clearAllTasks() {
-        processInstanceTimeoutCheckList.clear();
-        taskInstanceTimeoutCheckList.clear();
-        taskInstanceRetryCheckList.clear();
-        taskInstanceStateCheckList.clear();
+        clearChecks(processInstanceTimeoutCheckMap);
+        clearChecks(taskInstanceTimeoutCheckMap);
+        clearChecks(taskInstanceRetryCheckMap);
+        clearChecks(taskInstanceStateCheckMap);
     }
 
-    private void checkTask4Timeout() {
-        if (taskInstanceTimeoutCheckList.isEmpty()) {
-            return;
-        }
-        for (TaskInstanceKey taskInstanceKey : taskInstanceTimeoutCheckList) {
+    private void checkTask4Timeout(List<Timeout<TaskInstanceKey>> expiredChecks) {
+        for (Timeout<TaskInstanceKey> check : expiredChecks) {
+            TaskInstanceKey taskInstanceKey = check.getItem();
+            if (taskInstanceTimeoutCheckMap.get(taskInstanceKey) != check) {
+                continue;
+            }
             try {
                 int processInstanceId = taskInstanceKey.getProcessInstanceId();
                 LoggerUtils.setWorkflowInstanceIdMDC(processInstanceId);
@@ -256,7 +314,7 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
                 if (workflowExecuteThread == null) {
                     logger.warn(
                             "Check task instance timeout failed, can not find workflowExecuteThread from cache manager, will remove this check task");
-                    taskInstanceTimeoutCheckList.remove(taskInstanceKey);
+                    taskInstanceTimeoutCheckMap.remove(taskInstanceKey, check);
                     continue;
                 }
                 Optional<TaskInstance> taskInstanceOptional =
@@ -266,34 +324,41 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
                             "Check task instance timeout failed, can not get taskInstance from workflowExecuteThread, taskCode: {}"
                                     + "will remove this check task",
                             taskCode);
-                    taskInstanceTimeoutCheckList.remove(taskInstanceKey);
+                    taskInstanceTimeoutCheckMap.remove(taskInstanceKey, check);
                     continue;
                 }
                 TaskInstance taskInstance = taskInstanceOptional.get();
                 if (TimeoutFlag.OPEN == taskInstance.getTaskDefine().getTimeoutFlag()) {
-                    long timeRemain = DateUtils.getRemainTime(taskInstance.getStartTime(),
-                            (long) taskInstance.getTaskDefine().getTimeout()
-                                    * Constants.SEC_2_MINUTES_TIME_UNIT);
+                    long timeoutSeconds =
+                            (long) taskInstance.getTaskDefine().getTimeout() * Constants.SEC_2_MINUTES_TIME_UNIT;
+                    long timeRemain = DateUtils.getRemainTime(taskInstance.getStartTime(), timeoutSeconds);
                     if (timeRemain < 0) {
                         logger.info("Task instance is timeout, adding task timeout event and remove the check");
                         addTaskTimeoutEvent(taskInstance);
-                        taskInstanceTimeoutCheckList.remove(taskInstanceKey);
+                        taskInstanceTimeoutCheckMap.remove(taskInstanceKey, check);
+                    } else {
+                        rescheduleCheck(taskInstanceTimeoutCheckMap, taskInstanceTimeoutWheel, check,
+                                getDeadline(taskInstance.getStartTime(), timeoutSeconds));
                     }
+                } else {
+                    taskInstanceTimeoutCheckMap.remove(taskInstanceKey, check);
                 }
             } catch (Exception ex) {
                 logger.error("Check task timeout error, taskInstanceKey: {}", taskInstanceKey, ex);
+                rescheduleCheck(taskInstanceTimeoutCheckMap, taskInstanceTimeoutWheel, check,
+                        System.currentTimeMillis() + checkInterval);
             } finally {
                 LoggerUtils.removeWorkflowInstanceIdMDC();
             }
         }
     }
 
-    private void checkTask4Retry() {
-        if (taskInstanceRetryCheckList.isEmpty()) {
-            return;
-        }
-
-        for (TaskInstanceKey taskInstanceKey : taskInstanceRetryCheckList) {
+    private void checkTask4Retry(List<Timeout<TaskInstanceKey>> expiredChecks) {
+        for (Timeout<TaskInstanceKey> check : expiredChecks) {
+            TaskInstanceKey taskInstanceKey = check.getItem();
+            if (taskInstanceRetryCheckMap.get(taskInstanceKey) != check) {
+                continue;
+            }
             int processInstanceId = taskInstanceKey.getProcessInstanceId();
             long taskCode = taskInstanceKey.getTaskCode();
             try {
@@ -306,7 +371,7 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
                     logger.warn(
                             "Task instance retry check failed, can not find workflowExecuteThread from cache manager, "
                                     + "will remove this check task");
-                    taskInstanceRetryCheckList.remove(taskInstanceKey);
+                    taskInstanceRetryCheckMap.remove(taskInstanceKey, check);
                     continue;
                 }
 
@@ -318,14 +383,14 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
                     logger.warn(
                             "The process instance is ready to stop, will send process stop event and remove the check task");
                     addProcessStopEvent(processInstance);
-                    taskInstanceRetryCheckList.remove(taskInstanceKey);
-                    break;
+                    taskInstanceRetryCheckMap.remove(taskInstanceKey, check);
+                    continue;
                 }
 
                 if (!taskInstanceOptional.isPresent()) {
                     logger.warn(
                             "Task instance retry check failed, can not find taskInstance from workflowExecuteThread, will remove this check");
-                    taskInstanceRetryCheckList.remove(taskInstanceKey);
+                    taskInstanceRetryCheckMap.remove(taskInstanceKey, check);
                     continue;
                 }
 
@@ -344,21 +409,27 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
                     taskInstance.setState(TaskExecutionStatus.SUBMITTED_SUCCESS);
 
                     addTaskRetryEvent(taskInstance);
-                    taskInstanceRetryCheckList.remove(taskInstanceKey);
+                    taskInstanceRetryCheckMap.remove(taskInstanceKey, check);
+                } else {
+                    rescheduleCheck(taskInstanceRetryCheckMap, taskInstanceRetryWheel, check,
+                            System.currentTimeMillis() + checkInterval);
                 }
             } catch (Exception ex) {
                 logger.error("Check task retry error, taskInstanceKey: {}", taskInstanceKey, ex);
+                rescheduleCheck(taskInstanceRetryCheckMap, taskInstanceRetryWheel, check,
+                        System.currentTimeMillis() + checkInterval);
             } finally {
                 LoggerUtils.removeWorkflowInstanceIdMDC();
             }
         }
     }
 
-    private void checkTask4State() {
-        if (taskInstanceStateCheckList.isEmpty()) {
-            return;
-        }
-        for (TaskInstanceKey taskInstanceKey : taskInstanceStateCheckList) {
+    private void checkTask4State(List<Timeout<TaskInstanceKey>> expiredChecks) {
+        for (Timeout<TaskInstanceKey> check : expiredChecks) {
+            TaskInstanceKey taskInstanceKey = check.getItem();
+            if (taskInstanceStateCheckMap.get(taskInstanceKey) != check) {
+                continue;
+            }
             int processInstanceId = taskInstanceKey.getProcessInstanceId();
             long taskCode = taskInstanceKey.getTaskCode();
 
@@ -369,7 +440,7 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
                 if (workflowExecuteThread == null) {
                     logger.warn(
                             "Task instance state check failed, can not find workflowExecuteThread from cache manager, will remove this check task");
-                    taskInstanceStateCheckList.remove(taskInstanceKey);
+                    taskInstanceStateCheckMap.remove(taskInstanceKey, check);
                     continue;
                 }
                 Optional<TaskInstance> taskInstanceOptional =
@@ -377,19 +448,71 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
                 if (!taskInstanceOptional.isPresent()) {
                     logger.warn(
                             "Task instance state check failed, can not find taskInstance from workflowExecuteThread, will remove this check event");
-                    taskInstanceStateCheckList.remove(taskInstanceKey);
+                    taskInstanceStateCheckMap.remove(taskInstanceKey, check);
                     continue;
                 }
                 TaskInstance taskInstance = taskInstanceOptional.get();
-                if (taskInstance.getState().isFinished()) {
-                    continue;
+                if (!taskInstance.getState().isFinished()) {
+                    addTaskStateChangeEvent(taskInstance);
                 }
-                addTaskStateChangeEvent(taskInstance);
             } catch (Exception ex) {
                 logger.error("Task state check error, taskInstanceKey: {}", taskInstanceKey, ex);
             } finally {
                 LoggerUtils.removeWorkflowInstanceIdMDC();
             }
+            rescheduleCheck(taskInstanceStateCheckMap, taskInstanceStateWheel, check,
+                    System.currentTimeMillis() + checkInterval);
+        }
+    }
+
+    /**
+     * Get the deadline of the check, if the base time is not set yet, we will check it again after the interval.
+     */
+    private long getDeadline(Date baseTime, long intervalSeconds) {
+        if (baseTime == null) {
+            return System.currentTimeMillis() + checkInterval;
+        }
+        return baseTime.getTime() + intervalSeconds * 1000L;
+    }
+
+    private <K> boolean addCheck(ConcurrentHashMap<K, Timeout<K>> checkMap,
+                                 HashedTimingWheel<K> checkWheel,
+                                 K key,
+                                 long deadline) {
+        if (checkMap.containsKey(key)) {
+            return false;
+        }
+        Timeout<K> check = checkWheel.schedule(key, deadline);
+        if (checkMap.putIfAbsent(key, check) != null) {
+            check.cancel();
+            return false;
+        }
+        return true;
+    }
+
+    private <K> void rescheduleCheck(ConcurrentHashMap<K, Timeout<K>> checkMap,
+                                     HashedTimingWheel<K> checkWheel,
+                                     Timeout<K> expiredCheck,
+                                     long deadline) {
+        Timeout<K> check = checkWheel.schedule(expiredCheck.getItem(), deadline);
+        // the check may be removed by others during we handle it
+        if (!checkMap.replace(expiredCheck.getItem(), expiredCheck, check)) {
+            check.cancel();
+        }
+    }
+
+    private <K> boolean removeCheck(ConcurrentHashMap<K, Timeout<K>> checkMap, K key) {
+        Timeout<K> check = checkMap.remove(key);
+        if (check == null) {
+            return false;
+        }
+        check.cancel();
+        return true;
+    }
+
+    private <K> void clearChecks(ConcurrentHashMap<K, Timeout<K>> checkMap) {
+        for (K key : checkMap.keySet()) {
+            removeCheck(checkMap, key);
         }
     }
 
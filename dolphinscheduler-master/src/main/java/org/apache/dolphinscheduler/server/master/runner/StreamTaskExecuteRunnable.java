@@ -157,7 +157,8 @@ public class StreamTaskExecuteRunnable implements Runnable {
                 taskExecutionContext.getHost(),
                 System.currentTimeMillis());
 
-        ExecutionContext executionContext = new ExecutionContext(dispatchCommand.convert2Command(), ExecutorType.WORKER,
+        ExecutionContext executionContext = new ExecutionContext(
+                dispatchCommand.convert2Command(masterConfig.getTaskCommandSerializer()), ExecutorType.WORKER,
                 taskExecutionContext.getWorkerGroup(), taskInstance);
         Boolean dispatchSuccess = false;
         try {
@@ -0,0 +1,701 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.enums.StateEventType;
+import org.apache.dolphinscheduler.common.enums.TaskGroupQueueStatus;
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+import org.apache.dolphinscheduler.dao.entity.TaskGroup;
+import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.mapper.TaskGroupMapper;
+import org.apache.dolphinscheduler.dao.mapper.TaskGroupQueueMapper;
+import org.apache.dolphinscheduler.dao.mapper.TaskInstanceMapper;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskEventChangeCommand;
+import org.apache.dolphinscheduler.remote.command.TaskGroupQueueChangeCommand;
+import org.apache.dolphinscheduler.remote.processor.StateEventCallbackService;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
+import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
+import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Arbitrate the task groups in memory.
+ * <p>
+ * Each task group is arbitrated by one master, chosen by the task group id and the master slot like the commands.
+ * The master keeps the waiting tasks of its task groups in a priority queue together with the tasks holding the
+ * resource, so acquiring and releasing are in-memory operations, and the next waiting task is woken up as soon as
+ * the resource is released. The other masters send the acquire/release requests of their tasks to it.
+ * <p>
+ * The task group queue records are written by the master running the task before the requests, the arbitrating
+ * master rebuilds its task groups from them when the masters change, and periodically in case of lost requests.
+ * <p>
+ * The use size of the task group is still guarded in database, it is increased by the arbitrating master before
+ * granting and decreased by the master running the task when releasing, so the task group is never over granted even
+ * if two masters arbitrate it for a while when the masters change.
+ */
+@Component
+public class TaskGroupArbiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskGroupArbiter.class);
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private TaskGroupMapper taskGroupMapper;
+
+    @Autowired
+    private TaskGroupQueueMapper taskGroupQueueMapper;
+
+    @Autowired
+    private TaskInstanceMapper taskInstanceMapper;
+
+    @Autowired
+    private ServerNodeManager serverNodeManager;
+
+    @Autowired
+    private StateEventCallbackService stateEventCallbackService;
+
+    @Autowired
+    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+
+    @Lazy
+    @Autowired
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    /**
+     * The task groups arbitrated by this master, they are changed with the read lock and rebuilt with the write lock.
+     */
+    private final Map<Integer, TaskGroupState> taskGroupStates = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong waiterSequence = new AtomicLong();
+
+    private volatile int arbitratedSlot = -1;
+
+    private volatile int arbitratedMasterSize = -1;
+
+    private ScheduledExecutorService reconcileExecutor;
+
+    @PostConstruct
+    public void init() {
+        TaskMetrics.registerTaskGroupWaiting(this::getWaitingCount);
+        long interval = masterConfig.getTaskGroupReconcileInterval().toMillis();
+        reconcileExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("TaskGroupArbiter"));
+        reconcileExecutor.scheduleWithFixedDelay(this::rebuild, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        reconcileExecutor.shutdownNow();
+    }
+
+    /**
+     * Acquire the task group resource for the task of a workflow running on this master.
+     *
+     * @param taskInstance task instance
+     * @return true if the resource is acquired right now, otherwise the task will be woken up by a
+     *         {@link StateEventType#WAKE_UP_TASK_GROUP} event once the resource is acquired
+     */
+    public boolean acquire(TaskInstance taskInstance) {
+        TaskGroupQueue taskGroupQueue = taskGroupQueueMapper.queryByTaskId(taskInstance.getId());
+        if (taskGroupQueue == null) {
+            processService.insertIntoTaskGroupQueue(taskInstance.getId(),
+                    taskInstance.getName(),
+                    taskInstance.getTaskGroupId(),
+                    taskInstance.getProcessInstanceId(),
+                    taskInstance.getTaskGroupPriority(),
+                    TaskGroupQueueStatus.WAIT_QUEUE);
+        } else if (!requeueRecord(taskInstance, taskGroupQueue)) {
+            logger.info("The task group has been acquired, taskInstanceId: {}", taskInstance.getId());
+            return true;
+        }
+
+        String arbiter = getArbiter(taskInstance.getTaskGroupId());
+        if (arbiter == null) {
+            logger.warn("The masters are not loaded, acquire the task group from database, taskInstanceId: {}",
+                    taskInstance.getId());
+            return processService.acquireTaskGroup(taskInstance.getId(),
+                    taskInstance.getName(),
+                    taskInstance.getTaskGroupId(),
+                    taskInstance.getProcessInstanceId(),
+                    taskInstance.getTaskGroupPriority());
+        }
+        TaskGroupQueueChangeCommand request = newRequest(taskInstance);
+        if (arbiter.equals(masterConfig.getMasterAddress())) {
+            return arbitrate(request, true);
+        }
+        stateEventCallbackService.sendResult(new Host(arbiter),
+                request.convert2Command(CommandType.TASK_GROUP_ACQUIRE_REQUEST));
+        logger.info("Send task group acquire request to master: {}, taskInstanceId: {}, taskGroupId: {}",
+                arbiter, taskInstance.getId(), taskInstance.getTaskGroupId());
+        return false;
+    }
+
+    /**
+     * Put the task group queue record back to wait, unless the resource is held.
+     *
+     * @return false if the resource has been acquired
+     */
+    private boolean requeueRecord(TaskInstance taskInstance, TaskGroupQueue taskGroupQueue) {
+        // set the default max size to avoid dead loop
+        for (int i = 0; i < 10; i++) {
+            if (taskGroupQueue == null) {
+                return true;
+            }
+            if (taskGroupQueue.getStatus() == TaskGroupQueueStatus.ACQUIRE_SUCCESS) {
+                return false;
+            }
+            // the waiting task may be granted by the arbitrating master meanwhile
+            if (taskGroupQueueMapper.requeueByTaskIdCAS(taskInstance.getId(),
+                    taskGroupQueue.getStatus().getCode(),
+                    TaskGroupQueueStatus.WAIT_QUEUE.getCode()) == 1) {
+                return true;
+            }
+            taskGroupQueue = taskGroupQueueMapper.queryByTaskId(taskInstance.getId());
+        }
+        logger.warn("Failed to requeue the task group queue, taskInstanceId: {}", taskInstance.getId());
+        return true;
+    }
+
+    /**
+     * Release the task group resource held or waited by the task of a workflow running on this master.
+     *
+     * @param taskInstance task instance
+     */
+    public void release(TaskInstance taskInstance) {
+        String arbiter = getArbiter(taskInstance.getTaskGroupId());
+        if (arbiter == null) {
+            logger.warn("The masters are not loaded, release the task group from database, taskInstanceId: {}",
+                    taskInstance.getId());
+            TaskInstance nextTaskInstance = processService.releaseTaskGroup(taskInstance);
+            if (nextTaskInstance != null) {
+                ProcessInstance processInstance =
+                        processService.findProcessInstanceById(nextTaskInstance.getProcessInstanceId());
+                wakeUp(nextTaskInstance.getProcessInstanceId(), nextTaskInstance.getId(), processInstance.getHost());
+            }
+            return;
+        }
+        releaseRecord(taskInstance);
+        TaskGroupQueueChangeCommand request = newRequest(taskInstance);
+        if (arbiter.equals(masterConfig.getMasterAddress())) {
+            arbitrateRelease(request);
+            return;
+        }
+        stateEventCallbackService.sendResult(new Host(arbiter),
+                request.convert2Command(CommandType.TASK_GROUP_RELEASE_REQUEST));
+        logger.info("Send task group release request to master: {}, taskInstanceId: {}, taskGroupId: {}",
+                arbiter, taskInstance.getId(), taskInstance.getTaskGroupId());
+    }
+
+    /**
+     * Release the task group queue record, and decrease the use size if the resource is held.
+     */
+    private void releaseRecord(TaskInstance taskInstance) {
+        // set the default max size to avoid dead loop
+        for (int i = 0; i < 10; i++) {
+            TaskGroupQueue taskGroupQueue = taskGroupQueueMapper.queryByTaskId(taskInstance.getId());
+            if (taskGroupQueue == null || taskGroupQueue.getStatus() == TaskGroupQueueStatus.RELEASE) {
+                return;
+            }
+            // the waiting task may be granted by the arbitrating master meanwhile
+            if (taskGroupQueueMapper.updateStatusByTaskIdCAS(taskInstance.getId(),
+                    taskGroupQueue.getStatus().getCode(),
+                    TaskGroupQueueStatus.RELEASE.getCode()) == 1) {
+                // the force started tasks are not counted
+                if (taskGroupQueue.getStatus() == TaskGroupQueueStatus.ACQUIRE_SUCCESS
+                        && taskGroupQueue.getForceStart() == Flag.NO.getCode()) {
+                    taskGroupMapper.decreaseUseSize(taskGroupQueue.getGroupId());
+                }
+                return;
+            }
+        }
+        logger.warn("Failed to release the task group queue, taskInstanceId: {}", taskInstance.getId());
+    }
+
+    /**
+     * Release the task group resources held or waited by the tasks of the workflow.
+     *
+     * @param processInstanceId process instance id
+     */
+    public void releaseAll(int processInstanceId) {
+        for (TaskGroupQueueStatus status : new TaskGroupQueueStatus[]{TaskGroupQueueStatus.ACQUIRE_SUCCESS,
+                TaskGroupQueueStatus.WAIT_QUEUE}) {
+            for (TaskInstance taskInstance : taskInstanceMapper.loadAllInfosNoRelease(processInstanceId,
+                    status.getCode())) {
+                release(taskInstance);
+            }
+        }
+    }
+
+    /**
+     * Arbitrate the acquire request from another master.
+     *
+     * @param request request
+     */
+    public void arbitrateAcquire(TaskGroupQueueChangeCommand request) {
+        arbitrate(request, false);
+    }
+
+    /**
+     * Arbitrate the release request, the next waiting tasks are woken up if the resource is released.
+     *
+     * @param request request
+     */
+    public void arbitrateRelease(TaskGroupQueueChangeCommand request) {
+        rebuildIfMastersChanged();
+        rebuildLock.readLock().lock();
+        try {
+            TaskGroupState state = getTaskGroupState(request.getTaskGroupId());
+            boolean released;
+            synchronized (state) {
+                int taskInstanceId = request.getTaskInstanceId();
+                // the task may be released while it is being granted
+                released = state.holders.remove(taskInstanceId) || state.granting.remove(taskInstanceId);
+                if (!released) {
+                    state.remove(taskInstanceId);
+                }
+            }
+            if (released) {
+                grant(state, -1);
+            }
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param request request
+     * @param fromThisMaster if the requesting task is running on this master, it is not woken up when it acquires the
+     *                       resource right now, the caller dispatches it instead
+     * @return true if the requesting task acquires the resource right now
+     */
+    private boolean arbitrate(TaskGroupQueueChangeCommand request, boolean fromThisMaster) {
+        rebuildIfMastersChanged();
+        rebuildLock.readLock().lock();
+        try {
+            TaskGroupState state = getTaskGroupState(request.getTaskGroupId());
+            int taskInstanceId = request.getTaskInstanceId();
+            boolean held;
+            synchronized (state) {
+                held = state.holders.contains(taskInstanceId);
+                if (!held) {
+                    // the task will be woken up once it is granted
+                    if (state.granting.contains(taskInstanceId)) {
+                        return false;
+                    }
+                    // the request may be resent, the task keeps its place in the queue
+                    Waiter previous = state.waiters.get(taskInstanceId);
+                    state.offer(new Waiter(taskInstanceId,
+                            request.getProcessInstanceId(),
+                            request.getPriority(),
+                            previous == null ? waiterSequence.incrementAndGet() : previous.sequence,
+                            previous == null ? System.currentTimeMillis() : previous.waitTime,
+                            request.getWorkflowHost()));
+                }
+            }
+            if (held) {
+                if (!fromThisMaster) {
+                    wakeUp(request.getProcessInstanceId(), taskInstanceId, request.getWorkflowHost());
+                }
+                return true;
+            }
+            return grant(state, fromThisMaster ? taskInstanceId : -1);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hand the free resource to the waiting tasks in priority order, should be called without the state locked, the
+     * waiting tasks are taken out under the lock and granted in database outside of it.
+     *
+     * @return true if the given task acquires the resource
+     */
+    private boolean grant(TaskGroupState state, int requestingTaskInstanceId) {
+        boolean acquired = false;
+        List<Waiter> candidates;
+        while (!(candidates = reserve(state)).isEmpty()) {
+            for (int i = 0; i < candidates.size(); i++) {
+                Waiter waiter = candidates.get(i);
+                String workflowHost = getWorkflowHost(waiter);
+                GrantResult result = StringUtils.isEmpty(workflowHost) ? GrantResult.SKIPPED : tryGrant(state, waiter);
+                if (result == GrantResult.FULL) {
+                    synchronized (state) {
+                        for (Waiter rest : candidates.subList(i, candidates.size())) {
+                            if (state.granting.remove(rest.taskInstanceId)) {
+                                state.offer(rest);
+                            }
+                        }
+                    }
+                    return acquired;
+                }
+                synchronized (state) {
+                    // the task may be released meanwhile, the use size has been decreased by the releasing master
+                    if (!state.granting.remove(waiter.taskInstanceId) || result != GrantResult.GRANTED) {
+                        continue;
+                    }
+                    state.holders.add(waiter.taskInstanceId);
+                }
+                TaskMetrics.recordTaskGroupWaitTime(System.currentTimeMillis() - waiter.waitTime);
+                logger.info("Task acquired the task group, taskInstanceId: {}, taskGroupId: {}",
+                        waiter.taskInstanceId, state.taskGroupId);
+                if (waiter.taskInstanceId == requestingTaskInstanceId) {
+                    acquired = true;
+                } else {
+                    wakeUp(waiter.processInstanceId, waiter.taskInstanceId, workflowHost);
+                }
+            }
+        }
+        return acquired;
+    }
+
+    /**
+     * Take out the waiting tasks which can be granted by the free resource, they hold the resource in memory until
+     * they are granted in database.
+     */
+    private List<Waiter> reserve(TaskGroupState state) {
+        List<Waiter> candidates = new ArrayList<>();
+        synchronized (state) {
+            Waiter waiter;
+            while (state.holders.size() + state.granting.size() < state.capacity
+                    && (waiter = state.poll()) != null) {
+                state.granting.add(waiter.taskInstanceId);
+                candidates.add(waiter);
+            }
+        }
+        return candidates;
+    }
+
+    private String getWorkflowHost(Waiter waiter) {
+        String workflowHost = waiter.workflowHost;
+        if (workflowHost == null) {
+            // rebuilt from the records
+            ProcessInstance processInstance = processService.findProcessInstanceById(waiter.processInstanceId);
+            workflowHost = processInstance == null ? null : processInstance.getHost();
+        }
+        if (StringUtils.isEmpty(workflowHost)) {
+            logger.warn("The workflow of the waiting task is not running, taskInstanceId: {}",
+                    waiter.taskInstanceId);
+        }
+        return workflowHost;
+    }
+
+    private GrantResult tryGrant(TaskGroupState state, Waiter waiter) {
+        // the use size is the commit point, the resource may be held by the tasks granted by another master
+        if (state.recorded && taskGroupMapper.increaseUseSize(state.taskGroupId, Flag.YES.getCode()) != 1) {
+            logger.info("The task group is full, taskGroupId: {}", state.taskGroupId);
+            return GrantResult.FULL;
+        }
+        // the record may have been changed after the request, e.g. the task is released or force started, the force
+        // started tasks are not counted in the use size, so they are not granted
+        if (taskGroupQueueMapper.acquireByTaskIdCAS(waiter.taskInstanceId,
+                TaskGroupQueueStatus.WAIT_QUEUE.getCode(),
+                TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode()) != 1) {
+            logger.info("The task is not waiting for the task group, taskInstanceId: {}", waiter.taskInstanceId);
+            if (state.recorded) {
+                taskGroupMapper.decreaseUseSize(state.taskGroupId);
+            }
+            return GrantResult.SKIPPED;
+        }
+        return GrantResult.GRANTED;
+    }
+
+    private void wakeUp(int processInstanceId, int taskInstanceId, String workflowHost) {
+        if (masterConfig.getMasterAddress().equals(workflowHost)) {
+            workflowExecuteThreadPool.submitStateEvent(TaskStateEvent.builder()
+                    .processInstanceId(processInstanceId)
+                    .taskInstanceId(taskInstanceId)
+                    .type(StateEventType.WAKE_UP_TASK_GROUP)
+                    .build());
+            return;
+        }
+        TaskEventChangeCommand taskEventChangeCommand = new TaskEventChangeCommand(processInstanceId, taskInstanceId);
+        stateEventCallbackService.sendResult(new Host(workflowHost),
+                taskEventChangeCommand.convert2Command(CommandType.TASK_WAKEUP_EVENT_REQUEST));
+    }
+
+    /**
+     * Should be called with the read lock.
+     */
+    private TaskGroupState getTaskGroupState(int taskGroupId) {
+        TaskGroupState state = taskGroupStates.get(taskGroupId);
+        if (state != null) {
+            return state;
+        }
+        // the request may arrive before this master knows the masters changed, load the task group anyway
+        synchronized (taskGroupStates) {
+            state = taskGroupStates.get(taskGroupId);
+            if (state == null) {
+                Set<Integer> taskGroupIds = new HashSet<>();
+                taskGroupIds.add(taskGroupId);
+                int masterSize = Math.max(serverNodeManager.getMasterSize(), 1);
+                state = loadTaskGroupStates(masterSize, taskGroupId % masterSize, id -> id == taskGroupId,
+                        taskGroupIds).get(taskGroupId);
+                taskGroupStates.put(taskGroupId, state);
+            }
+            return state;
+        }
+    }
+
+    private void rebuildIfMastersChanged() {
+        if (serverNodeManager.getSlot() != arbitratedSlot
+                || serverNodeManager.getMasterSize() != arbitratedMasterSize) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuild the task groups arbitrated by this master from the task group queue records.
+     */
+    void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            int slot = serverNodeManager.getSlot();
+            int masterSize = serverNodeManager.getMasterSize();
+            if (masterSize <= 0) {
+                return;
+            }
+            Map<Integer, TaskGroupState> states = loadTaskGroupStates(masterSize, slot, id -> true, new HashSet<>());
+            taskGroupStates.clear();
+            taskGroupStates.putAll(states);
+            arbitratedSlot = slot;
+            arbitratedMasterSize = masterSize;
+            // the resource may be released without notifying this master, e.g. the request is lost
+            for (TaskGroupState state : states.values()) {
+                grant(state, -1);
+            }
+            logger.info("Rebuilt the task groups arbitrated by this master, slot: {}, masterSize: {}, taskGroups: {}",
+                    slot, masterSize, states.keySet());
+        } catch (Exception e) {
+            logger.error("Rebuild the task groups arbitrated by this master error", e);
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    private Map<Integer, TaskGroupState> loadTaskGroupStates(int masterSize, int slot, IntPredicate arbitrated,
+                                                             Set<Integer> taskGroupIds) {
+        Map<Integer, TaskGroupState> states = new HashMap<>();
+        for (Integer taskGroupId : taskGroupIds) {
+            states.put(taskGroupId, new TaskGroupState(taskGroupId));
+        }
+        List<Integer> statuses = Arrays.asList(TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode(),
+                TaskGroupQueueStatus.WAIT_QUEUE.getCode());
+        for (TaskGroupQueue taskGroupQueue : taskGroupQueueMapper.queryByStatusAndGroupSlot(statuses, masterSize,
+                slot)) {
+            // the force started tasks are not counted, the same as the use size
+            if (!arbitrated.test(taskGroupQueue.getGroupId()) || taskGroupQueue.getForceStart() == Flag.YES.getCode()) {
+                continue;
+            }
+            TaskGroupState state = states.computeIfAbsent(taskGroupQueue.getGroupId(), TaskGroupState::new);
+            if (taskGroupQueue.getStatus() == TaskGroupQueueStatus.ACQUIRE_SUCCESS) {
+                state.holders.add(taskGroupQueue.getTaskId());
+                continue;
+            }
+            // the waiting tasks keep their places in the queue, the new ones are queued in the order of the records
+            TaskGroupState previousState = taskGroupStates.get(taskGroupQueue.getGroupId());
+            Waiter previous = previousState == null ? null : previousState.waiters.get(taskGroupQueue.getTaskId());
+            state.offer(new Waiter(taskGroupQueue.getTaskId(),
+                    taskGroupQueue.getProcessId(),
+                    taskGroupQueue.getPriority(),
+                    previous == null ? waiterSequence.incrementAndGet() : previous.sequence,
+                    previous == null ? System.currentTimeMillis() : previous.waitTime,
+                    previous == null ? null : previous.workflowHost));
+        }
+        if (!states.isEmpty()) {
+            for (TaskGroup taskGroup : taskGroupMapper.selectBatchIds(states.keySet())) {
+                TaskGroupState state = states.get(taskGroup.getId());
+                // the task group is not applicable if it is closed
+                state.capacity = taskGroup.getStatus() == Flag.YES.getCode() ? taskGroup.getGroupSize()
+                        : Integer.MAX_VALUE;
+                state.recorded = true;
+            }
+        }
+        return states;
+    }
+
+    private String getArbiter(int taskGroupId) {
+        int masterSize = serverNodeManager.getMasterSize();
+        if (masterSize <= 0) {
+            return null;
+        }
+        return serverNodeManager.getMasterAddress(taskGroupId % masterSize);
+    }
+
+    private TaskGroupQueueChangeCommand newRequest(TaskInstance taskInstance) {
+        return TaskGroupQueueChangeCommand.builder()
+                .taskGroupId(taskInstance.getTaskGroupId())
+                .taskInstanceId(taskInstance.getId())
+                .processInstanceId(taskInstance.getProcessInstanceId())
+                .priority(taskInstance.getTaskGroupPriority())
+                .workflowHost(masterConfig.getMasterAddress())
+                .build();
+    }
+
+    private int getWaitingCount() {
+        int count = 0;
+        for (TaskGroupState state : taskGroupStates.values()) {
+            synchronized (state) {
+                count += state.waiters.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The tasks holding and waiting for a task group.
+     */
+    private static class TaskGroupState {
+
+        /**
+         * Higher priority first, then first come first served.
+         */
+        private static final Comparator<Waiter> WAITER_COMPARATOR = Comparator
+                .comparingInt((Waiter waiter) -> waiter.priority)
+                .reversed()
+                .thenComparingLong(waiter -> waiter.sequence);
+
+        private final int taskGroupId;
+
+        /**
+         * The task group is deleted or closed if there is no capacity.
+         */
+        private int capacity = Integer.MAX_VALUE;
+
+        /**
+         * The use size is not guarded if the task group is deleted.
+         */
+        private boolean recorded;
+
+        private final Set<Integer> holders = new HashSet<>();
+
+        /**
+         * The tasks taken out of the queue and being granted in database, they hold the resource in memory.
+         */
+        private final Set<Integer> granting = new HashSet<>();
+
+        private final TreeSet<Waiter> queue = new TreeSet<>(WAITER_COMPARATOR);
+
+        private final Map<Integer, Waiter> waiters = new HashMap<>();
+
+        private TaskGroupState(int taskGroupId) {
+            this.taskGroupId = taskGroupId;
+        }
+
+        private void offer(Waiter waiter) {
+            remove(waiter.taskInstanceId);
+            queue.add(waiter);
+            waiters.put(waiter.taskInstanceId, waiter);
+        }
+
+        private Waiter poll() {
+            Waiter waiter = queue.pollFirst();
+            if (waiter != null) {
+                waiters.remove(waiter.taskInstanceId);
+            }
+            return waiter;
+        }
+
+        private void remove(int taskInstanceId) {
+            Waiter waiter = waiters.remove(taskInstanceId);
+            if (waiter != null) {
+                queue.remove(waiter);
+            }
+        }
+    }
+
+    private enum GrantResult {
+        GRANTED,
+        /**
+         * The task is not waiting anymore, the next waiting task can be granted.
+         */
+        SKIPPED,
+        /**
+         * The resource is held by the tasks granted by another master.
+         */
+        FULL
+    }
+
+    private static class Waiter {
+
+        private final int taskInstanceId;
+
+        private final int processInstanceId;
+
+        private final int priority;
+
+        private final long sequence;
+
+        private final long waitTime;
+
+        /**
+         * The master running the workflow, null if it is rebuilt from the records.
+         */
+        private final String workflowHost;
+
+        private Waiter(int taskInstanceId, int processInstanceId, int priority, long sequence, long waitTime,
+                       String workflowHost) {
+            this.taskInstanceId = taskInstanceId;
+            this.processInstanceId = processInstanceId;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.waitTime = waitTime;
+            this.workflowHost = workflowHost;
+        }
+    }
+}
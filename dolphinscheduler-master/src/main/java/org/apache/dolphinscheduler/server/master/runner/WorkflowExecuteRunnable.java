@@ -65,6 +65,7 @@ import org.apache.dolphinscheduler.plugin.task.api.model.Property;
 import org.apache.dolphinscheduler.plugin.task.api.utils.LogUtils;
 import org.apache.dolphinscheduler.remote.command.HostUpdateCommand;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.server.master.event.StateEvent;
@@ -74,6 +75,7 @@ import org.apache.dolphinscheduler.server.master.event.StateEventHandler;
 import org.apache.dolphinscheduler.server.master.event.StateEventHandlerManager;
 import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
 import org.apache.dolphinscheduler.server.master.event.WorkflowStateEvent;
+import org.apache.dolphinscheduler.server.master.metrics.ProcessInstanceMetrics;
 import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.master.runner.task.ITaskProcessor;
 import org.apache.dolphinscheduler.server.master.runner.task.TaskAction;
@@ -222,6 +224,10 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
 
     private final CuringParamsService curingParamsService;
 
+    private final DependentResultCacheManager dependentResultCacheManager;
+
+    private final TaskGroupArbiter taskGroupArbiter;
+
     private final String masterAddress;
 
     /**
@@ -232,6 +238,9 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
      * @param processAlertManager     processAlertManager
      * @param masterConfig            masterConfig
      * @param stateWheelExecuteThread stateWheelExecuteThread
+     * @param curingParamsService     curingParamsService
+     * @param dependentResultCacheManager dependentResultCacheManager
+     * @param taskGroupArbiter        taskGroupArbiter
      */
     public WorkflowExecuteRunnable(
                                    @NonNull ProcessInstance processInstance,
@@ -241,7 +250,9 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                                    @NonNull ProcessAlertManager processAlertManager,
                                    @NonNull MasterConfig masterConfig,
                                    @NonNull StateWheelExecuteThread stateWheelExecuteThread,
-                                   @NonNull CuringParamsService curingParamsService) {
+                                   @NonNull CuringParamsService curingParamsService,
+                                   @NonNull DependentResultCacheManager dependentResultCacheManager,
+                                   @NonNull TaskGroupArbiter taskGroupArbiter) {
         this.processService = processService;
         this.processInstanceDao = processInstanceDao;
         this.processInstance = processInstance;
@@ -249,6 +260,8 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         this.processAlertManager = processAlertManager;
         this.stateWheelExecuteThread = stateWheelExecuteThread;
         this.curingParamsService = curingParamsService;
+        this.dependentResultCacheManager = dependentResultCacheManager;
+        this.taskGroupArbiter = taskGroupArbiter;
         this.masterAddress = NetUtils.getAddr(masterConfig.getListenPort());
         TaskMetrics.registerTaskPrepared(readyToSubmitTaskQueue::size);
     }
@@ -287,6 +300,10 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                 logger.info("Begin to handle state event, {}", stateEvent);
                 if (stateEventHandler.handleStateEvent(this, stateEvent)) {
                     this.stateEvents.remove(stateEvent);
+                    if (stateEvent.getCreateTime() > 0) {
+                        ProcessInstanceMetrics
+                                .recordStateEventLatency(System.currentTimeMillis() - stateEvent.getCreateTime());
+                    }
                 }
             } catch (StateEventHandleError stateEventHandleError) {
                 logger.error("State event handle error, will remove this event: {}", stateEvent, stateEventHandleError);
@@ -351,6 +368,14 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
             logger.info("Success force start taskGroupQueue: {}", taskGroupQueue.getId());
             return true;
         }
+        if (taskGroupQueue.getStatus() == TaskGroupQueueStatus.ACQUIRE_SUCCESS) {
+            // acquired by the task group arbiter
+            TaskInstance taskInstance = this.processService.findTaskInstanceById(stateEvent.getTaskInstanceId());
+            ITaskProcessor taskProcessor = activeTaskProcessorMaps.get(taskInstance.getTaskCode());
+            taskProcessor.action(TaskAction.DISPATCH);
+            logger.info("Success wake up taskGroupQueue: {}", taskGroupQueue.getId());
+            return true;
+        }
         if (taskGroupQueue.getInQueue() == Flag.YES.getCode()) {
             logger.info("Begin to wake up taskGroupQueue: {}", taskGroupQueue.getId());
             boolean acquireTaskGroup = processService.robTaskGroupResource(taskGroupQueue);
@@ -419,6 +444,9 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
                 // todo: when the task instance type is pause, then it should not in completeTaskMap
                 completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
             }
+            // the dependent tasks waiting for this task should check again
+            dependentResultCacheManager.upstreamTaskFinished(processInstance.getProcessDefinitionCode(),
+                    taskInstance.getTaskCode());
             logger.info("TaskInstance finished will try to update the workflow instance state, task code:{} state:{}",
                     taskInstance.getTaskCode(),
                     taskInstance.getState());
@@ -437,22 +465,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
      */
     public void releaseTaskGroup(TaskInstance taskInstance) {
         if (taskInstance.getTaskGroupId() > 0) {
-            TaskInstance nextTaskInstance = this.processService.releaseTaskGroup(taskInstance);
-            if (nextTaskInstance != null) {
-                if (nextTaskInstance.getProcessInstanceId() == taskInstance.getProcessInstanceId()) {
-                    TaskStateEvent nextEvent = TaskStateEvent.builder()
-                            .processInstanceId(processInstance.getId())
-                            .taskInstanceId(nextTaskInstance.getId())
-                            .type(StateEventType.WAKE_UP_TASK_GROUP)
-                            .build();
-                    this.stateEvents.add(nextEvent);
-                } else {
-                    ProcessInstance processInstance =
-                            this.processService.findProcessInstanceById(nextTaskInstance.getProcessInstanceId());
-                    this.processService.sendStartTask2Master(processInstance, nextTaskInstance.getId(),
-                            org.apache.dolphinscheduler.remote.command.CommandType.TASK_WAKEUP_EVENT_REQUEST);
-                }
-            }
+            taskGroupArbiter.release(taskInstance);
         }
     }
 
@@ -731,7 +744,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
         }
         if (checkTaskQueue()) {
             // release task group
-            processService.releaseAllTaskGroup(processInstance.getId());
+            taskGroupArbiter.releaseAll(processInstance.getId());
         }
     }
 
@@ -802,7 +815,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
             return;
         }
         // generate process dag
-        dag = DagHelper.buildDagGraph(processDag);
+        dag = DagHelper.buildDagGraph(processDag).freeze();
         logger.info("Build dag success, dag: {}", dag);
     }
 
@@ -974,11 +987,7 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
             // it will be weakup when other tasks release the resource.
             int taskGroupId = taskInstance.getTaskGroupId();
             if (taskGroupId > 0) {
-                boolean acquireTaskGroup = processService.acquireTaskGroup(taskInstance.getId(),
-                        taskInstance.getName(),
-                        taskGroupId,
-                        taskInstance.getProcessInstanceId(),
-                        taskInstance.getTaskGroupPriority());
+                boolean acquireTaskGroup = taskGroupArbiter.acquire(taskInstance);
                 if (!acquireTaskGroup) {
                     logger.info("Submitted task will not be dispatch right now because the first time to try to acquire" +
                                     " task group failed, taskInstanceName: {}, taskGroupId: {}",
@@ -1035,7 +1044,12 @@ public class WorkflowExecuteRunnable implements Callable<WorkflowSubmitStatue> {
             hostUpdateCommand.setProcessHost(masterAddress);
             hostUpdateCommand.setTaskInstanceId(taskInstance.getId());
             Host host = new Host(taskInstance.getHost());
-            nettyExecutorManager.doExecute(host, hostUpdateCommand.convert2Command());
+            nettyExecutorManager.doExecuteAsync(host, hostUpdateCommand.convert2Command())
+                    .whenComplete((ignored, ex) -> {
+                        if (ex != null) {
+                            logger.error("notify process host update", ex);
+                        }
+                    });
         } catch (Exception e) {
             // Do we need to catch this exception?
             logger.error("notify process host update", e);
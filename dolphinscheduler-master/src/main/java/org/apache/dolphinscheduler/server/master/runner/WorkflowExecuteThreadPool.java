@@ -28,10 +28,12 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 import org.apache.dolphinscheduler.remote.command.WorkflowStateEventChangeCommand;
 import org.apache.dolphinscheduler.remote.processor.StateEventCallbackService;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.event.StateEvent;
 import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
+import org.apache.dolphinscheduler.server.master.metrics.ProcessInstanceMetrics;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 import org.slf4j.Logger;
@@ -69,6 +71,9 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
     @Autowired
     private StateWheelExecuteThread stateWheelExecuteThread;
 
+    @Autowired
+    private DependentResultCacheManager dependentResultCacheManager;
+
     /**
      * multi-thread filter, avoid handling workflow at the same time
      */
@@ -93,24 +98,32 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
                     stateEvent);
             return;
         }
-        workflowExecuteThread.addStateEvent(stateEvent);
-        logger.info("Submit state event success, stateEvent: {}", stateEvent);
+        if (workflowExecuteThread.addStateEvent(stateEvent)) {
+            logger.info("Submit state event success, stateEvent: {}", stateEvent);
+            executeEvent(workflowExecuteThread);
+        }
     }
 
     /**
      * Handle the events belong to the given workflow.
+     * <p>
+     * The workflow is submitted into this pool only once until its events are handled, the events added during
+     * the handling will trigger another submit after the handling is finished, so we don't need to scan all the
+     * workflows to find out the workflows which have events.
      */
     public void executeEvent(final WorkflowExecuteRunnable workflowExecuteThread) {
         if (!workflowExecuteThread.isStart() || workflowExecuteThread.eventSize() == 0) {
             return;
         }
-        if (multiThreadFilterMap.containsKey(workflowExecuteThread.getKey())) {
+        if (multiThreadFilterMap.putIfAbsent(workflowExecuteThread.getKey(), workflowExecuteThread) != null) {
             logger.debug("The workflow has been executed by another thread");
             return;
         }
-        multiThreadFilterMap.put(workflowExecuteThread.getKey(), workflowExecuteThread);
         int processInstanceId = workflowExecuteThread.getProcessInstance().getId();
-        ListenableFuture<?> future = this.submitListenable(workflowExecuteThread::handleEvents);
+        ListenableFuture<?> future = this.submitListenable(() -> {
+            ProcessInstanceMetrics.recordStateEventMailboxDepth(workflowExecuteThread.eventSize());
+            workflowExecuteThread.handleEvents();
+        });
         future.addCallback(new ListenableFutureCallback() {
 
             @Override
@@ -119,6 +132,7 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
                 try {
                     logger.error("Workflow instance events handle failed", ex);
                     multiThreadFilterMap.remove(workflowExecuteThread.getKey());
+                    executeRemainingEvent(workflowExecuteThread);
                 } finally {
                     LoggerUtils.removeWorkflowInstanceIdMDC();
                 }
@@ -133,6 +147,8 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
                                 .removeProcess4TimeoutCheck(workflowExecuteThread.getProcessInstance().getId());
                         processInstanceExecCacheManager.removeByProcessInstanceId(processInstanceId);
                         notifyProcessChanged(workflowExecuteThread.getProcessInstance());
+                        dependentResultCacheManager.upstreamWorkflowFinished(
+                                workflowExecuteThread.getProcessInstance().getProcessDefinitionCode());
                         logger.info("Workflow instance is finished.");
                     }
                 } catch (Exception e) {
@@ -140,12 +156,28 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
                 } finally {
                     // make sure the process has been removed from multiThreadFilterMap
                     multiThreadFilterMap.remove(workflowExecuteThread.getKey());
+                    executeRemainingEvent(workflowExecuteThread);
                     LoggerUtils.removeWorkflowInstanceIdMDC();
                 }
             }
         });
     }
 
+    /**
+     * The events may be added after the workflow handled its events and before it is removed from the filter map,
+     * so we need to check it again after the workflow is removed from the filter map.
+     */
+    private void executeRemainingEvent(WorkflowExecuteRunnable workflowExecuteThread) {
+        if (!processInstanceExecCacheManager.contains(workflowExecuteThread.getProcessInstance().getId())) {
+            return;
+        }
+        try {
+            executeEvent(workflowExecuteThread);
+        } catch (Exception e) {
+            logger.error("Submit the remaining events of workflow instance error", e);
+        }
+    }
+
     /**
      * notify process change
      */
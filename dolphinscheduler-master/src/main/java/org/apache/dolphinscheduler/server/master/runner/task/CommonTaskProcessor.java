@@ -29,7 +29,6 @@ import org.apache.dolphinscheduler.remote.command.TaskKillRequestCommand;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
-import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.queue.TaskPriority;
@@ -164,7 +163,7 @@ public class CommonTaskProcessor extends BaseTaskProcessor {
         return true;
     }
 
-    private void killRemoteTask() throws ExecuteException {
+    private void killRemoteTask() {
         TaskKillRequestCommand killCommand = new TaskKillRequestCommand();
         killCommand.setTaskInstanceId(taskInstance.getId());
 
@@ -174,6 +173,12 @@ public class CommonTaskProcessor extends BaseTaskProcessor {
         Host host = Host.of(taskInstance.getHost());
         executionContext.setHost(host);
 
-        nettyExecutorManager.executeDirectly(executionContext);
+        // the kill response is handled by the TaskKillResponseProcessor, so we don't wait the sending here
+        nettyExecutorManager.executeDirectlyAsync(executionContext).whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                logger.error("Master send kill command to worker: {} error, taskInstanceId: {}", host,
+                        taskInstance.getId(), ex);
+            }
+        });
     }
 }
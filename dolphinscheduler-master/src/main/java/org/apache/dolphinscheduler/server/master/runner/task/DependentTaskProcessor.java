@@ -35,6 +35,7 @@ import org.apache.dolphinscheduler.plugin.task.api.model.DependentItem;
 import org.apache.dolphinscheduler.plugin.task.api.model.DependentTaskModel;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.DependentParameters;
 import org.apache.dolphinscheduler.plugin.task.api.utils.DependentUtils;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.server.master.utils.DependentExecute;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.utils.LogUtils;
@@ -67,6 +68,9 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
 
     private final ProjectMapper projectMapper = SpringApplicationContext.getBean(ProjectMapper.class);
 
+    private final DependentResultCacheManager dependentResultCacheManager =
+            SpringApplicationContext.getBean(DependentResultCacheManager.class);
+
     /**
      * dependent task list
      */
@@ -171,8 +175,10 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
         Set<Long> projectCodes = new HashSet<>();
         Set<Long> processDefinitionCodes = new HashSet<>();
         Set<Long> taskDefinitionCodes = new HashSet<>();
+        List<DependentItem> dependentItems = new ArrayList<>();
         dependTaskList.forEach(dependentTaskModel -> {
             dependentTaskModel.getDependItemList().forEach(dependentItem -> {
+                dependentItems.add(dependentItem);
                 projectCodes.add(dependentItem.getProjectCode());
                 processDefinitionCodes.add(dependentItem.getDefinitionCode());
                 taskDefinitionCodes.add(dependentItem.getDepTaskCode());
@@ -220,10 +226,13 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
             }
             this.dependentTaskList.add(new DependentExecute(taskModel.getDependItemList(), taskModel.getRelation()));
         }
+        // check again once the upstream workflows/tasks finish on this master, besides the state check interval
+        dependentResultCacheManager.addWaitingDependent(dependentItems, taskInstance);
     }
 
     @Override
     protected boolean pauseTask() {
+        dependentResultCacheManager.removeWaitingDependent(taskInstance);
         this.taskInstance.setState(TaskExecutionStatus.PAUSE);
         this.taskInstance.setEndTime(new Date());
         processService.saveTaskInstance(taskInstance);
@@ -232,6 +241,7 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
 
     @Override
     protected boolean killTask() {
+        dependentResultCacheManager.removeWaitingDependent(taskInstance);
         this.taskInstance.setState(TaskExecutionStatus.KILL);
         this.taskInstance.setEndTime(new Date());
         processService.saveTaskInstance(taskInstance);
@@ -281,6 +291,7 @@ public class DependentTaskProcessor extends BaseTaskProcessor {
      *
      */
     private void endTask() {
+        dependentResultCacheManager.removeWaitingDependent(taskInstance);
         TaskExecutionStatus status;
         status = (result == DependResult.SUCCESS) ? TaskExecutionStatus.SUCCESS : TaskExecutionStatus.FAILURE;
         taskInstance.setState(status);
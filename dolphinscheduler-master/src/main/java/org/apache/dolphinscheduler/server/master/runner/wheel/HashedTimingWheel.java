@@ -0,0 +1,277 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.runner.wheel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A hashed timing wheel, the timeouts are hashed into buckets by their deadline,
+ * so each {@link #advance(long)} only visits the buckets whose time has come rather than all the timeouts.
+ * <p>
+ * {@link #schedule(Object, long)} and {@link Timeout#cancel()} can be called by any thread,
+ * the changes are buffered and applied by the thread calling {@link #advance(long)}, which must be a single thread.
+ */
+public class HashedTimingWheel<T> {
+
+    private final long tickMillis;
+
+    private final int mask;
+
+    private final Bucket<T>[] buckets;
+
+    private final long startTime;
+
+    /**
+     * The next tick to expire, only accessed by the advance thread.
+     */
+    private long currentTick;
+
+    private final Queue<Timeout<T>> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final Queue<Timeout<T>> cancelledTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * The lag of the latest expired timeout, from its deadline to the time it is expired.
+     */
+    private volatile long lastFireLagMillis;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int ticksPerWheel) {
+        Preconditions.checkArgument(tickMillis > 0, "tickMillis should be a positive value");
+        Preconditions.checkArgument(ticksPerWheel > 0 && ticksPerWheel <= (1 << 30),
+                "ticksPerWheel should be a positive value and not bigger than 2^30");
+        int normalizedTicksPerWheel = 1;
+        while (normalizedTicksPerWheel < ticksPerWheel) {
+            normalizedTicksPerWheel <<= 1;
+        }
+        this.tickMillis = tickMillis;
+        this.mask = normalizedTicksPerWheel - 1;
+        this.buckets = new Bucket[normalizedTicksPerWheel];
+        for (int i = 0; i < normalizedTicksPerWheel; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Schedule the item to be expired at the given deadline.
+     *
+     * @param item           item
+     * @param deadlineMillis deadline, epoch millis
+     * @return the handle of the timeout, used to cancel the timeout
+     */
+    public Timeout<T> schedule(T item, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(this, item, deadlineMillis);
+        size.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Advance the wheel to the given time and return the expired timeouts.
+     * Only the elapsed buckets are visited, so the cost is proportional to the expired timeouts.
+     *
+     * @param nowMillis current time, epoch millis
+     * @return the expired timeouts
+     */
+    public List<Timeout<T>> advance(long nowMillis) {
+        removeCancelledTimeouts();
+        transferPendingTimeouts();
+
+        List<Timeout<T>> expiredTimeouts = new ArrayList<>();
+        // the tick is elapsed only if all the deadlines in this tick are passed
+        while ((currentTick + 1) * tickMillis <= nowMillis - startTime) {
+            buckets[(int) (currentTick & mask)].expireTimeouts(expiredTimeouts);
+            currentTick++;
+        }
+        if (!expiredTimeouts.isEmpty()) {
+            long maxFireLag = 0;
+            for (Timeout<T> timeout : expiredTimeouts) {
+                maxFireLag = Math.max(maxFireLag, nowMillis - timeout.getDeadlineMillis());
+            }
+            lastFireLagMillis = maxFireLag;
+        }
+        return expiredTimeouts;
+    }
+
+    /**
+     * @return the number of scheduled timeouts which are not expired or cancelled
+     */
+    public int size() {
+        return size.get();
+    }
+
+    public long getLastFireLagMillis() {
+        return lastFireLagMillis;
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout<T> timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.state.get() != Timeout.ST_INIT) {
+                continue;
+            }
+            long calculatedTick = (timeout.deadlineMillis - startTime) / tickMillis;
+            timeout.remainingRounds = (calculatedTick - currentTick) / buckets.length;
+            // the deadline is already passed, put it into the current tick
+            long tick = Math.max(calculatedTick, currentTick);
+            buckets[(int) (tick & mask)].add(timeout);
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        Timeout<T> timeout;
+        while ((timeout = cancelledTimeouts.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    public static final class Timeout<T> {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedTimingWheel<T> wheel;
+
+        private final T item;
+
+        private final long deadlineMillis;
+
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // the fields below are only accessed by the advance thread
+        private long remainingRounds;
+
+        private Bucket<T> bucket;
+
+        private Timeout<T> prev;
+
+        private Timeout<T> next;
+
+        private Timeout(HashedTimingWheel<T> wheel, T item, long deadlineMillis) {
+            this.wheel = wheel;
+            this.item = item;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        /**
+         * Cancel the timeout, the timeout will be removed from the wheel at the next advance.
+         *
+         * @return true if the timeout is cancelled by this call
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            wheel.size.decrementAndGet();
+            wheel.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        private boolean expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return false;
+            }
+            wheel.size.decrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * A doubly linked list of timeouts, so that the cancelled timeout can be removed in O(1).
+     */
+    private static final class Bucket<T> {
+
+        private Timeout<T> head;
+
+        private Timeout<T> tail;
+
+        void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expireTimeouts(List<Timeout<T>> expiredTimeouts) {
+            Timeout<T> timeout = head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.expire()) {
+                        expiredTimeouts.add(timeout);
+                    }
+                } else if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout<T> timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            Timeout<T> next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
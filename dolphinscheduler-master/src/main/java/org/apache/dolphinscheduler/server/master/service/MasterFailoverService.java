@@ -20,7 +20,7 @@ package org.apache.dolphinscheduler.server.master.service;
 import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.enums.NodeType;
 import org.apache.dolphinscheduler.common.model.Server;
-import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
@@ -30,7 +30,6 @@ import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.builder.TaskExecutionContextBuilder;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
-import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.server.master.metrics.ProcessInstanceMetrics;
 import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
@@ -45,18 +44,29 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.time.StopWatch;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import javax.annotation.PreDestroy;
+
 import lombok.NonNull;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.google.common.collect.Lists;
+
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 
@@ -75,6 +85,8 @@ public class MasterFailoverService {
 
     private final LogClient logClient;
 
+    private final ExecutorService failoverExecutor;
+
     public MasterFailoverService(@NonNull RegistryClient registryClient,
                                  @NonNull MasterConfig masterConfig,
                                  @NonNull ProcessService processService,
@@ -88,7 +100,13 @@ public class MasterFailoverService {
         this.localAddress = masterConfig.getMasterAddress();
         this.processInstanceExecCacheManager = processInstanceExecCacheManager;
         this.logClient = logClient;
+        this.failoverExecutor =
+                ThreadUtils.newDaemonFixedThreadExecutor("MasterFailoverThread", masterConfig.getFailoverThreads());
+    }
 
+    @PreDestroy
+    public void close() {
+        failoverExecutor.shutdownNow();
     }
 
     /**
@@ -129,6 +147,8 @@ public class MasterFailoverService {
      * Failover master, will failover process instance and associated task instance.
      * <p>When the process instance belongs to the given masterHost and the restartTime is before the current server start up time,
      * then the process instance will be failovered.
+     * <p>The process definitions and task instances are loaded in batch, the task instances of the process instances
+     * are failovered in parallel, then the process instances are written to database in batches.
      *
      * @param masterHost master host
      */
@@ -138,65 +158,130 @@ public class MasterFailoverService {
         Optional<Date> masterStartupTimeOptional = getServerStartupTime(registryClient.getServerList(NodeType.MASTER),
                 masterHost);
         List<ProcessInstance> needFailoverProcessInstanceList = processService.queryNeedFailoverProcessInstances(
-                masterHost);
+                masterHost)
+                .stream()
+                .filter(processInstance -> checkProcessInstanceNeedFailover(masterStartupTimeOptional, processInstance))
+                .collect(Collectors.toList());
+        ProcessInstanceMetrics.recordFailoverPhaseTime("query", failoverTimeCost.getTime(TimeUnit.MILLISECONDS));
         if (CollectionUtils.isEmpty(needFailoverProcessInstanceList)) {
             return;
         }
 
         LOGGER.info(
-                "Master[{}] failover starting there are {} workflowInstance may need to failover, will do a deep check, workflowInstanceIds: {}",
+                "Master[{}] failover starting there are {} workflowInstance need to failover, workflowInstanceIds: {}",
                 masterHost,
                 needFailoverProcessInstanceList.size(),
                 needFailoverProcessInstanceList.stream().map(ProcessInstance::getId).collect(Collectors.toList()));
 
-        for (ProcessInstance processInstance : needFailoverProcessInstanceList) {
+        long phaseStartTime = System.currentTimeMillis();
+        processService.packageProcessDefinitions(needFailoverProcessInstanceList);
+        Map<Integer, List<TaskInstance>> taskInstanceMap = new HashMap<>();
+        for (List<ProcessInstance> processInstances : Lists.partition(needFailoverProcessInstanceList,
+                masterConfig.getFailoverBatchSize())) {
+            List<Integer> processInstanceIds =
+                    processInstances.stream().map(ProcessInstance::getId).collect(Collectors.toList());
+            for (TaskInstance taskInstance : processService.findValidTaskListByProcessIds(processInstanceIds)) {
+                taskInstanceMap.computeIfAbsent(taskInstance.getProcessInstanceId(), k -> new ArrayList<>())
+                        .add(taskInstance);
+            }
+        }
+        ProcessInstanceMetrics.recordFailoverPhaseTime("load", System.currentTimeMillis() - phaseStartTime);
+
+        phaseStartTime = System.currentTimeMillis();
+        List<CompletableFuture<List<TaskInstance>>> taskFailoverFutures = needFailoverProcessInstanceList.stream()
+                .map(processInstance -> CompletableFuture.supplyAsync(
+                        () -> failoverTaskInstances(processInstance,
+                                taskInstanceMap.getOrDefault(processInstance.getId(), Collections.emptyList())),
+                        failoverExecutor))
+                .collect(Collectors.toList());
+        List<ProcessInstance> failoverProcessInstances = new ArrayList<>(needFailoverProcessInstanceList.size());
+        Map<Integer, List<TaskInstance>> failoverTaskInstanceMap = new HashMap<>();
+        for (int i = 0; i < needFailoverProcessInstanceList.size(); i++) {
+            ProcessInstance processInstance = needFailoverProcessInstanceList.get(i);
             try {
-                LoggerUtils.setWorkflowInstanceIdMDC(processInstance.getId());
-                LOGGER.info("WorkflowInstance failover starting");
-                if (!checkProcessInstanceNeedFailover(masterStartupTimeOptional, processInstance)) {
-                    LOGGER.info("WorkflowInstance doesn't need to failover");
-                    continue;
-                }
-                // todo: use batch query
-                ProcessDefinition processDefinition =
-                        processService.findProcessDefinition(processInstance.getProcessDefinitionCode(),
-                                processInstance.getProcessDefinitionVersion());
-                processInstance.setProcessDefinition(processDefinition);
-                int processInstanceId = processInstance.getId();
-                List<TaskInstance> taskInstanceList =
-                        processService.findValidTaskListByProcessId(processInstanceId);
-                for (TaskInstance taskInstance : taskInstanceList) {
-                    try {
-                        LoggerUtils.setTaskInstanceIdMDC(taskInstance.getId());
-                        LOGGER.info("TaskInstance failover starting");
-                        if (!checkTaskInstanceNeedFailover(taskInstance)) {
-                            LOGGER.info("The taskInstance doesn't need to failover");
-                            continue;
-                        }
-                        failoverTaskInstance(processInstance, taskInstance);
-                        LOGGER.info("TaskInstance failover finished");
-                    } finally {
-                        LoggerUtils.removeTaskInstanceIdMDC();
-                    }
-                }
-
-                ProcessInstanceMetrics.incProcessInstanceByState("failover");
-                // updateProcessInstance host is null to mark this processInstance has been failover
-                // and insert a failover command
-                processInstance.setHost(Constants.NULL);
-                processService.processNeedFailoverProcessInstances(processInstance);
-                LOGGER.info("WorkflowInstance failover finished");
-            } finally {
-                LoggerUtils.removeWorkflowInstanceIdMDC();
+                failoverTaskInstanceMap.put(processInstance.getId(), taskFailoverFutures.get(i).join());
+                failoverProcessInstances.add(processInstance);
+            } catch (CompletionException e) {
+                // the workflow instance will be failovered in the next check
+                LOGGER.error("WorkflowInstance failover task instances error, workflowInstanceId: {}",
+                        processInstance.getId(), e.getCause());
             }
         }
+        ProcessInstanceMetrics.recordFailoverPhaseTime("task", System.currentTimeMillis() - phaseStartTime);
+
+        phaseStartTime = System.currentTimeMillis();
+        List<CompletableFuture<Void>> writeFutures = new ArrayList<>();
+        for (List<ProcessInstance> processInstances : Lists.partition(failoverProcessInstances,
+                masterConfig.getFailoverBatchSize())) {
+            List<TaskInstance> failoverTaskInstances = processInstances.stream()
+                    .flatMap(processInstance -> failoverTaskInstanceMap.get(processInstance.getId()).stream())
+                    .collect(Collectors.toList());
+            writeFutures.add(CompletableFuture.runAsync(
+                    () -> writeFailoverProcessInstances(processInstances, failoverTaskInstances), failoverExecutor));
+        }
+        CompletableFuture.allOf(writeFutures.toArray(new CompletableFuture[0])).join();
+        ProcessInstanceMetrics.recordFailoverPhaseTime("write", System.currentTimeMillis() - phaseStartTime);
 
         failoverTimeCost.stop();
+        ProcessInstanceMetrics.recordFailoverTime(failoverTimeCost.getTime(TimeUnit.MILLISECONDS));
         LOGGER.info("Master[{}] failover finished, useTime:{}ms",
                 masterHost,
                 failoverTimeCost.getTime(TimeUnit.MILLISECONDS));
     }
 
+    /**
+     * Failover the task instances of the process instance.
+     *
+     * @return the task instances need to be updated
+     */
+    private List<TaskInstance> failoverTaskInstances(@NonNull ProcessInstance processInstance,
+                                                     @NonNull List<TaskInstance> taskInstanceList) {
+        try {
+            LoggerUtils.setWorkflowInstanceIdMDC(processInstance.getId());
+            LOGGER.info("WorkflowInstance failover starting");
+            List<TaskInstance> failoverTaskInstances = new ArrayList<>();
+            for (TaskInstance taskInstance : taskInstanceList) {
+                try {
+                    LoggerUtils.setTaskInstanceIdMDC(taskInstance.getId());
+                    LOGGER.info("TaskInstance failover starting");
+                    if (!checkTaskInstanceNeedFailover(taskInstance)) {
+                        LOGGER.info("The taskInstance doesn't need to failover");
+                        continue;
+                    }
+                    failoverTaskInstance(processInstance, taskInstance);
+                    failoverTaskInstances.add(taskInstance);
+                    LOGGER.info("TaskInstance failover finished");
+                } finally {
+                    LoggerUtils.removeTaskInstanceIdMDC();
+                }
+            }
+            return failoverTaskInstances;
+        } finally {
+            LoggerUtils.removeWorkflowInstanceIdMDC();
+        }
+    }
+
+    /**
+     * Update the failover task instances, and mark the process instances have been failovered by setting the host to
+     * null and insert the failover commands, in one batch.
+     */
+    private void writeFailoverProcessInstances(List<ProcessInstance> processInstances,
+                                               List<TaskInstance> failoverTaskInstances) {
+        try {
+            // updateProcessInstance host is null to mark this processInstance has been failover
+            // and insert a failover command
+            processInstances.forEach(processInstance -> processInstance.setHost(Constants.NULL));
+            processService.processNeedFailoverProcessInstances(processInstances, failoverTaskInstances);
+            processInstances.forEach(processInstance -> ProcessInstanceMetrics.incProcessInstanceByState("failover"));
+            LOGGER.info("WorkflowInstance failover finished, workflowInstanceIds: {}",
+                    processInstances.stream().map(ProcessInstance::getId).collect(Collectors.toList()));
+        } catch (Exception e) {
+            // the workflow instances will be failovered in the next check
+            LOGGER.error("WorkflowInstance failover write error, workflowInstanceIds: {}",
+                    processInstances.stream().map(ProcessInstance::getId).collect(Collectors.toList()), e);
+        }
+    }
+
     private Optional<Date> getServerStartupTime(List<Server> servers, String host) {
         if (CollectionUtils.isEmpty(servers)) {
             return Optional.empty();
@@ -215,8 +300,7 @@ public class MasterFailoverService {
      * failover task instance
      * <p>
      * 1. kill yarn job if run on worker and there are yarn jobs in tasks.
-     * 2. change task state from running to need failover.
-     * 3. try to notify local master
+     * 2. change task state from running to need failover, the task instance is saved with the process instance.
      *
      * @param processInstance
      * @param taskInstance
@@ -249,21 +333,22 @@ public class MasterFailoverService {
         }
 
         taskInstance.setState(TaskExecutionStatus.NEED_FAULT_TOLERANCE);
-        processService.saveTaskInstance(taskInstance);
     }
 
     private void sendKillCommandToWorker(@NonNull TaskInstance taskInstance) {
         if (StringUtils.isEmpty(taskInstance.getHost())) {
             return;
         }
-        try {
-            TaskKillRequestCommand killCommand = new TaskKillRequestCommand(taskInstance.getId());
-            Host workerHost = Host.of(taskInstance.getHost());
-            nettyExecutorManager.doExecute(workerHost, killCommand.convert2Command());
-            LOGGER.info("Failover task success, has killed the task in worker: {}", taskInstance.getHost());
-        } catch (ExecuteException e) {
-            LOGGER.error("Kill task failed", e);
-        }
+        TaskKillRequestCommand killCommand = new TaskKillRequestCommand(taskInstance.getId());
+        Host workerHost = Host.of(taskInstance.getHost());
+        nettyExecutorManager.doExecuteAsync(workerHost, killCommand.convert2Command())
+                .whenComplete((ignored, ex) -> {
+                    if (ex != null) {
+                        LOGGER.error("Kill task failed", ex);
+                    } else {
+                        LOGGER.info("Failover task success, has killed the task in worker: {}", workerHost);
+                    }
+                });
     }
 
     private boolean checkTaskInstanceNeedFailover(@NonNull TaskInstance taskInstance) {
@@ -26,6 +26,7 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 import org.apache.dolphinscheduler.plugin.task.api.model.DateInterval;
 import org.apache.dolphinscheduler.plugin.task.api.model.DependentItem;
 import org.apache.dolphinscheduler.plugin.task.api.utils.DependentUtils;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
@@ -48,6 +49,12 @@ public class DependentExecute {
      */
     private final ProcessService processService = SpringApplicationContext.getBean(ProcessService.class);
 
+    /**
+     * dependent results shared by the dependent tasks
+     */
+    private final DependentResultCacheManager dependentResultCacheManager =
+            SpringApplicationContext.getBean(DependentResultCacheManager.class);
+
     /**
      * depend item list
      */
@@ -109,17 +116,9 @@ public class DependentExecute {
 
         DependResult result = DependResult.FAILED;
         for (DateInterval dateInterval : dateIntervals) {
-            ProcessInstance processInstance = findLastProcessInterval(dependentItem.getDefinitionCode(),
-                    dateInterval);
-            if (processInstance == null) {
-                return DependResult.WAITING;
-            }
-            // need to check workflow for updates, so get all task and check the task state
-            if (dependentItem.getDepTaskCode() == Constants.DEPENDENT_ALL_TASK_CODE) {
-                result = dependResultByProcessInstance(processInstance);
-            } else {
-                result = getDependTaskResult(dependentItem.getDepTaskCode(), processInstance);
-            }
+            result = dependentResultCacheManager.getDependResult(dependentItem.getDefinitionCode(),
+                    dependentItem.getDepTaskCode(), dateInterval,
+                    () -> calculateResultForInterval(dependentItem, dateInterval));
             if (result != DependResult.SUCCESS) {
                 break;
             }
@@ -127,6 +126,26 @@ public class DependentExecute {
         return result;
     }
 
+    /**
+     * calculate dependent result for one dependent item in one date interval.
+     *
+     * @param dependentItem dependent item
+     * @param dateInterval  date interval
+     * @return DependResult
+     */
+    private DependResult calculateResultForInterval(DependentItem dependentItem, DateInterval dateInterval) {
+        ProcessInstance processInstance = findLastProcessInterval(dependentItem.getDefinitionCode(),
+                dateInterval);
+        if (processInstance == null) {
+            return DependResult.WAITING;
+        }
+        // need to check workflow for updates, so get all task and check the task state
+        if (dependentItem.getDepTaskCode() == Constants.DEPENDENT_ALL_TASK_CODE) {
+            return dependResultByProcessInstance(processInstance);
+        }
+        return getDependTaskResult(dependentItem.getDepTaskCode(), processInstance);
+    }
+
     /**
      * depend type = depend_all
      *
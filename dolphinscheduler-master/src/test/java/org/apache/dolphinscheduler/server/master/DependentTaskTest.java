@@ -31,6 +31,7 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 import org.apache.dolphinscheduler.plugin.task.api.model.DependentItem;
 import org.apache.dolphinscheduler.plugin.task.api.model.DependentTaskModel;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.DependentParameters;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.model.TaskNode;
@@ -43,6 +44,7 @@ import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.context.ApplicationContext;
 
 import java.time.Duration;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -78,6 +80,7 @@ public class DependentTaskTest {
     private TaskInstance taskInstance;
 
     @Before
+    @SuppressWarnings("unchecked")
     public void before() {
         ApplicationContext applicationContext = Mockito.mock(ApplicationContext.class);
         SpringApplicationContext springApplicationContext = new SpringApplicationContext();
@@ -91,6 +94,12 @@ public class DependentTaskTest {
         processService = Mockito.mock(ProcessService.class);
         Mockito.when(applicationContext.getBean(ProcessService.class)).thenReturn(processService);
 
+        DependentResultCacheManager dependentResultCacheManager = Mockito.mock(DependentResultCacheManager.class);
+        Mockito.when(dependentResultCacheManager.getDependResult(Mockito.anyLong(), Mockito.anyLong(), Mockito.any(),
+                Mockito.any())).thenAnswer(i -> ((Supplier<DependResult>) i.getArgument(3)).get());
+        Mockito.when(applicationContext.getBean(DependentResultCacheManager.class))
+                .thenReturn(dependentResultCacheManager);
+
         processInstance = getProcessInstance();
         taskInstance = getTaskInstance();
 
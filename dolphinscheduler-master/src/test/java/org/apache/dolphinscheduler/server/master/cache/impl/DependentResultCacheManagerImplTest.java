@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.DependResult;
+import org.apache.dolphinscheduler.plugin.task.api.model.DateInterval;
+import org.apache.dolphinscheduler.plugin.task.api.model.DependentItem;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.event.TaskStateEvent;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DependentResultCacheManagerImplTest {
+
+    @InjectMocks
+    private DependentResultCacheManagerImpl dependentResultCacheManager;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Mock
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    private final DateInterval dateInterval = new DateInterval(new Date(0), new Date(86400000L));
+
+    private final AtomicInteger resolvedTimes = new AtomicInteger();
+
+    private final Supplier<DependResult> resultSupplier = () -> {
+        resolvedTimes.incrementAndGet();
+        return DependResult.WAITING;
+    };
+
+    @Before
+    public void before() {
+        Mockito.when(masterConfig.getDependentResultCacheExpire()).thenReturn(Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testGetDependResultCached() {
+        dependentResultCacheManager.addWaitingDependent(
+                Arrays.asList(newDependentItem(1L, 10L), newDependentItem(1L, 11L)), newTaskInstance(100));
+
+        Assert.assertEquals(DependResult.WAITING,
+                dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier));
+        Assert.assertEquals(DependResult.WAITING,
+                dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier));
+        Assert.assertEquals(1, resolvedTimes.get());
+
+        // another upstream task of the same workflow
+        dependentResultCacheManager.getDependResult(1L, 11L, dateInterval, resultSupplier);
+        Assert.assertEquals(2, resolvedTimes.get());
+    }
+
+    @Test
+    public void testGetDependResultWithoutCache() {
+        Mockito.when(masterConfig.getDependentResultCacheExpire()).thenReturn(Duration.ZERO);
+        dependentResultCacheManager.addWaitingDependent(Collections.singletonList(newDependentItem(1L, 10L)),
+                newTaskInstance(100));
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        Assert.assertEquals(2, resolvedTimes.get());
+    }
+
+    @Test
+    public void testGetDependResultNotWaited() {
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        Assert.assertEquals(2, resolvedTimes.get());
+    }
+
+    @Test
+    public void testUpstreamTaskFinished() {
+        TaskInstance taskDependent = newTaskInstance(100);
+        TaskInstance workflowDependent = newTaskInstance(101);
+        dependentResultCacheManager.addWaitingDependent(
+                Arrays.asList(newDependentItem(1L, 10L), newDependentItem(1L, 11L)), taskDependent);
+        dependentResultCacheManager.addWaitingDependent(
+                Collections.singletonList(newDependentItem(1L, Constants.DEPENDENT_ALL_TASK_CODE)), workflowDependent);
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        dependentResultCacheManager.getDependResult(1L, 11L, dateInterval, resultSupplier);
+        dependentResultCacheManager.getDependResult(1L, Constants.DEPENDENT_ALL_TASK_CODE, dateInterval,
+                resultSupplier);
+
+        dependentResultCacheManager.upstreamTaskFinished(1L, 10L);
+
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        dependentResultCacheManager.getDependResult(1L, 11L, dateInterval, resultSupplier);
+        dependentResultCacheManager.getDependResult(1L, Constants.DEPENDENT_ALL_TASK_CODE, dateInterval,
+                resultSupplier);
+        Assert.assertEquals(4, resolvedTimes.get());
+
+        // the dependents of the whole workflow are not notified until the workflow finishes
+        ArgumentCaptor<TaskStateEvent> stateEventCaptor = ArgumentCaptor.forClass(TaskStateEvent.class);
+        Mockito.verify(workflowExecuteThreadPool).submitStateEvent(stateEventCaptor.capture());
+        Assert.assertEquals(taskDependent.getProcessInstanceId(), stateEventCaptor.getValue().getProcessInstanceId());
+        Assert.assertEquals(taskDependent.getId(), stateEventCaptor.getValue().getTaskInstanceId());
+    }
+
+    @Test
+    public void testUpstreamWorkflowFinished() {
+        dependentResultCacheManager.addWaitingDependent(
+                Arrays.asList(newDependentItem(1L, 10L), newDependentItem(1L, 11L)), newTaskInstance(100));
+        dependentResultCacheManager.addWaitingDependent(
+                Collections.singletonList(newDependentItem(1L, Constants.DEPENDENT_ALL_TASK_CODE)),
+                newTaskInstance(101));
+        dependentResultCacheManager.addWaitingDependent(Collections.singletonList(newDependentItem(2L, 20L)),
+                newTaskInstance(102));
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        dependentResultCacheManager.getDependResult(2L, 20L, dateInterval, resultSupplier);
+
+        dependentResultCacheManager.upstreamWorkflowFinished(1L);
+
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        dependentResultCacheManager.getDependResult(2L, 20L, dateInterval, resultSupplier);
+        Assert.assertEquals(3, resolvedTimes.get());
+        // each dependent is notified once
+        Mockito.verify(workflowExecuteThreadPool, Mockito.times(2)).submitStateEvent(Mockito.any());
+    }
+
+    @Test
+    public void testRemoveWaitingDependent() {
+        TaskInstance taskInstance = newTaskInstance(100);
+        dependentResultCacheManager.addWaitingDependent(Collections.singletonList(newDependentItem(1L, 10L)),
+                taskInstance);
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        dependentResultCacheManager.removeWaitingDependent(taskInstance);
+
+        dependentResultCacheManager.upstreamTaskFinished(1L, 10L);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any());
+
+        // the results are dropped together with the last waiting dependent
+        dependentResultCacheManager.getDependResult(1L, 10L, dateInterval, resultSupplier);
+        Assert.assertEquals(2, resolvedTimes.get());
+    }
+
+    private DependentItem newDependentItem(long definitionCode, long depTaskCode) {
+        DependentItem dependentItem = new DependentItem();
+        dependentItem.setDefinitionCode(definitionCode);
+        dependentItem.setDepTaskCode(depTaskCode);
+        return dependentItem;
+    }
+
+    private TaskInstance newTaskInstance(int id) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        taskInstance.setProcessInstanceId(id * 10);
+        taskInstance.setTaskCode(id * 100L);
+        return taskInstance;
+    }
+}
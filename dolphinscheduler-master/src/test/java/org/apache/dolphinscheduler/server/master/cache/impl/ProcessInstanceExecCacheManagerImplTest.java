@@ -75,4 +75,11 @@ public class ProcessInstanceExecCacheManagerImplTest {
         Collection<WorkflowExecuteRunnable> workflowExecuteThreads = processInstanceExecCacheManager.getAll();
         Assert.assertEquals(1, workflowExecuteThreads.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSize() {
+        Assert.assertEquals(1, processInstanceExecCacheManager.size());
+        processInstanceExecCacheManager.removeByProcessInstanceId(1);
+        Assert.assertEquals(0, processInstanceExecCacheManager.size());
+    }
+}
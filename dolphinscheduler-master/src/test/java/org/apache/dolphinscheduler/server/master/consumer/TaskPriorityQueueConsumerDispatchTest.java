@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.consumer;
+
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.remote.command.CommandBodySerializer;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
+import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
+import org.apache.dolphinscheduler.service.queue.TaskPriority;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.mockito.junit.MockitoJUnitRunner;
+
+/**
+ * The dispatch loop of {@link TaskPriorityQueueConsumer}, with one dispatch permit, so a leaked permit stops the
+ * following dispatches.
+ */
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TaskPriorityQueueConsumerDispatchTest {
+
+    @InjectMocks
+    private TaskPriorityQueueConsumer taskPriorityQueueConsumer;
+
+    @Spy
+    private TaskPriorityQueue<TaskPriority> taskPriorityQueue = new TaskPriorityQueueImpl();
+
+    @Mock
+    private ExecutorDispatcher dispatcher;
+
+    @Mock
+    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Mock
+    private TaskEventService taskEventService;
+
+    @Mock
+    private WorkflowExecuteRunnable workflowExecuteRunnable;
+
+    private final List<Integer> dispatchedTaskIds = Collections.synchronizedList(new ArrayList<>());
+
+    private final List<Long> dispatchTimes = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void before() throws Exception {
+        Mockito.when(masterConfig.getDispatchTaskNumber()).thenReturn(1);
+        Mockito.when(masterConfig.getTaskCommandSerializer()).thenReturn(CommandBodySerializer.JSON);
+        Mockito.when(processInstanceExecCacheManager.getByProcessInstanceId(Mockito.anyInt()))
+                .thenReturn(workflowExecuteRunnable);
+        Mockito.when(workflowExecuteRunnable.getTaskInstance(Mockito.anyInt())).thenAnswer(invocation -> {
+            TaskInstance taskInstance = new TaskInstance();
+            taskInstance.setId(invocation.getArgument(0));
+            return Optional.of(taskInstance);
+        });
+    }
+
+    @After
+    public void after() throws InterruptedException {
+        taskPriorityQueueConsumer.interrupt();
+        taskPriorityQueueConsumer.join(5000);
+    }
+
+    @Test
+    public void testDispatchWorkerGroupsInRoundRobin() throws Exception {
+        mockDispatchResults(true);
+        taskPriorityQueue.put(newTaskPriority(1, "groupA"));
+        taskPriorityQueue.put(newTaskPriority(2, "groupA"));
+        taskPriorityQueue.put(newTaskPriority(3, "groupA"));
+        taskPriorityQueue.put(newTaskPriority(4, "groupB"));
+
+        taskPriorityQueueConsumer.init();
+
+        Mockito.verify(dispatcher, Mockito.timeout(5000).times(4)).dispatchAsync(Mockito.any());
+        Assert.assertEquals(Arrays.asList(1, 4, 2, 3), dispatchedTaskIds);
+    }
+
+    @Test
+    public void testRetryFailedDispatchLater() throws Exception {
+        mockDispatchResults(false, true, true);
+        taskPriorityQueue.put(newTaskPriority(1, "groupA"));
+        taskPriorityQueue.put(newTaskPriority(2, "groupA"));
+
+        taskPriorityQueueConsumer.init();
+
+        Mockito.verify(dispatcher, Mockito.timeout(5000).times(3)).dispatchAsync(Mockito.any());
+        // the failed task doesn't block the others, and is retried after the backoff
+        Assert.assertEquals(Arrays.asList(1, 2, 1), dispatchedTaskIds);
+        Assert.assertTrue(dispatchTimes.get(2) - dispatchTimes.get(0) >= Constants.SLEEP_TIME_MILLIS_SHORT);
+        Mockito.verify(taskEventService, Mockito.timeout(5000).times(2)).addEvent(Mockito.any());
+    }
+
+    @Test
+    public void testRetryDispatchCompletedExceptionally() throws Exception {
+        mockDispatchResults(true, true, true);
+        Mockito.doThrow(new IllegalStateException("add event error")).doNothing()
+                .when(taskEventService).addEvent(Mockito.any());
+        taskPriorityQueue.put(newTaskPriority(1, "groupA"));
+        taskPriorityQueue.put(newTaskPriority(2, "groupA"));
+
+        taskPriorityQueueConsumer.init();
+
+        Mockito.verify(dispatcher, Mockito.timeout(5000).times(3)).dispatchAsync(Mockito.any());
+        Assert.assertEquals(Arrays.asList(1, 2, 1), dispatchedTaskIds);
+    }
+
+    @Test
+    public void testReleasePermitWhenDispatchThrows() throws Exception {
+        Mockito.when(dispatcher.dispatchAsync(Mockito.any())).thenAnswer(invocation -> {
+            ExecutionContext executionContext = invocation.getArgument(0);
+            dispatchedTaskIds.add(executionContext.getTaskInstance().getId());
+            if (dispatchedTaskIds.size() == 1) {
+                throw new IllegalStateException("dispatch error");
+            }
+            executionContext.setHost(Host.of("127.0.0.1:1234"));
+            return CompletableFuture.completedFuture(true);
+        });
+        taskPriorityQueue.put(newTaskPriority(1, "groupA"));
+        taskPriorityQueue.put(newTaskPriority(2, "groupA"));
+
+        taskPriorityQueueConsumer.init();
+
+        Mockito.verify(dispatcher, Mockito.timeout(5000).times(3)).dispatchAsync(Mockito.any());
+        Assert.assertEquals(Arrays.asList(1, 2, 1), dispatchedTaskIds);
+    }
+
+    private void mockDispatchResults(Boolean... results) throws Exception {
+        Mockito.when(dispatcher.dispatchAsync(Mockito.any())).thenAnswer(invocation -> {
+            ExecutionContext executionContext = invocation.getArgument(0);
+            executionContext.setHost(Host.of("127.0.0.1:1234"));
+            dispatchTimes.add(System.currentTimeMillis());
+            dispatchedTaskIds.add(executionContext.getTaskInstance().getId());
+            return CompletableFuture.completedFuture(results[Math.min(dispatchedTaskIds.size(), results.length) - 1]);
+        });
+    }
+
+    private TaskPriority newTaskPriority(int taskId, String workerGroup) {
+        TaskExecutionContext context = new TaskExecutionContext();
+        context.setProcessInstanceId(1);
+        context.setTaskInstanceId(taskId);
+        context.setWorkerGroup(workerGroup);
+        TaskPriority taskPriority = new TaskPriority(0, 1, 0, taskId, 0, workerGroup);
+        taskPriority.setTaskExecutionContext(context);
+        return taskPriority;
+    }
+}
@@ -236,10 +236,10 @@ public class TaskPriorityQueueConsumerTest {
         taskInstance.setWorkerGroup("default");
         taskInstance.setExecutorId(2);
 
-        Mockito.doReturn(taskInstance).when(processService).findTaskInstanceById(1);
+        Assert.assertTrue(taskPriorityQueueConsumer.taskInstanceIsFinalState(taskInstance));
 
-        Boolean state = taskPriorityQueueConsumer.taskInstanceIsFinalState(1);
-        Assert.assertNotNull(state);
+        taskInstance.setState(TaskExecutionStatus.RUNNING_EXECUTION);
+        Assert.assertFalse(taskPriorityQueueConsumer.taskInstanceIsFinalState(taskInstance));
     }
 
     @Test
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.host.assign;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LowerWeightHostSnapshotTest {
+
+    @Test
+    public void testSameSequenceAsLowerWeightRoundRobin() {
+        LowerWeightHostSnapshot snapshot = LowerWeightHostSnapshot.of(newHostWeights());
+        List<HostWeight> sources = newHostWeights();
+        LowerWeightRoundRobin roundRobin = new LowerWeightRoundRobin();
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(roundRobin.select(sources).getHost(), snapshot.select());
+        }
+    }
+
+    @Test
+    public void testOnlyLeastWaitingTaskHosts() {
+        List<HostWeight> sources = new ArrayList<>();
+        sources.add(new HostWeight(HostWorker.of("192.158.2.1:11", 100, "default"), 0.06, 0.44, 3.84, 2, System.currentTimeMillis() - 60 * 20 * 1000));
+        sources.add(new HostWeight(HostWorker.of("192.158.2.2:22", 100, "default"), 0.06, 0.56, 3.24, 1, System.currentTimeMillis() - 60 * 20 * 1000));
+        sources.add(new HostWeight(HostWorker.of("192.158.2.3:33", 100, "default"), 0.06, 0.80, 3.15, 1, System.currentTimeMillis() - 60 * 20 * 1000));
+
+        LowerWeightHostSnapshot snapshot = LowerWeightHostSnapshot.of(sources);
+        Assert.assertEquals(2, snapshot.size());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertNotEquals("192.158.2.1", snapshot.select().getIp());
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        Assert.assertNull(LowerWeightHostSnapshot.of(Collections.emptyList()));
+    }
+
+    private List<HostWeight> newHostWeights() {
+        List<HostWeight> sources = new ArrayList<>();
+        sources.add(new HostWeight(HostWorker.of("192.158.2.1:11", 100, "default"), 0.06, 0.44, 3.84, 0, System.currentTimeMillis() - 60 * 20 * 1000));
+        sources.add(new HostWeight(HostWorker.of("192.158.2.2:22", 100, "default"), 0.06, 0.56, 3.24, 0, System.currentTimeMillis() - 60 * 20 * 1000));
+        sources.add(new HostWeight(HostWorker.of("192.158.2.3:33", 100, "default"), 0.06, 0.80, 1.15, 0, System.currentTimeMillis() - 60 * 20 * 1000));
+        return sources;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor.queue;
+
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskInstanceBatchUpdateServiceTest {
+
+    @InjectMocks
+    private TaskInstanceBatchUpdateService taskInstanceBatchUpdateService;
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushPendingUpdatesInOneBatch() throws Exception {
+        Mockito.when(masterConfig.getTaskInstanceBatchUpdateSize()).thenReturn(100);
+        Mockito.when(processService.batchUpdateTaskInstance(Mockito.anyList())).thenReturn(new int[]{1, 0});
+
+        TaskInstance taskInstance = newTaskInstance(1);
+        taskInstance.setState(TaskExecutionStatus.SUCCESS);
+        CompletableFuture<Boolean> resultFuture = taskInstanceBatchUpdateService.update(taskInstance);
+        CompletableFuture<Boolean> notExistFuture = taskInstanceBatchUpdateService.update(newTaskInstance(2));
+        Assert.assertFalse(resultFuture.isDone());
+        // the snapshot is written, the changes after submitted are not
+        taskInstance.setState(TaskExecutionStatus.FAILURE);
+
+        // flush the remaining updates
+        taskInstanceBatchUpdateService.stop();
+
+        ArgumentCaptor<List<TaskInstance>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(processService, Mockito.times(1)).batchUpdateTaskInstance(captor.capture());
+        Assert.assertEquals(2, captor.getValue().size());
+        Assert.assertEquals(TaskExecutionStatus.SUCCESS, captor.getValue().get(0).getState());
+        Assert.assertNotSame(taskInstance, captor.getValue().get(0));
+        Assert.assertTrue(resultFuture.get());
+        Assert.assertFalse(notExistFuture.get());
+    }
+
+    @Test
+    public void testFlushWithoutWaiting() throws Exception {
+        Mockito.when(masterConfig.getTaskInstanceBatchUpdateSize()).thenReturn(100);
+        Mockito.when(processService.batchUpdateTaskInstance(Mockito.anyList())).thenReturn(new int[]{1});
+        taskInstanceBatchUpdateService.start();
+        try {
+            Assert.assertTrue(taskInstanceBatchUpdateService.update(newTaskInstance(1)).get(10, TimeUnit.SECONDS));
+        } finally {
+            taskInstanceBatchUpdateService.stop();
+        }
+    }
+
+    @Test
+    public void testFailedUpdateCompleteExceptionally() {
+        Mockito.when(masterConfig.getTaskInstanceBatchUpdateSize()).thenReturn(100);
+        Mockito.when(processService.batchUpdateTaskInstance(Mockito.anyList()))
+                .thenThrow(new RuntimeException("db error"));
+
+        CompletableFuture<Boolean> future1 = taskInstanceBatchUpdateService.update(newTaskInstance(1));
+        CompletableFuture<Boolean> future2 = taskInstanceBatchUpdateService.update(newTaskInstance(2));
+        taskInstanceBatchUpdateService.stop();
+        Assert.assertTrue(future1.isCompletedExceptionally());
+        Assert.assertTrue(future2.isCompletedExceptionally());
+        Mockito.verify(processService, Mockito.times(1)).batchUpdateTaskInstance(Mockito.anyList());
+    }
+
+    @Test
+    public void testUpdateAfterStop() {
+        taskInstanceBatchUpdateService.stop();
+        try {
+            taskInstanceBatchUpdateService.updateAndWait(newTaskInstance(1));
+            Assert.fail("the update after stopped should fail");
+        } catch (Exception e) {
+            Assert.assertTrue(e instanceof ExecutionException);
+        }
+        Mockito.verify(processService, Mockito.never()).batchUpdateTaskInstance(Mockito.anyList());
+    }
+
+    private TaskInstance newTaskInstance(int id) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        taskInstance.setState(TaskExecutionStatus.RUNNING_EXECUTION);
+        return taskInstance;
+    }
+}
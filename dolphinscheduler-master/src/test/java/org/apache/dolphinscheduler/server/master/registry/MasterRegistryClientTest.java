@@ -87,7 +87,7 @@ public class MasterRegistryClientTest {
         processInstance.setCommandType(CommandType.STOP);
         given(processService.queryNeedFailoverProcessInstances(Mockito.anyString()))
                 .willReturn(Arrays.asList(processInstance));
-        doNothing().when(processService).processNeedFailoverProcessInstances(Mockito.any(ProcessInstance.class));
+        doNothing().when(processService).processNeedFailoverProcessInstances(Mockito.anyList(), Mockito.anyList());
         TaskInstance taskInstance = new TaskInstance();
         taskInstance.setId(1);
         taskInstance.setStartTime(new Date());
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.enums.TaskGroupQueueStatus;
+import org.apache.dolphinscheduler.dao.entity.TaskGroup;
+import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.dao.mapper.TaskGroupMapper;
+import org.apache.dolphinscheduler.dao.mapper.TaskGroupQueueMapper;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.processor.StateEventCallbackService;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.event.StateEvent;
+import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class TaskGroupArbiterTest {
+
+    private static final String MASTER_ADDRESS = "127.0.0.1:5678";
+
+    @InjectMocks
+    private TaskGroupArbiter taskGroupArbiter;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private TaskGroupMapper taskGroupMapper;
+
+    @Mock
+    private TaskGroupQueueMapper taskGroupQueueMapper;
+
+    @Mock
+    private ServerNodeManager serverNodeManager;
+
+    @Mock
+    private StateEventCallbackService stateEventCallbackService;
+
+    @Mock
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    @Before
+    public void before() {
+        Mockito.when(masterConfig.getMasterAddress()).thenReturn(MASTER_ADDRESS);
+        Mockito.when(serverNodeManager.getSlot()).thenReturn(0);
+        Mockito.when(serverNodeManager.getMasterSize()).thenReturn(1);
+        Mockito.when(serverNodeManager.getMasterAddress(0)).thenReturn(MASTER_ADDRESS);
+        Mockito.when(taskGroupQueueMapper.queryByStatusAndGroupSlot(Mockito.any(), Mockito.anyInt(), Mockito.anyInt()))
+                .thenReturn(Collections.emptyList());
+        TaskGroup taskGroup = TaskGroup.builder().id(1).groupSize(1).useSize(0).status(1).build();
+        Mockito.when(taskGroupMapper.selectBatchIds(Mockito.any())).thenReturn(Collections.singletonList(taskGroup));
+        Mockito.when(taskGroupQueueMapper.acquireByTaskIdCAS(Mockito.anyInt(),
+                Mockito.eq(TaskGroupQueueStatus.WAIT_QUEUE.getCode()),
+                Mockito.eq(TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode()))).thenReturn(1);
+        Mockito.when(taskGroupQueueMapper.updateStatusByTaskIdCAS(Mockito.anyInt(), Mockito.anyInt(),
+                Mockito.eq(TaskGroupQueueStatus.RELEASE.getCode()))).thenReturn(1);
+        Mockito.when(taskGroupMapper.increaseUseSize(1, 1)).thenReturn(1);
+        Mockito.when(taskGroupMapper.decreaseUseSize(1)).thenReturn(1);
+    }
+
+    @Test
+    public void testAcquireAndRelease() {
+        TaskInstance taskInstance1 = newTaskInstance(1, 0);
+        TaskInstance taskInstance2 = newTaskInstance(2, 0);
+        TaskInstance taskInstance3 = newTaskInstance(3, 5);
+
+        Assert.assertTrue(taskGroupArbiter.acquire(taskInstance1));
+        Assert.assertFalse(taskGroupArbiter.acquire(taskInstance2));
+        Assert.assertFalse(taskGroupArbiter.acquire(taskInstance3));
+        Mockito.verify(taskGroupMapper).increaseUseSize(1, 1);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any());
+
+        // the waiting task with higher priority is woken up
+        mockTaskGroupQueue(taskInstance1, TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        taskGroupArbiter.release(taskInstance1);
+        Mockito.verify(taskGroupQueueMapper).updateStatusByTaskIdCAS(1, TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode(),
+                TaskGroupQueueStatus.RELEASE.getCode());
+        Mockito.verify(taskGroupMapper).decreaseUseSize(1);
+        Mockito.verify(taskGroupMapper, Mockito.times(2)).increaseUseSize(1, 1);
+        ArgumentCaptor<StateEvent> stateEvent = ArgumentCaptor.forClass(StateEvent.class);
+        Mockito.verify(workflowExecuteThreadPool).submitStateEvent(stateEvent.capture());
+        Assert.assertEquals(Integer.valueOf(3), stateEvent.getValue().getTaskInstanceId());
+
+        mockTaskGroupQueue(taskInstance3, TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        taskGroupArbiter.release(taskInstance3);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.times(2)).submitStateEvent(stateEvent.capture());
+        Assert.assertEquals(Integer.valueOf(2), stateEvent.getValue().getTaskInstanceId());
+    }
+
+    @Test
+    public void testReleaseWaitingTask() {
+        TaskInstance taskInstance1 = newTaskInstance(1, 0);
+        TaskInstance taskInstance2 = newTaskInstance(2, 0);
+
+        Assert.assertTrue(taskGroupArbiter.acquire(taskInstance1));
+        Assert.assertFalse(taskGroupArbiter.acquire(taskInstance2));
+        mockTaskGroupQueue(taskInstance2, TaskGroupQueueStatus.WAIT_QUEUE);
+        taskGroupArbiter.release(taskInstance2);
+        Mockito.verify(taskGroupMapper, Mockito.never()).decreaseUseSize(Mockito.anyInt());
+
+        mockTaskGroupQueue(taskInstance1, TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        taskGroupArbiter.release(taskInstance1);
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any());
+        Mockito.verify(taskGroupMapper).decreaseUseSize(1);
+    }
+
+    @Test
+    public void testAcquireGuardedByUseSize() {
+        TaskInstance taskInstance1 = newTaskInstance(1, 0);
+        TaskInstance taskInstance2 = newTaskInstance(2, 0);
+
+        // the resource is held by the tasks granted by another master
+        Mockito.when(taskGroupMapper.increaseUseSize(1, 1)).thenReturn(0);
+        Assert.assertFalse(taskGroupArbiter.acquire(taskInstance1));
+        Assert.assertFalse(taskGroupArbiter.acquire(taskInstance2));
+        Mockito.verify(taskGroupQueueMapper, Mockito.never()).acquireByTaskIdCAS(Mockito.anyInt(),
+                Mockito.eq(TaskGroupQueueStatus.WAIT_QUEUE.getCode()),
+                Mockito.eq(TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode()));
+
+        // the resent request keeps its place in the queue
+        Mockito.when(taskGroupMapper.increaseUseSize(1, 1)).thenReturn(1);
+        Assert.assertTrue(taskGroupArbiter.acquire(taskInstance1));
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any());
+    }
+
+    @Test
+    public void testGrantedTaskNotWaiting() {
+        // e.g. the waiting task is force started, it is not counted in the use size
+        Mockito.when(taskGroupQueueMapper.acquireByTaskIdCAS(1, TaskGroupQueueStatus.WAIT_QUEUE.getCode(),
+                TaskGroupQueueStatus.ACQUIRE_SUCCESS.getCode())).thenReturn(0);
+
+        Assert.assertFalse(taskGroupArbiter.acquire(newTaskInstance(1, 0)));
+        Mockito.verify(taskGroupMapper).increaseUseSize(1, 1);
+        Mockito.verify(taskGroupMapper).decreaseUseSize(1);
+    }
+
+    @Test
+    public void testReacquire() {
+        TaskInstance taskInstance = newTaskInstance(1, 0);
+        mockTaskGroupQueue(taskInstance, TaskGroupQueueStatus.RELEASE);
+        Mockito.when(taskGroupQueueMapper.requeueByTaskIdCAS(1, TaskGroupQueueStatus.RELEASE.getCode(),
+                TaskGroupQueueStatus.WAIT_QUEUE.getCode())).thenReturn(1);
+
+        Assert.assertTrue(taskGroupArbiter.acquire(taskInstance));
+        Mockito.verify(taskGroupMapper).increaseUseSize(1, 1);
+        Mockito.verify(taskGroupQueueMapper, Mockito.never()).updateById(Mockito.any(TaskGroupQueue.class));
+    }
+
+    @Test
+    public void testReacquireGrantedMeanwhile() {
+        TaskInstance taskInstance = newTaskInstance(1, 0);
+        TaskGroupQueue waiting = new TaskGroupQueue();
+        waiting.setTaskId(1);
+        waiting.setStatus(TaskGroupQueueStatus.WAIT_QUEUE);
+        TaskGroupQueue granted = new TaskGroupQueue();
+        granted.setTaskId(1);
+        granted.setStatus(TaskGroupQueueStatus.ACQUIRE_SUCCESS);
+        // the task is granted between the query and the requeue, the grant is kept
+        Mockito.when(taskGroupQueueMapper.queryByTaskId(1)).thenReturn(waiting, granted);
+
+        Assert.assertTrue(taskGroupArbiter.acquire(taskInstance));
+        Mockito.verify(taskGroupQueueMapper).requeueByTaskIdCAS(1, TaskGroupQueueStatus.WAIT_QUEUE.getCode(),
+                TaskGroupQueueStatus.WAIT_QUEUE.getCode());
+        Mockito.verify(taskGroupQueueMapper, Mockito.never()).updateById(Mockito.any(TaskGroupQueue.class));
+        Mockito.verify(taskGroupMapper, Mockito.never()).increaseUseSize(Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    public void testAcquireFromOtherMaster() {
+        Mockito.when(serverNodeManager.getMasterAddress(0)).thenReturn("127.0.0.2:5678");
+
+        Assert.assertFalse(taskGroupArbiter.acquire(newTaskInstance(1, 0)));
+        ArgumentCaptor<Command> command = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(stateEventCallbackService).sendResult(Mockito.any(Host.class), command.capture());
+        Assert.assertEquals(CommandType.TASK_GROUP_ACQUIRE_REQUEST, command.getValue().getType());
+        Mockito.verify(taskGroupMapper, Mockito.never()).increaseUseSize(Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    private void mockTaskGroupQueue(TaskInstance taskInstance, TaskGroupQueueStatus status) {
+        TaskGroupQueue taskGroupQueue = new TaskGroupQueue();
+        taskGroupQueue.setTaskId(taskInstance.getId());
+        taskGroupQueue.setGroupId(taskInstance.getTaskGroupId());
+        taskGroupQueue.setStatus(status);
+        taskGroupQueue.setForceStart(0);
+        Mockito.when(taskGroupQueueMapper.queryByTaskId(taskInstance.getId())).thenReturn(taskGroupQueue);
+    }
+
+    private TaskInstance newTaskInstance(int id, int priority) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(id);
+        taskInstance.setName("task-" + id);
+        taskInstance.setProcessInstanceId(id);
+        taskInstance.setTaskGroupId(1);
+        taskInstance.setTaskGroupPriority(priority);
+        return taskInstance;
+    }
+}
@@ -35,6 +35,7 @@ import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.Schedule;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.repository.ProcessInstanceDao;
+import org.apache.dolphinscheduler.server.master.cache.DependentResultCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.service.alert.ProcessAlertManager;
@@ -122,7 +123,8 @@ public class WorkflowExecuteRunnableTest {
         ProcessAlertManager processAlertManager = mock(ProcessAlertManager.class);
         workflowExecuteThread = PowerMockito.spy(
                 new WorkflowExecuteRunnable(processInstance, processService, processInstanceDao, nettyExecutorManager,
-                        processAlertManager, config, stateWheelExecuteThread, curingGlobalParamsService));
+                        processAlertManager, config, stateWheelExecuteThread, curingGlobalParamsService,
+                        mock(DependentResultCacheManager.class), mock(TaskGroupArbiter.class)));
         // prepareProcess init dag
         Field dag = WorkflowExecuteRunnable.class.getDeclaredField("dag");
         dag.setAccessible(true);
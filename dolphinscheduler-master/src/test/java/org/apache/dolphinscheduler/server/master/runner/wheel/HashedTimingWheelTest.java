@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.dolphinscheduler.server.master.runner.wheel;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HashedTimingWheelTest {
+
+    @Test
+    public void testExpireByDeadline() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8);
+        long now = System.currentTimeMillis();
+        wheel.schedule("first", now + 100);
+        wheel.schedule("second", now + 1000);
+        Assert.assertEquals(2, wheel.size());
+
+        Assert.assertTrue(wheel.advance(now + 50).isEmpty());
+
+        List<HashedTimingWheel.Timeout<String>> expired = wheel.advance(now + 200);
+        Assert.assertEquals(1, expired.size());
+        Assert.assertEquals("first", expired.get(0).getItem());
+        Assert.assertEquals(1, wheel.size());
+
+        // the deadline is more than one round later
+        expired = wheel.advance(now + 2000);
+        Assert.assertEquals(1, expired.size());
+        Assert.assertEquals("second", expired.get(0).getItem());
+        Assert.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testExpirePassedDeadline() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8);
+        long now = System.currentTimeMillis();
+        wheel.advance(now + 500);
+        wheel.schedule("passed", now);
+        List<HashedTimingWheel.Timeout<String>> expired = wheel.advance(now + 520);
+        Assert.assertEquals(1, expired.size());
+        Assert.assertTrue(wheel.getLastFireLagMillis() >= 500);
+    }
+
+    @Test
+    public void testCancel() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8);
+        long now = System.currentTimeMillis();
+        HashedTimingWheel.Timeout<String> cancelBeforeAdvance = wheel.schedule("cancelBeforeAdvance", now + 100);
+        HashedTimingWheel.Timeout<String> cancelAfterAdvance = wheel.schedule("cancelAfterAdvance", now + 100);
+        wheel.schedule("keep", now + 100);
+
+        Assert.assertTrue(cancelBeforeAdvance.cancel());
+        Assert.assertFalse(cancelBeforeAdvance.cancel());
+        wheel.advance(now);
+        Assert.assertTrue(cancelAfterAdvance.cancel());
+        Assert.assertEquals(1, wheel.size());
+
+        List<HashedTimingWheel.Timeout<String>> expired = wheel.advance(now + 200);
+        Assert.assertEquals(1, expired.size());
+        Assert.assertEquals("keep", expired.get(0).getItem());
+        Assert.assertFalse(expired.get(0).cancel());
+    }
+}
@@ -45,6 +45,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -112,6 +113,8 @@ public class FailoverServiceTest {
         given(masterConfig.getListenPort()).willReturn(masterPort);
         testMasterHost = NetUtils.getAddr(masterConfig.getListenPort());
         given(masterConfig.getMasterAddress()).willReturn(testMasterHost);
+        given(masterConfig.getFailoverThreads()).willReturn(2);
+        given(masterConfig.getFailoverBatchSize()).willReturn(100);
         MasterFailoverService masterFailoverService =
                 new MasterFailoverService(registryClient, masterConfig, processService, nettyExecutorManager,
                         processInstanceExecCacheManager, logClient);
@@ -130,6 +133,8 @@ public class FailoverServiceTest {
 
         testWorkerHost = ip + ":" + workerPort;
 
+        given(nettyExecutorManager.doExecuteAsync(Mockito.any(), Mockito.any()))
+                .willReturn(CompletableFuture.completedFuture(null));
         given(registryClient.getLock(Mockito.anyString())).willReturn(true);
         given(registryClient.releaseLock(Mockito.anyString())).willReturn(true);
         given(registryClient.getHostByEventDataPath(Mockito.anyString())).willReturn(testMasterHost);
@@ -147,12 +152,14 @@ public class FailoverServiceTest {
 
         masterTaskInstance = new TaskInstance();
         masterTaskInstance.setId(1);
+        masterTaskInstance.setProcessInstanceId(processInstance.getId());
         masterTaskInstance.setStartTime(new Date());
         masterTaskInstance.setHost(testMasterHost);
         masterTaskInstance.setTaskType(TASK_TYPE_SWITCH);
 
         workerTaskInstance = new TaskInstance();
         workerTaskInstance.setId(2);
+        workerTaskInstance.setProcessInstanceId(processInstance.getId());
         workerTaskInstance.setStartTime(new Date());
         workerTaskInstance.setHost(testWorkerHost);
         workerTaskInstance.setTaskType(COMMON_TASK_TYPE);
@@ -162,8 +169,8 @@ public class FailoverServiceTest {
         given(processService.queryNeedFailoverProcessInstanceHost()).willReturn(Lists.newArrayList(testMasterHost));
         given(processService.queryNeedFailoverProcessInstances(Mockito.anyString()))
                 .willReturn(Arrays.asList(processInstance));
-        doNothing().when(processService).processNeedFailoverProcessInstances(Mockito.any(ProcessInstance.class));
-        given(processService.findValidTaskListByProcessId(Mockito.anyInt()))
+        doNothing().when(processService).processNeedFailoverProcessInstances(Mockito.anyList(), Mockito.anyList());
+        given(processService.findValidTaskListByProcessIds(Mockito.anyList()))
                 .willReturn(Lists.newArrayList(masterTaskInstance, workerTaskInstance));
         given(processService.findProcessInstanceDetailById(Mockito.anyInt()))
                 .willReturn(Optional.ofNullable(processInstance));
@@ -56,4 +56,9 @@ public class MeterConfiguration {
     public CountedAspect countedAspect(MeterRegistry registry) {
         return new CountedAspect(registry);
     }
+
+    @Bean
+    public SystemMetricsBinder systemMetricsBinder() {
+        return new SystemMetricsBinder();
+    }
 }
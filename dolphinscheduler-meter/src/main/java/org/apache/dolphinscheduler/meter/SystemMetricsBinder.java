@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.meter;
+
+import org.apache.dolphinscheduler.common.os.SystemMetrics;
+import org.apache.dolphinscheduler.common.os.SystemMetricsSampler;
+
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Export the raw system metrics sampled by {@link SystemMetricsSampler}, they are the metrics of the cgroup if the
+ * server runs in a container with limits.
+ */
+public class SystemMetricsBinder implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registerGauge(registry, "ds.system.cpu.usage", null, SystemMetrics::getCpuUsage,
+                "cpu usage of the host or of the cgroup cpu quota, -1 if unknown");
+        registerGauge(registry, "ds.system.load.average", null, SystemMetrics::getLoadAverage,
+                "1 minute load average of the host or of the cgroup, -1 if unknown");
+        registerGauge(registry, "ds.system.cpu.quota", null, SystemMetrics::getCpuQuota,
+                "cpu quota of the cgroup in cores, -1 if there is no quota");
+        registerGauge(registry, "ds.system.memory.usage", null, SystemMetrics::getMemoryUsage,
+                "memory usage of the host or of the cgroup memory limit");
+        registerGauge(registry, "ds.system.memory.total", "bytes", SystemMetrics::getTotalMemory,
+                "total memory of the host or memory limit of the cgroup");
+        registerGauge(registry, "ds.system.memory.available", "bytes", SystemMetrics::getAvailableMemory,
+                "available memory of the host or of the cgroup");
+        registerGauge(registry, "ds.system.disk.available", "bytes", SystemMetrics::getDiskAvailable,
+                "free disk space of the working directory");
+    }
+
+    private void registerGauge(MeterRegistry registry, String name, String baseUnit,
+                               ToDoubleFunction<SystemMetrics> value, String description) {
+        Gauge.builder(name, SystemMetricsSampler.class,
+                clazz -> value.applyAsDouble(SystemMetricsSampler.getSnapshot()))
+                .baseUnit(baseUnit)
+                .description(description)
+                .register(registry);
+    }
+}
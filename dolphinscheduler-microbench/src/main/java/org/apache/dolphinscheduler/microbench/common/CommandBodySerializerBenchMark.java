@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.common;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.enums.DataType;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskTimeoutStrategy;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.remote.command.CommandBodySerializer;
+import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the JSON and binary command body serializer with the task dispatch command,
+ * the encoded size is reported by the aux counter.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CommandBodySerializerBenchMark extends AbstractBaseBenchmark {
+
+    @Param({"JSON", "PROTOSTUFF"})
+    private CommandBodySerializer serializer;
+
+    /**
+     * The number of the task params, a bigger number means a bigger task execution context.
+     */
+    @Param({"10", "100"})
+    private int paramNum;
+
+    private TaskDispatchCommand taskDispatchCommand;
+
+    private byte[] encoded;
+
+    @Setup
+    public void before() {
+        taskDispatchCommand = new TaskDispatchCommand(newTaskExecutionContext(paramNum),
+                "127.0.0.1:5678", "127.0.0.1:1234", System.currentTimeMillis());
+        encoded = serializer.serialize(taskDispatchCommand);
+    }
+
+    @Benchmark
+    public byte[] encode(EncodedSize encodedSize) {
+        byte[] bytes = serializer.serialize(taskDispatchCommand);
+        encodedSize.bytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public TaskDispatchCommand decode() {
+        return serializer.deserialize(encoded, TaskDispatchCommand.class);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class EncodedSize {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    private static TaskExecutionContext newTaskExecutionContext(int paramNum) {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(10001);
+        taskExecutionContext.setTaskName("shell-task");
+        taskExecutionContext.setFirstSubmitTime(new Date());
+        taskExecutionContext.setStartTime(new Date());
+        taskExecutionContext.setTaskType("SHELL");
+        taskExecutionContext.setHost("127.0.0.1:1234");
+        taskExecutionContext.setExecutePath("/tmp/dolphinscheduler/exec/process/1/2/3/10001");
+        taskExecutionContext.setLogPath("/opt/dolphinscheduler/logs/20221018/1/1/3/10001.log");
+        taskExecutionContext.setProcessId(0);
+        taskExecutionContext.setProcessDefineCode(7096351011456L);
+        taskExecutionContext.setProcessDefineVersion(1);
+        taskExecutionContext.setProcessInstanceId(3);
+        taskExecutionContext.setScheduleTime(new Date());
+        taskExecutionContext.setExecutorId(1);
+        taskExecutionContext.setTenantCode("default");
+        taskExecutionContext.setQueue("default");
+        taskExecutionContext.setProjectCode(7096348523136L);
+        taskExecutionContext.setWorkerGroup("default");
+        taskExecutionContext.setTaskTimeoutStrategy(TaskTimeoutStrategy.WARN);
+        taskExecutionContext.setTaskTimeout(Integer.MAX_VALUE);
+        taskExecutionContext.setCurrentExecutionStatus(TaskExecutionStatus.SUBMITTED_SUCCESS);
+        taskExecutionContext.setEnvironmentConfig("export JAVA_HOME=/opt/java\nexport PATH=$JAVA_HOME/bin:$PATH");
+
+        StringBuilder rawScript = new StringBuilder();
+        Map<String, String> definedParams = new HashMap<>();
+        Map<String, Property> prepareParamsMap = new HashMap<>();
+        for (int i = 0; i < paramNum; i++) {
+            String prop = "param_" + i;
+            rawScript.append("echo ${").append(prop).append("}\\n");
+            definedParams.put(prop, "value_" + i);
+            prepareParamsMap.put(prop, new Property(prop, Direct.IN, DataType.VARCHAR, "value_" + i));
+        }
+        taskExecutionContext.setTaskParams("{\"localParams\":[],\"rawScript\":\"" + rawScript
+                + "\",\"resourceList\":[]}");
+        taskExecutionContext.setDefinedParams(definedParams);
+        taskExecutionContext.setPrepareParamsMap(prepareParamsMap);
+        taskExecutionContext.setParamsMap(prepareParamsMap);
+        return taskExecutionContext;
+    }
+}
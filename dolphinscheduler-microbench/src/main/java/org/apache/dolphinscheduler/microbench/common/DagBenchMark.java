@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.common;
+
+import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compare the locked DAG and the immutable DAG with the queries used to find the post tasks of a finished task.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+@Threads(4)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DagBenchMark extends AbstractBaseBenchmark {
+
+    @Param({"DAG", "IMMUTABLE"})
+    private String dagType;
+
+    @Param({"100", "5000"})
+    private int nodeNum;
+
+    private DAG<String, String, String> dag;
+
+    private String[] nodes;
+
+    @Setup
+    public void before() {
+        DAG<String, String, String> mutableDag = new DAG<>();
+        nodes = new String[nodeNum];
+        for (int i = 0; i < nodeNum; i++) {
+            nodes[i] = Long.toString(7000000000000L + i);
+            mutableDag.addNode(nodes[i], "task-" + i);
+        }
+        // each task depends on up to 3 tasks of the previous layer of 10 tasks
+        for (int i = 10; i < nodeNum; i++) {
+            int layerStart = (i / 10 - 1) * 10;
+            for (int j = 0; j < 3; j++) {
+                mutableDag.addEdge(nodes[layerStart + (i + j) % 10], nodes[i], null, false);
+            }
+        }
+        dag = "DAG".equals(dagType) ? mutableDag : mutableDag.freeze();
+    }
+
+    @Benchmark
+    public void parsePostNodes(Blackhole blackhole) {
+        String node = nodes[ThreadLocalRandom.current().nextInt(nodeNum)];
+        blackhole.consume(dag.getBeginNode().contains(node));
+        for (String subsequentNode : dag.getSubsequentNodes(node)) {
+            blackhole.consume(dag.getNode(subsequentNode));
+            for (String previousNode : dag.getPreviousNodes(subsequentNode)) {
+                blackhole.consume(dag.containsNode(previousNode));
+            }
+        }
+    }
+}
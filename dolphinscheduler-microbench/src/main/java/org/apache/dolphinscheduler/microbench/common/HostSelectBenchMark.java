@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.common;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWeight;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWorker;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightHostSnapshot;
+import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightRoundRobin;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the worker selection of the lower weight host manager under contention, the locked round robin over the
+ * host weight set, and the lock-free selection over the host weight snapshot.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+@Threads(8)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class HostSelectBenchMark extends AbstractBaseBenchmark {
+
+    @Param({"3", "30"})
+    private int hostNum;
+
+    private final Lock lock = new ReentrantLock();
+
+    private final LowerWeightRoundRobin roundRobin = new LowerWeightRoundRobin();
+
+    private Set<HostWeight> hostWeights;
+
+    private LowerWeightHostSnapshot snapshot;
+
+    @Setup
+    public void before() {
+        hostWeights = new HashSet<>();
+        long startTime = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        for (int i = 0; i < hostNum; i++) {
+            hostWeights.add(new HostWeight(HostWorker.of("192.168.1." + i + ":1234", 100, "default"),
+                    0.1 + i % 5 * 0.1, 0.3 + i % 3 * 0.1, 1.0 + i % 4, 0, startTime));
+        }
+        snapshot = LowerWeightHostSnapshot.of(hostWeights);
+    }
+
+    @Benchmark
+    public Host lockedRoundRobin() {
+        lock.lock();
+        try {
+            return roundRobin.select(hostWeights).getHost();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    public Host snapshot() {
+        return snapshot.select();
+    }
+}
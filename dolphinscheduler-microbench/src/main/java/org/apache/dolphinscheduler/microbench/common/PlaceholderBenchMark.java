@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.common;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.task.api.parser.ParameterUtils;
+import org.apache.dolphinscheduler.plugin.task.api.parser.PlaceholderUtils;
+import org.apache.dolphinscheduler.plugin.task.api.parser.PropertyPlaceholderHelper;
+import org.apache.dolphinscheduler.plugin.task.api.parser.TimePlaceholderUtils;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the cached and the uncached compiled placeholder template with the replacement which parses the text on
+ * every call, over a shell script and a sql script with system, custom and time parameters.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+@Threads(4)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PlaceholderBenchMark extends AbstractBaseBenchmark {
+
+    private static final Pattern DATE_PARSE_PATTERN = Pattern.compile("\\$\\[([^\\$\\]]+)]");
+
+    private static final Pattern DATE_START_PATTERN = Pattern.compile("^[0-9]");
+
+    @Param({"SHELL", "SQL"})
+    private String scriptType;
+
+    @Param({"100", "2000"})
+    private int lineNum;
+
+    private String script;
+
+    private Map<String, String> paramsMap;
+
+    private Date date;
+
+    @Setup
+    public void before() {
+        paramsMap = new HashMap<>();
+        paramsMap.put("system.datetime", "20221001123000");
+        paramsMap.put("system.biz.date", "20220930");
+        paramsMap.put("system.task.instance.id", "1024");
+        paramsMap.put("db", "dw");
+        paramsMap.put("partition", "dt");
+        paramsMap.put("threshold", "100");
+        date = new Date();
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lineNum; i++) {
+            if ("SHELL".equals(scriptType)) {
+                builder.append("echo \"task ${system.task.instance.id} step ").append(i)
+                        .append(" of ${system.biz.date}\" >> /tmp/log_$[yyyyMMdd].txt\n");
+                if (i % 10 == 0) {
+                    builder.append("if [ $? -ne 0 ]; then exit 1; fi\n");
+                }
+            } else {
+                builder.append("insert into ${db}.t_result_").append(i % 16)
+                        .append(" select id, name, amount from ${db}.t_source where ${partition} = '$[yyyy-MM-dd-1]'")
+                        .append(" and amount > ${threshold} and unknown = '${not_defined}';\n");
+            }
+        }
+        script = builder.toString();
+    }
+
+    @Benchmark
+    public String cachedTemplate() {
+        return ParameterUtils.convertScriptPlaceholders(1L, 1, script, paramsMap);
+    }
+
+    @Benchmark
+    public String compiledTemplate() {
+        return ParameterUtils.convertParameterPlaceholders(script, paramsMap);
+    }
+
+    @Benchmark
+    public String parseEveryTime() {
+        PropertyPlaceholderHelper helper = PlaceholderUtils.getPropertyPlaceholderHelper(true);
+        String value = helper.replacePlaceholders(script, paramsMap::get);
+        StringBuffer newValue = new StringBuffer(value.length());
+        Matcher matcher = DATE_PARSE_PATTERN.matcher(value);
+        while (matcher.find()) {
+            String key = matcher.group(1);
+            if (DATE_START_PATTERN.matcher(key).matches()) {
+                continue;
+            }
+            matcher.appendReplacement(newValue, TimePlaceholderUtils.getPlaceHolderTime(key, date));
+        }
+        matcher.appendTail(newValue);
+        return newValue.toString();
+    }
+}
@@ -32,6 +32,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 
@@ -81,6 +82,11 @@ public class EtcdRegistry implements Registry {
 
     private final Map<String, Watch.Watcher> watcherMap = new ConcurrentHashMap<>();
 
+    /**
+     * The listeners of each subscribed path, a path is watched once and the events are passed to all its listeners.
+     */
+    private final Map<String, List<SubscribeListener>> listenerMap = new ConcurrentHashMap<>();
+
     private static final long TIME_TO_LIVE_SECONDS = 30L;
     public EtcdRegistry(EtcdRegistryProperties registryProperties) {
         ClientBuilder clientBuilder = Client.builder()
@@ -133,9 +139,13 @@ public class EtcdRegistry implements Registry {
         try {
             ByteSequence watchKey = byteSequence(path);
             WatchOption watchOption = WatchOption.newBuilder().isPrefix(true).build();
+            List<SubscribeListener> listeners = listenerMap.computeIfAbsent(path, $ -> new CopyOnWriteArrayList<>());
+            listeners.add(listener);
             watcherMap.computeIfAbsent(path, $ -> client.getWatchClient().watch(watchKey, watchOption,watchResponse -> {
                 for (WatchEvent event : watchResponse.getEvents()) {
-                    listener.notify(new EventAdaptor(event, path));
+                    for (SubscribeListener subscribeListener : listeners) {
+                        subscribeListener.notify(new EventAdaptor(event, path));
+                    }
                 }
             }));
         } catch (Exception e) {
@@ -153,6 +163,7 @@ public class EtcdRegistry implements Registry {
         try {
             watcherMap.get(path).close();
             watcherMap.remove(path);
+            listenerMap.remove(path);
         } catch (Exception e) {
             throw new RegistryException("Failed to unsubscribe listener for key: " + path, e);
         }
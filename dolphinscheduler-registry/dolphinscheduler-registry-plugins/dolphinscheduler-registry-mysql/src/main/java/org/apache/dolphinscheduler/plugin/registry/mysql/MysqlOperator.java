@@ -18,12 +18,12 @@
 package org.apache.dolphinscheduler.plugin.registry.mysql;
 
 import org.apache.dolphinscheduler.plugin.registry.mysql.model.DataType;
+import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryChanges;
 import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryData;
 import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryLock;
 
 import org.apache.commons.lang3.StringUtils;
 
-import java.sql.Array;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -32,8 +32,10 @@ import java.sql.SQLIntegrityConstraintViolationException;
 import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 import lombok.NonNull;
@@ -63,6 +65,11 @@ public class MysqlOperator implements AutoCloseable {
         this.dataSource = new HikariDataSource(hikariConfig);
     }
 
+    MysqlOperator(HikariDataSource dataSource, long expireTimeWindow) {
+        this.dataSource = dataSource;
+        this.expireTimeWindow = expireTimeWindow;
+    }
+
     public void healthCheck() throws SQLException {
         String sql = "select 1 from t_ds_mysql_registry_data";
         try (Connection connection = dataSource.getConnection();
@@ -72,54 +79,119 @@ public class MysqlOperator implements AutoCloseable {
         }
     }
 
-    public List<MysqlRegistryData> queryAllMysqlRegistryData() throws SQLException {
-        String sql =
-                "select id, `key`, data, type, last_term, create_time, last_update_time from t_ds_mysql_registry_data";
-        try (
-                Connection connection = dataSource.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql);
-                ResultSet resultSet = preparedStatement.executeQuery()) {
-            List<MysqlRegistryData> result = new ArrayList<>(resultSet.getFetchSize());
-            while (resultSet.next()) {
-                MysqlRegistryData mysqlRegistryData = MysqlRegistryData.builder()
-                        .id(resultSet.getLong("id"))
-                        .key(resultSet.getString("key"))
-                        .data(resultSet.getString("data"))
-                        .type(resultSet.getInt("type"))
-                        .lastTerm(resultSet.getLong("last_term"))
-                        .createTime(resultSet.getTimestamp("create_time"))
-                        .lastUpdateTime(resultSet.getTimestamp("last_update_time"))
-                        .build();
-                result.add(mysqlRegistryData);
+    /**
+     * Query the registry data changed after the given revision, the deleted data are returned as tombstones.
+     * <p>
+     * The changes are read in one transaction, so they are a consistent snapshot. If the tombstones after the given
+     * revision may have been purged, or the revision is negative, all the registry data are returned instead.
+     *
+     * @param revision the revision has been seen
+     * @return the changes ordered by revision
+     */
+    public MysqlRegistryChanges queryMysqlRegistryChanges(long revision) throws SQLException {
+        return executeInTransaction(connection -> {
+            long currentRevision;
+            long compactedRevision;
+            try (
+                    PreparedStatement preparedStatement = connection.prepareStatement(
+                            "select revision, compacted_revision from t_ds_mysql_registry_revision where id = 1");
+                    ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLException("The revision of mysql registry doesn't exist");
+                }
+                currentRevision = resultSet.getLong("revision");
+                compactedRevision = resultSet.getLong("compacted_revision");
+            }
+            if (revision < 0 || revision < compactedRevision) {
+                return new MysqlRegistryChanges(currentRevision, true, queryRegistryData(connection,
+                        "select id, `key`, data, type, last_term, revision, create_time, last_update_time"
+                                + " from t_ds_mysql_registry_data",
+                        null));
+            }
+            List<MysqlRegistryData> changes = queryRegistryData(connection,
+                    "select id, `key`, data, type, last_term, revision, create_time, last_update_time"
+                            + " from t_ds_mysql_registry_data where revision > ?",
+                    revision);
+            try (
+                    PreparedStatement preparedStatement = connection.prepareStatement(
+                            "select `key`, revision from t_ds_mysql_registry_tombstone where revision > ?")) {
+                preparedStatement.setLong(1, revision);
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    while (resultSet.next()) {
+                        changes.add(MysqlRegistryData.builder()
+                                .key(resultSet.getString("key"))
+                                .revision(resultSet.getLong("revision"))
+                                .deleted(true)
+                                .build());
+                    }
+                }
+            }
+            changes.sort(Comparator.comparingLong(MysqlRegistryData::getRevision));
+            return new MysqlRegistryChanges(currentRevision, false, changes);
+        });
+    }
+
+    private List<MysqlRegistryData> queryRegistryData(Connection connection, String sql,
+                                                      Long revision) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            if (revision != null) {
+                preparedStatement.setLong(1, revision);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                List<MysqlRegistryData> result = new ArrayList<>();
+                while (resultSet.next()) {
+                    MysqlRegistryData mysqlRegistryData = MysqlRegistryData.builder()
+                            .id(resultSet.getLong("id"))
+                            .key(resultSet.getString("key"))
+                            .data(resultSet.getString("data"))
+                            .type(resultSet.getInt("type"))
+                            .lastTerm(resultSet.getLong("last_term"))
+                            .revision(resultSet.getLong("revision"))
+                            .createTime(resultSet.getTimestamp("create_time"))
+                            .lastUpdateTime(resultSet.getTimestamp("last_update_time"))
+                            .build();
+                    result.add(mysqlRegistryData);
+                }
+                return result;
             }
-            return result;
         }
     }
 
     public Long insertOrUpdateEphemeralData(String key, String value) throws SQLException {
-        Optional<MysqlRegistryData> mysqlRegistryDataOptional = selectByKey(key);
-        if (mysqlRegistryDataOptional.isPresent()) {
-            long id = mysqlRegistryDataOptional.get().getId();
-            if (!updateValueById(id, value)) {
-                throw new SQLException(String.format("update registry value failed, key: %s, value: %s", key, value));
+        return executeInTransaction(connection -> {
+            // the unchanged value only refreshes the term, it doesn't need a revision
+            Optional<Long> unchangedId = refreshTermIfUnchanged(connection, key, value);
+            if (unchangedId.isPresent()) {
+                return unchangedId.get();
             }
-            return id;
-        }
-        MysqlRegistryData mysqlRegistryData = MysqlRegistryData.builder()
-                .key(key)
-                .data(value)
-                .type(DataType.EPHEMERAL.getTypeValue())
-                .lastTerm(System.currentTimeMillis())
-                .build();
-        return insertMysqlRegistryData(mysqlRegistryData);
+            long revision = nextRevision(connection);
+            Optional<MysqlRegistryData> mysqlRegistryDataOptional = selectByKey(connection, key);
+            if (mysqlRegistryDataOptional.isPresent()) {
+                MysqlRegistryData mysqlRegistryData = mysqlRegistryDataOptional.get();
+                // only the changed value will be seen by the subscribers
+                long newRevision =
+                        Objects.equals(mysqlRegistryData.getData(), value) ? mysqlRegistryData.getRevision() : revision;
+                if (!updateValueById(connection, mysqlRegistryData.getId(), value, newRevision)) {
+                    throw new SQLException(
+                            String.format("update registry value failed, key: %s, value: %s", key, value));
+                }
+                return mysqlRegistryData.getId();
+            }
+            MysqlRegistryData mysqlRegistryData = MysqlRegistryData.builder()
+                    .key(key)
+                    .data(value)
+                    .type(DataType.EPHEMERAL.getTypeValue())
+                    .lastTerm(System.currentTimeMillis())
+                    .revision(revision)
+                    .build();
+            return insertMysqlRegistryData(connection, mysqlRegistryData);
+        });
     }
 
-    private Optional<MysqlRegistryData> selectByKey(@NonNull String key) throws SQLException {
+    private Optional<MysqlRegistryData> selectByKey(Connection connection, @NonNull String key) throws SQLException {
         String sql =
-                "select id, `key`, data, type, create_time, last_update_time from t_ds_mysql_registry_data where `key` = ?";
-        try (
-                Connection connection = dataSource.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                "select id, `key`, data, type, revision, create_time, last_update_time from t_ds_mysql_registry_data where `key` = ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, key);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 if (resultSet.next()) {
@@ -129,6 +201,7 @@ public class MysqlOperator implements AutoCloseable {
                                     .key(resultSet.getString("key"))
                                     .data(resultSet.getString("data"))
                                     .type(resultSet.getInt("type"))
+                                    .revision(resultSet.getLong("revision"))
                                     .createTime(resultSet.getTimestamp("create_time"))
                                     .lastUpdateTime(resultSet.getTimestamp("last_update_time"))
                                     .build());
@@ -138,90 +211,156 @@ public class MysqlOperator implements AutoCloseable {
         }
     }
 
-    private boolean updateValueById(long id, String value) throws SQLException {
-        String sql = "update t_ds_mysql_registry_data set data = ?, last_term = ? where id = ?";
-        try (
-                Connection connection = dataSource.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+    /**
+     * Refresh the term of the data if its value is the same as the given one, without locking the revision.
+     *
+     * @return the id of the data if it is unchanged
+     */
+    private Optional<Long> refreshTermIfUnchanged(Connection connection, String key,
+                                                  String value) throws SQLException {
+        Optional<MysqlRegistryData> mysqlRegistryDataOptional = selectByKey(connection, key);
+        if (!mysqlRegistryDataOptional.isPresent()
+                || !Objects.equals(mysqlRegistryDataOptional.get().getData(), value)) {
+            return Optional.empty();
+        }
+        long id = mysqlRegistryDataOptional.get().getId();
+        // the value may be changed after selected, so it is compared again
+        String sql = "update t_ds_mysql_registry_data set last_term = ? where id = ? and data <=> ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setLong(1, System.currentTimeMillis());
+            preparedStatement.setLong(2, id);
+            preparedStatement.setString(3, value);
+            return preparedStatement.executeUpdate() > 0 ? Optional.of(id) : Optional.empty();
+        }
+    }
+
+    private boolean updateValueById(Connection connection, long id, String value, long revision) throws SQLException {
+        String sql = "update t_ds_mysql_registry_data set data = ?, last_term = ?, revision = ? where id = ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, value);
             preparedStatement.setLong(2, System.currentTimeMillis());
-            preparedStatement.setLong(3, id);
+            preparedStatement.setLong(3, revision);
+            preparedStatement.setLong(4, id);
             return preparedStatement.executeUpdate() > 0;
         }
     }
 
-    private long insertMysqlRegistryData(@NonNull MysqlRegistryData mysqlRegistryData) throws SQLException {
+    private long insertMysqlRegistryData(Connection connection,
+                                         @NonNull MysqlRegistryData mysqlRegistryData) throws SQLException {
         String sql =
-                "INSERT INTO t_ds_mysql_registry_data (`key`, data, type, last_term) VALUES (?, ?, ?, ?)";
+                "INSERT INTO t_ds_mysql_registry_data (`key`, data, type, last_term, revision) VALUES (?, ?, ?, ?, ?)";
         try (
-                Connection connection = dataSource.getConnection();
                 PreparedStatement preparedStatement =
                         connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             preparedStatement.setString(1, mysqlRegistryData.getKey());
             preparedStatement.setString(2, mysqlRegistryData.getData());
             preparedStatement.setInt(3, mysqlRegistryData.getType());
             preparedStatement.setLong(4, mysqlRegistryData.getLastTerm());
+            preparedStatement.setLong(5, mysqlRegistryData.getRevision());
             int insertCount = preparedStatement.executeUpdate();
-            ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-            if (insertCount < 1 || !generatedKeys.next()) {
-                throw new SQLException("Insert ephemeral data error, data: " + mysqlRegistryData);
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                if (insertCount < 1 || !generatedKeys.next()) {
+                    throw new SQLException("Insert ephemeral data error, data: " + mysqlRegistryData);
+                }
+                return generatedKeys.getLong(1);
             }
-            return generatedKeys.getLong(1);
         }
     }
 
     public long insertOrUpdatePersistentData(String key, String value) throws SQLException {
+        // the revision is assigned before data, so the old data can be compared with
         String sql =
-                "INSERT INTO t_ds_mysql_registry_data (`key`, data, type, last_term) VALUES (?, ?, ?, ?)"
-                        +
-                        "ON DUPLICATE KEY UPDATE data=?, last_term=?";
+                "INSERT INTO t_ds_mysql_registry_data (`key`, data, type, last_term, revision) VALUES (?, ?, ?, ?, ?)"
+                        + " ON DUPLICATE KEY UPDATE revision = IF(data <=> ?, revision, ?), data = ?, last_term = ?";
         // put a persistent Data
-        try (
-                Connection connection = dataSource.getConnection();
-                PreparedStatement preparedStatement =
-                        connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            long term = System.currentTimeMillis();
-            preparedStatement.setString(1, key);
-            preparedStatement.setString(2, value);
-            preparedStatement.setInt(3, DataType.PERSISTENT.getTypeValue());
-            preparedStatement.setLong(4, term);
-            preparedStatement.setString(5, value);
-            preparedStatement.setLong(6, term);
-            int insertCount = preparedStatement.executeUpdate();
-            ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
-            if (insertCount < 1 || !generatedKeys.next()) {
-                throw new SQLException("Insert or update persistent data error");
+        return executeInTransaction(connection -> {
+            Optional<Long> unchangedId = refreshTermIfUnchanged(connection, key, value);
+            if (unchangedId.isPresent()) {
+                return unchangedId.get();
             }
-            return generatedKeys.getLong(1);
-        }
+            long revision = nextRevision(connection);
+            try (
+                    PreparedStatement preparedStatement =
+                            connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                long term = System.currentTimeMillis();
+                preparedStatement.setString(1, key);
+                preparedStatement.setString(2, value);
+                preparedStatement.setInt(3, DataType.PERSISTENT.getTypeValue());
+                preparedStatement.setLong(4, term);
+                preparedStatement.setLong(5, revision);
+                preparedStatement.setString(6, value);
+                preparedStatement.setLong(7, revision);
+                preparedStatement.setString(8, value);
+                preparedStatement.setLong(9, term);
+                int insertCount = preparedStatement.executeUpdate();
+                try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                    if (insertCount < 1 || !generatedKeys.next()) {
+                        throw new SQLException("Insert or update persistent data error");
+                    }
+                    return generatedKeys.getLong(1);
+                }
+            }
+        });
     }
 
     public void deleteEphemeralData(String key) throws SQLException {
-        String sql = "DELETE from t_ds_mysql_registry_data where `key` = ? and type = ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, key);
-            preparedStatement.setInt(2, DataType.EPHEMERAL.getTypeValue());
-            preparedStatement.execute();
-        }
+        deleteWithTombstone("`key` = ? and type = ?", key, DataType.EPHEMERAL.getTypeValue());
     }
 
     public void deleteEphemeralData(long ephemeralNodeId) throws SQLException {
-        String sql = "DELETE from t_ds_mysql_registry_data where `id` = ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setLong(1, ephemeralNodeId);
-            preparedStatement.execute();
-        }
+        deleteWithTombstone("`id` = ?", ephemeralNodeId);
     }
 
     public void deletePersistentData(String key) throws SQLException {
-        String sql = "DELETE from t_ds_mysql_registry_data where `key` = ? and type = ?";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setString(1, key);
-            preparedStatement.setInt(2, DataType.PERSISTENT.getTypeValue());
-            preparedStatement.execute();
+        deleteWithTombstone("`key` = ? and type = ?", key, DataType.PERSISTENT.getTypeValue());
+    }
+
+    /**
+     * Delete the registry data, and record the tombstones of the deleted keys, so the subscribers can see the deletion
+     * from the change feed. The revision is only assigned if there is data to delete.
+     *
+     * @return the deleted count
+     */
+    private int deleteWithTombstone(String condition, Object... params) throws SQLException {
+        if (!existData(condition, params)) {
+            return 0;
+        }
+        return executeInTransaction(connection -> {
+            long revision = nextRevision(connection);
+            try (
+                    PreparedStatement tombstoneStatement = connection.prepareStatement(
+                            "INSERT INTO t_ds_mysql_registry_tombstone (`key`, revision, delete_time)"
+                                    + " SELECT `key`, ?, ? FROM t_ds_mysql_registry_data WHERE " + condition);
+                    PreparedStatement deleteStatement = connection.prepareStatement(
+                            "DELETE FROM t_ds_mysql_registry_data WHERE " + condition)) {
+                tombstoneStatement.setLong(1, revision);
+                tombstoneStatement.setLong(2, System.currentTimeMillis());
+                for (int i = 0; i < params.length; i++) {
+                    tombstoneStatement.setObject(i + 3, params[i]);
+                    deleteStatement.setObject(i + 1, params[i]);
+                }
+                tombstoneStatement.executeUpdate();
+                int deleteCount = deleteStatement.executeUpdate();
+                if (deleteCount == 0) {
+                    // the data is deleted by others after checked, give back the revision
+                    connection.rollback();
+                }
+                return deleteCount;
+            }
+        });
+    }
+
+    private boolean existData(String condition, Object... params) throws SQLException {
+        try (
+                Connection connection = dataSource.getConnection();
+                PreparedStatement preparedStatement = connection.prepareStatement(
+                        "SELECT 1 FROM t_ds_mysql_registry_data WHERE " + condition + " LIMIT 1")) {
+            for (int i = 0; i < params.length; i++) {
+                preparedStatement.setObject(i + 1, params[i]);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next();
+            }
         }
     }
 
@@ -241,13 +380,9 @@ public class MysqlOperator implements AutoCloseable {
     }
 
     public void clearExpireEphemeralDate() {
-        String sql = "delete from t_ds_mysql_registry_data where last_term < ? and type = ?";
-        try (
-                Connection connection = dataSource.getConnection();
-                PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            preparedStatement.setLong(1, System.currentTimeMillis() - expireTimeWindow);
-            preparedStatement.setInt(2, DataType.EPHEMERAL.getTypeValue());
-            int i = preparedStatement.executeUpdate();
+        try {
+            int i = deleteWithTombstone("last_term < ? and type = ?",
+                    System.currentTimeMillis() - expireTimeWindow, DataType.EPHEMERAL.getTypeValue());
             if (i > 0) {
                 logger.info("clear expire ephemeral data, size:{}", i);
             }
@@ -256,9 +391,66 @@ public class MysqlOperator implements AutoCloseable {
         }
     }
 
+    /**
+     * Purge the tombstones which are older than the term expire window, the subscribers which haven't seen the purged
+     * revisions will reload all the registry data.
+     */
+    public void clearExpireTombstone() {
+        try {
+            long expireTime = System.currentTimeMillis() - expireTimeWindow;
+            if (queryMaxExpiredTombstoneRevision(expireTime) <= 0) {
+                return;
+            }
+            int i = executeInTransaction(connection -> {
+                // lock the revision, and find the expired tombstones again
+                try (
+                        PreparedStatement lockStatement = connection.prepareStatement(
+                                "SELECT revision FROM t_ds_mysql_registry_revision WHERE id = 1 FOR UPDATE");
+                        ResultSet resultSet = lockStatement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new SQLException("The revision of mysql registry doesn't exist");
+                    }
+                }
+                long compactedRevision = queryMaxExpiredTombstoneRevision(connection, expireTime);
+                try (
+                        PreparedStatement deleteStatement = connection.prepareStatement(
+                                "DELETE FROM t_ds_mysql_registry_tombstone WHERE revision <= ?");
+                        PreparedStatement compactStatement = connection.prepareStatement(
+                                "UPDATE t_ds_mysql_registry_revision SET compacted_revision = GREATEST(compacted_revision, ?) WHERE id = 1")) {
+                    deleteStatement.setLong(1, compactedRevision);
+                    compactStatement.setLong(1, compactedRevision);
+                    int deleteCount = deleteStatement.executeUpdate();
+                    compactStatement.executeUpdate();
+                    return deleteCount;
+                }
+            });
+            if (i > 0) {
+                logger.info("Clear expire tombstone, size: {}", i);
+            }
+        } catch (Exception ex) {
+            logger.warn("Clear expire tombstone from mysql registry error", ex);
+        }
+    }
+
+    private long queryMaxExpiredTombstoneRevision(long expireTime) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return queryMaxExpiredTombstoneRevision(connection, expireTime);
+        }
+    }
+
+    private long queryMaxExpiredTombstoneRevision(Connection connection, long expireTime) throws SQLException {
+        String sql = "SELECT MAX(revision) FROM t_ds_mysql_registry_tombstone WHERE delete_time < ?";
+        try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setLong(1, expireTime);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : 0;
+            }
+        }
+    }
+
     public MysqlRegistryData getData(String key) throws SQLException {
         String sql =
-                "SELECT id, `key`, data, type, last_term, create_time, last_update_time FROM t_ds_mysql_registry_data WHERE `key` = ?";
+                "SELECT id, `key`, data, type, last_term, revision, create_time, last_update_time FROM t_ds_mysql_registry_data WHERE `key` = ?";
         try (
                 Connection connection = dataSource.getConnection();
                 PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
@@ -273,6 +465,7 @@ public class MysqlOperator implements AutoCloseable {
                         .data(resultSet.getString("data"))
                         .type(resultSet.getInt("type"))
                         .lastTerm(resultSet.getLong("last_term"))
+                        .revision(resultSet.getLong("revision"))
                         .createTime(resultSet.getTimestamp("create_time"))
                         .lastUpdateTime(resultSet.getTimestamp("last_update_time"))
                         .build();
@@ -408,6 +601,50 @@ public class MysqlOperator implements AutoCloseable {
         }
     }
 
+    /**
+     * Assign the next revision, the revision row is locked until the transaction ends, so the revisions are committed
+     * in order and the subscribers will not skip a revision committed later.
+     */
+    private long nextRevision(Connection connection) throws SQLException {
+        try (
+                PreparedStatement updateStatement = connection.prepareStatement(
+                        "UPDATE t_ds_mysql_registry_revision SET revision = LAST_INSERT_ID(revision + 1) WHERE id = 1");
+                PreparedStatement selectStatement = connection.prepareStatement("SELECT LAST_INSERT_ID()")) {
+            if (updateStatement.executeUpdate() < 1) {
+                throw new SQLException("The revision of mysql registry doesn't exist");
+            }
+            try (ResultSet resultSet = selectStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    throw new SQLException("Get the revision of mysql registry error");
+                }
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    private <T> T executeInTransaction(SqlFunction<Connection, T> function) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                T result = function.apply(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlFunction<T, R> {
+
+        R apply(T t) throws SQLException;
+    }
+
     @Override
     public void close() throws Exception {
         if (!dataSource.isClosed()) {
@@ -35,6 +35,14 @@ public class MysqlRegistryData {
     private String data;
     private int type;
     private long lastTerm;
+    /**
+     * The revision of the last data change.
+     */
+    private long revision;
+    /**
+     * If true, this is the tombstone of a deleted key.
+     */
+    private boolean deleted;
     private Date createTime;
     private Date lastUpdateTime;
 
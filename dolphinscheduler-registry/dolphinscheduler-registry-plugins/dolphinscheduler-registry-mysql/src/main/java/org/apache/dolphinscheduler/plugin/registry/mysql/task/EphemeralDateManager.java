@@ -146,12 +146,17 @@ public class EphemeralDateManager implements AutoCloseable {
                     updateEphemeralDateTerm();
                 }
                 mysqlOperator.clearExpireEphemeralDate();
+                mysqlOperator.clearExpireTombstone();
                 return ConnectionState.CONNECTED;
             } catch (Exception ex) {
                 return ConnectionState.DISCONNECTED;
             }
         }
 
+        /**
+         * Refresh the term of all the local ephemeral data in one statement, the term doesn't change the revision,
+         * so it will not be seen by the subscribers.
+         */
         private void updateEphemeralDateTerm() throws SQLException {
             if (!mysqlOperator.updateEphemeralDataTerm(ephemeralDateIds)) {
                 LOGGER.warn("Update mysql registry ephemeral data: {} term error", ephemeralDateIds);
@@ -19,26 +19,26 @@ package org.apache.dolphinscheduler.plugin.registry.mysql.task;
 
 import org.apache.dolphinscheduler.plugin.registry.mysql.MysqlOperator;
 import org.apache.dolphinscheduler.plugin.registry.mysql.MysqlRegistryProperties;
+import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryChanges;
 import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryData;
 import org.apache.dolphinscheduler.registry.api.Event;
 import org.apache.dolphinscheduler.registry.api.SubscribeListener;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
-import lombok.RequiredArgsConstructor;
 
 /**
  * Used to refresh if the subscribe path has been changed.
@@ -91,63 +91,101 @@ public class SubscribeDataManager implements AutoCloseable {
         dataSubScribeMap.clear();
     }
 
-    @RequiredArgsConstructor
     static class RegistrySubscribeDataCheckTask implements Runnable {
 
         private final Map<String, List<SubscribeListener>> dataSubScribeMap;
         private final MysqlOperator mysqlOperator;
         private final Map<String, MysqlRegistryData> mysqlRegistryDataMap;
 
+        /**
+         * The revision of the registry data has been seen, -1 means the data hasn't been loaded.
+         */
+        private long revision = -1;
+
+        RegistrySubscribeDataCheckTask(Map<String, List<SubscribeListener>> dataSubScribeMap,
+                                       MysqlOperator mysqlOperator,
+                                       Map<String, MysqlRegistryData> mysqlRegistryDataMap) {
+            this.dataSubScribeMap = dataSubScribeMap;
+            this.mysqlOperator = mysqlOperator;
+            this.mysqlRegistryDataMap = mysqlRegistryDataMap;
+        }
+
         @Override
         public void run() {
-            // query the full data from database, and update the mysqlRegistryDataMap
+            // query the data changed since the last revision, and update the mysqlRegistryDataMap
             try {
-                Map<String, MysqlRegistryData> currentMysqlDataMap = mysqlOperator.queryAllMysqlRegistryData()
-                        .stream()
-                        .collect(Collectors.toMap(MysqlRegistryData::getKey, Function.identity()));
-                // find the different
-                List<MysqlRegistryData> addedData = new ArrayList<>();
-                List<MysqlRegistryData> deletedData = new ArrayList<>();
-                List<MysqlRegistryData> updatedData = new ArrayList<>();
-                for (Map.Entry<String, MysqlRegistryData> entry : currentMysqlDataMap.entrySet()) {
-                    MysqlRegistryData newData = entry.getValue();
-                    MysqlRegistryData oldData = mysqlRegistryDataMap.get(entry.getKey());
-                    if (oldData == null) {
-                        addedData.add(newData);
-                    } else {
-                        if (!entry.getValue().getLastUpdateTime().equals(oldData.getLastUpdateTime())) {
-                            updatedData.add(newData);
-                        }
-                    }
-                }
-                for (Map.Entry<String, MysqlRegistryData> entry : mysqlRegistryDataMap.entrySet()) {
-                    if (!currentMysqlDataMap.containsKey(entry.getKey())) {
-                        deletedData.add(entry.getValue());
-                    }
-                }
-                mysqlRegistryDataMap.clear();
-                mysqlRegistryDataMap.putAll(currentMysqlDataMap);
+                MysqlRegistryChanges mysqlRegistryChanges = mysqlOperator.queryMysqlRegistryChanges(revision);
+                List<Event> events = mysqlRegistryChanges.isFullData()
+                        ? applyFullData(mysqlRegistryChanges.getChanges())
+                        : applyChanges(mysqlRegistryChanges.getChanges());
+                revision = mysqlRegistryChanges.getRevision();
                 // trigger listener
                 for (Map.Entry<String, List<SubscribeListener>> entry : dataSubScribeMap.entrySet()) {
-                    String subscribeKey = entry.getKey();
-                    List<SubscribeListener> subscribeListeners = entry.getValue();
-                    triggerListener(addedData, subscribeKey, subscribeListeners, Event.Type.ADD);
-                    triggerListener(deletedData, subscribeKey, subscribeListeners, Event.Type.REMOVE);
-                    triggerListener(updatedData, subscribeKey, subscribeListeners, Event.Type.UPDATE);
+                    triggerListener(events, entry.getKey(), entry.getValue());
                 }
             } catch (Exception e) {
-                LOGGER.error("Query data from mysql registry error");
+                LOGGER.error("Query data from mysql registry error", e);
+            }
+        }
+
+        /**
+         * Replace the data with the full registry data, used at the first time or when the change feed has been
+         * compacted, the events are found by comparing with the previous data.
+         */
+        private List<Event> applyFullData(List<MysqlRegistryData> fullData) {
+            List<Event> events = new ArrayList<>();
+            Map<String, MysqlRegistryData> currentMysqlDataMap = new HashMap<>(fullData.size());
+            for (MysqlRegistryData newData : fullData) {
+                currentMysqlDataMap.put(newData.getKey(), newData);
+                MysqlRegistryData oldData = mysqlRegistryDataMap.put(newData.getKey(), newData);
+                if (oldData == null) {
+                    events.add(newEvent(newData, Event.Type.ADD));
+                } else if (oldData.getRevision() != newData.getRevision()) {
+                    events.add(newEvent(newData, Event.Type.UPDATE));
+                }
             }
+            Iterator<Map.Entry<String, MysqlRegistryData>> iterator = mysqlRegistryDataMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, MysqlRegistryData> entry = iterator.next();
+                if (!currentMysqlDataMap.containsKey(entry.getKey())) {
+                    iterator.remove();
+                    events.add(newEvent(entry.getValue(), Event.Type.REMOVE));
+                }
+            }
+            return events;
+        }
+
+        /**
+         * Apply the changes ordered by revision, the deleted keys are given by tombstones.
+         */
+        private List<Event> applyChanges(List<MysqlRegistryData> changes) {
+            List<Event> events = new ArrayList<>(changes.size());
+            for (MysqlRegistryData change : changes) {
+                if (change.isDeleted()) {
+                    MysqlRegistryData oldData = mysqlRegistryDataMap.get(change.getKey());
+                    // the key may be recreated with a larger revision
+                    if (oldData != null && oldData.getRevision() < change.getRevision()) {
+                        mysqlRegistryDataMap.remove(change.getKey());
+                        events.add(newEvent(oldData, Event.Type.REMOVE));
+                    }
+                    continue;
+                }
+                MysqlRegistryData oldData = mysqlRegistryDataMap.put(change.getKey(), change);
+                events.add(newEvent(change, oldData == null ? Event.Type.ADD : Event.Type.UPDATE));
+            }
+            return events;
+        }
+
+        private Event newEvent(MysqlRegistryData data, Event.Type type) {
+            return new Event(data.getKey(), data.getKey(), data.getData(), type);
         }
 
-        private void triggerListener(List<MysqlRegistryData> dataList,
+        private void triggerListener(List<Event> events,
                                      String subscribeKey,
-                                     List<SubscribeListener> subscribeListeners,
-                                     Event.Type type) {
-            for (MysqlRegistryData data : dataList) {
-                if (data.getKey().startsWith(subscribeKey)) {
-                    subscribeListeners.forEach(subscribeListener ->
-                            subscribeListener.notify(new Event(data.getKey(), data.getKey(), data.getData(), type)));
+                                     List<SubscribeListener> subscribeListeners) {
+            for (Event event : events) {
+                if (event.key().startsWith(subscribeKey)) {
+                    subscribeListeners.forEach(subscribeListener -> subscribeListener.notify(event));
                 }
             }
         }
@@ -25,14 +25,42 @@ CREATE TABLE `t_ds_mysql_registry_data`
     `data`             text         NOT NULL COMMENT 'data, like zookeeper node value',
     `type`             tinyint(4) NOT NULL COMMENT '1: ephemeral node, 2: persistent node',
     `last_term`        bigint       NOT NULL COMMENT 'last term time',
+    `revision`         bigint       NOT NULL DEFAULT 0 COMMENT 'revision of the last data change',
     `last_update_time` timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT 'last update time',
     `create_time`      timestamp    NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT 'create time',
     PRIMARY KEY (`id`),
-    unique (`key`)
+    unique (`key`),
+    KEY `idx_revision` (`revision`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
+
+
+DROP TABLE IF EXISTS `t_ds_mysql_registry_tombstone`;
+CREATE TABLE `t_ds_mysql_registry_tombstone`
+(
+    `id`          bigint(11) NOT NULL AUTO_INCREMENT COMMENT 'primary key',
+    `key`         varchar(256) NOT NULL COMMENT 'the deleted key',
+    `revision`    bigint       NOT NULL COMMENT 'revision of the deletion',
+    `delete_time` bigint       NOT NULL COMMENT 'delete time',
+    PRIMARY KEY (`id`),
+    KEY `idx_revision` (`revision`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8;
 
 
+DROP TABLE IF EXISTS `t_ds_mysql_registry_revision`;
+CREATE TABLE `t_ds_mysql_registry_revision`
+(
+    `id`                 int    NOT NULL COMMENT 'primary key, only one row',
+    `revision`           bigint NOT NULL COMMENT 'the latest revision of registry data',
+    `compacted_revision` bigint NOT NULL COMMENT 'the tombstones before this revision have been purged',
+    PRIMARY KEY (`id`)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8;
+
+INSERT INTO `t_ds_mysql_registry_revision` (`id`, `revision`, `compacted_revision`) VALUES (1, 0, 0);
+
+
 DROP TABLE IF EXISTS `t_ds_mysql_registry_lock`;
 CREATE TABLE `t_ds_mysql_registry_lock`
 (
@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.registry.mysql;
+
+import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryChanges;
+import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryData;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class MysqlOperatorTest {
+
+    private static final String REVISION_SQL = "UPDATE t_ds_mysql_registry_revision";
+
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>();
+
+    private final List<String> preparedSql = new ArrayList<>();
+
+    private Connection connection;
+
+    private MysqlOperator mysqlOperator;
+
+    @BeforeEach
+    public void before() throws SQLException {
+        HikariDataSource dataSource = Mockito.mock(HikariDataSource.class);
+        connection = Mockito.mock(Connection.class);
+        Mockito.when(dataSource.getConnection()).thenReturn(connection);
+        Mockito.when(connection.getAutoCommit()).thenReturn(true);
+        Answer<PreparedStatement> prepareStatement = invocation -> {
+            String sql = invocation.getArgument(0);
+            preparedSql.add(sql);
+            return statements.entrySet().stream()
+                    .filter(entry -> sql.startsWith(entry.getKey()))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElseThrow(() -> new SQLException("Unexpected sql: " + sql));
+        };
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenAnswer(prepareStatement);
+        Mockito.when(connection.prepareStatement(Mockito.anyString(), Mockito.anyInt())).thenAnswer(prepareStatement);
+        mysqlOperator = new MysqlOperator(dataSource, 1000L);
+    }
+
+    @Test
+    public void testClearExpireEphemeralDataWithoutExpiredData() throws SQLException {
+        mockStatement("SELECT 1 FROM t_ds_mysql_registry_data", 0, Collections.emptyList());
+
+        mysqlOperator.clearExpireEphemeralDate();
+
+        Assertions.assertFalse(isPrepared(REVISION_SQL));
+        Assertions.assertFalse(isPrepared("DELETE"));
+        Mockito.verify(connection, Mockito.never()).setAutoCommit(false);
+    }
+
+    @Test
+    public void testClearExpireEphemeralDataRecordTombstones() throws SQLException {
+        mockStatement("SELECT 1 FROM t_ds_mysql_registry_data", 0, Collections.singletonList(new HashMap<>()));
+        mockRevision(5L);
+        PreparedStatement tombstoneStatement =
+                mockStatement("INSERT INTO t_ds_mysql_registry_tombstone", 2, Collections.emptyList());
+        mockStatement("DELETE FROM t_ds_mysql_registry_data", 2, Collections.emptyList());
+
+        mysqlOperator.clearExpireEphemeralDate();
+
+        Mockito.verify(tombstoneStatement).setLong(1, 5L);
+        Mockito.verify(tombstoneStatement).executeUpdate();
+        Mockito.verify(connection).commit();
+        Mockito.verify(connection, Mockito.never()).rollback();
+    }
+
+    @Test
+    public void testClearExpireEphemeralDataDeletedByOthers() throws SQLException {
+        mockStatement("SELECT 1 FROM t_ds_mysql_registry_data", 0, Collections.singletonList(new HashMap<>()));
+        mockRevision(5L);
+        mockStatement("INSERT INTO t_ds_mysql_registry_tombstone", 0, Collections.emptyList());
+        mockStatement("DELETE FROM t_ds_mysql_registry_data", 0, Collections.emptyList());
+
+        mysqlOperator.clearExpireEphemeralDate();
+
+        // the revision assigned for nothing is given back
+        Mockito.verify(connection).rollback();
+    }
+
+    @Test
+    public void testInsertOrUpdateUnchangedEphemeralData() throws SQLException {
+        mockStatement("select id, `key`, data, type, revision", 0,
+                Collections.singletonList(dataRow(1L, "/nodes/worker", "value", 3L)));
+        PreparedStatement touchStatement =
+                mockStatement("update t_ds_mysql_registry_data set last_term", 1, Collections.emptyList());
+
+        Assertions.assertEquals(1L, mysqlOperator.insertOrUpdateEphemeralData("/nodes/worker", "value"));
+
+        Mockito.verify(touchStatement).setString(3, "value");
+        Assertions.assertFalse(isPrepared(REVISION_SQL));
+        Assertions.assertFalse(isPrepared("update t_ds_mysql_registry_data set data"));
+    }
+
+    @Test
+    public void testInsertOrUpdateChangedEphemeralData() throws SQLException {
+        mockStatement("select id, `key`, data, type, revision", 0,
+                Collections.singletonList(dataRow(1L, "/nodes/worker", "old", 3L)));
+        mockRevision(6L);
+        PreparedStatement updateStatement =
+                mockStatement("update t_ds_mysql_registry_data set data", 1, Collections.emptyList());
+
+        Assertions.assertEquals(1L, mysqlOperator.insertOrUpdateEphemeralData("/nodes/worker", "new"));
+
+        Mockito.verify(updateStatement).setString(1, "new");
+        Mockito.verify(updateStatement).setLong(3, 6L);
+        Assertions.assertFalse(isPrepared("update t_ds_mysql_registry_data set last_term"));
+    }
+
+    @Test
+    public void testQueryMysqlRegistryChanges() throws SQLException {
+        mockRevisionRow(10L, 2L);
+        mockStatement("select id, `key`, data, type, last_term, revision, create_time, last_update_time"
+                + " from t_ds_mysql_registry_data where revision > ?", 0,
+                Arrays.asList(dataRow(1L, "/a", "a", 9L), dataRow(2L, "/c", "c", 5L)));
+        Map<Object, Object> tombstone = new HashMap<>();
+        tombstone.put("key", "/b");
+        tombstone.put("revision", 7L);
+        mockStatement("select `key`, revision from t_ds_mysql_registry_tombstone", 0,
+                Collections.singletonList(tombstone));
+
+        MysqlRegistryChanges changes = mysqlOperator.queryMysqlRegistryChanges(4L);
+
+        Assertions.assertEquals(10L, changes.getRevision());
+        Assertions.assertFalse(changes.isFullData());
+        Assertions.assertEquals(Arrays.asList("/c", "/b", "/a"),
+                changes.getChanges().stream().map(MysqlRegistryData::getKey).collect(Collectors.toList()));
+        Assertions.assertEquals(Arrays.asList(false, true, false),
+                changes.getChanges().stream().map(MysqlRegistryData::isDeleted).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testQueryCompactedMysqlRegistryChanges() throws SQLException {
+        mockRevisionRow(10L, 8L);
+        mockStatement("select id, `key`, data, type, last_term, revision, create_time, last_update_time"
+                + " from t_ds_mysql_registry_data", 0, Collections.singletonList(dataRow(1L, "/a", "a", 9L)));
+
+        MysqlRegistryChanges changes = mysqlOperator.queryMysqlRegistryChanges(4L);
+
+        Assertions.assertEquals(10L, changes.getRevision());
+        Assertions.assertTrue(changes.isFullData());
+        Assertions.assertEquals(1, changes.getChanges().size());
+        Assertions.assertFalse(isPrepared("select `key`, revision from t_ds_mysql_registry_tombstone"));
+    }
+
+    private boolean isPrepared(String sqlPrefix) {
+        return preparedSql.stream().anyMatch(sql -> sql.startsWith(sqlPrefix));
+    }
+
+    private void mockRevision(long revision) throws SQLException {
+        mockStatement(REVISION_SQL, 1, Collections.emptyList());
+        Map<Object, Object> row = new HashMap<>();
+        row.put(1, revision);
+        mockStatement("SELECT LAST_INSERT_ID()", 0, Collections.singletonList(row));
+    }
+
+    private void mockRevisionRow(long revision, long compactedRevision) throws SQLException {
+        Map<Object, Object> row = new HashMap<>();
+        row.put("revision", revision);
+        row.put("compacted_revision", compactedRevision);
+        mockStatement("select revision, compacted_revision from t_ds_mysql_registry_revision", 0,
+                Collections.singletonList(row));
+    }
+
+    private Map<Object, Object> dataRow(long id, String key, String data, long revision) {
+        Map<Object, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("key", key);
+        row.put("data", data);
+        row.put("type", 0);
+        row.put("last_term", 0L);
+        row.put("revision", revision);
+        return row;
+    }
+
+    private PreparedStatement mockStatement(String sqlPrefix, int updateCount,
+                                            List<Map<Object, Object>> rows) throws SQLException {
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(preparedStatement.executeUpdate()).thenReturn(updateCount);
+        Mockito.when(preparedStatement.executeQuery()).thenAnswer(invocation -> mockResultSet(rows));
+        statements.put(sqlPrefix, preparedStatement);
+        return preparedStatement;
+    }
+
+    private ResultSet mockResultSet(List<Map<Object, Object>> rows) throws SQLException {
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        AtomicInteger cursor = new AtomicInteger(-1);
+        Mockito.when(resultSet.next()).thenAnswer(invocation -> cursor.incrementAndGet() < rows.size());
+        Answer<Object> column = invocation -> rows.get(cursor.get()).get(invocation.getArgument(0));
+        Mockito.when(resultSet.getString(Mockito.anyString())).thenAnswer(column);
+        Mockito.when(resultSet.getInt(Mockito.anyString())).thenAnswer(column);
+        Mockito.when(resultSet.getLong(Mockito.anyString())).thenAnswer(column);
+        Mockito.when(resultSet.getLong(Mockito.anyInt())).thenAnswer(column);
+        return resultSet;
+    }
+}
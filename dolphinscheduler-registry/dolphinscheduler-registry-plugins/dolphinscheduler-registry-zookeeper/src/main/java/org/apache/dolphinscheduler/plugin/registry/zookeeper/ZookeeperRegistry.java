@@ -137,14 +137,22 @@ public final class ZookeeperRegistry implements Registry {
     }
 
     @Override
-    public boolean subscribe(String path, SubscribeListener listener) {
-        final TreeCache treeCache = treeCacheMap.computeIfAbsent(path, $ -> new TreeCache(client, path));
+    public synchronized boolean subscribe(String path, SubscribeListener listener) {
+        // a path may be subscribed by more than one listener, the tree cache is only started once
+        TreeCache treeCache = treeCacheMap.get(path);
+        final boolean newTreeCache = treeCache == null;
+        if (newTreeCache) {
+            treeCache = new TreeCache(client, path);
+            treeCacheMap.put(path, treeCache);
+        }
         treeCache.getListenable().addListener(($, event) -> listener.notify(new EventAdaptor(event, path)));
-        try {
-            treeCache.start();
-        } catch (Exception e) {
-            treeCacheMap.remove(path);
-            throw new RegistryException("Failed to subscribe listener for key: " + path, e);
+        if (newTreeCache) {
+            try {
+                treeCache.start();
+            } catch (Exception e) {
+                treeCacheMap.remove(path);
+                throw new RegistryException("Failed to subscribe listener for key: " + path, e);
+            }
         }
         return true;
     }
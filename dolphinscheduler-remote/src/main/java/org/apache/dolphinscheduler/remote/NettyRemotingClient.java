@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.remote;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
@@ -34,11 +35,10 @@ import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
-import org.apache.dolphinscheduler.remote.exceptions.RemotingTimeoutException;
 import org.apache.dolphinscheduler.remote.exceptions.RemotingTooMuchRequestException;
-import org.apache.dolphinscheduler.remote.future.InvokeCallback;
 import org.apache.dolphinscheduler.remote.future.ReleaseSemaphore;
 import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.future.ResponseFutureTable;
 import org.apache.dolphinscheduler.remote.handler.NettyClientHandler;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.remote.utils.CallerThreadExecutePolicy;
@@ -50,11 +50,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -70,19 +70,26 @@ public class NettyRemotingClient implements AutoCloseable {
 
     private final ConcurrentHashMap<Host, Channel> channels = new ConcurrentHashMap<>(128);
 
+    /**
+     * The connecting channels, so the concurrent requests to a host share one connection.
+     */
+    private final ConcurrentHashMap<Host, CompletableFuture<Channel>> connectingChannels = new ConcurrentHashMap<>();
+
     private final AtomicBoolean isStarted = new AtomicBoolean(false);
 
     private final EventLoopGroup workerGroup;
 
     private final NettyClientConfig clientConfig;
 
-    private final Semaphore asyncSemaphore = new Semaphore(200, true);
+    private static final int ASYNC_PERMITS = 200;
+
+    private final Semaphore asyncSemaphore = new Semaphore(ASYNC_PERMITS);
 
     private final ExecutorService callbackExecutor;
 
     private final NettyClientHandler clientHandler;
 
-    private final ScheduledExecutorService responseFutureExecutor;
+    private final ResponseFutureTable responseFutureTable;
 
     public NettyRemotingClient(final NettyClientConfig clientConfig) {
         this.clientConfig = clientConfig;
@@ -99,9 +106,8 @@ public class NettyRemotingClient implements AutoCloseable {
                 new LinkedBlockingQueue<>(1000),
                 new NamedThreadFactory("CallbackExecutor"),
                 new CallerThreadExecutePolicy());
-        this.clientHandler = new NettyClientHandler(this, callbackExecutor);
-
-        this.responseFutureExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("ResponseFutureExecutor"));
+        this.responseFutureTable = new ResponseFutureTable(callbackExecutor);
+        this.clientHandler = new NettyClientHandler(this, responseFutureTable);
 
         this.start();
     }
@@ -124,74 +130,64 @@ public class NettyRemotingClient implements AutoCloseable {
                                 .addLast(new NettyDecoder(), clientHandler, encoder);
                     }
                 });
-        this.responseFutureExecutor.scheduleAtFixedRate(ResponseFuture::scanFutureTable, 5000, 1000, TimeUnit.MILLISECONDS);
         isStarted.compareAndSet(false, true);
     }
 
     /**
-     * async send
+     * async send, the number of the in-flight async requests is limited, the request fails fast if it's exceeded
      *
      * @param host host
      * @param command command
      * @param timeoutMillis timeoutMillis
-     * @param invokeCallback callback function
+     * @return the future of the response, it's completed in the callback executor, so the dependent actions
+     *         should not block
      */
-    public void sendAsync(final Host host, final Command command,
-                          final long timeoutMillis,
-                          final InvokeCallback invokeCallback) throws InterruptedException, RemotingException {
-        final Channel channel = getChannel(host);
-        if (channel == null) {
-            throw new RemotingException("network error");
+    public CompletableFuture<Command> sendAsync(final Host host, final Command command, final long timeoutMillis) {
+        /*
+         *  control concurrency number
+         */
+        if (!this.asyncSemaphore.tryAcquire()) {
+            String message = String.format("try to acquire async semaphore failed, total permits: %d",
+                    ASYNC_PERMITS);
+            CompletableFuture<Command> future = new CompletableFuture<>();
+            future.completeExceptionally(new RemotingTooMuchRequestException(message));
+            return future;
         }
+        return doSendAsync(host, command, timeoutMillis, new ReleaseSemaphore(this.asyncSemaphore));
+    }
+
+    private CompletableFuture<Command> doSendAsync(final Host host, final Command command,
+                                                  final long timeoutMillis,
+                                                  final ReleaseSemaphore releaseSemaphore) {
         /*
          * request unique identification
          */
         final long opaque = command.getOpaque();
-        /*
-         *  control concurrency number
-         */
-        boolean acquired = this.asyncSemaphore.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
-        if (acquired) {
-            final ReleaseSemaphore releaseSemaphore = new ReleaseSemaphore(this.asyncSemaphore);
-
-            /*
-             *  response future
-             */
-            final ResponseFuture responseFuture = new ResponseFuture(opaque,
-                    timeoutMillis,
-                    invokeCallback,
-                    releaseSemaphore);
-            try {
-                channel.writeAndFlush(command).addListener(future -> {
-                    if (future.isSuccess()) {
-                        responseFuture.setSendOk(true);
-                        return;
-                    } else {
-                        responseFuture.setSendOk(false);
-                    }
-                    responseFuture.setCause(future.cause());
-                    responseFuture.putResponse(null);
-                    try {
-                        responseFuture.executeInvokeCallback();
-                    } catch (Exception ex) {
-                        logger.error("execute callback error", ex);
-                    } finally {
-                        responseFuture.release();
-                    }
-                });
-            } catch (Exception ex) {
-                responseFuture.release();
-                throw new RemotingException(String.format("send command to host: %s failed", host), ex);
-            }
-        } else {
-            String message = String.format("try to acquire async semaphore timeout: %d, waiting thread num: %d, total permits: %d",
-                    timeoutMillis, asyncSemaphore.getQueueLength(), asyncSemaphore.availablePermits());
-            throw new RemotingTooMuchRequestException(message);
+        final ResponseFuture responseFuture = new ResponseFuture(opaque, host, timeoutMillis, releaseSemaphore);
+        try {
+            responseFutureTable.put(responseFuture);
+        } catch (RemotingException e) {
+            responseFuture.putCause(e);
+            return responseFuture.getFuture();
         }
+        getChannelAsync(host).whenComplete((channel, cause) -> {
+            if (cause != null) {
+                responseFutureTable.fail(opaque, cause);
+                return;
+            }
+            channel.writeAndFlush(command).addListener(future -> {
+                if (!future.isSuccess()) {
+                    logger.error("send command {} to host {} failed", command, host, future.cause());
+                    responseFutureTable.fail(opaque, new RemotingException(
+                            String.format("send command to host: %s failed", host), future.cause()));
+                }
+            });
+        });
+        return responseFuture.getFuture();
     }
 
     /**
-     * sync send
+     * sync send, the calling thread waits until the response is received or timeout
      *
      * @param host host
      * @param command command
@@ -199,34 +195,40 @@ public class NettyRemotingClient implements AutoCloseable {
      * @return command
      */
     public Command sendSync(final Host host, final Command command, final long timeoutMillis) throws InterruptedException, RemotingException {
-        final Channel channel = getChannel(host);
-        if (channel == null) {
-            throw new RemotingException(String.format("connect to : %s fail", host));
+        // the future is always completed by the response, the failure or the timeout of the table
+        CompletableFuture<Command> future = doSendAsync(host, command, timeoutMillis, null);
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw toRemotingException(host, e.getCause());
         }
-        final long opaque = command.getOpaque();
-        final ResponseFuture responseFuture = new ResponseFuture(opaque, timeoutMillis, null, null);
-        channel.writeAndFlush(command).addListener(future -> {
-            if (future.isSuccess()) {
-                responseFuture.setSendOk(true);
+    }
+
+    /**
+     * async send task without response
+     *
+     * @param host host
+     * @param command command
+     * @return the future which is completed once the command has been written
+     */
+    public CompletableFuture<Void> sendOnewayAsync(final Host host, final Command command) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        getChannelAsync(host).whenComplete((channel, cause) -> {
+            if (cause != null) {
+                result.completeExceptionally(cause);
                 return;
-            } else {
-                responseFuture.setSendOk(false);
             }
-            responseFuture.setCause(future.cause());
-            responseFuture.putResponse(null);
-            logger.error("send command {} to host {} failed", command, host);
+            channel.writeAndFlush(command).addListener(future -> {
+                if (future.isSuccess()) {
+                    logger.debug("send command : {} , to : {} successfully.", command, host.getAddress());
+                    result.complete(null);
+                } else {
+                    String msg = String.format("send command : %s , to :%s failed", command, host.getAddress());
+                    logger.error(msg, future.cause());
+                    result.completeExceptionally(new RemotingException(msg, future.cause()));
+                }
+            });
         });
-        /*
-         * sync wait for result
-         */
-        Command result = responseFuture.waitResponse();
-        if (result == null) {
-            if (responseFuture.isSendOK()) {
-                throw new RemotingTimeoutException(host.toString(), timeoutMillis, responseFuture.getCause());
-            } else {
-                throw new RemotingException(host.toString(), responseFuture.getCause());
-            }
-        }
         return result;
     }
 
@@ -237,27 +239,24 @@ public class NettyRemotingClient implements AutoCloseable {
      * @param command command
      */
     public void send(final Host host, final Command command) throws RemotingException {
-        Channel channel = getChannel(host);
-        if (channel == null) {
-            throw new RemotingException(String.format("connect to : %s fail", host));
-        }
         try {
-            ChannelFuture future = channel.writeAndFlush(command).await();
-            if (future.isSuccess()) {
-                logger.debug("send command : {} , to : {} successfully.", command, host.getAddress());
-            } else {
-                String msg = String.format("send command : %s , to :%s failed", command, host.getAddress());
-                logger.error(msg, future.cause());
-                throw new RemotingException(msg);
-            }
-        } catch (RemotingException remotingException) {
-            throw remotingException;
-        } catch (Exception e) {
+            sendOnewayAsync(host, command).get();
+        } catch (ExecutionException e) {
+            throw toRemotingException(host, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             logger.error("Send command {} to address {} encounter error.", command, host.getAddress());
             throw new RemotingException(String.format("Send command : %s , to :%s encounter error", command, host.getAddress()), e);
         }
     }
 
+    private RemotingException toRemotingException(Host host, Throwable cause) {
+        if (cause instanceof RemotingException) {
+            return (RemotingException) cause;
+        }
+        return new RemotingException(host.toString(), cause);
+    }
+
     /**
      * register processor
      *
@@ -283,11 +282,64 @@ public class NettyRemotingClient implements AutoCloseable {
      * get channel
      */
     public Channel getChannel(Host host) {
+        try {
+            return getChannelAsync(host).get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * get the active channel of the host, or connect to the host without blocking
+     *
+     * @param host host
+     * @return the future of the channel
+     */
+    public CompletableFuture<Channel> getChannelAsync(Host host) {
         Channel channel = channels.get(host);
         if (channel != null && channel.isActive()) {
-            return channel;
+            return CompletableFuture.completedFuture(channel);
+        }
+        CompletableFuture<Channel> channelFuture = connectingChannels.get(host);
+        if (channelFuture != null) {
+            return channelFuture;
+        }
+        channelFuture = new CompletableFuture<>();
+        CompletableFuture<Channel> connecting = connectingChannels.putIfAbsent(host, channelFuture);
+        if (connecting != null) {
+            return connecting;
+        }
+        connect(host, channelFuture);
+        return channelFuture;
+    }
+
+    private void connect(Host host, CompletableFuture<Channel> channelFuture) {
+        try {
+            ChannelFuture future;
+            synchronized (bootstrap) {
+                future = bootstrap.connect(new InetSocketAddress(host.getIp(), host.getPort()));
+            }
+            future.addListener((ChannelFutureListener) connectFuture -> {
+                if (connectFuture.isSuccess()) {
+                    channels.put(host, connectFuture.channel());
+                    connectingChannels.remove(host, channelFuture);
+                    channelFuture.complete(connectFuture.channel());
+                } else {
+                    logger.warn(String.format("connect to %s error", host), connectFuture.cause());
+                    connectingChannels.remove(host, channelFuture);
+                    channelFuture.completeExceptionally(new RemotingException(
+                            String.format("connect to : %s fail", host), connectFuture.cause()));
+                }
+            });
+        } catch (Exception ex) {
+            logger.warn(String.format("connect to %s error", host), ex);
+            connectingChannels.remove(host, channelFuture);
+            channelFuture.completeExceptionally(
+                    new RemotingException(String.format("connect to : %s fail", host), ex));
         }
-        return createChannel(host, true);
     }
 
     /**
@@ -322,15 +374,13 @@ public class NettyRemotingClient implements AutoCloseable {
         if (isStarted.compareAndSet(true, false)) {
             try {
                 closeChannels();
+                this.responseFutureTable.close();
                 if (workerGroup != null) {
                     this.workerGroup.shutdownGracefully();
                 }
                 if (callbackExecutor != null) {
                     this.callbackExecutor.shutdownNow();
                 }
-                if (this.responseFutureExecutor != null) {
-                    this.responseFutureExecutor.shutdownNow();
-                }
                 logger.info("netty client closed");
             } catch (Exception ex) {
                 logger.error("netty client close exception", ex);
@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.remote.codec;
 
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandBodySerializer;
 import org.apache.dolphinscheduler.remote.command.CommandContext;
 import org.apache.dolphinscheduler.remote.command.CommandHeader;
 import org.apache.dolphinscheduler.remote.command.CommandType;
@@ -58,7 +59,17 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
                 checkpoint(State.VERSION);
                 // fallthru
             case VERSION:
-                checkVersion(in.readByte());
+                byte version = in.readByte();
+                checkVersion(version);
+                commandHeader.setVersion(version);
+                checkpoint(State.BODY_SERIALIZER);
+                // fallthru
+            case BODY_SERIALIZER:
+                if (commandHeader.getVersion() == Command.VERSION_WITH_SERIALIZER) {
+                    commandHeader.setBodySerializer(in.readByte());
+                } else {
+                    commandHeader.setBodySerializer(CommandBodySerializer.JSON.getType());
+                }
                 checkpoint(State.COMMAND);
                 // fallthru
             case COMMAND:
@@ -84,14 +95,14 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
                 checkpoint(State.BODY);
                 // fallthru
             case BODY:
-                byte[] body = new byte[commandHeader.getBodyLength()];
-                in.readBytes(body);
+                // retain the body rather than copy it, it will be released after the body is read
+                ByteBuf body = in.readRetainedSlice(commandHeader.getBodyLength());
                 //
-                Command packet = new Command();
+                Command packet = new Command(commandHeader.getOpaque());
                 packet.setType(commandType(commandHeader.getType()));
-                packet.setOpaque(commandHeader.getOpaque());
                 packet.setContext(CommandContext.valueOf(commandHeader.getContext()));
-                packet.setBody(body);
+                packet.setBodySerializer(CommandBodySerializer.of(commandHeader.getBodySerializer()));
+                packet.setBodyBuffer(body);
                 out.add(packet);
                 //
                 checkpoint(State.MAGIC);
@@ -130,7 +141,7 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
      * check version
      */
     private void checkVersion(byte version) {
-        if (version != Command.VERSION) {
+        if (version != Command.VERSION && version != Command.VERSION_WITH_SERIALIZER) {
             throw new IllegalArgumentException("illegal protocol [version]" + version);
         }
     }
@@ -138,6 +149,7 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
     enum State {
         MAGIC,
         VERSION,
+        BODY_SERIALIZER,
         COMMAND,
         OPAQUE,
         CONTEXT_LENGTH,
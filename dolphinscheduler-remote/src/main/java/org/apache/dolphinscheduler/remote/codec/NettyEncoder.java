@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.remote.codec;
 
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandBodySerializer;
 import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
 
 import io.netty.buffer.ByteBuf;
@@ -44,7 +45,7 @@ public class NettyEncoder extends MessageToByteEncoder<Command> {
             throw new RemotingException("encode msg is null");
         }
         out.writeByte(Command.MAGIC);
-        out.writeByte(Command.VERSION);
+        writeVersion(msg, out);
         out.writeByte(msg.getType().ordinal());
         out.writeLong(msg.getOpaque());
         writeContext(msg, out);
@@ -52,6 +53,18 @@ public class NettyEncoder extends MessageToByteEncoder<Command> {
         out.writeBytes(msg.getBody());
     }
 
+    /**
+     * The JSON body is written with the legacy header, so the old version receiver can still decode it.
+     */
+    private void writeVersion(Command msg, ByteBuf out) {
+        if (msg.getBodySerializer() == CommandBodySerializer.JSON) {
+            out.writeByte(Command.VERSION);
+        } else {
+            out.writeByte(Command.VERSION_WITH_SERIALIZER);
+            out.writeByte(msg.getBodySerializer().getType());
+        }
+    }
+
     private void writeContext(Command msg, ByteBuf out) {
         byte[] headerBytes = msg.getContext().toBytes();
         out.writeInt(headerBytes.length);
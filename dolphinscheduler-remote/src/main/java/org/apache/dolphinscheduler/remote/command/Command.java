@@ -20,6 +20,8 @@ package org.apache.dolphinscheduler.remote.command;
 import java.io.Serializable;
 import java.util.concurrent.atomic.AtomicLong;
 
+import io.netty.buffer.ByteBuf;
+
 /**
  *  receive task log request command and content fill
  *  for netty data serializable transfer
@@ -33,6 +35,12 @@ public class Command implements Serializable {
     public static final byte MAGIC = (byte) 0xbabe;
     public static final byte VERSION = 0;
 
+    /**
+     * The header of this version carries the body serializer type after the version byte, it is rejected by the
+     * servers before this version, so it is only used when the serializer other than JSON is enabled.
+     */
+    public static final byte VERSION_WITH_SERIALIZER = 1;
+
     public Command(){
         this.opaque = REQUEST_ID.getAndIncrement();
     }
@@ -61,6 +69,17 @@ public class Command implements Serializable {
      */
     private byte[] body;
 
+    /**
+     * the serializer of the body
+     */
+    private CommandBodySerializer bodySerializer = CommandBodySerializer.JSON;
+
+    /**
+     * The received body which is retained from the netty buffer, this can avoid copying the body in the io thread.
+     * It is copied to the body and released once the body is read, so the body can be read again.
+     */
+    private transient ByteBuf bodyBuffer;
+
     public CommandType getType() {
         return type;
     }
@@ -77,7 +96,13 @@ public class Command implements Serializable {
         this.opaque = opaque;
     }
 
-    public byte[] getBody() {
+    public synchronized byte[] getBody() {
+        if (body == null && bodyBuffer != null) {
+            byte[] bytes = new byte[bodyBuffer.readableBytes()];
+            bodyBuffer.getBytes(bodyBuffer.readerIndex(), bytes);
+            body = bytes;
+            release();
+        }
         return body;
     }
 
@@ -85,6 +110,57 @@ public class Command implements Serializable {
         this.body = body;
     }
 
+    /**
+     * Serialize the given object as the body.
+     *
+     * @param obj body object
+     * @param serializer body serializer
+     */
+    public void setBody(Object obj, CommandBodySerializer serializer) {
+        this.body = serializer.serialize(obj);
+        this.bodySerializer = serializer;
+    }
+
+    /**
+     * Deserialize the body by the body serializer, if the body is retained from the netty buffer, it will be
+     * copied to the body and then the buffer will be released.
+     *
+     * @param clazz body class
+     * @return body object
+     */
+    public <T> T getBody(Class<T> clazz) {
+        return bodySerializer.deserialize(getBody(), clazz);
+    }
+
+    public CommandBodySerializer getBodySerializer() {
+        return bodySerializer;
+    }
+
+    public void setBodySerializer(CommandBodySerializer bodySerializer) {
+        this.bodySerializer = bodySerializer;
+    }
+
+    public void setBodyBuffer(ByteBuf bodyBuffer) {
+        this.bodyBuffer = bodyBuffer;
+    }
+
+    public synchronized int getBodyLength() {
+        if (body != null) {
+            return body.length;
+        }
+        return bodyBuffer == null ? 0 : bodyBuffer.readableBytes();
+    }
+
+    /**
+     * Release the retained body buffer, should be called if the body will never be read.
+     */
+    public synchronized void release() {
+        if (bodyBuffer != null) {
+            bodyBuffer.release();
+            bodyBuffer = null;
+        }
+    }
+
     public CommandContext getContext() {
         return context;
     }
@@ -118,7 +194,7 @@ public class Command implements Serializable {
 
     @Override
     public String toString() {
-        return "Command [type=" + type + ", opaque=" + opaque + ", bodyLen=" + (body == null ? 0 : body.length) + "]";
+        return "Command [type=" + type + ", opaque=" + opaque + ", bodyLen=" + getBodyLength() + "]";
     }
 
 }
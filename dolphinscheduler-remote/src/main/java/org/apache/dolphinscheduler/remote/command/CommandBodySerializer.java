@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.command;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.rpc.serializer.ProtoStuffSerializer;
+
+/**
+ * The serializer of the {@link Command} body, the type is transferred in the command header,
+ * so the receiver knows how to deserialize the body.
+ * <p>
+ * The JSON serializer is compatible with the old version, since its body is transferred with the legacy header.
+ * The other serializers are opt-in, they should be enabled after all of the servers are upgraded.
+ */
+public enum CommandBodySerializer {
+
+    JSON((byte) 0) {
+
+        @Override
+        public byte[] serialize(Object obj) {
+            return JSONUtils.toJsonByteArray(obj);
+        }
+
+        @Override
+        public <T> T deserialize(byte[] data, Class<T> clazz) {
+            return JSONUtils.parseObject(data, clazz);
+        }
+    },
+
+    /**
+     * Schema based binary serializer, it is much smaller and faster than JSON for the big message,
+     * e.g. the task dispatch command which carries the whole task execution context.
+     */
+    PROTOSTUFF((byte) 1) {
+
+        @Override
+        public byte[] serialize(Object obj) {
+            return PROTOSTUFF_SERIALIZER.serialize(obj);
+        }
+
+        @Override
+        public <T> T deserialize(byte[] data, Class<T> clazz) {
+            return PROTOSTUFF_SERIALIZER.deserialize(data, clazz);
+        }
+    };
+
+    private static final ProtoStuffSerializer PROTOSTUFF_SERIALIZER = new ProtoStuffSerializer();
+
+    private final byte type;
+
+    CommandBodySerializer(byte type) {
+        this.type = type;
+    }
+
+    public byte getType() {
+        return type;
+    }
+
+    public abstract byte[] serialize(Object obj);
+
+    public abstract <T> T deserialize(byte[] data, Class<T> clazz);
+
+    public static CommandBodySerializer of(byte type) {
+        for (CommandBodySerializer serializer : values()) {
+            if (serializer.type == type) {
+                return serializer;
+            }
+        }
+        throw new IllegalArgumentException("illegal command body serializer type: " + type);
+    }
+}
@@ -27,6 +27,16 @@ import lombok.Data;
 @Data
 public class CommandHeader implements Serializable {
 
+    /**
+     * protocol version
+     */
+    private byte version;
+
+    /**
+     * body serializer type
+     */
+    private byte bodySerializer;
+
     /**
      * type
      */
@@ -127,6 +127,16 @@ public enum CommandType {
      */
     TASK_WAKEUP_EVENT_REQUEST,
 
+    /**
+     * task group acquire request, from master to the master which arbitrates the task group
+     */
+    TASK_GROUP_ACQUIRE_REQUEST,
+
+    /**
+     * task group release request, from master to the master which arbitrates the task group
+     */
+    TASK_GROUP_RELEASE_REQUEST,
+
     /**
      * workflow executing data request, from api to master
      */
@@ -135,5 +145,10 @@ public enum CommandType {
     /**
      * workflow executing data response, from master to api
      */
-    WORKFLOW_EXECUTING_DATA_RESPONSE;
+    WORKFLOW_EXECUTING_DATA_RESPONSE,
+
+    /**
+     * workflow command available notify, from api/master to master
+     */
+    WORKFLOW_COMMAND_NOTIFY;
 }
@@ -17,7 +17,6 @@
 
 package org.apache.dolphinscheduler.remote.command;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 
 import lombok.Data;
@@ -48,10 +47,19 @@ public class TaskDispatchCommand extends BaseCommand {
     }
 
     public Command convert2Command() {
+        return convert2Command(CommandBodySerializer.JSON);
+    }
+
+    /**
+     * The serializers other than JSON can only be decoded by the upgraded servers.
+     *
+     * @param serializer body serializer
+     * @return command
+     */
+    public Command convert2Command(CommandBodySerializer serializer) {
         Command command = new Command();
         command.setType(CommandType.TASK_DISPATCH_REQUEST);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.setBody(this, serializer);
         return command;
     }
 
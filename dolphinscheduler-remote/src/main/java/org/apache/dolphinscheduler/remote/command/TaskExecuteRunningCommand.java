@@ -17,8 +17,6 @@
 
 package org.apache.dolphinscheduler.remote.command;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
-
 import java.util.Date;
 
 import lombok.Data;
@@ -91,10 +89,19 @@ public class TaskExecuteRunningCommand extends BaseCommand {
      * @return command
      */
     public Command convert2Command() {
+        return convert2Command(CommandBodySerializer.JSON);
+    }
+
+    /**
+     * The serializers other than JSON can only be decoded by the upgraded servers.
+     *
+     * @param serializer body serializer
+     * @return command
+     */
+    public Command convert2Command(CommandBodySerializer serializer) {
         Command command = new Command();
         command.setType(CommandType.TASK_EXECUTE_RUNNING);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.setBody(this, serializer);
         return command;
     }
 
@@ -18,113 +18,99 @@
 package org.apache.dolphinscheduler.remote.future;
 
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.utils.Host;
 
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.netty.util.Timeout;
 
 /**
- * response future
+ * response future, it is kept in the {@link ResponseFutureTable} of the client until the response is received,
+ * the request is failed or timeout.
  */
 public class ResponseFuture {
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(ResponseFuture.class);
-
-    private static final ConcurrentHashMap<Long, ResponseFuture> FUTURE_TABLE = new ConcurrentHashMap<>(256);
-
     /**
      * request unique identification
      */
     private final long opaque;
 
     /**
-     * timeout
+     * the host which the request is sent to
      */
-    private final long timeoutMillis;
+    private final Host host;
 
     /**
-     * invokeCallback function
+     * timeout
      */
-    private final InvokeCallback invokeCallback;
+    private final long timeoutMillis;
 
     /**
      * releaseSemaphore
      */
     private final ReleaseSemaphore releaseSemaphore;
 
-    private final CountDownLatch latch = new CountDownLatch(1);
+    private final CompletableFuture<Command> future = new CompletableFuture<>();
 
     private final long beginTimestamp = System.currentTimeMillis();
 
-    /**
-     * response command
-     */
-    private Command responseCommand;
-
     private volatile boolean sendOk = true;
 
-    private Throwable cause;
+    /**
+     * the timeout task in the timer of the table
+     */
+    private volatile Timeout timeout;
 
-    public ResponseFuture(long opaque, long timeoutMillis, InvokeCallback invokeCallback, ReleaseSemaphore releaseSemaphore) {
+    public ResponseFuture(long opaque, Host host, long timeoutMillis, ReleaseSemaphore releaseSemaphore) {
         this.opaque = opaque;
+        this.host = host;
         this.timeoutMillis = timeoutMillis;
-        this.invokeCallback = invokeCallback;
         this.releaseSemaphore = releaseSemaphore;
-        FUTURE_TABLE.put(opaque, this);
     }
 
     /**
-     * wait for response
+     * put response
      *
-     * @return command
+     * @param responseCommand responseCommand
      */
-    public Command waitResponse() throws InterruptedException {
-        this.latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
-        return this.responseCommand;
+    public void putResponse(final Command responseCommand) {
+        release();
+        future.complete(responseCommand);
     }
 
     /**
-     * put response
+     * put the cause if the request failed or timeout
      *
-     * @param responseCommand responseCommand
+     * @param cause cause
      */
-    public void putResponse(final Command responseCommand) {
-        this.responseCommand = responseCommand;
-        this.latch.countDown();
-        FUTURE_TABLE.remove(opaque);
+    public void putCause(final Throwable cause) {
+        release();
+        future.completeExceptionally(cause);
     }
 
-    public static ResponseFuture getFuture(long opaque) {
-        return FUTURE_TABLE.get(opaque);
+    /**
+     * The future of the response, it is completed in the callback executor of the client,
+     * so the dependent actions should not block.
+     */
+    public CompletableFuture<Command> getFuture() {
+        return future;
     }
 
-    public void removeFuture() {
-        FUTURE_TABLE.remove(opaque);
+    public boolean isDone() {
+        return future.isDone();
     }
 
-    /**
-     * whether timeout
-     *
-     * @return timeout
-     */
-    public boolean isTimeout() {
-        long diff = System.currentTimeMillis() - this.beginTimestamp;
-        return diff > this.timeoutMillis;
+    void setTimeout(Timeout timeout) {
+        this.timeout = timeout;
+        if (future.isDone()) {
+            timeout.cancel();
+        }
     }
 
-    /**
-     * execute invoke callback
-     */
-    public void executeInvokeCallback() {
-        if (invokeCallback != null) {
-            invokeCallback.operationComplete(this);
+    void cancelTimeout() {
+        Timeout currentTimeout = this.timeout;
+        if (currentTimeout != null) {
+            currentTimeout.cancel();
         }
     }
 
@@ -136,18 +122,14 @@ public class ResponseFuture {
         this.sendOk = sendOk;
     }
 
-    public void setCause(Throwable cause) {
-        this.cause = cause;
-    }
-
-    public Throwable getCause() {
-        return cause;
-    }
-
     public long getOpaque() {
         return opaque;
     }
 
+    public Host getHost() {
+        return host;
+    }
+
     public long getTimeoutMillis() {
         return timeoutMillis;
     }
@@ -156,18 +138,6 @@ public class ResponseFuture {
         return beginTimestamp;
     }
 
-    public Command getResponseCommand() {
-        return responseCommand;
-    }
-
-    public void setResponseCommand(Command responseCommand) {
-        this.responseCommand = responseCommand;
-    }
-
-    public InvokeCallback getInvokeCallback() {
-        return invokeCallback;
-    }
-
     /**
      * release
      */
@@ -177,43 +147,16 @@ public class ResponseFuture {
         }
     }
 
-    /**
-     * scan future table
-     */
-    public static void scanFutureTable() {
-        final List<ResponseFuture> futureList = new LinkedList<>();
-        Iterator<Map.Entry<Long, ResponseFuture>> it = FUTURE_TABLE.entrySet().iterator();
-        while (it.hasNext()) {
-            Map.Entry<Long, ResponseFuture> next = it.next();
-            ResponseFuture future = next.getValue();
-            if ((future.getBeginTimestamp() + future.getTimeoutMillis() + 1000) <= System.currentTimeMillis()) {
-                futureList.add(future);
-                it.remove();
-                LOGGER.warn("remove timeout request : {}", future);
-            }
-        }
-        for (ResponseFuture future : futureList) {
-            try {
-                future.release();
-                future.executeInvokeCallback();
-            } catch (Exception ex) {
-                LOGGER.warn("scanFutureTable, execute callback error", ex);
-            }
-        }
-    }
-
     @Override
     public String toString() {
         return "ResponseFuture{"
                 + "opaque=" + opaque
+                + ", host=" + host
                 + ", timeoutMillis=" + timeoutMillis
-                + ", invokeCallback=" + invokeCallback
                 + ", releaseSemaphore=" + releaseSemaphore
-                + ", latch=" + latch
                 + ", beginTimestamp=" + beginTimestamp
-                + ", responseCommand=" + responseCommand
                 + ", sendOk=" + sendOk
-                + ", cause=" + cause
+                + ", done=" + future.isDone()
                 + '}';
     }
 }
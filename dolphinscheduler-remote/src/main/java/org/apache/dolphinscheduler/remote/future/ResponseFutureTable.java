@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.future;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingTimeoutException;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.util.HashedWheelTimer;
+
+/**
+ * The in-flight requests of a client, keyed by the request opaque.
+ * <p>
+ * Each request registers a timeout in a hashed wheel timer when it is put, the timeout is cancelled once the
+ * request is completed, so the timeouts are found without scanning the table. The futures are completed in the
+ * callback executor, the netty io threads and the timer thread are never blocked by the dependent actions.
+ */
+public class ResponseFutureTable implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseFutureTable.class);
+
+    private static final long TICK_DURATION_MILLIS = 100;
+
+    /**
+     * The in-flight requests of all the clients in this process.
+     */
+    private static final AtomicLong IN_FLIGHT_REQUESTS = new AtomicLong();
+
+    /**
+     * The timeout requests of all the clients in this process.
+     */
+    private static final AtomicLong TIMEOUT_REQUESTS = new AtomicLong();
+
+    private final ConcurrentHashMap<Long, ResponseFuture> futures = new ConcurrentHashMap<>(256);
+
+    private final HashedWheelTimer timer;
+
+    private final Executor callbackExecutor;
+
+    public ResponseFutureTable(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+        this.timer = new HashedWheelTimer(new NamedThreadFactory("ResponseFutureTimer"),
+                TICK_DURATION_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Put the future of a request and start its timeout.
+     *
+     * @param responseFuture response future
+     * @throws RemotingException if the table has been closed
+     */
+    public void put(ResponseFuture responseFuture) throws RemotingException {
+        long opaque = responseFuture.getOpaque();
+        futures.put(opaque, responseFuture);
+        IN_FLIGHT_REQUESTS.incrementAndGet();
+        try {
+            responseFuture.setTimeout(
+                    timer.newTimeout(timeout -> expire(opaque), responseFuture.getTimeoutMillis(),
+                            TimeUnit.MILLISECONDS));
+        } catch (IllegalStateException e) {
+            remove(opaque);
+            throw new RemotingException("the client has been closed", e);
+        }
+    }
+
+    public ResponseFuture get(long opaque) {
+        return futures.get(opaque);
+    }
+
+    /**
+     * Complete the request by the response.
+     *
+     * @return false if the request is not in the table, e.g. it has been timeout
+     */
+    public boolean complete(long opaque, Command response) {
+        ResponseFuture responseFuture = remove(opaque);
+        if (responseFuture == null) {
+            return false;
+        }
+        callbackExecutor.execute(() -> responseFuture.putResponse(response));
+        return true;
+    }
+
+    /**
+     * Fail the request, e.g. the request is failed to write to the channel.
+     */
+    public void fail(long opaque, Throwable cause) {
+        ResponseFuture responseFuture = remove(opaque);
+        if (responseFuture != null) {
+            responseFuture.setSendOk(false);
+            callbackExecutor.execute(() -> responseFuture.putCause(cause));
+        }
+    }
+
+    private void expire(long opaque) {
+        ResponseFuture responseFuture = remove(opaque);
+        if (responseFuture == null) {
+            return;
+        }
+        TIMEOUT_REQUESTS.incrementAndGet();
+        logger.warn("remove timeout request : {}", responseFuture);
+        callbackExecutor.execute(() -> responseFuture.putCause(
+                new RemotingTimeoutException(String.valueOf(responseFuture.getHost()),
+                        responseFuture.getTimeoutMillis())));
+    }
+
+    private ResponseFuture remove(long opaque) {
+        ResponseFuture responseFuture = futures.remove(opaque);
+        if (responseFuture != null) {
+            IN_FLIGHT_REQUESTS.decrementAndGet();
+            responseFuture.cancelTimeout();
+        }
+        return responseFuture;
+    }
+
+    public int size() {
+        return futures.size();
+    }
+
+    /**
+     * Stop the timer and fail all the in-flight requests.
+     */
+    @Override
+    public void close() {
+        timer.stop();
+        Iterator<Long> opaques = futures.keySet().iterator();
+        while (opaques.hasNext()) {
+            ResponseFuture responseFuture = remove(opaques.next());
+            if (responseFuture != null) {
+                responseFuture.putCause(new RemotingException("the client has been closed"));
+            }
+        }
+    }
+
+    /**
+     * The in-flight requests of all the clients in this process.
+     */
+    public static long getInFlightRequests() {
+        return IN_FLIGHT_REQUESTS.get();
+    }
+
+    /**
+     * The timeout requests of all the clients in this process.
+     */
+    public static long getTimeoutRequests() {
+        return TIMEOUT_REQUESTS.get();
+    }
+}
@@ -20,7 +20,7 @@ package org.apache.dolphinscheduler.remote.handler;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
-import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.future.ResponseFutureTable;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
 import org.apache.dolphinscheduler.remote.utils.Constants;
@@ -57,9 +57,9 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
     private static byte[] heartBeatData = "heart_beat".getBytes();
 
     /**
-     * callback thread executor
+     * the in-flight requests of the client
      */
-    private final ExecutorService callbackExecutor;
+    private final ResponseFutureTable responseFutureTable;
 
     /**
      * processors
@@ -71,9 +71,9 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
      */
     private final ExecutorService defaultExecutor = Executors.newFixedThreadPool(Constants.CPUS);
 
-    public NettyClientHandler(NettyRemotingClient nettyRemotingClient, ExecutorService callbackExecutor) {
+    public NettyClientHandler(NettyRemotingClient nettyRemotingClient, ResponseFutureTable responseFutureTable) {
         this.nettyRemotingClient = nettyRemotingClient;
-        this.callbackExecutor = callbackExecutor;
+        this.responseFutureTable = responseFutureTable;
         this.processors = new ConcurrentHashMap<>();
     }
 
@@ -131,15 +131,11 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
      * @param command command
      */
     private void processReceived(final Channel channel, final Command command) {
-        ResponseFuture future = ResponseFuture.getFuture(command.getOpaque());
-        if (future != null) {
-            future.setResponseCommand(command);
-            future.release();
-            if (future.getInvokeCallback() != null) {
-                future.removeFuture();
-                this.callbackExecutor.submit(future::executeInvokeCallback);
-            } else {
-                future.putResponse(command);
+        if (responseFutureTable.get(command.getOpaque()) != null) {
+            // the response may be read by any thread or never be read, so we copy the body here
+            command.getBody();
+            if (!responseFutureTable.complete(command.getOpaque(), command)) {
+                logger.warn("receive response {}, but the request has been completed", command);
             }
         } else {
             processByCommandType(channel, command);
@@ -154,15 +150,19 @@ public class NettyClientHandler extends ChannelInboundHandlerAdapter {
                     pair.getLeft().process(channel, command);
                 } catch (Exception e) {
                     logger.error(String.format("process command %s exception", command), e);
+                } finally {
+                    command.release();
                 }
             };
             try {
                 pair.getRight().submit(run);
             } catch (RejectedExecutionException e) {
                 logger.warn("thread pool is full, discard command {} from {}", command, ChannelUtils.getRemoteAddress(channel));
+                command.release();
             }
         } else {
             logger.warn("receive response {}, but not matched any request ", command);
+            command.release();
         }
     }
 
@@ -25,7 +25,11 @@ import io.protostuff.runtime.RuntimeSchema;
 
 public class ProtoStuffSerializer implements Serializer {
 
-    private static LinkedBuffer buffer = LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE);
+    /**
+     * The LinkedBuffer is not thread safe, so each thread use its own buffer.
+     */
+    private static final ThreadLocal<LinkedBuffer> BUFFER =
+            ThreadLocal.withInitial(() -> LinkedBuffer.allocate(LinkedBuffer.DEFAULT_BUFFER_SIZE));
 
     private static Map<Class<?>, Schema<?>> schemaCache = new ConcurrentHashMap<>();
 
@@ -39,6 +43,7 @@ public class ProtoStuffSerializer implements Serializer {
         Class<T> clazz = (Class<T>) obj.getClass();
         Schema<T> schema = getSchema(clazz);
         byte[] data;
+        LinkedBuffer buffer = BUFFER.get();
         try {
             data = ProtostuffIOUtil.toByteArray(obj, schema, buffer);
         } finally {
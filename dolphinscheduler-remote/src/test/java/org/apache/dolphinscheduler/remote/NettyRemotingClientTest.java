@@ -21,14 +21,14 @@ import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
-import org.apache.dolphinscheduler.remote.future.InvokeCallback;
-import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingTimeoutException;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.remote.utils.Host;
 
 import java.io.Serializable;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -91,19 +91,11 @@ public class NettyRemotingClientTest {
         //
         final NettyClientConfig clientConfig = new NettyClientConfig();
         NettyRemotingClient client = new NettyRemotingClient(clientConfig);
-        CountDownLatch latch = new CountDownLatch(1);
         Command commandPing = Ping.create();
         try {
-            final AtomicLong opaque = new AtomicLong(0);
-            client.sendAsync(new Host("127.0.0.1", serverConfig.getListenPort()), commandPing, 2000, new InvokeCallback() {
-                @Override
-                public void operationComplete(ResponseFuture responseFuture) {
-                    opaque.set(responseFuture.getOpaque());
-                    latch.countDown();
-                }
-            });
-            latch.await();
-            Assert.assertEquals(commandPing.getOpaque(), opaque.get());
+            CompletableFuture<Command> future =
+                    client.sendAsync(new Host("127.0.0.1", serverConfig.getListenPort()), commandPing, 2000);
+            Assert.assertEquals(commandPing.getOpaque(), future.get(5000, TimeUnit.MILLISECONDS).getOpaque());
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -111,6 +103,36 @@ public class NettyRemotingClientTest {
         client.close();
     }
 
+    /**
+     *  test send async without response
+     */
+    @Test
+    public void testSendAsyncTimeout() throws Exception {
+        NettyServerConfig serverConfig = new NettyServerConfig();
+
+        NettyRemotingServer server = new NettyRemotingServer(serverConfig);
+        server.registerProcessor(CommandType.PING, new NettyRequestProcessor() {
+            @Override
+            public void process(Channel channel, Command command) {
+                // never response
+            }
+        });
+        server.start();
+        final NettyClientConfig clientConfig = new NettyClientConfig();
+        NettyRemotingClient client = new NettyRemotingClient(clientConfig);
+        try {
+            CompletableFuture<Command> future =
+                    client.sendAsync(new Host("127.0.0.1", serverConfig.getListenPort()), Ping.create(), 500);
+            future.get(5000, TimeUnit.MILLISECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RemotingTimeoutException);
+        } finally {
+            server.close();
+            client.close();
+        }
+    }
+
     private static class Ping implements Serializable {
 
         /**
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.codec;
+
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandBodySerializer;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
+import org.apache.dolphinscheduler.remote.command.TaskKillRequestCommand;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class NettyCodecTest {
+
+    @Test
+    public void testJsonBodyUseLegacyHeader() {
+        TaskKillRequestCommand killRequestCommand = new TaskKillRequestCommand();
+        killRequestCommand.setTaskInstanceId(1);
+        Command command = killRequestCommand.convert2Command();
+
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        Assert.assertTrue(encodeChannel.writeOutbound(command));
+        ByteBuf encoded = encodeChannel.readOutbound();
+        Assert.assertEquals(Command.VERSION, encoded.getByte(1));
+
+        Command decoded = decode(encoded);
+        Assert.assertEquals(CommandType.TASK_KILL_REQUEST, decoded.getType());
+        Assert.assertEquals(command.getOpaque(), decoded.getOpaque());
+        Assert.assertEquals(CommandBodySerializer.JSON, decoded.getBodySerializer());
+        Assert.assertEquals(1, decoded.getBody(TaskKillRequestCommand.class).getTaskInstanceId());
+    }
+
+    @Test
+    public void testProtostuffBody() {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(1);
+        taskExecutionContext.setTaskName("shell");
+        taskExecutionContext.setWorkerGroup("default");
+        taskExecutionContext.setDefinedParams(Collections.singletonMap("k", "v"));
+        Command command = new TaskDispatchCommand(taskExecutionContext, "127.0.0.1:5678", "127.0.0.1:1234",
+                System.currentTimeMillis()).convert2Command(CommandBodySerializer.PROTOSTUFF);
+
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        Assert.assertTrue(encodeChannel.writeOutbound(command));
+        ByteBuf encoded = encodeChannel.readOutbound();
+        Assert.assertEquals(Command.VERSION_WITH_SERIALIZER, encoded.getByte(1));
+
+        Command decoded = decode(encoded);
+        Assert.assertEquals(CommandType.TASK_DISPATCH_REQUEST, decoded.getType());
+        Assert.assertEquals(CommandBodySerializer.PROTOSTUFF, decoded.getBodySerializer());
+        Assert.assertEquals(command.getBody().length, decoded.getBodyLength());
+
+        TaskDispatchCommand taskDispatchCommand = decoded.getBody(TaskDispatchCommand.class);
+        Assert.assertEquals("127.0.0.1:5678", taskDispatchCommand.getMessageSenderAddress());
+        Assert.assertEquals("shell", taskDispatchCommand.getTaskExecutionContext().getTaskName());
+        Assert.assertEquals("v", taskDispatchCommand.getTaskExecutionContext().getDefinedParams().get("k"));
+        // the retained body buffer is copied to the body and released once the body is read
+        Assert.assertEquals(command.getBody().length, decoded.getBodyLength());
+        Assert.assertEquals("shell",
+                decoded.getBody(TaskDispatchCommand.class).getTaskExecutionContext().getTaskName());
+        Assert.assertArrayEquals(command.getBody(), decoded.getBody());
+    }
+
+    @Test
+    public void testTaskCommandUseJsonByDefault() {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskName("shell");
+        Command command = new TaskDispatchCommand(taskExecutionContext, "127.0.0.1:5678", "127.0.0.1:1234",
+                System.currentTimeMillis()).convert2Command();
+
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        Assert.assertTrue(encodeChannel.writeOutbound(command));
+        ByteBuf encoded = encodeChannel.readOutbound();
+        // the servers before the body serializer is introduced only accept the legacy version
+        Assert.assertEquals(Command.VERSION, encoded.getByte(1));
+
+        Command decoded = decode(encoded);
+        Assert.assertEquals(CommandBodySerializer.JSON, decoded.getBodySerializer());
+        TaskDispatchCommand taskDispatchCommand = decoded.getBody(TaskDispatchCommand.class);
+        Assert.assertEquals("shell", taskDispatchCommand.getTaskExecutionContext().getTaskName());
+        Assert.assertEquals("shell",
+                decoded.getBody(TaskDispatchCommand.class).getTaskExecutionContext().getTaskName());
+    }
+
+    private Command decode(ByteBuf encoded) {
+        EmbeddedChannel decodeChannel = new EmbeddedChannel(new NettyDecoder());
+        Assert.assertTrue(decodeChannel.writeInbound(encoded));
+        Command decoded = decodeChannel.readInbound();
+        Assert.assertNotNull(decoded);
+        return decoded;
+    }
+}
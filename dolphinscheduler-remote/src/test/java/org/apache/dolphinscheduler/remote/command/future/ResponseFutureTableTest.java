@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.command.future;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingTimeoutException;
+import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.future.ResponseFutureTable;
+import org.apache.dolphinscheduler.remote.utils.Host;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResponseFutureTableTest {
+
+    @Test
+    public void testTimeout() throws Exception {
+        try (ResponseFutureTable table = new ResponseFutureTable(Runnable::run)) {
+            long timeoutRequests = ResponseFutureTable.getTimeoutRequests();
+            ResponseFuture future = new ResponseFuture(1, new Host("127.0.0.1", 1234), 200, null);
+            table.put(future);
+            Assert.assertEquals(1, table.size());
+            try {
+                future.getFuture().get(5000, TimeUnit.MILLISECONDS);
+                Assert.fail();
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof RemotingTimeoutException);
+            }
+            Assert.assertEquals(0, table.size());
+            Assert.assertTrue(ResponseFutureTable.getTimeoutRequests() > timeoutRequests);
+        }
+    }
+
+    @Test
+    public void testComplete() throws Exception {
+        try (ResponseFutureTable table = new ResponseFutureTable(Runnable::run)) {
+            ResponseFuture future = new ResponseFuture(2, new Host("127.0.0.1", 1234), 5000, null);
+            table.put(future);
+            Command response = new Command(2);
+            Assert.assertTrue(table.complete(2, response));
+            Assert.assertSame(response, future.getFuture().get(1000, TimeUnit.MILLISECONDS));
+            Assert.assertNull(table.get(2));
+            // the response of a completed request is ignored
+            Assert.assertFalse(table.complete(2, response));
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        ResponseFutureTable table = new ResponseFutureTable(Runnable::run);
+        ResponseFuture future = new ResponseFuture(3, new Host("127.0.0.1", 1234), 5000, null);
+        table.put(future);
+        table.close();
+        Assert.assertTrue(future.getFuture().isCompletedExceptionally());
+        Assert.assertEquals(0, table.size());
+    }
+}
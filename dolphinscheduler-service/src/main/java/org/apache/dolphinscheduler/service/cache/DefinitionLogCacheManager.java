@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.cache;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinitionLog;
+import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelationLog;
+import org.apache.dolphinscheduler.dao.entity.TaskDefinition;
+import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the definition logs, a definition log is identified by its code and version and is not changed once it
+ * is inserted, except the flag of the task definition log, so the logs can be cached without being notified.
+ * <p>
+ * A version may be deleted and the same version number allocated again, so the cached logs are revalidated by the
+ * ids of the logs, which are never reused.
+ * <p>
+ * The loaders query the database, they are called directly if the cache is disabled.
+ */
+public interface DefinitionLogCacheManager {
+
+    /**
+     * Get the process definition log of the code and version.
+     *
+     * @param code process definition code
+     * @param version process definition version
+     * @param idLoader load the id of the process definition log to revalidate the cached log
+     * @param loader load the log if it is not cached
+     * @return the process definition log, or null if it doesn't exist
+     */
+    ProcessDefinitionLog getProcessDefinitionLog(long code, int version, Supplier<Integer> idLoader,
+                                                 Supplier<ProcessDefinitionLog> loader);
+
+    /**
+     * Get the process task relation logs of the process definition code and version. The relation logs are inserted
+     * together with the process definition log, so they are revalidated by the id of the process definition log.
+     *
+     * @param processDefinitionCode process definition code
+     * @param processDefinitionVersion process definition version
+     * @param idLoader load the id of the process definition log to revalidate the cached logs
+     * @param loader load the logs if they are not cached
+     * @return the process task relation logs
+     */
+    List<ProcessTaskRelationLog> getProcessTaskRelationLogs(long processDefinitionCode, int processDefinitionVersion,
+                                                            Supplier<Integer> idLoader,
+                                                            Supplier<List<ProcessTaskRelationLog>> loader);
+
+    /**
+     * Get the task definition logs of the task definition codes and versions. The cached logs are revalidated by the
+     * flag loader, which only queries the id, code, version and flag columns.
+     *
+     * @param taskDefinitions the codes and versions of the task definitions, should not be empty
+     * @param loader load the logs which are not cached
+     * @param flagLoader load the id, code, version and flag of the cached logs
+     * @return the task definition logs, the logs which don't exist are absent
+     */
+    List<TaskDefinitionLog> getTaskDefinitionLogs(
+            Collection<TaskDefinition> taskDefinitions,
+            Function<Collection<TaskDefinition>, List<TaskDefinitionLog>> loader,
+            Function<Collection<TaskDefinition>, List<TaskDefinitionLog>> flagLoader);
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.cache.impl;
+
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinitionLog;
+import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelationLog;
+import org.apache.dolphinscheduler.dao.entity.TaskDefinition;
+import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
+import org.apache.dolphinscheduler.service.cache.DefinitionLogCacheManager;
+
+import org.apache.commons.collections4.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Definition log cache kept in the memory of the server, the entries are keyed by code and version and evicted by
+ * size. It is disabled if the size is 0, which is the default except the master.
+ * <p>
+ * The entries are revalidated by the ids of the logs on every get, the entry of a version deleted and inserted again
+ * is reloaded.
+ * <p>
+ * The cached logs are copied when they are returned, so the callers can change them freely.
+ */
+@Component
+public class DefinitionLogCacheManagerImpl implements DefinitionLogCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefinitionLogCacheManagerImpl.class);
+
+    private final boolean enabled;
+
+    private final Cache<String, ProcessDefinitionLog> processDefinitionLogCache;
+
+    private final Cache<String, ProcessTaskRelationLogs> processTaskRelationLogCache;
+
+    private final Cache<String, TaskDefinitionLog> taskDefinitionLogCache;
+
+    public DefinitionLogCacheManagerImpl(@Value("${master.metadata-cache-size:0}") long maximumSize) {
+        this.enabled = maximumSize > 0;
+        this.processDefinitionLogCache = newCache(maximumSize);
+        this.processTaskRelationLogCache = newCache(maximumSize);
+        this.taskDefinitionLogCache = newCache(maximumSize);
+        if (enabled) {
+            registerMetrics("processDefinitionLog", processDefinitionLogCache);
+            registerMetrics("processTaskRelationLog", processTaskRelationLogCache);
+            registerMetrics("taskDefinitionLog", taskDefinitionLogCache);
+            logger.info("Definition log cache is enabled, maximum size of each cache: {}", maximumSize);
+        }
+    }
+
+    @Override
+    public ProcessDefinitionLog getProcessDefinitionLog(long code, int version, Supplier<Integer> idLoader,
+                                                        Supplier<ProcessDefinitionLog> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = cacheKey(code, version);
+        ProcessDefinitionLog processDefinitionLog = processDefinitionLogCache.getIfPresent(key);
+        if (processDefinitionLog != null && !Objects.equals(processDefinitionLog.getId(), idLoader.get())) {
+            processDefinitionLogCache.invalidate(key);
+            processDefinitionLog = null;
+        }
+        if (processDefinitionLog == null) {
+            processDefinitionLog = loader.get();
+            if (processDefinitionLog == null) {
+                return null;
+            }
+            processDefinitionLogCache.put(key, copy(processDefinitionLog, new ProcessDefinitionLog()));
+            return processDefinitionLog;
+        }
+        return copy(processDefinitionLog, new ProcessDefinitionLog());
+    }
+
+    @Override
+    public List<ProcessTaskRelationLog> getProcessTaskRelationLogs(long processDefinitionCode,
+                                                                   int processDefinitionVersion,
+                                                                   Supplier<Integer> idLoader,
+                                                                   Supplier<List<ProcessTaskRelationLog>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = cacheKey(processDefinitionCode, processDefinitionVersion);
+        ProcessTaskRelationLogs cachedLogs = processTaskRelationLogCache.getIfPresent(key);
+        // the id is loaded before the relations, if the version is inserted again meanwhile the entry is reloaded
+        // by the next get
+        Integer processDefinitionLogId = idLoader.get();
+        if (cachedLogs != null && Objects.equals(cachedLogs.processDefinitionLogId, processDefinitionLogId)) {
+            return copyRelations(cachedLogs.logs);
+        }
+        List<ProcessTaskRelationLog> processTaskRelationLogs = loader.get();
+        // the relations are inserted together with the process definition log, an empty result is not cached
+        // in case it is read before the transaction is committed
+        if (processDefinitionLogId == null || CollectionUtils.isEmpty(processTaskRelationLogs)) {
+            processTaskRelationLogCache.invalidate(key);
+            return processTaskRelationLogs;
+        }
+        processTaskRelationLogCache.put(key,
+                new ProcessTaskRelationLogs(processDefinitionLogId, copyRelations(processTaskRelationLogs)));
+        return processTaskRelationLogs;
+    }
+
+    @Override
+    public List<TaskDefinitionLog> getTaskDefinitionLogs(
+            Collection<TaskDefinition> taskDefinitions,
+            Function<Collection<TaskDefinition>, List<TaskDefinitionLog>> loader,
+            Function<Collection<TaskDefinition>, List<TaskDefinitionLog>> flagLoader) {
+        if (!enabled || CollectionUtils.isEmpty(taskDefinitions)) {
+            return loader.apply(taskDefinitions);
+        }
+        Map<String, TaskDefinitionLog> cachedLogs = new HashMap<>();
+        Set<TaskDefinition> missingDefinitions = new HashSet<>();
+        for (TaskDefinition taskDefinition : taskDefinitions) {
+            String key = cacheKey(taskDefinition.getCode(), taskDefinition.getVersion());
+            TaskDefinitionLog taskDefinitionLog = taskDefinitionLogCache.getIfPresent(key);
+            if (taskDefinitionLog == null) {
+                missingDefinitions.add(taskDefinition);
+            } else {
+                cachedLogs.put(key, copy(taskDefinitionLog, new TaskDefinitionLog()));
+            }
+        }
+
+        List<TaskDefinitionLog> taskDefinitionLogs = new ArrayList<>(taskDefinitions.size());
+        if (!cachedLogs.isEmpty()) {
+            Set<TaskDefinition> cachedDefinitions = cachedLogs.values().stream()
+                    .map(log -> new TaskDefinition(log.getCode(), log.getVersion()))
+                    .collect(Collectors.toSet());
+            // the flag is the only column changed after the log is inserted, the logs deleted are absent here
+            for (TaskDefinitionLog flag : flagLoader.apply(cachedDefinitions)) {
+                String key = cacheKey(flag.getCode(), flag.getVersion());
+                TaskDefinitionLog taskDefinitionLog = cachedLogs.remove(key);
+                if (taskDefinitionLog == null) {
+                    continue;
+                }
+                // the version is deleted and inserted again, load the new log
+                if (!Objects.equals(taskDefinitionLog.getId(), flag.getId())) {
+                    taskDefinitionLogCache.invalidate(key);
+                    missingDefinitions.add(new TaskDefinition(flag.getCode(), flag.getVersion()));
+                    continue;
+                }
+                if (taskDefinitionLog.getFlag() != flag.getFlag()) {
+                    taskDefinitionLog.setFlag(flag.getFlag());
+                    taskDefinitionLogCache.put(key, copy(taskDefinitionLog, new TaskDefinitionLog()));
+                }
+                taskDefinitionLogs.add(taskDefinitionLog);
+            }
+            cachedLogs.keySet().forEach(taskDefinitionLogCache::invalidate);
+        }
+        if (!missingDefinitions.isEmpty()) {
+            for (TaskDefinitionLog taskDefinitionLog : loader.apply(missingDefinitions)) {
+                taskDefinitionLogCache.put(cacheKey(taskDefinitionLog.getCode(), taskDefinitionLog.getVersion()),
+                        copy(taskDefinitionLog, new TaskDefinitionLog()));
+                taskDefinitionLogs.add(taskDefinitionLog);
+            }
+        }
+        return taskDefinitionLogs;
+    }
+
+    private static String cacheKey(long code, int version) {
+        return code + Constants.UNDERLINE + version;
+    }
+
+    private static <V> Cache<String, V> newCache(long maximumSize) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(Math.max(maximumSize, 0))
+                .recordStats()
+                .build();
+    }
+
+    private static <T> T copy(T source, T target) {
+        BeanUtils.copyProperties(source, target);
+        return target;
+    }
+
+    private static List<ProcessTaskRelationLog> copyRelations(List<ProcessTaskRelationLog> processTaskRelationLogs) {
+        List<ProcessTaskRelationLog> copies = new ArrayList<>(processTaskRelationLogs.size());
+        for (ProcessTaskRelationLog processTaskRelationLog : processTaskRelationLogs) {
+            copies.add(copy(processTaskRelationLog, new ProcessTaskRelationLog()));
+        }
+        return copies;
+    }
+
+    /**
+     * The relation logs of a process definition version and the id of the process definition log they belong to.
+     */
+    private static class ProcessTaskRelationLogs {
+
+        private final int processDefinitionLogId;
+
+        private final List<ProcessTaskRelationLog> logs;
+
+        private ProcessTaskRelationLogs(int processDefinitionLogId, List<ProcessTaskRelationLog> logs) {
+            this.processDefinitionLogId = processDefinitionLogId;
+            this.logs = logs;
+        }
+    }
+
+    private static void registerMetrics(String cacheName, Cache<String, ?> cache) {
+        FunctionCounter.builder("ds.metadata.cache.request.count", cache, c -> c.stats().hitCount())
+                .tag("cache", cacheName)
+                .tag("result", "hit")
+                .description("hit count of the definition log cache")
+                .register(Metrics.globalRegistry);
+        FunctionCounter.builder("ds.metadata.cache.request.count", cache, c -> c.stats().missCount())
+                .tag("cache", cacheName)
+                .tag("result", "miss")
+                .description("miss count of the definition log cache")
+                .register(Metrics.globalRegistry);
+        Gauge.builder("ds.metadata.cache.size", cache, Cache::size)
+                .tag("cache", cacheName)
+                .description("entries of the definition log cache")
+                .register(Metrics.globalRegistry);
+    }
+}
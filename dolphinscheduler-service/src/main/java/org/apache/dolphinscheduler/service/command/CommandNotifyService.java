@@ -14,18 +14,22 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-package org.apache.dolphinscheduler.remote.future;
+
+
+package org.apache.dolphinscheduler.service.command;
+
+import org.apache.dolphinscheduler.remote.command.Command;
 
 /**
- * invoke callback
+ * Notify the masters that a command is available.
  */
-public interface InvokeCallback {
+public interface CommandNotifyService {
 
     /**
-     *  operation
+     * Send the notification to all the masters asynchronously, the notification may be dropped, the masters will
+     * still find the command by polling.
      *
-     * @param responseFuture responseFuture
+     * @param command notify command
      */
-    void operationComplete(final ResponseFuture responseFuture);
-
+    void notifyMasters(Command command);
 }
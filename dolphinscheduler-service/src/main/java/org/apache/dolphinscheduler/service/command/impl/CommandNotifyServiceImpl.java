@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.dolphinscheduler.service.command.impl;
+
+import static org.apache.dolphinscheduler.common.constants.Constants.REGISTRY_DOLPHINSCHEDULER_MASTERS;
+
+import org.apache.dolphinscheduler.common.enums.NodeType;
+import org.apache.dolphinscheduler.common.model.Server;
+import org.apache.dolphinscheduler.registry.api.Event;
+import org.apache.dolphinscheduler.remote.NettyRemotingClient;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
+import org.apache.dolphinscheduler.service.command.CommandNotifyService;
+import org.apache.dolphinscheduler.service.registry.RegistryClient;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Send the command notifications in a single notify thread without blocking on the connection, so a down master
+ * doesn't delay the command creation. The master hosts are reloaded from the registry once a master is added or
+ * removed.
+ */
+@Service
+public class CommandNotifyServiceImpl implements CommandNotifyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommandNotifyServiceImpl.class);
+
+    /**
+     * The notifications exceed the capacity are dropped.
+     */
+    private static final int NOTIFY_QUEUE_CAPACITY = 1000;
+
+    @Autowired
+    private RegistryClient registryClient;
+
+    private final NettyRemotingClient nettyRemotingClient;
+
+    private final ThreadPoolExecutor notifyExecutor;
+
+    /**
+     * set by the registry listener, the master hosts are reloaded before the next notification
+     */
+    private final AtomicBoolean masterHostsChanged = new AtomicBoolean(true);
+
+    /**
+     * only accessed by the notify thread
+     */
+    private Set<Host> masterHosts = Collections.emptySet();
+
+    public CommandNotifyServiceImpl() {
+        this.nettyRemotingClient = new NettyRemotingClient(new NettyClientConfig());
+        this.notifyExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(NOTIFY_QUEUE_CAPACITY), new NamedThreadFactory("CommandNotifyThread"),
+                (runnable, executor) -> logger.warn("The command notify queue is full, drop the notification"));
+    }
+
+    @PostConstruct
+    public void init() {
+        registryClient.subscribe(REGISTRY_DOLPHINSCHEDULER_MASTERS, event -> {
+            if (event.type() != Event.Type.UPDATE) {
+                masterHostsChanged.set(true);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        notifyExecutor.shutdownNow();
+        nettyRemotingClient.close();
+    }
+
+    @Override
+    public void notifyMasters(Command command) {
+        notifyExecutor.execute(() -> {
+            try {
+                if (masterHostsChanged.getAndSet(false)) {
+                    reloadMasterHosts();
+                }
+                for (Host host : masterHosts) {
+                    // connect without blocking, so a down master doesn't delay the notifications of the others
+                    nettyRemotingClient.getChannelAsync(host).whenComplete((channel, ex) -> {
+                        if (ex != null) {
+                            logger.warn("Cannot connect to master: {}, skip the command notification", host);
+                            return;
+                        }
+                        channel.writeAndFlush(command);
+                    });
+                }
+            } catch (Exception e) {
+                logger.warn("Notify masters error, command: {}", command, e);
+            }
+        });
+    }
+
+    private void reloadMasterHosts() {
+        Set<Host> hosts = new HashSet<>();
+        try {
+            List<Server> serverList = registryClient.getServerList(NodeType.MASTER);
+            for (Server server : serverList) {
+                hosts.add(new Host(server.getHost(), server.getPort()));
+            }
+        } catch (Exception e) {
+            // keep the current master hosts and reload next time
+            masterHostsChanged.set(true);
+            throw e;
+        }
+        for (Host host : masterHosts) {
+            if (!hosts.contains(host)) {
+                nettyRemotingClient.closeChannel(host);
+            }
+        }
+        masterHosts = hosts;
+        logger.info("The master hosts of the command notification are reloaded: {}", masterHosts);
+    }
+}
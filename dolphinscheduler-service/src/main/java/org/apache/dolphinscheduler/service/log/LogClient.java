@@ -38,6 +38,8 @@ import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import javax.annotation.Nullable;
 
@@ -179,48 +181,78 @@ public class LogClient implements AutoCloseable {
      * @return remove task status
      */
     public Boolean removeTaskLog(String host, int port, String path) {
+        return removeTaskLogAsync(host, port, path).join();
+    }
+
+    /**
+     * remove task log without blocking the current thread
+     *
+     * @param host host
+     * @param port port
+     * @param path path
+     * @return the future of the remove task status, it's never completed exceptionally
+     */
+    public CompletableFuture<Boolean> removeTaskLogAsync(String host, int port, String path) {
         logger.info("Remove task log from host: {}, port: {}, logPath {}", host, port, path);
         RemoveTaskLogRequestCommand request = new RemoveTaskLogRequestCommand(path);
         final Host address = new Host(host, port);
-        try {
-            Command command = request.convert2Command();
-            Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
+        Command command = request.convert2Command();
+        return this.client.sendAsync(address, command, LOG_REQUEST_TIMEOUT).handle((response, e) -> {
+            if (e != null) {
+                logger.error("Remove task log from host: {}, port: {} logPath: {} error", host, port, path, e);
+                return false;
+            }
             if (response != null) {
                 RemoveTaskLogResponseCommand taskLogResponse =
                         JSONUtils.parseObject(response.getBody(), RemoveTaskLogResponseCommand.class);
                 return taskLogResponse.getStatus();
             }
             return false;
-        } catch (InterruptedException ex) {
-            Thread.currentThread().interrupt();
-            logger.error(
-                    "Remove task log from host: {}, port: {} logPath: {} error, the current thread has been interrupted",
-                    host, port, path, ex);
-            return false;
-        } catch (Exception e) {
-            logger.error("Remove task log from host: {}, port: {} logPath: {} error", host, port, path, e);
-            return false;
-        }
+        });
     }
 
     public @Nullable List<String> getAppIds(@NonNull String host, int port,
                                             @NonNull String taskLogFilePath) throws RemotingException, InterruptedException {
+        try {
+            return getAppIdsAsync(host, port, taskLogFilePath).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RemotingException) {
+                throw (RemotingException) e.getCause();
+            }
+            throw new RemotingException(e.getCause());
+        }
+    }
+
+    /**
+     * get the application ids from the task log without blocking the current thread
+     *
+     * @param host host
+     * @param port port
+     * @param taskLogFilePath task log file path
+     * @return the future of the application ids
+     */
+    public CompletableFuture<List<String>> getAppIdsAsync(@NonNull String host, int port,
+                                                          @NonNull String taskLogFilePath) {
         logger.info("Begin to get appIds from worker: {}:{} taskLogPath: {}", host, port, taskLogFilePath);
         final Host workerAddress = new Host(host, port);
-        List<String> appIds = null;
+        CompletableFuture<List<String>> appIdsFuture;
         if (NetUtils.getHost().equals(host)) {
-            appIds = LogUtils.getAppIdsFromLogFile(taskLogFilePath);
+            appIdsFuture = CompletableFuture.completedFuture(LogUtils.getAppIdsFromLogFile(taskLogFilePath));
         } else {
             final Command command = new GetAppIdRequestCommand(taskLogFilePath).convert2Command();
-            Command response = this.client.sendSync(workerAddress, command, LOG_REQUEST_TIMEOUT);
-            if (response != null) {
+            appIdsFuture = this.client.sendAsync(workerAddress, command, LOG_REQUEST_TIMEOUT).thenApply(response -> {
+                if (response == null) {
+                    return null;
+                }
                 GetAppIdResponseCommand responseCommand =
                         JSONUtils.parseObject(response.getBody(), GetAppIdResponseCommand.class);
-                appIds = responseCommand.getAppIds();
-            }
+                return responseCommand.getAppIds();
+            });
         }
-        logger.info("Get appIds: {} from worker: {}:{} taskLogPath: {}", appIds, host, port, taskLogFilePath);
-        return appIds;
+        return appIdsFuture.thenApply(appIds -> {
+            logger.info("Get appIds: {} from worker: {}:{} taskLogPath: {}", appIds, host, port, taskLogFilePath);
+            return appIds;
+        });
     }
 
     @Override
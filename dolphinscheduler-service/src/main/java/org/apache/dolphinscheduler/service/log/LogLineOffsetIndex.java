@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Sparse line offset index of a log file.
+ * <p>
+ * It records the byte offset of every {@code indexInterval} lines, and is extended incrementally by only scanning
+ * the bytes appended since the last read, so seeking to any line needs at most {@code indexInterval} lines scanning,
+ * and tailing a running task log resumes from the remembered byte offset of the last complete line.
+ */
+class LogLineOffsetIndex {
+
+    static final int DEFAULT_INDEX_INTERVAL = 1000;
+
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+
+    private final int indexInterval;
+
+    /**
+     * offsets[i] is the byte offset of the line i * indexInterval
+     */
+    private long[] offsets = new long[16];
+
+    private int offsetCount;
+
+    /**
+     * the number of complete lines which has been indexed
+     */
+    private long indexedLines;
+
+    /**
+     * the byte offset after the last indexed complete line
+     */
+    private long indexedBytes;
+
+    /**
+     * used to find out the log file has been replaced
+     */
+    private Object fileKey;
+
+    LogLineOffsetIndex(Path path) {
+        this(path, DEFAULT_INDEX_INTERVAL);
+    }
+
+    LogLineOffsetIndex(Path path, int indexInterval) {
+        this.path = path;
+        this.indexInterval = indexInterval;
+        reset(null);
+    }
+
+    /**
+     * Read part of the log file.
+     *
+     * @param skipLine skip line
+     * @param limit read lines limit
+     * @return the lines, the last line may be incomplete if it is being written
+     */
+    synchronized List<String> readLines(long skipLine, int limit) throws IOException {
+        if (limit <= 0 || skipLine < 0) {
+            return Collections.emptyList();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            refresh(channel);
+
+            long startOffset;
+            long linesToSkip;
+            if (skipLine >= indexedLines) {
+                startOffset = indexedBytes;
+                linesToSkip = skipLine - indexedLines;
+            } else {
+                int index = (int) (skipLine / indexInterval);
+                startOffset = offsets[index];
+                linesToSkip = skipLine - (long) index * indexInterval;
+            }
+
+            channel.position(startOffset);
+            BufferedReader reader =
+                    new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            for (long i = 0; i < linesToSkip; i++) {
+                if (reader.readLine() == null) {
+                    return Collections.emptyList();
+                }
+            }
+            List<String> lines = new ArrayList<>(Math.min(limit, indexInterval));
+            String line;
+            while (lines.size() < limit && (line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            return lines;
+        }
+    }
+
+    synchronized long getIndexedLines() {
+        return indexedLines;
+    }
+
+    /**
+     * Extend the index with the appended bytes, rebuild it if the file has been truncated or replaced.
+     */
+    private void refresh(FileChannel channel) throws IOException {
+        Object currentFileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+        long size = channel.size();
+        if (size < indexedBytes || !Objects.equals(currentFileKey, fileKey)) {
+            reset(currentFileKey);
+        }
+        if (size == indexedBytes) {
+            return;
+        }
+
+        // a line ends with '\n', '\r' or "\r\n" as BufferedReader#readLine does, so a '\r' is pending until the next
+        // byte is read, which may be in the next buffer, and the last '\r' of the file is left to the next refresh
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = indexedBytes;
+        boolean pendingCarriageReturn = false;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte b = buffer.get(i);
+                long offset = position + i;
+                if (pendingCarriageReturn) {
+                    pendingCarriageReturn = false;
+                    if (b == '\n') {
+                        addLine(offset + 1);
+                        continue;
+                    }
+                    addLine(offset);
+                }
+                if (b == '\n') {
+                    addLine(offset + 1);
+                } else if (b == '\r') {
+                    pendingCarriageReturn = true;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private void addLine(long lineEndOffset) {
+        indexedLines++;
+        indexedBytes = lineEndOffset;
+        if (indexedLines % indexInterval == 0) {
+            addOffset(indexedBytes);
+        }
+    }
+
+    private void addOffset(long offset) {
+        if (offsetCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[offsetCount++] = offset;
+    }
+
+    private void reset(Object fileKey) {
+        this.fileKey = fileKey;
+        this.offsets = new long[16];
+        this.offsetCount = 0;
+        this.indexedLines = 0;
+        this.indexedBytes = 0;
+        addOffset(0);
+    }
+}
@@ -44,19 +44,21 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import io.netty.channel.Channel;
 
 /**
@@ -69,6 +71,14 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
 
     private final ExecutorService executor;
 
+    /**
+     * The line offset index of the recently viewed log files, key is the log path.
+     */
+    private final Cache<String, LogLineOffsetIndex> logLineOffsetIndexCache = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .build();
+
     public LoggerRequestProcessor() {
         this.executor = Executors.newFixedThreadPool(Constants.CPUS * 2 + 1,
                 new NamedThreadFactory("Log-Request-Process-Thread"));
@@ -146,6 +156,7 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 if (!checkPathSecurity(taskLogPath)) {
                     throw new IllegalArgumentException("Illegal path: " + taskLogPath);
                 }
+                logLineOffsetIndexCache.invalidate(taskLogPath);
                 File taskLogFile = new File(taskLogPath);
                 boolean status = true;
                 try {
@@ -232,13 +243,15 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                                              int limit) {
         File file = new File(filePath);
         if (file.exists() && file.isFile()) {
-            try (Stream<String> stream = Files.lines(Paths.get(filePath))) {
-                return stream.skip(skipLine).limit(limit).collect(Collectors.toList());
-            } catch (IOException e) {
+            try {
+                return logLineOffsetIndexCache.get(filePath, () -> new LogLineOffsetIndex(Paths.get(filePath)))
+                        .readLines(skipLine, limit);
+            } catch (IOException | ExecutionException e) {
                 logger.error("read file error", e);
             }
         } else {
             logger.info("file path: {} not exists", filePath);
+            logLineOffsetIndexCache.invalidate(filePath);
         }
         return Collections.emptyList();
     }
@@ -68,6 +68,7 @@ public interface ProcessService {
     ProcessInstance handleCommand(String host,
                                   Command command) throws CronParseException, CodeGenerateUtils.CodeGenerateException;
 
+    @Transactional
     void moveToErrorCommand(Command command, String message);
 
     int createCommand(Command command);
@@ -88,6 +89,8 @@ public interface ProcessService {
 
     ProcessDefinition findProcessDefinition(Long processDefinitionCode, int processDefinitionVersion);
 
+    void packageProcessDefinitions(List<ProcessInstance> processInstances);
+
     ProcessDefinition findProcessDefinitionByCode(Long processDefinitionCode);
 
     int deleteWorkProcessInstanceById(int processInstanceId);
@@ -135,6 +138,8 @@ public interface ProcessService {
 
     boolean updateTaskInstance(TaskInstance taskInstance);
 
+    int[] batchUpdateTaskInstance(List<TaskInstance> taskInstances);
+
     TaskInstance findTaskInstanceById(Integer taskId);
 
     List<TaskInstance> findTaskInstanceByIdList(List<Integer> idList);
@@ -147,6 +152,8 @@ public interface ProcessService {
 
     List<TaskInstance> findValidTaskListByProcessId(Integer processInstanceId);
 
+    List<TaskInstance> findValidTaskListByProcessIds(List<Integer> processInstanceIds);
+
     List<TaskInstance> findPreviousTaskListByWorkProcessId(Integer processInstanceId);
 
     int updateWorkProcessInstanceMap(ProcessInstanceMap processInstanceMap);
@@ -175,8 +182,8 @@ public interface ProcessService {
 
     List<String> queryNeedFailoverProcessInstanceHost();
 
-    @Transactional
-    void processNeedFailoverProcessInstances(ProcessInstance processInstance);
+    void processNeedFailoverProcessInstances(List<ProcessInstance> processInstances,
+                                             List<TaskInstance> failoverTaskInstances);
 
     List<TaskInstance> queryNeedFailoverTaskInstances(String host);
 
@@ -126,9 +126,12 @@ import org.apache.dolphinscheduler.plugin.task.api.parameters.ParametersNode;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.SubProcessParameters;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.TaskTimeoutParameter;
 import org.apache.dolphinscheduler.remote.command.TaskEventChangeCommand;
+import org.apache.dolphinscheduler.remote.command.WorkflowCommandNotifyCommand;
 import org.apache.dolphinscheduler.remote.command.WorkflowStateEventChangeCommand;
 import org.apache.dolphinscheduler.remote.processor.StateEventCallbackService;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.service.cache.DefinitionLogCacheManager;
+import org.apache.dolphinscheduler.service.command.CommandNotifyService;
 import org.apache.dolphinscheduler.service.cron.CronUtils;
 import org.apache.dolphinscheduler.service.exceptions.CronParseException;
 import org.apache.dolphinscheduler.service.exceptions.ServiceException;
@@ -139,13 +142,21 @@ import org.apache.dolphinscheduler.service.task.TaskPluginManager;
 import org.apache.dolphinscheduler.service.utils.ClusterConfUtils;
 import org.apache.dolphinscheduler.service.utils.DagHelper;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.annotation.Nullable;
+import javax.annotation.PostConstruct;
 import org.apache.commons.collections.MapUtils;
 
 import java.util.ArrayList;
@@ -160,6 +171,7 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -169,6 +181,18 @@ import java.util.stream.Collectors;
 @Component
 public class ProcessServiceImpl implements ProcessService {
 
+    /**
+     * The max number of the failover commands notified to the masters in one batch, the ids of the commands in one
+     * batch are continuous, so the commands notified can wake up the masters with different slots.
+     */
+    private static final int FAILOVER_COMMAND_NOTIFY_SIZE = 16;
+
+    /**
+     * The max number of the task logs removed concurrently, it should be less than the async requests the log client
+     * allows in flight, otherwise the requests exceeding it fail at once.
+     */
+    private static final int REMOVE_TASK_LOG_BATCH_SIZE = 100;
+
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
     @Autowired
@@ -196,6 +220,18 @@ public class ProcessServiceImpl implements ProcessService {
     @Autowired
     private TaskInstanceMapper taskInstanceMapper;
 
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Executes the statements in jdbc batch, it should be only used in the transaction of transactionTemplate, and
+     * not mixed with the mappers in one transaction, since the executor type of a transaction can't be changed.
+     */
+    private SqlSessionTemplate batchSqlSessionTemplate;
+
     @Autowired
     private CommandMapper commandMapper;
 
@@ -244,6 +280,9 @@ public class ProcessServiceImpl implements ProcessService {
     @Autowired
     private TaskDefinitionLogMapper taskDefinitionLogMapper;
 
+    @Autowired
+    private DefinitionLogCacheManager definitionLogCacheManager;
+
     @Autowired
     private ProcessTaskRelationMapper processTaskRelationMapper;
 
@@ -277,6 +316,14 @@ public class ProcessServiceImpl implements ProcessService {
     @Autowired
     private LogClient logClient;
 
+    @Autowired
+    private CommandNotifyService commandNotifyService;
+
+    @PostConstruct
+    public void init() {
+        this.batchSqlSessionTemplate = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+    }
+
     /**
      * handle Command (construct ProcessInstance from Command) , wrapped in transaction
      *
@@ -379,17 +426,20 @@ public class ProcessServiceImpl implements ProcessService {
     }
 
     /**
-     * Save error command, and delete original command. If the given command has already been moved into error command,
-     * will throw {@link java.sql.SQLIntegrityConstraintViolationException ).
+     * Save error command, and delete original command. If the given command doesn't exist anymore, e.g. it has been
+     * consumed or moved into error command, will skip it.
      *
      * @param command command
      * @param message message
      */
     @Override
     public void moveToErrorCommand(Command command, String message) {
+        if (this.commandMapper.deleteById(command.getId()) != 1) {
+            logger.warn("The command: {} doesn't exist, skip moving it to error command", command.getId());
+            return;
+        }
         ErrorCommand errorCommand = new ErrorCommand(command, message);
         this.errorCommandMapper.insert(errorCommand);
-        this.commandMapper.deleteById(command.getId());
     }
 
     /**
@@ -414,9 +464,37 @@ public class ProcessServiceImpl implements ProcessService {
         }
         command.setId(null);
         result = commandMapper.insert(command);
+        if (result > 0) {
+            notifyCommandAvailable(command);
+        }
         return result;
     }
 
+    /**
+     * Wake up the masters once the command is visible in the database, the master will check the slot by itself.
+     * If the notification is lost the master will still find the command by polling.
+     *
+     * @param command command
+     */
+    private void notifyCommandAvailable(Command command) {
+        if (command.getId() == null) {
+            return;
+        }
+        final org.apache.dolphinscheduler.remote.command.Command notifyCommand =
+                new WorkflowCommandNotifyCommand(command.getId()).convert2Command();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+                @Override
+                public void afterCommit() {
+                    commandNotifyService.notifyMasters(notifyCommand);
+                }
+            });
+        } else {
+            commandNotifyService.notifyMasters(notifyCommand);
+        }
+    }
+
     /**
      * get command page
      */
@@ -540,7 +618,9 @@ public class ProcessServiceImpl implements ProcessService {
     public ProcessDefinition findProcessDefinition(Long processDefinitionCode, int version) {
         ProcessDefinition processDefinition = processDefineMapper.queryByCode(processDefinitionCode);
         if (processDefinition == null || processDefinition.getVersion() != version) {
-            processDefinition = processDefineLogMapper.queryByDefinitionCodeAndVersion(processDefinitionCode, version);
+            processDefinition = definitionLogCacheManager.getProcessDefinitionLog(processDefinitionCode, version,
+                    () -> processDefineLogMapper.queryIdByDefinitionCodeAndVersion(processDefinitionCode, version),
+                    () -> processDefineLogMapper.queryByDefinitionCodeAndVersion(processDefinitionCode, version));
             if (processDefinition != null) {
                 processDefinition.setId(0);
             }
@@ -548,6 +628,49 @@ public class ProcessServiceImpl implements ProcessService {
         return processDefinition;
     }
 
+    /**
+     * Set the process definitions of the process instances, the latest definitions are queried by one query, the
+     * definitions of the old versions are queried from the definition log once per code and version.
+     *
+     * @param processInstances process instances
+     */
+    @Override
+    public void packageProcessDefinitions(List<ProcessInstance> processInstances) {
+        if (CollectionUtils.isEmpty(processInstances)) {
+            return;
+        }
+        Set<Long> processDefinitionCodes = processInstances.stream()
+                .map(ProcessInstance::getProcessDefinitionCode)
+                .collect(toSet());
+        Map<Long, ProcessDefinition> latestProcessDefinitions = processDefineMapper.queryByCodes(processDefinitionCodes)
+                .stream()
+                .collect(Collectors.toMap(ProcessDefinition::getCode, Function.identity(), (a, b) -> a));
+        Map<String, ProcessDefinition> oldProcessDefinitions = new HashMap<>();
+        for (ProcessInstance processInstance : processInstances) {
+            long processDefinitionCode = processInstance.getProcessDefinitionCode();
+            int version = processInstance.getProcessDefinitionVersion();
+            ProcessDefinition processDefinition = latestProcessDefinitions.get(processDefinitionCode);
+            if (processDefinition == null || processDefinition.getVersion() != version) {
+                String key = processDefinitionCode + Constants.UNDERLINE + version;
+                if (oldProcessDefinitions.containsKey(key)) {
+                    processDefinition = oldProcessDefinitions.get(key);
+                } else {
+                    processDefinition = definitionLogCacheManager.getProcessDefinitionLog(processDefinitionCode,
+                            version,
+                            () -> processDefineLogMapper.queryIdByDefinitionCodeAndVersion(processDefinitionCode,
+                                    version),
+                            () -> processDefineLogMapper.queryByDefinitionCodeAndVersion(processDefinitionCode,
+                                    version));
+                    if (processDefinition != null) {
+                        processDefinition.setId(0);
+                    }
+                    oldProcessDefinitions.put(key, processDefinition);
+                }
+            }
+            processInstance.setProcessDefinition(processDefinition);
+        }
+    }
+
     /**
      * find process define by code.
      *
@@ -601,15 +724,28 @@ public class ProcessServiceImpl implements ProcessService {
         if (CollectionUtils.isEmpty(taskInstanceList)) {
             return;
         }
+        List<CompletableFuture<Boolean>> removeFutures = new ArrayList<>();
         for (TaskInstance taskInstance : taskInstanceList) {
             String taskLogPath = taskInstance.getLogPath();
             if (Strings.isNullOrEmpty(taskInstance.getHost())) {
                 continue;
             }
             Host host = Host.of(taskInstance.getHost());
-            // remove task log from loggerserver
-            logClient.removeTaskLog(host.getIp(), host.getPort(), taskLogPath);
+            // remove task log from loggerserver, the logs of the tasks in one batch are removed concurrently
+            removeFutures.add(logClient.removeTaskLogAsync(host.getIp(), host.getPort(), taskLogPath));
+            if (removeFutures.size() >= REMOVE_TASK_LOG_BATCH_SIZE) {
+                waitRemoveTaskLogs(removeFutures);
+            }
         }
+        waitRemoveTaskLogs(removeFutures);
+    }
+
+    /**
+     * The futures are never completed exceptionally, and they are completed within the request timeout.
+     */
+    private void waitRemoveTaskLogs(List<CompletableFuture<Boolean>> removeFutures) {
+        CompletableFuture.allOf(removeFutures.toArray(new CompletableFuture[0])).join();
+        removeFutures.clear();
     }
 
     /**
@@ -1091,8 +1227,14 @@ public class ProcessServiceImpl implements ProcessService {
                     return null;
                 }
 
-                return processDefineLogMapper.queryByDefinitionCodeAndVersion(
-                        processInstance.getProcessDefinitionCode(), processInstance.getProcessDefinitionVersion());
+                return definitionLogCacheManager.getProcessDefinitionLog(processInstance.getProcessDefinitionCode(),
+                        processInstance.getProcessDefinitionVersion(),
+                        () -> processDefineLogMapper.queryIdByDefinitionCodeAndVersion(
+                                processInstance.getProcessDefinitionCode(),
+                                processInstance.getProcessDefinitionVersion()),
+                        () -> processDefineLogMapper.queryByDefinitionCodeAndVersion(
+                                processInstance.getProcessDefinitionCode(),
+                                processInstance.getProcessDefinitionVersion()));
             }
         }
 
@@ -1713,6 +1855,38 @@ public class ProcessServiceImpl implements ProcessService {
         return count > 0;
     }
 
+    /**
+     * update task instances in one jdbc batch and one transaction
+     *
+     * @param taskInstances taskInstances
+     * @return the update count of each task instance, the count may be {@link java.sql.Statement#SUCCESS_NO_INFO}
+     * if the jdbc driver doesn't return the count of the batch
+     */
+    @Override
+    public int[] batchUpdateTaskInstance(List<TaskInstance> taskInstances) {
+        int[] updateCounts = new int[taskInstances.size()];
+        if (taskInstances.isEmpty()) {
+            return updateCounts;
+        }
+        // the transaction is rolled back and the exception is thrown if any of the statements failed
+        List<BatchResult> batchResults = transactionTemplate.execute(status -> {
+            TaskInstanceMapper batchTaskInstanceMapper = batchSqlSessionTemplate.getMapper(TaskInstanceMapper.class);
+            for (TaskInstance taskInstance : taskInstances) {
+                batchTaskInstanceMapper.updateById(taskInstance);
+            }
+            return batchSqlSessionTemplate.flushStatements();
+        });
+        int index = 0;
+        for (BatchResult batchResult : batchResults) {
+            for (int updateCount : batchResult.getUpdateCounts()) {
+                if (index < updateCounts.length) {
+                    updateCounts[index++] = updateCount;
+                }
+            }
+        }
+        return updateCounts;
+    }
+
     /**
      * find task instance by id
      *
@@ -1847,6 +2021,20 @@ public class ProcessServiceImpl implements ProcessService {
         return taskInstanceMapper.findValidTaskListByProcessId(processInstanceId, Flag.YES);
     }
 
+    /**
+     * find valid task list of the process instances by one query
+     *
+     * @param processInstanceIds processInstanceIds
+     * @return task instance list
+     */
+    @Override
+    public List<TaskInstance> findValidTaskListByProcessIds(List<Integer> processInstanceIds) {
+        if (CollectionUtils.isEmpty(processInstanceIds)) {
+            return new ArrayList<>();
+        }
+        return taskInstanceMapper.findValidTaskListByProcessIds(processInstanceIds, Flag.YES);
+    }
+
     /**
      * find previous task list by work process id
      *
@@ -2063,30 +2251,67 @@ public class ProcessServiceImpl implements ProcessService {
     }
 
     /**
-     * process need failover process instance
+     * Failover the process instances in one jdbc batch and one transaction: the failover task instances are updated,
+     * the host of the process instances are set to null to mark they have been failover, and the recover commands
+     * are inserted. Only some of the commands are notified to the masters, since the master will keep fetching
+     * commands once it is woken up.
      *
-     * @param processInstance processInstance
+     * @param processInstances process instances
+     * @param failoverTaskInstances the task instances of the process instances which have been set to failover
      */
     @Override
-    @Transactional
-    public void processNeedFailoverProcessInstances(ProcessInstance processInstance) {
-        // 1 update processInstance host is null
-        processInstance.setHost(Constants.NULL);
-        processInstanceMapper.updateById(processInstance);
-
-        ProcessDefinition processDefinition = findProcessDefinition(processInstance.getProcessDefinitionCode(),
-                processInstance.getProcessDefinitionVersion());
-
-        // 2 insert into recover command
-        Command cmd = new Command();
-        cmd.setProcessDefinitionCode(processDefinition.getCode());
-        cmd.setProcessDefinitionVersion(processDefinition.getVersion());
-        cmd.setProcessInstanceId(processInstance.getId());
-        cmd.setCommandParam(JSONUtils.toJsonString(createCommandParams(processInstance)));
-        cmd.setExecutorId(processInstance.getExecutorId());
-        cmd.setCommandType(CommandType.RECOVER_TOLERANCE_FAULT_PROCESS);
-        cmd.setProcessInstancePriority(processInstance.getProcessInstancePriority());
-        createCommand(cmd);
+    public void processNeedFailoverProcessInstances(List<ProcessInstance> processInstances,
+                                                    List<TaskInstance> failoverTaskInstances) {
+        if (CollectionUtils.isEmpty(processInstances)) {
+            return;
+        }
+        List<Long> processDefinitionCodes = processInstances.stream()
+                .map(ProcessInstance::getProcessDefinitionCode)
+                .distinct()
+                .collect(Collectors.toList());
+        // the timezone of the schedule may be null
+        Map<Long, String> scheduleTimezones = new HashMap<>();
+        for (Schedule schedule : scheduleMapper.querySchedulesByProcessDefinitionCodes(processDefinitionCodes)) {
+            scheduleTimezones.putIfAbsent(schedule.getProcessDefinitionCode(), schedule.getTimezoneId());
+        }
+
+        List<Command> commands = new ArrayList<>(processInstances.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            TaskInstanceMapper batchTaskInstanceMapper = batchSqlSessionTemplate.getMapper(TaskInstanceMapper.class);
+            ProcessInstanceMapper batchProcessInstanceMapper =
+                    batchSqlSessionTemplate.getMapper(ProcessInstanceMapper.class);
+            CommandMapper batchCommandMapper = batchSqlSessionTemplate.getMapper(CommandMapper.class);
+            for (TaskInstance taskInstance : failoverTaskInstances) {
+                batchTaskInstanceMapper.updateById(taskInstance);
+            }
+            for (ProcessInstance processInstance : processInstances) {
+                // 1 update processInstance host is null
+                processInstance.setHost(Constants.NULL);
+                batchProcessInstanceMapper.updateById(processInstance);
+
+                // 2 insert into recover command
+                Map<String, Object> commandParams = createCommandParams(processInstance);
+                if (scheduleTimezones.containsKey(processInstance.getProcessDefinitionCode())) {
+                    commandParams.put(Constants.SCHEDULE_TIMEZONE,
+                            scheduleTimezones.get(processInstance.getProcessDefinitionCode()));
+                }
+                Command cmd = new Command();
+                cmd.setProcessDefinitionCode(processInstance.getProcessDefinitionCode());
+                cmd.setProcessDefinitionVersion(processInstance.getProcessDefinitionVersion());
+                cmd.setProcessInstanceId(processInstance.getId());
+                cmd.setCommandParam(JSONUtils.toJsonString(commandParams));
+                cmd.setExecutorId(processInstance.getExecutorId());
+                cmd.setCommandType(CommandType.RECOVER_TOLERANCE_FAULT_PROCESS);
+                cmd.setProcessInstancePriority(processInstance.getProcessInstancePriority());
+                batchCommandMapper.insert(cmd);
+                commands.add(cmd);
+            }
+            // the generated ids of the commands are set after flushed
+            batchSqlSessionTemplate.flushStatements();
+        });
+        commands.stream()
+                .limit(FAILOVER_COMMAND_NOTIFY_SIZE)
+                .forEach(this::notifyCommandAvailable);
     }
 
     /**
@@ -2722,12 +2947,11 @@ public class ProcessServiceImpl implements ProcessService {
         if (taskDefinitionSet.isEmpty()) {
             return Lists.newArrayList();
         }
-        return taskDefinitionLogMapper.queryByTaskDefinitions(taskDefinitionSet);
+        return queryTaskDefinitionLogs(taskDefinitionSet);
     }
 
     @Override
     public List<TaskDefinitionLog> getTaskDefineLogListByRelation(List<ProcessTaskRelation> processTaskRelations) {
-        List<TaskDefinitionLog> taskDefinitionLogs = new ArrayList<>();
         Map<Long, Integer> taskCodeVersionMap = new HashMap<>();
         for (ProcessTaskRelation processTaskRelation : processTaskRelations) {
             if (processTaskRelation.getPreTaskCode() > 0) {
@@ -2737,10 +2961,23 @@ public class ProcessServiceImpl implements ProcessService {
                 taskCodeVersionMap.put(processTaskRelation.getPostTaskCode(), processTaskRelation.getPostTaskVersion());
             }
         }
-        taskCodeVersionMap.forEach((code, version) -> {
-            taskDefinitionLogs.add((TaskDefinitionLog) this.findTaskDefinition(code, version));
-        });
-        return taskDefinitionLogs;
+        if (taskCodeVersionMap.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Set<TaskDefinition> taskDefinitionSet = taskCodeVersionMap.entrySet().stream()
+                .map(entry -> new TaskDefinition(entry.getKey(), entry.getValue()))
+                .collect(toSet());
+        return queryTaskDefinitionLogs(taskDefinitionSet);
+    }
+
+    /**
+     * Query the task definition logs by one query, the logs cached on the master are only revalidated by the ids and
+     * flags.
+     */
+    private List<TaskDefinitionLog> queryTaskDefinitionLogs(Set<TaskDefinition> taskDefinitionSet) {
+        return definitionLogCacheManager.getTaskDefinitionLogs(taskDefinitionSet,
+                taskDefinitionLogMapper::queryByTaskDefinitions,
+                taskDefinitionLogMapper::queryFlagsByTaskDefinitions);
     }
 
     /**
@@ -2756,8 +2993,12 @@ public class ProcessServiceImpl implements ProcessService {
      */
     @Override
     public List<ProcessTaskRelation> findRelationByCode(long processDefinitionCode, int processDefinitionVersion) {
-        List<ProcessTaskRelationLog> processTaskRelationLogList = processTaskRelationLogMapper
-                .queryByProcessCodeAndVersion(processDefinitionCode, processDefinitionVersion);
+        List<ProcessTaskRelationLog> processTaskRelationLogList = definitionLogCacheManager.getProcessTaskRelationLogs(
+                processDefinitionCode, processDefinitionVersion,
+                () -> processDefineLogMapper.queryIdByDefinitionCodeAndVersion(processDefinitionCode,
+                        processDefinitionVersion),
+                () -> processTaskRelationLogMapper.queryByProcessCodeAndVersion(processDefinitionCode,
+                        processDefinitionVersion));
         return processTaskRelationLogList.stream().map(r -> (ProcessTaskRelation) r).collect(Collectors.toList());
     }
 
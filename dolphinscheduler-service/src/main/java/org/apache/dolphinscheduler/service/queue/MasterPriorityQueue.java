@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.service.queue;
 import org.apache.dolphinscheduler.common.model.Server;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -41,6 +42,8 @@ public class MasterPriorityQueue implements TaskPriorityQueue<Server> {
 
     private HashMap<String, Integer> hostIndexMap = new HashMap<>();
 
+    private List<String> hostList = new ArrayList<>();
+
     @Override
     public void put(Server serverInfo) {
         this.queue.put(serverInfo);
@@ -80,12 +83,14 @@ public class MasterPriorityQueue implements TaskPriorityQueue<Server> {
 
     private void refreshMasterList() {
         hostIndexMap.clear();
+        hostList.clear();
         Iterator<Server> iterator = queue.iterator();
         int index = 0;
         while (iterator.hasNext()) {
             Server server = iterator.next();
             String addr = NetUtils.getAddr(server.getHost(), server.getPort());
             hostIndexMap.put(addr, index);
+            hostList.add(addr);
             index += 1;
         }
 
@@ -98,6 +103,19 @@ public class MasterPriorityQueue implements TaskPriorityQueue<Server> {
         return hostIndexMap.get(addr);
     }
 
+    /**
+     * get the address of the master at the given index
+     *
+     * @param index index
+     * @return address, or null if there is no master at the index
+     */
+    public String getAddr(int index) {
+        if (index < 0 || index >= hostList.size()) {
+            return null;
+        }
+        return hostList.get(index);
+    }
+
     /**
      * server comparator, used to sort server by createTime in reverse order.
      */
@@ -65,15 +65,9 @@ public class TaskPriority implements Comparable<TaskPriority> {
      */
     private Map<String, String> context;
 
-    /**
-     * checkpoint
-     */
-    private long checkpoint;
-
     private int taskGroupPriority;
 
     public TaskPriority() {
-        this.checkpoint = System.currentTimeMillis();
     }
 
     public TaskPriority(int processInstancePriority,
@@ -87,7 +81,6 @@ public class TaskPriority implements Comparable<TaskPriority> {
         this.taskId = taskId;
         this.taskGroupPriority = taskGroupPriority;
         this.groupName = groupName;
-        this.checkpoint = System.currentTimeMillis();
     }
 
     public int getProcessInstancePriority() {
@@ -146,14 +139,6 @@ public class TaskPriority implements Comparable<TaskPriority> {
         this.taskExecutionContext = taskExecutionContext;
     }
 
-    public long getCheckpoint() {
-        return checkpoint;
-    }
-
-    public void setCheckpoint(long checkpoint) {
-        this.checkpoint = checkpoint;
-    }
-
     public int getTaskGroupPriority() {
         return taskGroupPriority;
     }
@@ -196,10 +181,7 @@ public class TaskPriority implements Comparable<TaskPriority> {
         }
         String thisGroupName = StringUtils.isNotBlank(this.getGroupName()) ? this.getGroupName() : Constants.EMPTY_STRING;
         String otherGroupName = StringUtils.isNotBlank(other.getGroupName()) ? other.getGroupName() : Constants.EMPTY_STRING;
-        if(!thisGroupName.equals(otherGroupName)){
-            return thisGroupName.compareTo(otherGroupName);
-        }
-        return Long.compare(this.getCheckpoint(), other.getCheckpoint());
+        return thisGroupName.compareTo(otherGroupName);
     }
 
     @Override
@@ -247,8 +229,6 @@ public class TaskPriority implements Comparable<TaskPriority> {
             + '\''
             + ", context="
             + context
-            + ", checkpoint="
-            + checkpoint
             + ", taskGroupPriority="
             + taskGroupPriority
             + '}';
@@ -0,0 +1,329 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.storage;
+
+import org.apache.dolphinscheduler.common.constants.Constants;
+import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Parallel multipart upload and ranged download of the object storages.
+ * <p>
+ * An upload reads the stream part by part and uploads the parts in parallel, at most {@code concurrency} parts
+ * are buffered in memory for each upload, and at most {@code maxBufferedBytes} for all the uploads. A download
+ * splits the object into ranges of the part size and writes them to the positions of the local file in parallel.
+ * The parts of all the transfers are executed in the same thread pool of {@code threads} threads.
+ */
+public final class MultipartTransfer {
+
+    /**
+     * The min size of the parts except the last one, required by S3 and OSS.
+     */
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private static final int MAX_PART_SIZE = 1024 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final int partSize;
+
+    private final int concurrency;
+
+    /**
+     * Each part buffered by the uploads holds a permit from it is allocated until it is uploaded.
+     */
+    private final Semaphore bufferPermits;
+
+    private final ExecutorService transferExecutor;
+
+    MultipartTransfer(int partSize, int concurrency, int threads, long maxBufferedBytes) {
+        this.partSize = partSize;
+        this.concurrency = concurrency;
+        this.bufferPermits = new Semaphore((int) Math.max(1, Math.min(Integer.MAX_VALUE, maxBufferedBytes / partSize)));
+        this.transferExecutor = ThreadUtils.newDaemonFixedThreadExecutor("StorageTransferThread", threads);
+    }
+
+    private static class MultipartTransferHolder {
+
+        private static final MultipartTransfer INSTANCE = new MultipartTransfer(
+                (int) Math.min(MAX_PART_SIZE, Math.max(MIN_PART_SIZE,
+                        PropertyUtils.getLong(Constants.RESOURCE_TRANSFER_PART_SIZE,
+                                Constants.DEFAULT_RESOURCE_TRANSFER_PART_SIZE))),
+                Math.max(1, PropertyUtils.getInt(Constants.RESOURCE_TRANSFER_CONCURRENCY,
+                        Constants.DEFAULT_RESOURCE_TRANSFER_CONCURRENCY)),
+                Math.max(1, PropertyUtils.getInt(Constants.RESOURCE_TRANSFER_THREADS,
+                        Constants.DEFAULT_RESOURCE_TRANSFER_THREADS)),
+                PropertyUtils.getLong(Constants.RESOURCE_TRANSFER_MAX_BUFFER_SIZE,
+                        Constants.DEFAULT_RESOURCE_TRANSFER_MAX_BUFFER_SIZE));
+    }
+
+    public static MultipartTransfer getInstance() {
+        return MultipartTransferHolder.INSTANCE;
+    }
+
+    /**
+     * Upload the content of the stream, the content not larger than the part size is put directly, otherwise it
+     * is uploaded by the multipart upload, and the upload is aborted if any part is failed.
+     *
+     * @param inputStream the content, it is not closed
+     * @param contentLength the length of the content, -1 if unknown
+     * @param uploader the upload of the storage
+     * @return the bytes uploaded
+     */
+    public <P> long upload(InputStream inputStream, long contentLength,
+                           MultipartUploader<P> uploader) throws IOException {
+        if (contentLength >= 0 && contentLength <= partSize) {
+            uploader.put(inputStream, contentLength);
+            return contentLength;
+        }
+        acquire(bufferPermits);
+        // whether the part being read holds a buffer permit, the permit is passed to the part once it is submitted
+        boolean holdingBuffer = true;
+        String uploadId = null;
+        List<CompletableFuture<P>> parts = new ArrayList<>();
+        try {
+            byte[] part = new byte[partSize];
+            int length = readFully(inputStream, part);
+            if (length < partSize) {
+                uploader.put(new ByteArrayInputStream(part, 0, length), length);
+                return length;
+            }
+
+            uploadId = uploader.initiate();
+            Semaphore permits = new Semaphore(concurrency);
+            long uploadedBytes = 0;
+            // each part in upload holds a permit, so at most concurrency parts are buffered
+            acquire(permits);
+            while (true) {
+                parts.add(uploadPartAsync(uploader, uploadId, parts.size() + 1, part, length, permits));
+                holdingBuffer = false;
+                uploadedBytes += length;
+                if (length < partSize || parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+                acquire(permits);
+                try {
+                    acquire(bufferPermits);
+                    holdingBuffer = true;
+                    part = new byte[partSize];
+                    length = readFully(inputStream, part);
+                } catch (IOException e) {
+                    permits.release();
+                    throw e;
+                }
+                if (length == 0) {
+                    permits.release();
+                    bufferPermits.release();
+                    holdingBuffer = false;
+                    break;
+                }
+            }
+            List<P> partResults = new ArrayList<>(parts.size());
+            for (CompletableFuture<P> partFuture : parts) {
+                partResults.add(join(partFuture));
+            }
+            uploader.complete(uploadId, partResults);
+            return uploadedBytes;
+        } catch (IOException | RuntimeException e) {
+            parts.forEach(partFuture -> partFuture.cancel(false));
+            if (uploadId != null) {
+                uploader.abort(uploadId);
+            }
+            throw e;
+        } finally {
+            if (holdingBuffer) {
+                bufferPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Upload the part in the transfer thread pool, the permits are released even if the part is cancelled before
+     * it is executed.
+     */
+    private <P> CompletableFuture<P> uploadPartAsync(MultipartUploader<P> uploader, String uploadId, int partNumber,
+                                                     byte[] part, int length, Semaphore permits) {
+        CompletableFuture<P> future = new CompletableFuture<>();
+        transferExecutor.execute(() -> {
+            try {
+                if (!future.isDone()) {
+                    future.complete(uploader.uploadPart(uploadId, partNumber, part, length));
+                }
+            } catch (IOException | RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                permits.release();
+                bufferPermits.release();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Download the object to the local file, the object larger than the part size is downloaded by ranges in
+     * parallel.
+     *
+     * @param contentLength the length of the object
+     * @param dstFile the local file, it is overwritten
+     * @param reader opens the stream of a range of the object
+     */
+    public void download(long contentLength, File dstFile, RangeReader reader) throws IOException {
+        try (
+                RandomAccessFile file = new RandomAccessFile(dstFile, "rw");
+                FileChannel channel = file.getChannel()) {
+            file.setLength(contentLength);
+            if (contentLength <= partSize) {
+                if (contentLength > 0) {
+                    writeRange(reader, channel, 0, contentLength - 1);
+                }
+                return;
+            }
+            Semaphore permits = new Semaphore(concurrency);
+            List<CompletableFuture<Void>> ranges = new ArrayList<>();
+            try {
+                for (long start = 0; start < contentLength; start += partSize) {
+                    long rangeStart = start;
+                    long rangeEnd = Math.min(contentLength, start + partSize) - 1;
+                    acquire(permits);
+                    ranges.add(CompletableFuture.runAsync(() -> {
+                        try {
+                            writeRange(reader, channel, rangeStart, rangeEnd);
+                        } catch (IOException e) {
+                            throw new CompletionException(e);
+                        } finally {
+                            permits.release();
+                        }
+                    }, transferExecutor));
+                }
+                for (CompletableFuture<Void> range : ranges) {
+                    join(range);
+                }
+            } catch (IOException | RuntimeException e) {
+                ranges.forEach(range -> range.cancel(false));
+                throw e;
+            }
+        }
+    }
+
+    private void writeRange(RangeReader reader, FileChannel channel, long start, long end) throws IOException {
+        long position = start;
+        try (InputStream inputStream = reader.open(start, end)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int length;
+            while (position <= end && (length = inputStream.read(buffer)) > 0) {
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, (int) Math.min(length, end - position + 1));
+                while (byteBuffer.hasRemaining()) {
+                    position += channel.write(byteBuffer, position);
+                }
+            }
+        }
+        if (position <= end) {
+            throw new IOException(String.format("the range %d-%d is incomplete, only %d bytes are read",
+                    start, end, position - start));
+        }
+    }
+
+    private static int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int offset = 0;
+        int length;
+        while (offset < buffer.length && (length = inputStream.read(buffer, offset, buffer.length - offset)) > 0) {
+            offset += length;
+        }
+        return offset;
+    }
+
+    private static void acquire(Semaphore permits) throws InterruptedIOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the parts in transfer");
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for the parts in transfer");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            // e.g. the service exceptions of the storage sdk, they are handled by the callers as the same
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * The upload of a storage.
+     *
+     * @param <P> the result of a part, e.g. the part ETag
+     */
+    public interface MultipartUploader<P> {
+
+        /**
+         * Put the whole content without the multipart upload.
+         */
+        void put(InputStream inputStream, long contentLength) throws IOException;
+
+        /**
+         * @return the upload id
+         */
+        String initiate() throws IOException;
+
+        P uploadPart(String uploadId, int partNumber, byte[] data, int length) throws IOException;
+
+        void complete(String uploadId, List<P> parts) throws IOException;
+
+        void abort(String uploadId);
+    }
+
+    /**
+     * Opens the stream of a range of the object.
+     */
+    public interface RangeReader {
+
+        /**
+         * @param start the first byte of the range
+         * @param end the last byte of the range, inclusive
+         */
+        InputStream open(long start, long end) throws IOException;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.storage;
+
+import org.apache.dolphinscheduler.common.enums.ResUploadType;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class StorageMetrics {
+
+    public static final String UPLOAD = "upload";
+
+    public static final String DOWNLOAD = "download";
+
+    /**
+     * Record a finished transfer of the resource storage, the throughput is the bytes divided by the duration.
+     *
+     * @param storageType the storage backend
+     * @param direction {@link #UPLOAD} or {@link #DOWNLOAD}
+     * @param bytes the bytes transferred
+     * @param costMillis the time cost
+     */
+    public void recordTransfer(ResUploadType storageType, String direction, long bytes, long costMillis) {
+        Counter.builder("ds.storage.transfer.bytes")
+                .tag("storage", storageType.name())
+                .tag("direction", direction)
+                .description("The bytes transferred by the resource storage")
+                .register(Metrics.globalRegistry)
+                .increment(bytes);
+        Timer.builder("ds.storage.transfer.duration")
+                .tag("storage", storageType.name())
+                .tag("direction", direction)
+                .description("The time cost of the transfers of the resource storage")
+                .register(Metrics.globalRegistry)
+                .record(costMillis, TimeUnit.MILLISECONDS);
+    }
+}
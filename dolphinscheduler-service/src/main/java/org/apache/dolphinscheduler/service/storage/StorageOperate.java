@@ -23,6 +23,7 @@ import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 public interface StorageOperate {
@@ -130,7 +131,21 @@ public interface StorageOperate {
                    boolean overwrite) throws IOException;
 
     /**
-     * download the srcPath to local
+     * upload the content of the input stream to dstPath without a local copy, the large content is uploaded by
+     * parts in parallel if the storage supports
+     * @param tenantCode
+     * @param inputStream the content, it is not closed
+     * @param contentLength the length of the content, -1 if unknown
+     * @param dstPath
+     * @param overwrite
+     * @return
+     * @throws IOException
+     */
+    boolean upload(String tenantCode, InputStream inputStream, long contentLength, String dstPath,
+                   boolean overwrite) throws IOException;
+
+    /**
+     * download the srcPath to local, the large file is downloaded by ranges in parallel if the storage supports
      * @param tenantCode
      * @param srcFilePath the full path of the srcPath
      * @param dstFile
@@ -141,6 +156,15 @@ public interface StorageOperate {
     void download(String tenantCode, String srcFilePath, String dstFile, boolean deleteSource,
                   boolean overwrite) throws IOException;
 
+    /**
+     * get the version of the file, it changes once the file is overwritten, e.g. the ETag or the modification time
+     * @param tenantCode
+     * @param filePath the full path of the file
+     * @return the version of the file
+     * @throws IOException
+     */
+    String getFileVersion(String tenantCode, String filePath) throws IOException;
+
     /**
      * vim the context of filePath
      * @param tenantCode
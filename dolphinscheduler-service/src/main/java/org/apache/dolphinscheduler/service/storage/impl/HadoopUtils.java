@@ -30,6 +30,7 @@ import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.KerberosHttpClient;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.service.storage.StorageMetrics;
 import org.apache.dolphinscheduler.service.storage.StorageOperate;
 import org.apache.dolphinscheduler.service.utils.CommonUtils;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
@@ -38,6 +39,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSDataOutputStream;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.FileUtil;
@@ -49,6 +51,7 @@ import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -306,7 +309,11 @@ public class HadoopUtils implements Closeable, StorageOperate {
     @Override
     public void download(String bucketName, String srcHdfsFilePath, String dstFile, boolean deleteSource,
                          boolean overwrite) throws IOException {
-        copyHdfsToLocal(srcHdfsFilePath, dstFile, deleteSource, overwrite);
+        long startTime = System.currentTimeMillis();
+        if (copyHdfsToLocal(srcHdfsFilePath, dstFile, deleteSource, overwrite)) {
+            StorageMetrics.recordTransfer(ResUploadType.HDFS, StorageMetrics.DOWNLOAD, new File(dstFile).length(),
+                    System.currentTimeMillis() - startTime);
+        }
     }
 
     /**
@@ -348,7 +355,29 @@ public class HadoopUtils implements Closeable, StorageOperate {
     @Override
     public boolean upload(String buckName, String srcFile, String dstPath, boolean deleteSource,
                           boolean overwrite) throws IOException {
-        return copyLocalToHdfs(srcFile, dstPath, deleteSource, overwrite);
+        long startTime = System.currentTimeMillis();
+        long fileLength = new File(srcFile).length();
+        boolean result = copyLocalToHdfs(srcFile, dstPath, deleteSource, overwrite);
+        StorageMetrics.recordTransfer(ResUploadType.HDFS, StorageMetrics.UPLOAD, fileLength,
+                System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    /**
+     * write the content of the input stream to the hdfs file directly, the datanodes pipeline the blocks while
+     * the content is written
+     */
+    @Override
+    public boolean upload(String buckName, InputStream inputStream, long contentLength, String dstPath,
+                          boolean overwrite) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long uploadedBytes;
+        try (FSDataOutputStream out = fs.create(new Path(dstPath), overwrite)) {
+            uploadedBytes = IOUtils.copyLarge(inputStream, out);
+        }
+        StorageMetrics.recordTransfer(ResUploadType.HDFS, StorageMetrics.UPLOAD, uploadedBytes,
+                System.currentTimeMillis() - startTime);
+        return true;
     }
 
     /*
@@ -415,6 +444,12 @@ public class HadoopUtils implements Closeable, StorageOperate {
         return fs.exists(new Path(hdfsFilePath));
     }
 
+    @Override
+    public String getFileVersion(String tenantCode, String hdfsFilePath) throws IOException {
+        FileStatus fileStatus = fs.getFileStatus(new Path(hdfsFilePath));
+        return fileStatus.getModificationTime() + "_" + fileStatus.getLen();
+    }
+
     /**
      * Gets a list of files in the directory
      *
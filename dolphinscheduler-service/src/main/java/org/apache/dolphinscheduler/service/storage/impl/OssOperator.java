@@ -28,6 +28,8 @@ import org.apache.dolphinscheduler.common.factory.OssClientFactory;
 import org.apache.dolphinscheduler.common.model.OssConnection;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
+import org.apache.dolphinscheduler.service.storage.MultipartTransfer;
+import org.apache.dolphinscheduler.service.storage.StorageMetrics;
 import org.apache.dolphinscheduler.service.storage.StorageOperate;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
@@ -38,7 +40,6 @@ import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -55,10 +56,16 @@ import org.slf4j.LoggerFactory;
 
 import com.aliyun.oss.OSS;
 import com.aliyun.oss.OSSException;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
 import com.aliyun.oss.model.Bucket;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.GetObjectRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
 import com.aliyun.oss.model.OSSObject;
 import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
 import com.aliyun.oss.model.PutObjectRequest;
+import com.aliyun.oss.model.UploadPartRequest;
 
 @Data
 public class OssOperator implements Closeable, StorageOperate {
@@ -192,15 +199,13 @@ public class OssOperator implements Closeable, StorageOperate {
         } else {
             Files.createDirectories(dstFile.getParentFile().toPath());
         }
-        OSSObject ossObject = ossClient.getObject(bucketName, srcFilePath);
-        try (
-                InputStream ossInputStream = ossObject.getObjectContent();
-                FileOutputStream fos = new FileOutputStream(dstFilePath)) {
-            byte[] readBuf = new byte[1024];
-            int readLen;
-            while ((readLen = ossInputStream.read(readBuf)) > 0) {
-                fos.write(readBuf, 0, readLen);
-            }
+        try {
+            long startTime = System.currentTimeMillis();
+            ObjectMetadata metadata = ossClient.getObjectMetadata(bucketName, srcFilePath);
+            MultipartTransfer.getInstance().download(metadata.getContentLength(), dstFile,
+                    (start, end) -> openRange(srcFilePath, metadata.getETag(), start, end));
+            StorageMetrics.recordTransfer(ResUploadType.OSS, StorageMetrics.DOWNLOAD, metadata.getContentLength(),
+                    System.currentTimeMillis() - startTime);
         } catch (OSSException e) {
             throw new IOException(e);
         } catch (FileNotFoundException e) {
@@ -209,11 +214,27 @@ public class OssOperator implements Closeable, StorageOperate {
         }
     }
 
+    private InputStream openRange(String key, String eTag, long start, long end) {
+        GetObjectRequest getObjectRequest = new GetObjectRequest(bucketName, key);
+        getObjectRequest.setRange(start, end);
+        getObjectRequest.setMatchingETagConstraints(Collections.singletonList(eTag));
+        return ossClient.getObject(getObjectRequest).getObjectContent();
+    }
+
     @Override
     public boolean exists(String tenantCode, String fileName) throws IOException {
         return ossClient.doesObjectExist(bucketName, fileName);
     }
 
+    @Override
+    public String getFileVersion(String tenantCode, String filePath) throws IOException {
+        try {
+            return ossClient.getObjectMetadata(bucketName, filePath).getETag();
+        } catch (OSSException e) {
+            throw new IOException(e);
+        }
+    }
+
     @Override
     public boolean delete(String tenantCode, String filePath, boolean recursive) throws IOException {
         try {
@@ -247,8 +268,21 @@ public class OssOperator implements Closeable, StorageOperate {
     @Override
     public boolean upload(String tenantCode, String srcFile, String dstPath, boolean deleteSource,
                           boolean overwrite) throws IOException {
+        File file = new File(srcFile);
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            return upload(tenantCode, inputStream, file.length(), dstPath, overwrite);
+        }
+    }
+
+    @Override
+    public boolean upload(String tenantCode, InputStream inputStream, long contentLength, String dstPath,
+                          boolean overwrite) throws IOException {
         try {
-            ossClient.putObject(bucketName, dstPath, new File(srcFile));
+            long startTime = System.currentTimeMillis();
+            long uploadedBytes = MultipartTransfer.getInstance().upload(inputStream, contentLength,
+                    new OssUploader(dstPath));
+            StorageMetrics.recordTransfer(ResUploadType.OSS, StorageMetrics.UPLOAD, uploadedBytes,
+                    System.currentTimeMillis() - startTime);
             return true;
         } catch (OSSException e) {
             logger.error("upload failed, the bucketName is {}, the filePath is {}", bucketName, dstPath, e);
@@ -332,4 +366,54 @@ public class OssOperator implements Closeable, StorageOperate {
         return OssClientFactory.buildOssClient(ossConnection);
     }
 
+    /**
+     * upload to OSS by put object or multipart upload
+     */
+    private class OssUploader implements MultipartTransfer.MultipartUploader<PartETag> {
+
+        private final String key;
+
+        private OssUploader(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void put(InputStream inputStream, long contentLength) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(contentLength);
+            ossClient.putObject(bucketName, key, inputStream, metadata);
+        }
+
+        @Override
+        public String initiate() {
+            return ossClient.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucketName, key))
+                    .getUploadId();
+        }
+
+        @Override
+        public PartETag uploadPart(String uploadId, int partNumber, byte[] data, int length) {
+            UploadPartRequest uploadPartRequest = new UploadPartRequest();
+            uploadPartRequest.setBucketName(bucketName);
+            uploadPartRequest.setKey(key);
+            uploadPartRequest.setUploadId(uploadId);
+            uploadPartRequest.setPartNumber(partNumber);
+            uploadPartRequest.setInputStream(new ByteArrayInputStream(data, 0, length));
+            uploadPartRequest.setPartSize(length);
+            return ossClient.uploadPart(uploadPartRequest).getPartETag();
+        }
+
+        @Override
+        public void complete(String uploadId, List<PartETag> parts) {
+            ossClient.completeMultipartUpload(new CompleteMultipartUploadRequest(bucketName, key, uploadId, parts));
+        }
+
+        @Override
+        public void abort(String uploadId) {
+            try {
+                ossClient.abortMultipartUpload(new AbortMultipartUploadRequest(bucketName, key, uploadId));
+            } catch (OSSException e) {
+                logger.warn("abort the multipart upload {} of {} failed", uploadId, key, e);
+            }
+        }
+    }
 }
@@ -29,6 +29,8 @@ import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.common.enums.ResUploadType;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
+import org.apache.dolphinscheduler.service.storage.MultipartTransfer;
+import org.apache.dolphinscheduler.service.storage.StorageMetrics;
 import org.apache.dolphinscheduler.service.storage.StorageOperate;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
@@ -39,7 +41,6 @@ import java.io.ByteArrayInputStream;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
@@ -59,12 +60,17 @@ import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
 import com.amazonaws.services.s3.model.Bucket;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
 import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
 import com.amazonaws.services.s3.model.PutObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
-import com.amazonaws.services.s3.model.S3ObjectInputStream;
+import com.amazonaws.services.s3.model.UploadPartRequest;
 import com.amazonaws.services.s3.transfer.MultipleFileDownload;
 import com.amazonaws.services.s3.transfer.TransferManager;
 import com.amazonaws.services.s3.transfer.TransferManagerBuilder;
@@ -188,15 +194,13 @@ public class S3Utils implements Closeable, StorageOperate {
         } else {
             Files.createDirectories(dstFile.getParentFile().toPath());
         }
-        S3Object o = s3Client.getObject(BUCKET_NAME, srcFilePath);
-        try (
-                S3ObjectInputStream s3is = o.getObjectContent();
-                FileOutputStream fos = new FileOutputStream(dstFilePath)) {
-            byte[] readBuf = new byte[1024];
-            int readLen;
-            while ((readLen = s3is.read(readBuf)) > 0) {
-                fos.write(readBuf, 0, readLen);
-            }
+        try {
+            long startTime = System.currentTimeMillis();
+            ObjectMetadata metadata = s3Client.getObjectMetadata(BUCKET_NAME, srcFilePath);
+            MultipartTransfer.getInstance().download(metadata.getContentLength(), dstFile,
+                    (start, end) -> openRange(srcFilePath, metadata.getETag(), start, end));
+            StorageMetrics.recordTransfer(ResUploadType.S3, StorageMetrics.DOWNLOAD, metadata.getContentLength(),
+                    System.currentTimeMillis() - startTime);
         } catch (AmazonServiceException e) {
             throw new IOException(e.getMessage());
         } catch (FileNotFoundException e) {
@@ -205,11 +209,31 @@ public class S3Utils implements Closeable, StorageOperate {
         }
     }
 
+    private InputStream openRange(String key, String eTag, long start, long end) throws IOException {
+        GetObjectRequest getObjectRequest = new GetObjectRequest(BUCKET_NAME, key)
+                .withRange(start, end)
+                .withMatchingETagConstraint(eTag);
+        S3Object s3Object = s3Client.getObject(getObjectRequest);
+        if (s3Object == null) {
+            throw new IOException(String.format("the object %s has been changed during the download", key));
+        }
+        return s3Object.getObjectContent();
+    }
+
     @Override
     public boolean exists(String tenantCode, String fileName) throws IOException {
         return s3Client.doesObjectExist(BUCKET_NAME, fileName);
     }
 
+    @Override
+    public String getFileVersion(String tenantCode, String filePath) throws IOException {
+        try {
+            return s3Client.getObjectMetadata(BUCKET_NAME, filePath).getETag();
+        } catch (AmazonServiceException e) {
+            throw new IOException(e.getMessage());
+        }
+    }
+
     @Override
     public boolean delete(String tenantCode, String filePath, boolean recursive) throws IOException {
         try {
@@ -244,11 +268,24 @@ public class S3Utils implements Closeable, StorageOperate {
     @Override
     public boolean upload(String tenantCode, String srcFile, String dstPath, boolean deleteSource,
                           boolean overwrite) throws IOException {
+        File file = new File(srcFile);
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            return upload(tenantCode, inputStream, file.length(), dstPath, overwrite);
+        }
+    }
+
+    @Override
+    public boolean upload(String tenantCode, InputStream inputStream, long contentLength, String dstPath,
+                          boolean overwrite) throws IOException {
         try {
-            s3Client.putObject(BUCKET_NAME, dstPath, new File(srcFile));
+            long startTime = System.currentTimeMillis();
+            long uploadedBytes = MultipartTransfer.getInstance().upload(inputStream, contentLength,
+                    new S3Uploader(dstPath));
+            StorageMetrics.recordTransfer(ResUploadType.S3, StorageMetrics.UPLOAD, uploadedBytes,
+                    System.currentTimeMillis() - startTime);
             return true;
         } catch (AmazonServiceException e) {
-            logger.error("upload failed,the bucketName is {},the filePath is {}", BUCKET_NAME, dstPath);
+            logger.error("upload failed,the bucketName is {},the filePath is {}", BUCKET_NAME, dstPath, e);
             return false;
         }
     }
@@ -384,4 +421,55 @@ public class S3Utils implements Closeable, StorageOperate {
     public ResUploadType returnStorageType() {
         return ResUploadType.S3;
     }
+
+    /**
+     * upload to S3 by put object or multipart upload
+     */
+    private class S3Uploader implements MultipartTransfer.MultipartUploader<PartETag> {
+
+        private final String key;
+
+        private S3Uploader(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void put(InputStream inputStream, long contentLength) {
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(contentLength);
+            s3Client.putObject(BUCKET_NAME, key, inputStream, metadata);
+        }
+
+        @Override
+        public String initiate() {
+            return s3Client.initiateMultipartUpload(new InitiateMultipartUploadRequest(BUCKET_NAME, key))
+                    .getUploadId();
+        }
+
+        @Override
+        public PartETag uploadPart(String uploadId, int partNumber, byte[] data, int length) {
+            UploadPartRequest uploadPartRequest = new UploadPartRequest()
+                    .withBucketName(BUCKET_NAME)
+                    .withKey(key)
+                    .withUploadId(uploadId)
+                    .withPartNumber(partNumber)
+                    .withInputStream(new ByteArrayInputStream(data, 0, length))
+                    .withPartSize(length);
+            return s3Client.uploadPart(uploadPartRequest).getPartETag();
+        }
+
+        @Override
+        public void complete(String uploadId, List<PartETag> parts) {
+            s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(BUCKET_NAME, key, uploadId, parts));
+        }
+
+        @Override
+        public void abort(String uploadId) {
+            try {
+                s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(BUCKET_NAME, key, uploadId));
+            } catch (AmazonServiceException e) {
+                logger.warn("abort the multipart upload {} of {} failed", uploadId, key, e);
+            }
+        }
+    }
 }
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.cache;
+
+import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.dao.entity.ProcessDefinitionLog;
+import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelationLog;
+import org.apache.dolphinscheduler.dao.entity.TaskDefinition;
+import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
+import org.apache.dolphinscheduler.service.cache.impl.DefinitionLogCacheManagerImpl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DefinitionLogCacheManagerTest {
+
+    @Test
+    public void testProcessDefinitionLogCached() {
+        DefinitionLogCacheManager cacheManager = new DefinitionLogCacheManagerImpl(100);
+        AtomicInteger loadTimes = new AtomicInteger();
+        ProcessDefinitionLog processDefinitionLog = new ProcessDefinitionLog();
+        processDefinitionLog.setId(10);
+        processDefinitionLog.setCode(1L);
+        processDefinitionLog.setVersion(2);
+        processDefinitionLog.setName("process");
+
+        ProcessDefinitionLog first = cacheManager.getProcessDefinitionLog(1L, 2, () -> 10, () -> {
+            loadTimes.incrementAndGet();
+            return processDefinitionLog;
+        });
+        first.setId(0);
+        first.setName("changed");
+        ProcessDefinitionLog second = cacheManager.getProcessDefinitionLog(1L, 2, () -> 10, () -> {
+            loadTimes.incrementAndGet();
+            return processDefinitionLog;
+        });
+        Assert.assertEquals(1, loadTimes.get());
+        Assert.assertEquals("process", second.getName());
+        Assert.assertNotSame(first, second);
+
+        // the absent log is not cached
+        Assert.assertNull(cacheManager.getProcessDefinitionLog(1L, 3, () -> null, () -> null));
+        Assert.assertNotNull(cacheManager.getProcessDefinitionLog(1L, 3, () -> 10, () -> processDefinitionLog));
+    }
+
+    @Test
+    public void testProcessDefinitionLogVersionReused() {
+        DefinitionLogCacheManager cacheManager = new DefinitionLogCacheManagerImpl(100);
+        ProcessDefinitionLog processDefinitionLog = new ProcessDefinitionLog();
+        processDefinitionLog.setId(10);
+        processDefinitionLog.setName("deleted");
+        cacheManager.getProcessDefinitionLog(1L, 2, () -> 10, () -> processDefinitionLog);
+
+        // the version is deleted and inserted again
+        ProcessDefinitionLog reinserted = new ProcessDefinitionLog();
+        reinserted.setId(11);
+        reinserted.setName("reinserted");
+        Assert.assertEquals("reinserted",
+                cacheManager.getProcessDefinitionLog(1L, 2, () -> 11, () -> reinserted).getName());
+        Assert.assertEquals("reinserted", cacheManager.getProcessDefinitionLog(1L, 2, () -> 11, () -> {
+            throw new IllegalStateException("the reinserted log should be cached");
+        }).getName());
+    }
+
+    @Test
+    public void testProcessTaskRelationLogsCached() {
+        DefinitionLogCacheManager cacheManager = new DefinitionLogCacheManagerImpl(100);
+        AtomicInteger loadTimes = new AtomicInteger();
+        ProcessTaskRelationLog processTaskRelationLog = new ProcessTaskRelationLog();
+        processTaskRelationLog.setPostTaskCode(10L);
+
+        Assert.assertTrue(cacheManager.getProcessTaskRelationLogs(1L, 1, () -> 10, () -> {
+            loadTimes.incrementAndGet();
+            return new ArrayList<>();
+        }).isEmpty());
+        for (int i = 0; i < 2; i++) {
+            List<ProcessTaskRelationLog> processTaskRelationLogs =
+                    cacheManager.getProcessTaskRelationLogs(1L, 1, () -> 10, () -> {
+                        loadTimes.incrementAndGet();
+                        return Collections.singletonList(processTaskRelationLog);
+                    });
+            Assert.assertEquals(1, processTaskRelationLogs.size());
+            Assert.assertEquals(10L, processTaskRelationLogs.get(0).getPostTaskCode());
+        }
+        // the empty relations are loaded again
+        Assert.assertEquals(2, loadTimes.get());
+
+        // the version is deleted and inserted again with other relations
+        ProcessTaskRelationLog reinserted = new ProcessTaskRelationLog();
+        reinserted.setPostTaskCode(20L);
+        List<ProcessTaskRelationLog> processTaskRelationLogs =
+                cacheManager.getProcessTaskRelationLogs(1L, 1, () -> 11, () -> Collections.singletonList(reinserted));
+        Assert.assertEquals(20L, processTaskRelationLogs.get(0).getPostTaskCode());
+    }
+
+    @Test
+    public void testTaskDefinitionLogsRevalidatedByFlag() {
+        DefinitionLogCacheManager cacheManager = new DefinitionLogCacheManagerImpl(100);
+        List<TaskDefinitionLog> database = new ArrayList<>(Arrays.asList(
+                newTaskDefinitionLog(1, 1L, 1, Flag.YES), newTaskDefinitionLog(2, 2L, 1, Flag.YES)));
+        List<Collection<TaskDefinition>> loaded = new ArrayList<>();
+        Function<Collection<TaskDefinition>, List<TaskDefinitionLog>> loader = taskDefinitions -> {
+            loaded.add(taskDefinitions);
+            return query(database, taskDefinitions);
+        };
+        Function<Collection<TaskDefinition>, List<TaskDefinitionLog>> flagLoader = taskDefinitions -> {
+            List<TaskDefinitionLog> flags = new ArrayList<>();
+            for (TaskDefinitionLog log : query(database, taskDefinitions)) {
+                TaskDefinitionLog flag =
+                        newTaskDefinitionLog(log.getId(), log.getCode(), log.getVersion(), log.getFlag());
+                flag.setName(null);
+                flags.add(flag);
+            }
+            return flags;
+        };
+
+        List<TaskDefinition> taskDefinitions =
+                Arrays.asList(new TaskDefinition(1L, 1), new TaskDefinition(2L, 1));
+        Assert.assertEquals(2, cacheManager.getTaskDefinitionLogs(taskDefinitions, loader, flagLoader).size());
+
+        database.get(0).setFlag(Flag.NO);
+        database.remove(1);
+        database.add(newTaskDefinitionLog(3, 3L, 1, Flag.YES));
+        List<TaskDefinitionLog> taskDefinitionLogs = cacheManager.getTaskDefinitionLogs(
+                Arrays.asList(new TaskDefinition(1L, 1), new TaskDefinition(2L, 1), new TaskDefinition(3L, 1)),
+                loader, flagLoader);
+
+        Assert.assertEquals(2, loaded.size());
+        // only the log not cached is loaded, the log deleted is absent
+        Assert.assertEquals(1, loaded.get(1).size());
+        Assert.assertEquals(2, taskDefinitionLogs.size());
+        TaskDefinitionLog first = taskDefinitionLogs.stream().filter(log -> log.getCode() == 1L).findFirst().get();
+        Assert.assertEquals(Flag.NO, first.getFlag());
+        Assert.assertEquals("task-1", first.getName());
+        Assert.assertTrue(taskDefinitionLogs.stream().anyMatch(log -> log.getCode() == 3L));
+
+        // the version is deleted and inserted again, the new log is loaded
+        database.remove(0);
+        TaskDefinitionLog reinserted = newTaskDefinitionLog(4, 1L, 1, Flag.YES);
+        reinserted.setName("reinserted");
+        database.add(reinserted);
+        taskDefinitionLogs = cacheManager.getTaskDefinitionLogs(Collections.singletonList(new TaskDefinition(1L, 1)),
+                loader, flagLoader);
+        Assert.assertEquals(3, loaded.size());
+        Assert.assertEquals(1, taskDefinitionLogs.size());
+        Assert.assertEquals("reinserted", taskDefinitionLogs.get(0).getName());
+    }
+
+    @Test
+    public void testDisabled() {
+        DefinitionLogCacheManager cacheManager = new DefinitionLogCacheManagerImpl(0);
+        AtomicInteger loadTimes = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            cacheManager.getProcessDefinitionLog(1L, 1, () -> {
+                throw new IllegalStateException("the id should not be loaded");
+            }, () -> {
+                loadTimes.incrementAndGet();
+                return new ProcessDefinitionLog();
+            });
+            cacheManager.getTaskDefinitionLogs(Collections.singletonList(new TaskDefinition(1L, 1)),
+                    taskDefinitions -> {
+                        loadTimes.incrementAndGet();
+                        return new ArrayList<>();
+                    },
+                    taskDefinitions -> {
+                        throw new IllegalStateException("the flags should not be loaded");
+                    });
+        }
+        Assert.assertEquals(4, loadTimes.get());
+    }
+
+    private static List<TaskDefinitionLog> query(List<TaskDefinitionLog> database,
+                                                 Collection<TaskDefinition> taskDefinitions) {
+        return database.stream()
+                .filter(log -> taskDefinitions.stream()
+                        .anyMatch(t -> t.getCode() == log.getCode() && t.getVersion() == log.getVersion()))
+                .map(log -> {
+                    TaskDefinitionLog copy =
+                            newTaskDefinitionLog(log.getId(), log.getCode(), log.getVersion(), log.getFlag());
+                    copy.setName(log.getName());
+                    return copy;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static TaskDefinitionLog newTaskDefinitionLog(int id, long code, int version, Flag flag) {
+        TaskDefinitionLog taskDefinitionLog = new TaskDefinitionLog();
+        taskDefinitionLog.setId(id);
+        taskDefinitionLog.setCode(code);
+        taskDefinitionLog.setVersion(version);
+        taskDefinitionLog.setFlag(flag);
+        taskDefinitionLog.setName("task-" + code);
+        return taskDefinitionLog;
+    }
+}
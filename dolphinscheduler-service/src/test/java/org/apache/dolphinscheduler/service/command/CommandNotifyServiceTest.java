@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.dolphinscheduler.service.command;
+
+import static org.apache.dolphinscheduler.common.constants.Constants.REGISTRY_DOLPHINSCHEDULER_MASTERS;
+
+import org.apache.dolphinscheduler.common.enums.NodeType;
+import org.apache.dolphinscheduler.common.model.Server;
+import org.apache.dolphinscheduler.registry.api.Event;
+import org.apache.dolphinscheduler.registry.api.SubscribeListener;
+import org.apache.dolphinscheduler.remote.NettyRemotingServer;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.WorkflowCommandNotifyCommand;
+import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
+import org.apache.dolphinscheduler.service.command.impl.CommandNotifyServiceImpl;
+import org.apache.dolphinscheduler.service.registry.RegistryClient;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CommandNotifyServiceTest {
+
+    @InjectMocks
+    private CommandNotifyServiceImpl commandNotifyService;
+
+    @Mock
+    private RegistryClient registryClient;
+
+    private NettyRemotingServer nettyRemotingServer;
+
+    private final CountDownLatch received = new CountDownLatch(3);
+
+    private SubscribeListener masterListener;
+
+    @Before
+    public void before() {
+        NettyServerConfig serverConfig = new NettyServerConfig();
+        nettyRemotingServer = new NettyRemotingServer(serverConfig);
+        nettyRemotingServer.registerProcessor(CommandType.WORKFLOW_COMMAND_NOTIFY,
+                (channel, command) -> received.countDown());
+        nettyRemotingServer.start();
+
+        Server server = new Server();
+        server.setHost("127.0.0.1");
+        server.setPort(serverConfig.getListenPort());
+        Mockito.when(registryClient.getServerList(NodeType.MASTER)).thenReturn(Collections.singletonList(server));
+
+        commandNotifyService.init();
+        ArgumentCaptor<SubscribeListener> listenerCaptor = ArgumentCaptor.forClass(SubscribeListener.class);
+        Mockito.verify(registryClient).subscribe(Mockito.eq(REGISTRY_DOLPHINSCHEDULER_MASTERS),
+                listenerCaptor.capture());
+        masterListener = listenerCaptor.getValue();
+    }
+
+    @After
+    public void after() {
+        commandNotifyService.close();
+        nettyRemotingServer.close();
+    }
+
+    @Test
+    public void testNotifyMasters() throws InterruptedException {
+        commandNotifyService.notifyMasters(new WorkflowCommandNotifyCommand(1).convert2Command());
+        commandNotifyService.notifyMasters(new WorkflowCommandNotifyCommand(2).convert2Command());
+
+        // the heartbeat of the masters doesn't reload the master hosts
+        masterListener.notify(Event.builder().path(REGISTRY_DOLPHINSCHEDULER_MASTERS + "/127.0.0.1:5678")
+                .type(Event.Type.UPDATE).build());
+        commandNotifyService.notifyMasters(new WorkflowCommandNotifyCommand(3).convert2Command());
+        Assert.assertTrue(received.await(10, TimeUnit.SECONDS));
+        Mockito.verify(registryClient, Mockito.times(1)).getServerList(NodeType.MASTER);
+
+        // a new master reloads the master hosts
+        masterListener.notify(Event.builder().path(REGISTRY_DOLPHINSCHEDULER_MASTERS + "/127.0.0.1:5679")
+                .type(Event.Type.ADD).build());
+        commandNotifyService.notifyMasters(new WorkflowCommandNotifyCommand(4).convert2Command());
+        Mockito.verify(registryClient, Mockito.timeout(5000).times(2)).getServerList(NodeType.MASTER);
+    }
+
+    @Test
+    public void testNotifyDownMaster() {
+        Server downServer = new Server();
+        downServer.setHost("127.0.0.1");
+        downServer.setPort(1);
+        Mockito.when(registryClient.getServerList(NodeType.MASTER)).thenReturn(Collections.singletonList(downServer));
+
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < 100; i++) {
+            commandNotifyService.notifyMasters(new WorkflowCommandNotifyCommand(i).convert2Command());
+        }
+        // the notifications are sent asynchronously
+        Assert.assertTrue(System.currentTimeMillis() - startTime < 1000);
+    }
+}
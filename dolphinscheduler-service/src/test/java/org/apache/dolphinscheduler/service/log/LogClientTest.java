@@ -29,6 +29,7 @@ import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.service.utils.LoggerUtils;
 
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -127,8 +128,8 @@ public class LogClientTest {
 
         Command command = new Command();
         command.setBody(JSONUtils.toJsonByteArray(new RemoveTaskLogResponseCommand(true)));
-        PowerMockito.when(remotingClient.sendSync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
-                .thenReturn(command);
+        PowerMockito.when(remotingClient.sendAsync(Mockito.any(Host.class), Mockito.any(Command.class), Mockito.anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(command));
 
         LogClient logClient = new LogClient();
         Boolean status = logClient.removeTaskLog("localhost", 1234, "/log/path");
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogLineOffsetIndexTest {
+
+    private Path logPath;
+
+    @Before
+    public void setUp() throws IOException {
+        logPath = Files.createTempFile("task", ".log");
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.deleteIfExists(logPath);
+    }
+
+    @Test
+    public void testReadLines() throws IOException {
+        write("line0\nline1\nline2\nline3\nline4\nline5\nline6\n");
+        LogLineOffsetIndex index = new LogLineOffsetIndex(logPath, 3);
+
+        Assert.assertEquals(Arrays.asList("line0", "line1"), index.readLines(0, 2));
+        Assert.assertEquals(7, index.getIndexedLines());
+        Assert.assertEquals(Arrays.asList("line4", "line5", "line6"), index.readLines(4, 10));
+        Assert.assertEquals(Collections.singletonList("line3"), index.readLines(3, 1));
+        Assert.assertEquals(Collections.emptyList(), index.readLines(7, 10));
+        Assert.assertEquals(Collections.emptyList(), index.readLines(100, 10));
+    }
+
+    @Test
+    public void testTailAppendedLines() throws IOException {
+        write("line0\nline1\nli");
+        LogLineOffsetIndex index = new LogLineOffsetIndex(logPath, 3);
+        Assert.assertEquals(Arrays.asList("line1", "li"), index.readLines(1, 10));
+        Assert.assertEquals(2, index.getIndexedLines());
+
+        append("ne2\nline3\n");
+        Assert.assertEquals(Arrays.asList("line2", "line3"), index.readLines(2, 10));
+        Assert.assertEquals(4, index.getIndexedLines());
+    }
+
+    @Test
+    public void testRebuildAfterTruncate() throws IOException {
+        write("line0\nline1\nline2\nline3\n");
+        LogLineOffsetIndex index = new LogLineOffsetIndex(logPath, 3);
+        Assert.assertEquals(Collections.singletonList("line3"), index.readLines(3, 10));
+
+        write("new0\n");
+        Assert.assertEquals(Collections.singletonList("new0"), index.readLines(0, 10));
+        Assert.assertEquals(1, index.getIndexedLines());
+    }
+
+    @Test
+    public void testCarriageReturnLineEnds() throws IOException {
+        write("line0\rline1\r\nline2\nline3\r\rline5\r");
+        LogLineOffsetIndex index = new LogLineOffsetIndex(logPath, 2);
+        Assert.assertEquals(Arrays.asList("line2", "line3", "", "line5"), index.readLines(2, 10));
+        // the last '\r' is pending until the next byte is written
+        Assert.assertEquals(5, index.getIndexedLines());
+        Assert.assertEquals(Arrays.asList("line1", "line2"), index.readLines(1, 2));
+        Assert.assertEquals(Collections.singletonList(""), index.readLines(4, 1));
+
+        append("\nline6\r\n");
+        Assert.assertEquals(Arrays.asList("line5", "line6"), index.readLines(5, 10));
+        Assert.assertEquals(7, index.getIndexedLines());
+    }
+
+    @Test
+    public void testCarriageReturnAcrossScanBuffers() throws IOException {
+        char[] longLine = new char[64 * 1024 - 1];
+        Arrays.fill(longLine, 'a');
+        write(new String(longLine) + "\r\nline1\n");
+        LogLineOffsetIndex index = new LogLineOffsetIndex(logPath, 1);
+        Assert.assertEquals(Collections.singletonList("line1"), index.readLines(1, 10));
+        Assert.assertEquals(2, index.getIndexedLines());
+    }
+
+    private void write(String content) throws IOException {
+        Files.write(logPath, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private void append(String content) throws IOException {
+        Files.write(logPath, content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import static ch.qos.logback.classic.ClassicConstants.FINALIZE_SESSION_MARKER;
+
+import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
+import org.apache.dolphinscheduler.plugin.task.api.TaskOutputLogBuffer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.sift.SiftingAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.FileAppender;
+
+/**
+ * The task output written by the shared log writer pool should reach the log file of the task.
+ */
+public class TaskOutputLogFileTest {
+
+    private static final String TASK_LOG_NAME = "taskAppId=TASK-20220105-101-1-1001";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private LoggerContext loggerContext;
+
+    private Logger taskLogger;
+
+    @Before
+    public void before() {
+        String logBase = folder.getRoot().getAbsolutePath();
+        loggerContext = new LoggerContext();
+
+        TaskLogDiscriminator discriminator = new TaskLogDiscriminator();
+        discriminator.setKey("taskAppId");
+        discriminator.setLogBase(logBase);
+        discriminator.start();
+
+        TaskLogFilter filter = new TaskLogFilter();
+        filter.setLevel("OFF");
+        filter.start();
+
+        SiftingAppender siftingAppender = new SiftingAppender();
+        siftingAppender.setContext(loggerContext);
+        siftingAppender.setDiscriminator(discriminator);
+        siftingAppender.addFilter(filter);
+        siftingAppender.setAppenderFactory((context, taskAppId) -> {
+            PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+            encoder.setContext(context);
+            encoder.setPattern("%msg%n");
+            encoder.start();
+            FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+            fileAppender.setContext(context);
+            fileAppender.setFile(logBase + "/" + taskAppId + ".log");
+            fileAppender.setEncoder(encoder);
+            fileAppender.start();
+            return fileAppender;
+        });
+        siftingAppender.start();
+
+        taskLogger = loggerContext.getLogger(String.format(TaskConstants.TASK_LOG_LOGGER_NAME_FORMAT, "shell"));
+        taskLogger.setAdditive(false);
+        taskLogger.addAppender(siftingAppender);
+    }
+
+    @After
+    public void after() {
+        loggerContext.stop();
+    }
+
+    @Test
+    public void testOutputReachesTaskLogFile() throws InterruptedException, IOException {
+        CountDownLatch finished = new CountDownLatch(1);
+        TaskOutputLogBuffer logBuffer = new TaskOutputLogBuffer(logs -> {
+            // the same as AbstractTask#logHandle
+            if (logs.contains(FINALIZE_SESSION_MARKER.toString())) {
+                taskLogger.info(FINALIZE_SESSION_MARKER, FINALIZE_SESSION_MARKER.toString());
+                finished.countDown();
+            } else {
+                StringJoiner joiner = new StringJoiner("\n\t");
+                while (!logs.isEmpty()) {
+                    joiner.add(logs.poll());
+                }
+                taskLogger.info(" -> {}", joiner);
+            }
+        }, 1024, TASK_LOG_NAME);
+
+        for (int i = 0; i < 100; i++) {
+            logBuffer.put("output-" + i);
+        }
+        String threadName = Thread.currentThread().getName();
+        logBuffer.close();
+        Assert.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(threadName, Thread.currentThread().getName());
+
+        File logFile = new File(folder.getRoot(), "20220105/101-1-1001.log");
+        Assert.assertTrue(logFile.exists());
+        List<String> lines = Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8);
+        for (int i = 0; i < 100; i++) {
+            String output = "output-" + i;
+            Assert.assertTrue(output, lines.stream().anyMatch(line -> line.endsWith(output)));
+        }
+    }
+}
@@ -37,6 +37,7 @@ import org.apache.dolphinscheduler.dao.entity.DqExecuteResult;
 import org.apache.dolphinscheduler.dao.entity.DqRule;
 import org.apache.dolphinscheduler.dao.entity.DqRuleExecuteSql;
 import org.apache.dolphinscheduler.dao.entity.DqRuleInputEntry;
+import org.apache.dolphinscheduler.dao.entity.ErrorCommand;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinitionLog;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
@@ -74,6 +75,9 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.dp.InputType;
 import org.apache.dolphinscheduler.plugin.task.api.enums.dp.OptionSourceType;
 import org.apache.dolphinscheduler.plugin.task.api.enums.dp.ValueType;
 import org.apache.dolphinscheduler.plugin.task.api.model.ResourceInfo;
+import org.apache.dolphinscheduler.service.cache.DefinitionLogCacheManager;
+import org.apache.dolphinscheduler.service.cache.impl.DefinitionLogCacheManagerImpl;
+import org.apache.dolphinscheduler.service.command.CommandNotifyService;
 import org.apache.dolphinscheduler.service.cron.CronUtilsTest;
 import org.apache.dolphinscheduler.service.exceptions.CronParseException;
 import org.apache.dolphinscheduler.service.exceptions.ServiceException;
@@ -82,7 +86,10 @@ import org.apache.dolphinscheduler.service.model.TaskNode;
 import org.apache.dolphinscheduler.service.task.TaskPluginManager;
 import org.apache.dolphinscheduler.spi.params.base.FormType;
 
+import org.apache.ibatis.executor.BatchResult;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -97,10 +104,14 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.mybatis.spring.SqlSessionTemplate;
 import org.powermock.reflect.Whitebox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
@@ -117,6 +128,8 @@ public class ProcessServiceTest {
 
     @InjectMocks
     private ProcessServiceImpl processService;
+    @Spy
+    private DefinitionLogCacheManager definitionLogCacheManager = new DefinitionLogCacheManagerImpl(0);
     @Mock
     private CommandMapper commandMapper;
     @Mock
@@ -172,6 +185,15 @@ public class ProcessServiceTest {
     @Mock
     TaskPluginManager taskPluginManager;
 
+    @Mock
+    CommandNotifyService commandNotifyService;
+
+    @Mock
+    private SqlSessionTemplate batchSqlSessionTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @Test
     public void testCreateSubCommand() {
         ProcessInstance parentInstance = new ProcessInstance();
@@ -261,6 +283,22 @@ public class ProcessServiceTest {
         Assert.assertTrue(processService.verifyIsNeedCreateCommand(command2));
     }
 
+    @Test
+    public void testMoveToErrorCommand() {
+        Command command = new Command();
+        command.setId(1);
+        Mockito.when(commandMapper.deleteById(1)).thenReturn(1);
+        processService.moveToErrorCommand(command, "error");
+        Mockito.verify(errorCommandMapper, Mockito.times(1)).insert(Mockito.any(ErrorCommand.class));
+
+        // the command has been removed by another thread
+        Command removedCommand = new Command();
+        removedCommand.setId(2);
+        Mockito.when(commandMapper.deleteById(2)).thenReturn(0);
+        processService.moveToErrorCommand(removedCommand, "error");
+        Mockito.verify(errorCommandMapper, Mockito.times(1)).insert(Mockito.any(ErrorCommand.class));
+    }
+
     @Test
     public void testCreateRecoveryWaitingThreadCommand() {
         int id = 123;
@@ -924,6 +962,106 @@ public class ProcessServiceTest {
         Assert.assertEquals(0, commandList.size());
     }
 
+    @Test
+    public void testBatchUpdateTaskInstance() {
+        TaskInstance taskInstance1 = new TaskInstance();
+        taskInstance1.setId(1);
+        TaskInstance taskInstance2 = new TaskInstance();
+        taskInstance2.setId(2);
+
+        mockTransactionTemplate();
+        BatchResult batchResult = Mockito.mock(BatchResult.class);
+        Mockito.when(batchSqlSessionTemplate.getMapper(TaskInstanceMapper.class)).thenReturn(taskInstanceMapper);
+        Mockito.when(batchResult.getUpdateCounts()).thenReturn(new int[]{1, 0});
+        Mockito.when(batchSqlSessionTemplate.flushStatements()).thenReturn(Collections.singletonList(batchResult));
+
+        int[] updateCounts = processService.batchUpdateTaskInstance(Arrays.asList(taskInstance1, taskInstance2));
+        Assert.assertArrayEquals(new int[]{1, 0}, updateCounts);
+        Mockito.verify(taskInstanceMapper, Mockito.times(2)).updateById(Mockito.any(TaskInstance.class));
+        Mockito.verify(transactionTemplate, Mockito.times(1)).execute(Mockito.any());
+        Assert.assertEquals(0, processService.batchUpdateTaskInstance(Collections.emptyList()).length);
+
+        // the failure of the batch is thrown to the caller
+        Mockito.when(batchSqlSessionTemplate.flushStatements()).thenThrow(new RuntimeException("db error"));
+        exception.expect(RuntimeException.class);
+        processService.batchUpdateTaskInstance(Arrays.asList(taskInstance1, taskInstance2));
+    }
+
+    private void mockTransactionTemplate() {
+        Mockito.when(transactionTemplate.execute(Mockito.any())).thenAnswer(
+                invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        Mockito.doCallRealMethod().when(transactionTemplate).executeWithoutResult(Mockito.any());
+    }
+
+    @Test
+    public void testPackageProcessDefinitions() {
+        ProcessDefinition processDefinition = new ProcessDefinition();
+        processDefinition.setCode(1L);
+        processDefinition.setVersion(2);
+        ProcessDefinitionLog processDefinitionLog = new ProcessDefinitionLog();
+        processDefinitionLog.setCode(1L);
+        processDefinitionLog.setVersion(1);
+        Mockito.when(processDefineMapper.queryByCodes(Mockito.anyCollection()))
+                .thenReturn(Collections.singletonList(processDefinition));
+        Mockito.when(processDefineLogMapper.queryByDefinitionCodeAndVersion(1L, 1)).thenReturn(processDefinitionLog);
+
+        ProcessInstance latestVersionInstance = new ProcessInstance();
+        latestVersionInstance.setProcessDefinitionCode(1L);
+        latestVersionInstance.setProcessDefinitionVersion(2);
+        ProcessInstance oldVersionInstance1 = new ProcessInstance();
+        oldVersionInstance1.setProcessDefinitionCode(1L);
+        oldVersionInstance1.setProcessDefinitionVersion(1);
+        ProcessInstance oldVersionInstance2 = new ProcessInstance();
+        oldVersionInstance2.setProcessDefinitionCode(1L);
+        oldVersionInstance2.setProcessDefinitionVersion(1);
+        processService.packageProcessDefinitions(
+                Arrays.asList(latestVersionInstance, oldVersionInstance1, oldVersionInstance2));
+
+        Assert.assertSame(processDefinition, latestVersionInstance.getProcessDefinition());
+        Assert.assertSame(processDefinitionLog, oldVersionInstance1.getProcessDefinition());
+        Assert.assertSame(processDefinitionLog, oldVersionInstance2.getProcessDefinition());
+        Mockito.verify(processDefineMapper, Mockito.times(1)).queryByCodes(Mockito.anyCollection());
+        Mockito.verify(processDefineLogMapper, Mockito.times(1)).queryByDefinitionCodeAndVersion(1L, 1);
+    }
+
+    @Test
+    public void testProcessNeedFailoverProcessInstances() {
+        ProcessInstance processInstance1 = new ProcessInstance();
+        processInstance1.setId(1);
+        processInstance1.setHost("127.0.0.1:5678");
+        processInstance1.setProcessDefinitionCode(1L);
+        processInstance1.setProcessDefinitionVersion(1);
+        ProcessInstance processInstance2 = new ProcessInstance();
+        processInstance2.setId(2);
+        processInstance2.setHost("127.0.0.1:5678");
+        processInstance2.setProcessDefinitionCode(2L);
+        processInstance2.setProcessDefinitionVersion(1);
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId(1);
+
+        mockTransactionTemplate();
+        Mockito.when(batchSqlSessionTemplate.getMapper(TaskInstanceMapper.class)).thenReturn(taskInstanceMapper);
+        Mockito.when(batchSqlSessionTemplate.getMapper(ProcessInstanceMapper.class)).thenReturn(processInstanceMapper);
+        Mockito.when(batchSqlSessionTemplate.getMapper(CommandMapper.class)).thenReturn(commandMapper);
+        Mockito.when(commandMapper.insert(Mockito.any(Command.class))).thenAnswer(invocation -> {
+            Command command = invocation.getArgument(0);
+            command.setId(command.getProcessInstanceId());
+            return 1;
+        });
+
+        processService.processNeedFailoverProcessInstances(Arrays.asList(processInstance1, processInstance2),
+                Collections.singletonList(taskInstance));
+
+        Assert.assertEquals(Constants.NULL, processInstance1.getHost());
+        Assert.assertEquals(Constants.NULL, processInstance2.getHost());
+        Mockito.verify(scheduleMapper, Mockito.times(1)).querySchedulesByProcessDefinitionCodes(Mockito.anyList());
+        Mockito.verify(taskInstanceMapper, Mockito.times(1)).updateById(taskInstance);
+        Mockito.verify(processInstanceMapper, Mockito.times(2)).updateById(Mockito.any(ProcessInstance.class));
+        Mockito.verify(commandMapper, Mockito.times(2)).insert(Mockito.any(Command.class));
+        Mockito.verify(batchSqlSessionTemplate).flushStatements();
+        Mockito.verify(commandNotifyService, Mockito.times(2)).notifyMasters(Mockito.any());
+    }
+
     private TaskGroupQueue getTaskGroupQueue() {
         TaskGroupQueue taskGroupQueue = new TaskGroupQueue();
         taskGroupQueue.setTaskName("task name");
@@ -141,6 +141,15 @@ public class TaskPriorityQueueImplTest {
         Assert.assertTrue(getPriorityQueue().size() == 2);
     }
 
+    @Test
+    public void testCompareConsistentWithEquals() throws Exception {
+        TaskPriority priorityOne = new TaskPriority(0, 1, 0, 1, 1, "default");
+        TimeUnit.MILLISECONDS.sleep(2);
+        TaskPriority priorityTwo = new TaskPriority(0, 1, 0, 1, 1, "default");
+        Assert.assertEquals(priorityOne, priorityTwo);
+        Assert.assertEquals(0, priorityOne.compareTo(priorityTwo));
+    }
+
     /**
      * get queue
      *
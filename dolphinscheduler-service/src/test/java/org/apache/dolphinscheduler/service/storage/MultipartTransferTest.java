@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class MultipartTransferTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final MultipartTransfer multipartTransfer = new MultipartTransfer(4, 2, 4, 1024);
+
+    @Test
+    public void testUploadSmallContent() throws IOException {
+        RecordUploader uploader = new RecordUploader(-1);
+        Assert.assertEquals(4, multipartTransfer.upload(new ByteArrayInputStream(CONTENT, 0, 4), 4, uploader));
+        Assert.assertArrayEquals(Arrays.copyOf(CONTENT, 4), uploader.putContent);
+        Assert.assertFalse(uploader.initiated);
+
+        // the content of unknown length is put directly if it is shorter than a part
+        uploader = new RecordUploader(-1);
+        Assert.assertEquals(3, multipartTransfer.upload(new ByteArrayInputStream(CONTENT, 0, 3), -1, uploader));
+        Assert.assertArrayEquals(Arrays.copyOf(CONTENT, 3), uploader.putContent);
+        Assert.assertFalse(uploader.initiated);
+    }
+
+    @Test
+    public void testUploadMultipart() throws IOException {
+        RecordUploader uploader = new RecordUploader(-1);
+        Assert.assertEquals(CONTENT.length,
+                multipartTransfer.upload(new ByteArrayInputStream(CONTENT), CONTENT.length, uploader));
+        Assert.assertNull(uploader.putContent);
+        Assert.assertEquals(Arrays.asList(1, 2, 3), uploader.completedParts);
+        Assert.assertArrayEquals(CONTENT, uploader.concatParts());
+        Assert.assertFalse(uploader.aborted);
+
+        // no empty part is uploaded if the length of the content is a multiple of the part size
+        uploader = new RecordUploader(-1);
+        Assert.assertEquals(8, multipartTransfer.upload(new ByteArrayInputStream(CONTENT, 0, 8), -1, uploader));
+        Assert.assertEquals(Arrays.asList(1, 2), uploader.completedParts);
+        Assert.assertArrayEquals(Arrays.copyOf(CONTENT, 8), uploader.concatParts());
+    }
+
+    @Test
+    public void testUploadAbortOnPartFailure() {
+        RecordUploader uploader = new RecordUploader(2);
+        try {
+            multipartTransfer.upload(new ByteArrayInputStream(CONTENT), -1, uploader);
+            Assert.fail("the upload should fail");
+        } catch (IOException e) {
+            Assert.assertEquals("upload part 2 failed", e.getMessage());
+        }
+        Assert.assertTrue(uploader.aborted);
+        Assert.assertNull(uploader.completedParts);
+    }
+
+    @Test
+    public void testUploadBufferedBytesBounded() throws Exception {
+        // only one part can be buffered by all the uploads
+        MultipartTransfer boundedTransfer = new MultipartTransfer(4, 2, 4, 4);
+        AtomicInteger inFlightParts = new AtomicInteger();
+        AtomicInteger maxInFlightParts = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Long>> uploads = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                RecordUploader uploader = new RecordUploader(-1) {
+
+                    @Override
+                    public Integer uploadPart(String uploadId, int partNumber, byte[] data,
+                                              int length) throws IOException {
+                        maxInFlightParts.accumulateAndGet(inFlightParts.incrementAndGet(), Math::max);
+                        try {
+                            Thread.sleep(10);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        inFlightParts.decrementAndGet();
+                        return super.uploadPart(uploadId, partNumber, data, length);
+                    }
+                };
+                uploads.add(executorService.submit(
+                        () -> boundedTransfer.upload(new ByteArrayInputStream(CONTENT), -1, uploader)));
+            }
+            for (Future<Long> upload : uploads) {
+                Assert.assertEquals(CONTENT.length, (long) upload.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertEquals(1, maxInFlightParts.get());
+    }
+
+    @Test
+    public void testDownload() throws IOException {
+        File dstFile = temporaryFolder.newFile();
+        List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+        multipartTransfer.download(CONTENT.length, dstFile, (start, end) -> {
+            ranges.add(start + "-" + end);
+            return new ByteArrayInputStream(CONTENT, (int) start, (int) (end - start + 1));
+        });
+        Assert.assertArrayEquals(CONTENT, Files.readAllBytes(dstFile.toPath()));
+        Collections.sort(ranges);
+        Assert.assertEquals(Arrays.asList("0-3", "4-7", "8-9"), ranges);
+
+        // the existing file is overwritten
+        multipartTransfer.download(3, dstFile, (start, end) -> new ByteArrayInputStream(CONTENT, 0, 3));
+        Assert.assertArrayEquals(Arrays.copyOf(CONTENT, 3), Files.readAllBytes(dstFile.toPath()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testDownloadIncompleteRange() throws IOException {
+        multipartTransfer.download(CONTENT.length, temporaryFolder.newFile(),
+                (start, end) -> new ByteArrayInputStream(CONTENT, (int) start, 1));
+    }
+
+    private static class RecordUploader implements MultipartTransfer.MultipartUploader<Integer> {
+
+        private final int failedPartNumber;
+
+        private final Map<Integer, byte[]> parts = new ConcurrentHashMap<>();
+
+        private byte[] putContent;
+
+        private boolean initiated;
+
+        private List<Integer> completedParts;
+
+        private boolean aborted;
+
+        private RecordUploader(int failedPartNumber) {
+            this.failedPartNumber = failedPartNumber;
+        }
+
+        @Override
+        public void put(InputStream inputStream, long contentLength) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[16];
+            int length;
+            while ((length = inputStream.read(buffer)) > 0) {
+                out.write(buffer, 0, length);
+            }
+            putContent = out.toByteArray();
+            Assert.assertEquals(contentLength, putContent.length);
+        }
+
+        @Override
+        public String initiate() {
+            initiated = true;
+            return "uploadId";
+        }
+
+        @Override
+        public Integer uploadPart(String uploadId, int partNumber, byte[] data, int length) throws IOException {
+            Assert.assertEquals("uploadId", uploadId);
+            if (partNumber == failedPartNumber) {
+                throw new IOException("upload part " + partNumber + " failed");
+            }
+            parts.put(partNumber, Arrays.copyOf(data, length));
+            return partNumber;
+        }
+
+        @Override
+        public void complete(String uploadId, List<Integer> parts) {
+            completedParts = parts;
+        }
+
+        @Override
+        public void abort(String uploadId) {
+            aborted = true;
+        }
+
+        private byte[] concatParts() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (Integer partNumber : completedParts) {
+                byte[] part = parts.get(partNumber);
+                out.write(part, 0, part.length);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -29,7 +29,6 @@ import org.apache.dolphinscheduler.plugin.task.api.utils.OSUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.SystemUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -77,9 +76,9 @@ public abstract class AbstractCommandExecutor {
     protected Logger logger;
 
     /**
-     * log list
+     * log buffer
      */
-    protected LinkedBlockingQueue<String> logBuffer;
+    protected TaskOutputLogBuffer logBuffer;
 
     protected boolean logOutputIsSuccess = false;
 
@@ -99,11 +98,11 @@ public abstract class AbstractCommandExecutor {
         this.logHandler = logHandler;
         this.taskRequest = taskRequest;
         this.logger = logger;
-        this.logBuffer = new LinkedBlockingQueue<>();
+        this.logBuffer = new TaskOutputLogBuffer(logHandler, taskRequest.getTaskLogName());
     }
 
     public AbstractCommandExecutor(LinkedBlockingQueue<String> logBuffer) {
-        this.logBuffer = logBuffer;
+        this.logBuffer = new TaskOutputLogBuffer(logBuffer::addAll, (String) null);
     }
 
     /**
@@ -326,20 +325,12 @@ public abstract class AbstractCommandExecutor {
      * clear
      */
     private void clear() {
-
-        LinkedBlockingQueue<String> markerLog = new LinkedBlockingQueue<>(1);
-        markerLog.add(ch.qos.logback.classic.ClassicConstants.FINALIZE_SESSION_MARKER.toString());
-
-        if (!logBuffer.isEmpty()) {
-            // log handle
-            logHandler.accept(logBuffer);
-            logBuffer.clear();
-        }
-        logHandler.accept(markerLog);
+        logBuffer.finish();
     }
 
     /**
-     * get the standard output of the process
+     * get the standard output of the process, the output is put into the bounded log buffer and written by the
+     * shared log writer pool.
      *
      * @param process process
      */
@@ -347,45 +338,33 @@ public abstract class AbstractCommandExecutor {
         String threadLoggerInfoName = taskRequest.getTaskLogName();
         ExecutorService getOutputLogService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
         getOutputLogService.submit(() -> {
-            try (BufferedReader inReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            try (BoundedLineReader inReader = new BoundedLineReader(new InputStreamReader(process.getInputStream()),
+                    TaskConstants.DEFAULT_LOG_LINE_MAX_LENGTH, "${setValue(", "#{setValue(")) {
                 String line;
                 while ((line = inReader.readLine()) != null) {
+                    if (inReader.getTruncatedChars() > 0) {
+                        logBuffer.dropped(2 * inReader.getTruncatedChars());
+                    }
                     if (line.startsWith("${setValue(") || line.startsWith("#{setValue(")) {
                         varPool.append(findVarPool(line));
                         varPool.append("$VarPool$");
                     } else {
-                        logBuffer.add(line);
+                        logBuffer.put(line);
                         taskResultString = line;
                     }
                 }
-                logOutputIsSuccess = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.error(e.getMessage(), e);
             } catch (Exception e) {
                 logger.error(e.getMessage(), e);
+            } finally {
                 logOutputIsSuccess = true;
+                logBuffer.close();
             }
         });
 
         getOutputLogService.shutdown();
-
-        ExecutorService parseProcessOutputExecutorService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
-        parseProcessOutputExecutorService.submit(() -> {
-            try {
-                long lastFlushTime = System.currentTimeMillis();
-                while (logBuffer.size() > 0 || !logOutputIsSuccess) {
-                    if (logBuffer.size() > 0) {
-                        lastFlushTime = flush(lastFlushTime);
-                    } else {
-                        Thread.sleep(TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL);
-                    }
-                }
-            } catch (Exception e) {
-                Thread.currentThread().interrupt();
-                logger.error(e.getMessage(), e);
-            } finally {
-                clear();
-            }
-        });
-        parseProcessOutputExecutorService.shutdown();
     }
 
     /**
@@ -439,28 +418,6 @@ public abstract class AbstractCommandExecutor {
         return processId;
     }
 
-    /**
-     * when log buffer siz or flush time reach condition , then flush
-     *
-     * @param lastFlushTime last flush time
-     * @return last flush time
-     */
-    private long flush(long lastFlushTime) {
-        long now = System.currentTimeMillis();
-
-        /*
-         * when log buffer siz or flush time reach condition , then flush
-         */
-        if (logBuffer.size() >= TaskConstants.DEFAULT_LOG_ROWS_NUM
-                || now - lastFlushTime > TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL) {
-            lastFlushTime = now;
-            logHandler.accept(logBuffer);
-
-            logBuffer.clear();
-        }
-        return lastFlushTime;
-    }
-
     protected abstract String buildCommandFilePath();
 
     protected abstract void createCommandFileIfNotExists(String execCommand, String commandFile) throws IOException;
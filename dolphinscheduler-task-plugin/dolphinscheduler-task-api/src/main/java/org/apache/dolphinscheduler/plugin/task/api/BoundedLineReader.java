@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Line reader which truncates the too long lines, so a process output without line break will not be read into
+ * memory as a whole. The line terminators are the same as {@link java.io.BufferedReader#readLine()}.
+ * <p>
+ * The lines starting with one of the unbounded line prefixes, such as the setValue lines parsed into the var pool,
+ * are never truncated, since a truncated value would be corrupted.
+ */
+class BoundedLineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Reader reader;
+
+    private final int maxLineLength;
+
+    private final String[] unboundedLinePrefixes;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private boolean skipLineFeed;
+
+    /**
+     * The truncated chars of the last line read.
+     */
+    private long truncatedChars;
+
+    BoundedLineReader(Reader reader, int maxLineLength, String... unboundedLinePrefixes) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+        this.unboundedLinePrefixes = unboundedLinePrefixes;
+    }
+
+    /**
+     * Read a line, the chars exceed the max line length are skipped unless the line is unbounded.
+     *
+     * @return the line, or null if the end of the stream has been reached
+     */
+    String readLine() throws IOException {
+        truncatedChars = 0;
+        StringBuilder line = null;
+        boolean unbounded = false;
+        while (true) {
+            if (position >= limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return line == null ? null : line.toString();
+                }
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            if (line == null) {
+                line = new StringBuilder(Math.min(position - start, maxLineLength));
+            }
+            int length = unbounded ? position - start : Math.min(position - start, maxLineLength - line.length());
+            line.append(buffer, start, length);
+            if (length < position - start && isUnboundedLine(line)) {
+                unbounded = true;
+                line.append(buffer, start + length, position - start - length);
+                length = position - start;
+            }
+            truncatedChars += position - start - length;
+            if (position < limit) {
+                skipLineFeed = buffer[position++] == '\r';
+                return line.toString();
+            }
+        }
+    }
+
+    private boolean isUnboundedLine(StringBuilder line) {
+        for (String prefix : unboundedLinePrefixes) {
+            if (line.length() >= prefix.length() && prefix.contentEquals(line.subSequence(0, prefix.length()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    long getTruncatedChars() {
+        return truncatedChars;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
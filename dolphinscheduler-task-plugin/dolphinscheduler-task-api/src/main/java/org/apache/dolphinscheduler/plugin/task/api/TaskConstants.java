@@ -137,6 +137,11 @@ public class TaskConstants {
      */
     public static final int DEFAULT_LOG_FLUSH_INTERVAL = 1000;
 
+    /**
+     * max length of a log line, the exceeded part is dropped
+     */
+    public static final int DEFAULT_LOG_LINE_MAX_LENGTH = 64 * 1024;
+
     /**
      * pstree, get pud and sub pid
      */
@@ -268,6 +273,20 @@ public class TaskConstants {
      */
     public static final int DEFAULT_DISPLAY_ROWS = 10;
 
+    /**
+     * jdbc fetch size of the sql task query, 0 means the driver default
+     */
+    public static final String SQL_TASK_FETCH_SIZE = "sql.task.fetch.size";
+
+    public static final int DEFAULT_SQL_TASK_FETCH_SIZE = 1000;
+
+    /**
+     * max bytes of the sql task query result kept in memory, which is sent as the alert attachment
+     */
+    public static final String SQL_TASK_RESULT_PREVIEW_MAX_BYTES = "sql.task.result.preview.max.bytes";
+
+    public static final long DEFAULT_SQL_TASK_RESULT_PREVIEW_MAX_BYTES = 1024 * 1024;
+
     /**
      * jar
      */
@@ -261,4 +261,14 @@ public class TaskExecutionContext implements Serializable {
      * max memory
      */
     private Integer memoryMax;
+
+    /**
+     * task definition code
+     */
+    private long taskCode;
+
+    /**
+     * task definition version
+     */
+    private int taskDefinitionVersion;
 }
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import org.apache.dolphinscheduler.common.utils.PropertyUtils;
+import org.apache.dolphinscheduler.plugin.task.api.utils.AbstractCommandExecutorConstants;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Memory bounded output log buffer of a task process.
+ * <p>
+ * The process output reader puts the lines here, once the buffered bytes reach the byte budget, the reader is
+ * blocked until the lines are written, so the process will be blocked on its output pipe instead of filling the
+ * worker memory. The lines are written by the log handler in a writer pool shared by all the tasks of the worker,
+ * in batches of {@link TaskConstants#DEFAULT_LOG_ROWS_NUM} rows, or after {@link TaskConstants#DEFAULT_LOG_FLUSH_INTERVAL}
+ * if there are fewer rows.
+ * <p>
+ * The task log appender picks the log file by the thread name, so the writer thread is renamed to the task log name
+ * while the log handler is called, and the name is restored afterwards.
+ */
+public class TaskOutputLogBuffer {
+
+    /**
+     * The estimated heap bytes of a line besides its chars.
+     */
+    private static final long LINE_OVERHEAD_BYTES = 40;
+
+    private static final long DEFAULT_MAX_BUFFERED_BYTES = 4 * 1024 * 1024;
+
+    private static final int DEFAULT_WRITER_THREADS = 4;
+
+    private static final ScheduledExecutorService LOG_WRITER_POOL = Executors.newScheduledThreadPool(
+            PropertyUtils.getInt(AbstractCommandExecutorConstants.TASK_LOG_WRITER_THREADS, DEFAULT_WRITER_THREADS),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("TaskLogWriter-%d").build());
+
+    private static final AtomicLong TOTAL_BUFFERED_BYTES = new AtomicLong();
+
+    private static final AtomicLong TOTAL_BLOCKED_NANOS = new AtomicLong();
+
+    private static final AtomicLong TOTAL_DROPPED_BYTES = new AtomicLong();
+
+    private final Consumer<LinkedBlockingQueue<String>> logHandler;
+
+    private final long maxBufferedBytes;
+
+    /**
+     * The thread name of the task log, the thread name is not changed if it is null.
+     */
+    private final String taskLogName;
+
+    /**
+     * The lines wait to write, guarded by this.
+     */
+    private final ArrayDeque<String> lines = new ArrayDeque<>();
+
+    private long bufferedBytes;
+
+    private ScheduledFuture<?> pendingFlush;
+
+    private boolean pendingFlushImmediately;
+
+    private boolean closed;
+
+    private boolean finished;
+
+    /**
+     * Make sure the batches are handled one by one in order.
+     */
+    private final Object writeLock = new Object();
+
+    public TaskOutputLogBuffer(Consumer<LinkedBlockingQueue<String>> logHandler, String taskLogName) {
+        this(logHandler, PropertyUtils.getLong(AbstractCommandExecutorConstants.TASK_LOG_BUFFER_MAX_BYTES,
+                DEFAULT_MAX_BUFFERED_BYTES), taskLogName);
+    }
+
+    public TaskOutputLogBuffer(Consumer<LinkedBlockingQueue<String>> logHandler, long maxBufferedBytes) {
+        this(logHandler, maxBufferedBytes, null);
+    }
+
+    public TaskOutputLogBuffer(Consumer<LinkedBlockingQueue<String>> logHandler, long maxBufferedBytes,
+                               String taskLogName) {
+        this.logHandler = logHandler;
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.taskLogName = taskLogName;
+    }
+
+    /**
+     * Put a line, blocked if the buffer is full.
+     *
+     * @param line line
+     * @throws InterruptedException if interrupted while waiting for the lines to be written
+     */
+    public void put(String line) throws InterruptedException {
+        long lineBytes = sizeOf(line);
+        synchronized (this) {
+            if (bufferedBytes > 0 && bufferedBytes + lineBytes > maxBufferedBytes && !closed) {
+                long blockStartTime = System.nanoTime();
+                try {
+                    scheduleFlush(true);
+                    while (bufferedBytes > 0 && bufferedBytes + lineBytes > maxBufferedBytes && !closed) {
+                        wait(TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL);
+                    }
+                } finally {
+                    TOTAL_BLOCKED_NANOS.addAndGet(System.nanoTime() - blockStartTime);
+                }
+            }
+            if (closed) {
+                // the log has been finished, e.g. the task has been killed
+                TOTAL_DROPPED_BYTES.addAndGet(lineBytes);
+                return;
+            }
+            lines.add(line);
+            bufferedBytes += lineBytes;
+            TOTAL_BUFFERED_BYTES.addAndGet(lineBytes);
+            scheduleFlush(lines.size() >= TaskConstants.DEFAULT_LOG_ROWS_NUM);
+        }
+    }
+
+    /**
+     * Record the dropped bytes of the output, e.g. the truncated part of a too long line.
+     */
+    public void dropped(long droppedBytes) {
+        TOTAL_DROPPED_BYTES.addAndGet(droppedBytes);
+    }
+
+    /**
+     * No more lines will be put, the remaining lines will be written in the writer pool then the log is finished.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            if (pendingFlush != null) {
+                pendingFlush.cancel(false);
+                pendingFlush = null;
+            }
+        }
+        LOG_WRITER_POOL.execute(this::finish);
+    }
+
+    /**
+     * Write the remaining lines and the finalize marker in current thread, the lines put after that will be dropped.
+     */
+    public void finish() {
+        synchronized (writeLock) {
+            synchronized (this) {
+                closed = true;
+                notifyAll();
+            }
+            writeBatches();
+            if (finished) {
+                return;
+            }
+            finished = true;
+            LinkedBlockingQueue<String> markerLog = new LinkedBlockingQueue<>(1);
+            markerLog.add(ch.qos.logback.classic.ClassicConstants.FINALIZE_SESSION_MARKER.toString());
+            handle(markerLog);
+        }
+    }
+
+    /**
+     * Should be called with this locked.
+     */
+    private void scheduleFlush(boolean immediately) {
+        if (pendingFlush != null) {
+            if (!immediately || pendingFlushImmediately || !pendingFlush.cancel(false)) {
+                return;
+            }
+        }
+        pendingFlushImmediately = immediately;
+        pendingFlush = LOG_WRITER_POOL.schedule(this::flush,
+                immediately ? 0 : TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    private void flush() {
+        synchronized (this) {
+            pendingFlush = null;
+        }
+        synchronized (writeLock) {
+            writeBatches();
+        }
+    }
+
+    /**
+     * Should be called with write lock.
+     */
+    private void writeBatches() {
+        while (true) {
+            LinkedBlockingQueue<String> batch = new LinkedBlockingQueue<>();
+            synchronized (this) {
+                long batchBytes = 0;
+                while (!lines.isEmpty() && batch.size() < TaskConstants.DEFAULT_LOG_ROWS_NUM) {
+                    String line = lines.poll();
+                    batchBytes += sizeOf(line);
+                    batch.add(line);
+                }
+                if (batch.isEmpty()) {
+                    return;
+                }
+                bufferedBytes -= batchBytes;
+                TOTAL_BUFFERED_BYTES.addAndGet(-batchBytes);
+                notifyAll();
+            }
+            handle(batch);
+        }
+    }
+
+    /**
+     * Call the log handler in the name of the task log thread.
+     */
+    private void handle(LinkedBlockingQueue<String> batch) {
+        Thread currentThread = Thread.currentThread();
+        String threadName = currentThread.getName();
+        if (taskLogName == null || taskLogName.equals(threadName)) {
+            logHandler.accept(batch);
+            return;
+        }
+        currentThread.setName(taskLogName);
+        try {
+            logHandler.accept(batch);
+        } finally {
+            currentThread.setName(threadName);
+        }
+    }
+
+    synchronized long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    static long sizeOf(String line) {
+        return LINE_OVERHEAD_BYTES + 2L * line.length();
+    }
+
+    /**
+     * The estimated bytes of the lines buffered by all the tasks.
+     */
+    public static long getTotalBufferedBytes() {
+        return TOTAL_BUFFERED_BYTES.get();
+    }
+
+    /**
+     * The total time of the output readers blocked by the full buffers.
+     */
+    public static double getTotalBlockedSeconds() {
+        return TOTAL_BLOCKED_NANOS.get() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * The estimated bytes of the output which are dropped.
+     */
+    public static long getTotalDroppedBytes() {
+        return TOTAL_DROPPED_BYTES.get();
+    }
+}
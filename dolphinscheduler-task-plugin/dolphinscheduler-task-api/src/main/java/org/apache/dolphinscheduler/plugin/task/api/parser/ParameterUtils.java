@@ -47,9 +47,9 @@ public class ParameterUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(ParameterUtils.class);
 
-    private static final String DATE_PARSE_PATTERN = "\\$\\[([^\\$\\]]+)]";
+    private static final Pattern DATE_PARSE_PATTERN = Pattern.compile("\\$\\[([^\\$\\]]+)]");
 
-    private static final String DATE_START_PATTERN = "^[0-9]";
+    private static final Pattern DATE_START_PATTERN = Pattern.compile("^[0-9]");
 
     private static final char PARAM_REPLACE_CHAR = '?';
 
@@ -68,11 +68,31 @@ public class ParameterUtils {
         if (StringUtils.isEmpty(parameterString)) {
             return parameterString;
         }
-        Date cronTime;
-        if (parameterMap != null && !parameterMap.isEmpty()) {
-            // replace variable ${} form,refers to the replacement of system variables and custom variables
-            parameterString = PlaceholderUtils.replacePlaceholders(parameterString, parameterMap, true);
+        return convertParameterPlaceholders(PlaceholderTemplate.compile(parameterString), parameterMap);
+    }
+
+    /**
+     * convert the place holders of the script body of a task definition version, the compiled template of the script
+     * is cached by the task definition code and version
+     *
+     * @param taskCode              task definition code
+     * @param taskDefinitionVersion task definition version
+     * @param script                script body
+     * @param parameterMap          parameter map
+     * @return convert parameters place holders
+     */
+    public static String convertScriptPlaceholders(long taskCode, int taskDefinitionVersion, String script,
+                                                   Map<String, String> parameterMap) {
+        if (StringUtils.isEmpty(script)) {
+            return script;
         }
+        return convertParameterPlaceholders(PlaceholderTemplate.compile(taskCode, taskDefinitionVersion, script),
+                parameterMap);
+    }
+
+    private static String convertParameterPlaceholders(PlaceholderTemplate template, Map<String, String> parameterMap) {
+        String parameterString = template.getTemplate();
+        Date cronTime;
         if (parameterMap != null && null != parameterMap.get(PARAMETER_DATETIME)) {
             //Get current time, schedule execute time
             String cronTimeStr = parameterMap.get(PARAMETER_DATETIME);
@@ -80,6 +100,15 @@ public class ParameterUtils {
         } else {
             cronTime = new Date();
         }
+        // replace variable ${} form and time $[...] form in one pass by the compiled template
+        String result = template.render(parameterMap, cronTime);
+        if (result != null) {
+            return result;
+        }
+        if (parameterMap != null && !parameterMap.isEmpty()) {
+            // replace variable ${} form,refers to the replacement of system variables and custom variables
+            parameterString = PlaceholderUtils.replacePlaceholders(parameterString, parameterMap, true);
+        }
         // replace time $[...] form, eg. $[yyyyMMdd]
         if (cronTime != null) {
             return dateTemplateParse(parameterString, cronTime);
@@ -252,15 +281,13 @@ public class ParameterUtils {
         if (templateStr == null) {
             return null;
         }
-        Pattern pattern = Pattern.compile(DATE_PARSE_PATTERN);
-
         StringBuffer newValue = new StringBuffer(templateStr.length());
 
-        Matcher matcher = pattern.matcher(templateStr);
+        Matcher matcher = DATE_PARSE_PATTERN.matcher(templateStr);
 
         while (matcher.find()) {
             String key = matcher.group(1);
-            if (Pattern.matches(DATE_START_PATTERN, key)) {
+            if (DATE_START_PATTERN.matcher(key).matches()) {
                 continue;
             }
             String value = TimePlaceholderUtils.getPlaceHolderTime(key, date);
@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.parser;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Compiled placeholder template, the template is parsed once into literal, variable {@code ${name}} and time
+ * expression {@code $[yyyyMMdd]} segments, so it can be rendered in a single linear pass.
+ * <p>
+ * The rendered result is the same as replacing the {@code ${}} placeholders by {@link PlaceholderUtils} without
+ * strict check and then the {@code $[]} placeholders by {@link ParameterUtils}. The templates with nested
+ * placeholders, or the values which contain placeholders, need the recursive replacement, they can't be rendered by
+ * the compiled template and the caller should fall back to the recursive replacement.
+ * <p>
+ * Only the script bodies are cached, by the task definition code and version, the cached template is checked against
+ * the text so a reused version is parsed again. The other texts are parsed on every call.
+ */
+public final class PlaceholderTemplate {
+
+    private static final String VARIABLE_PREFIX = PlaceholderUtils.PLACEHOLDER_PREFIX;
+
+    private static final String VARIABLE_SUFFIX = PlaceholderUtils.PLACEHOLDER_SUFFIX;
+
+    private static final String TIME_PREFIX = TimePlaceholderUtils.PLACEHOLDER_PREFIX;
+
+    private static final Pattern TIME_PATTERN = Pattern.compile("\\$\\[([^\\$\\]]+)]");
+
+    private static final Pattern TIME_IGNORE_PATTERN = Pattern.compile("^[0-9]");
+
+    /**
+     * The max total chars of the cached templates.
+     */
+    private static final long MAX_CACHED_CHARS = 16 * 1024 * 1024;
+
+    private static final Cache<String, PlaceholderTemplate> TEMPLATE_CACHE = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_CHARS)
+            .weigher((String key, PlaceholderTemplate compiledTemplate) -> key.length() + compiledTemplate.weight())
+            .build();
+
+    private static final byte LITERAL = 0;
+
+    private static final byte VARIABLE = 1;
+
+    private static final byte TIME = 2;
+
+    private final String template;
+
+    /**
+     * Whether the template can be rendered by the segments.
+     */
+    private final boolean compiled;
+
+    private final byte[] types;
+
+    /**
+     * The literal text, the variable name or the time expression of the segments.
+     */
+    private final String[] values;
+
+    /**
+     * The original text of the segments, it is kept when the placeholder is not resolved.
+     */
+    private final String[] texts;
+
+    private PlaceholderTemplate(String template, boolean compiled, List<Byte> types, List<String> values,
+                                List<String> texts) {
+        this.template = template;
+        this.compiled = compiled;
+        this.types = new byte[types.size()];
+        for (int i = 0; i < types.size(); i++) {
+            this.types[i] = types.get(i);
+        }
+        this.values = values.toArray(new String[0]);
+        this.texts = texts.toArray(new String[0]);
+    }
+
+    /**
+     * Parse the template without cache.
+     *
+     * @param template template text, not null
+     * @return compiled template
+     */
+    public static PlaceholderTemplate compile(String template) {
+        return parse(template);
+    }
+
+    /**
+     * Get the compiled template of the script body of a task definition version from the cache, or parse it if
+     * absent or the cached template is of another text. The text without placeholders isn't cached.
+     *
+     * @param taskCode task definition code
+     * @param taskDefinitionVersion task definition version
+     * @param template script body, not null
+     * @return compiled template
+     */
+    public static PlaceholderTemplate compile(long taskCode, int taskDefinitionVersion, String template) {
+        if (!template.contains(VARIABLE_PREFIX) && !template.contains(TIME_PREFIX)) {
+            return parse(template);
+        }
+        String key = taskCode + "_" + taskDefinitionVersion;
+        PlaceholderTemplate compiledTemplate = TEMPLATE_CACHE.getIfPresent(key);
+        if (compiledTemplate == null || !compiledTemplate.template.equals(template)) {
+            compiledTemplate = parse(template);
+            TEMPLATE_CACHE.put(key, compiledTemplate);
+        }
+        return compiledTemplate;
+    }
+
+    static PlaceholderTemplate parse(String template) {
+        List<Byte> types = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        boolean compiled = true;
+        int literalStart = 0;
+        int startIndex = template.indexOf(VARIABLE_PREFIX);
+        while (startIndex != -1) {
+            int endIndex = findVariableEndIndex(template, startIndex);
+            if (endIndex == -1) {
+                break;
+            }
+            String name = template.substring(startIndex + VARIABLE_PREFIX.length(), endIndex);
+            if (name.contains(VARIABLE_PREFIX)) {
+                // nested placeholder, need recursive replacement
+                compiled = false;
+                break;
+            }
+            compiled &= addLiteral(template.substring(literalStart, startIndex), true, types, values, texts);
+            literalStart = endIndex + VARIABLE_SUFFIX.length();
+            types.add(VARIABLE);
+            values.add(name);
+            texts.add(template.substring(startIndex, literalStart));
+            startIndex = template.indexOf(VARIABLE_PREFIX, literalStart);
+        }
+        if (compiled) {
+            addLiteral(template.substring(literalStart), false, types, values, texts);
+        }
+        return new PlaceholderTemplate(template, compiled, types, values, texts);
+    }
+
+    /**
+     * Add the literal and the time expressions in it.
+     *
+     * @param hasNext whether there are segments after the literal
+     * @return false if a time expression in the literal may end in the next segments
+     */
+    private static boolean addLiteral(String literal, boolean hasNext, List<Byte> types, List<String> values,
+                                      List<String> texts) {
+        int literalStart = 0;
+        Matcher matcher = TIME_PATTERN.matcher(literal);
+        while (matcher.find()) {
+            String expression = matcher.group(1);
+            if (TIME_IGNORE_PATTERN.matcher(expression).matches() || StringUtils.isBlank(expression)) {
+                continue;
+            }
+            addText(literal.substring(literalStart, matcher.start()), types, values, texts);
+            types.add(TIME);
+            values.add(expression);
+            texts.add(matcher.group());
+            literalStart = matcher.end();
+        }
+        addText(literal.substring(literalStart), types, values, texts);
+        if (!hasNext) {
+            return true;
+        }
+        int timeStart = literal.lastIndexOf(TIME_PREFIX);
+        if (timeStart == -1 || timeStart < literalStart) {
+            return true;
+        }
+        // $[ without ] in this literal, the time expression may contain the following variables
+        for (int i = timeStart + TIME_PREFIX.length(); i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (c == '$' || c == ']') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addText(String text, List<Byte> types, List<String> values, List<String> texts) {
+        if (text.isEmpty()) {
+            return;
+        }
+        types.add(LITERAL);
+        values.add(text);
+        texts.add(text);
+    }
+
+    /**
+     * Find the end of the variable, the braces in the variable are matched, same as {@link PropertyPlaceholderHelper}.
+     */
+    private static int findVariableEndIndex(String template, int startIndex) {
+        int index = startIndex + VARIABLE_PREFIX.length();
+        int withinNestedPlaceholder = 0;
+        while (index < template.length()) {
+            char c = template.charAt(index);
+            if (c == '}') {
+                if (withinNestedPlaceholder == 0) {
+                    return index;
+                }
+                withinNestedPlaceholder--;
+            } else if (c == '{') {
+                withinNestedPlaceholder++;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Render the template, the unresolved placeholders are kept.
+     *
+     * @param paramsMap the values of the {@code ${}} placeholders, may be null
+     * @param date the date of the {@code $[]} placeholders, the time placeholders are kept if it is null
+     * @return the rendered text, or null if the template or the values need the recursive replacement
+     */
+    public String render(Map<String, String> paramsMap, Date date) {
+        if (!compiled) {
+            return null;
+        }
+        if (types.length == 0) {
+            return template;
+        }
+        if (types.length == 1 && types[0] == LITERAL) {
+            return template;
+        }
+        StringBuilder result = new StringBuilder(template.length() + (template.length() >> 2));
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case VARIABLE:
+                    String value = paramsMap == null ? null : paramsMap.get(values[i]);
+                    if (value == null) {
+                        result.append(texts[i]);
+                        break;
+                    }
+                    if (!isPlainValue(value, result, date != null)) {
+                        return null;
+                    }
+                    result.append(value);
+                    break;
+                case TIME:
+                    result.append(date == null ? texts[i] : TimePlaceholderUtils.getPlaceHolderTime(values[i], date));
+                    break;
+                default:
+                    result.append(values[i]);
+                    break;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Whether the value doesn't contain placeholders and doesn't form a time placeholder with the text around it.
+     */
+    private static boolean isPlainValue(String value, StringBuilder result, boolean replaceTime) {
+        if (value.indexOf('$') == -1) {
+            return !replaceTime
+                    || value.isEmpty()
+                    || value.charAt(0) != '['
+                    || result.length() == 0
+                    || result.charAt(result.length() - 1) != '$';
+        }
+        if (value.contains(VARIABLE_PREFIX)) {
+            return false;
+        }
+        return !replaceTime || !value.contains(TIME_PREFIX) && value.charAt(value.length() - 1) != '$';
+    }
+
+    /**
+     * The chars held by the template and the segments, the literal segments share the value and the text.
+     */
+    private int weight() {
+        long weight = template.length();
+        for (int i = 0; i < types.length; i++) {
+            weight += values[i].length();
+            if (types[i] != LITERAL) {
+                weight += texts[i].length();
+            }
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Whether the template can be rendered without the recursive replacement.
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+}
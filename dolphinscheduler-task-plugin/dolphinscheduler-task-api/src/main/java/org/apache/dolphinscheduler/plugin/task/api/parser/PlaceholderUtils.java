@@ -40,6 +40,17 @@ public class PlaceholderUtils {
 
     public static final String PLACEHOLDER_SUFFIX = "}";
 
+    /**
+     * replacement tool， parameter key will be replaced by value,if can't match , will throw an exception
+     */
+    private static final PropertyPlaceholderHelper strictHelper = getPropertyPlaceholderHelper(false);
+
+    /**
+     * Non-strict replacement tool implementation, when the position to be replaced does not get the corresponding
+     * value, the current position is ignored, and the next position is replaced.
+     */
+    private static final PropertyPlaceholderHelper nonStrictHelper = getPropertyPlaceholderHelper(true);
+
     /**
      * Replaces all placeholders of format {@code ${name}} with the value returned
      * from the supplied {@link PropertyPlaceholderHelper.PlaceholderResolver}.
@@ -52,11 +63,12 @@ public class PlaceholderUtils {
     public static String replacePlaceholders(String value,
                                              Map<String, String> paramsMap,
                                              boolean ignoreUnresolvablePlaceholders) {
-        //replacement tool， parameter key will be replaced by value,if can't match , will throw an exception
-        PropertyPlaceholderHelper strictHelper = getPropertyPlaceholderHelper(false);
-
-        //Non-strict replacement tool implementation, when the position to be replaced does not get the corresponding value, the current position is ignored, and the next position is replaced.
-        PropertyPlaceholderHelper nonStrictHelper = getPropertyPlaceholderHelper(true);
+        if (ignoreUnresolvablePlaceholders && value != null) {
+            String result = PlaceholderTemplate.compile(value).render(paramsMap, null);
+            if (result != null) {
+                return result;
+            }
+        }
 
         PropertyPlaceholderHelper helper = (ignoreUnresolvablePlaceholders ? nonStrictHelper : strictHelper);
 
@@ -73,6 +73,10 @@ public class TimePlaceholderUtils {
      */
     public static final String PLACEHOLDER_SUFFIX = "]";
 
+    private static final PropertyPlaceholderHelper strictHelper = getPropertyPlaceholderHelper(false);
+
+    private static final PropertyPlaceholderHelper nonStrictHelper = getPropertyPlaceholderHelper(true);
+
     /**
      * Replaces all placeholders of format {@code ${name}} with the value returned
      * from the supplied {@link PropertyPlaceholderHelper.PlaceholderResolver}.
@@ -83,9 +87,6 @@ public class TimePlaceholderUtils {
      * @return the supplied value with placeholders replaced inline
      */
     public static String replacePlaceholders(String value, Date date, boolean ignoreUnresolvablePlaceholders) {
-        PropertyPlaceholderHelper strictHelper = getPropertyPlaceholderHelper(false);
-        PropertyPlaceholderHelper nonStrictHelper = getPropertyPlaceholderHelper(true);
-
         PropertyPlaceholderHelper helper = (ignoreUnresolvablePlaceholders ? nonStrictHelper : strictHelper);
         return helper.replacePlaceholders(value, new TimePlaceholderResolver(value, date));
     }
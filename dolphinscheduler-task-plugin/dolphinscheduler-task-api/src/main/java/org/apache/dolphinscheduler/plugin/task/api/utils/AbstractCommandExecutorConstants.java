@@ -24,4 +24,8 @@ public class AbstractCommandExecutorConstants {
     }
 
     public static final String TASK_RESOURCE_LIMIT_STATE = "task.resource.limit.state";
+
+    public static final String TASK_LOG_BUFFER_MAX_BYTES = "task.log.buffer.max.bytes";
+
+    public static final String TASK_LOG_WRITER_THREADS = "task.log.writer.threads";
 }
@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.plugin.task.api.utils;
 import org.apache.dolphinscheduler.common.constants.DateConstants;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.plugin.task.api.parser.PlaceholderTemplate;
 import org.apache.dolphinscheduler.plugin.task.api.parser.PlaceholderUtils;
 import org.apache.dolphinscheduler.plugin.task.api.parser.TimePlaceholderUtils;
 
@@ -57,10 +58,6 @@ public class ParameterUtils {
             return parameterString;
         }
         Date cronTime;
-        if (parameterMap != null && !parameterMap.isEmpty()) {
-            // replace variable ${} form,refers to the replacement of system variables and custom variables
-            parameterString = PlaceholderUtils.replacePlaceholders(parameterString, parameterMap, true);
-        }
         if (parameterMap != null && null != parameterMap.get(DateConstants.PARAMETER_DATETIME)) {
             // Get current time, schedule execute time
             String cronTimeStr = parameterMap.get(DateConstants.PARAMETER_DATETIME);
@@ -68,6 +65,15 @@ public class ParameterUtils {
         } else {
             cronTime = new Date();
         }
+        // replace variable ${} form and time $[...] form in one pass by the compiled template
+        String result = PlaceholderTemplate.compile(parameterString).render(parameterMap, cronTime);
+        if (result != null) {
+            return result;
+        }
+        if (parameterMap != null && !parameterMap.isEmpty()) {
+            // replace variable ${} form,refers to the replacement of system variables and custom variables
+            parameterString = PlaceholderUtils.replacePlaceholders(parameterString, parameterMap, true);
+        }
         // replace time $[...] form, eg. $[yyyyMMdd]
         if (cronTime != null) {
             return dateTemplateParse(parameterString, cronTime);
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ch.qos.logback.classic.ClassicConstants;
+
+public class TaskOutputLogBufferTest {
+
+    @Test
+    public void testWriteInOrderAndFinish() throws InterruptedException {
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch finished = new CountDownLatch(1);
+        TaskOutputLogBuffer logBuffer = new TaskOutputLogBuffer(batch -> {
+            if (batch.contains(ClassicConstants.FINALIZE_SESSION_MARKER.toString())) {
+                finished.countDown();
+            } else {
+                written.addAll(batch);
+            }
+        }, 10 * TaskOutputLogBuffer.sizeOf("line-000"));
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String line = String.format("line-%03d", i);
+            expected.add(line);
+            logBuffer.put(line);
+            Assert.assertTrue(logBuffer.getBufferedBytes() <= 10 * TaskOutputLogBuffer.sizeOf(line));
+        }
+        logBuffer.close();
+
+        Assert.assertTrue(finished.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(expected, written);
+        Assert.assertEquals(0, logBuffer.getBufferedBytes());
+    }
+
+    @Test
+    public void testDropAfterFinish() throws InterruptedException {
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        TaskOutputLogBuffer logBuffer = new TaskOutputLogBuffer(written::addAll, 1024);
+        logBuffer.put("line-1");
+        logBuffer.finish();
+        long droppedBytes = TaskOutputLogBuffer.getTotalDroppedBytes();
+        logBuffer.put("line-2");
+
+        Assert.assertEquals(TaskOutputLogBuffer.sizeOf("line-2"), TaskOutputLogBuffer.getTotalDroppedBytes() - droppedBytes);
+        Assert.assertEquals(2, written.size());
+        Assert.assertEquals("line-1", written.get(0));
+    }
+
+    @Test
+    public void testTruncateLongLine() throws IOException {
+        BoundedLineReader reader = new BoundedLineReader(new StringReader("abcdefgh\r\nab\rabc\n\nabcd"), 4);
+        Assert.assertEquals("abcd", reader.readLine());
+        Assert.assertEquals(4, reader.getTruncatedChars());
+        Assert.assertEquals("ab", reader.readLine());
+        Assert.assertEquals(0, reader.getTruncatedChars());
+        Assert.assertEquals("abc", reader.readLine());
+        Assert.assertEquals("", reader.readLine());
+        Assert.assertEquals("abcd", reader.readLine());
+        Assert.assertNull(reader.readLine());
+    }
+
+    @Test
+    public void testNotTruncateSetValueLine() throws IOException {
+        char[] value = new char[20000];
+        Arrays.fill(value, 'v');
+        String setValueLine = "${setValue(key=" + new String(value) + ")}";
+        BoundedLineReader reader = new BoundedLineReader(
+                new StringReader(setValueLine + "\n" + new String(value) + "\n"), 16, "${setValue(", "#{setValue(");
+        Assert.assertEquals(setValueLine, reader.readLine());
+        Assert.assertEquals(0, reader.getTruncatedChars());
+        Assert.assertEquals(16, reader.readLine().length());
+        Assert.assertEquals(value.length - 16, reader.getTruncatedChars());
+        Assert.assertNull(reader.readLine());
+    }
+}
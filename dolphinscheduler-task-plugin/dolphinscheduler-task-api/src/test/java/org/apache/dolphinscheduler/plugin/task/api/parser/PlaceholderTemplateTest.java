@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.parser;
+
+import org.apache.dolphinscheduler.common.utils.DateUtils;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PlaceholderTemplateTest {
+
+    private final Date date = DateUtils.parse("20221001123000", "yyyyMMddHHmmss");
+
+    @Test
+    public void testRender() {
+        Map<String, String> paramsMap = new HashMap<>();
+        paramsMap.put("table", "t_ds_user");
+        paramsMap.put("limit", "10");
+
+        PlaceholderTemplate template = PlaceholderTemplate.parse(
+                "select * from ${table} where dt = '$[yyyy-MM-dd]' and id > $[1] limit ${limit} ${missing}");
+        Assert.assertTrue(template.isCompiled());
+        Assert.assertEquals("select * from t_ds_user where dt = '2022-10-01' and id > $[1] limit 10 ${missing}",
+                template.render(paramsMap, date));
+        Assert.assertEquals("select * from t_ds_user where dt = '$[yyyy-MM-dd]' and id > $[1] limit 10 ${missing}",
+                template.render(paramsMap, null));
+        Assert.assertEquals("select * from ${table} where dt = '2022-10-01' and id > $[1] limit ${limit} ${missing}",
+                template.render(null, date));
+        Assert.assertEquals("", PlaceholderTemplate.parse("").render(paramsMap, date));
+        Assert.assertEquals("echo ${unclosed", PlaceholderTemplate.parse("echo ${unclosed").render(paramsMap, date));
+    }
+
+    @Test
+    public void testRenderNeedRecursiveReplacement() {
+        Map<String, String> paramsMap = new HashMap<>();
+        paramsMap.put("a", "${b}");
+        paramsMap.put("b", "1");
+        paramsMap.put("format", "yyyyMMdd");
+        paramsMap.put("time", "$[yyyyMMdd]");
+        paramsMap.put("bracket", "[yyyyMMdd]");
+
+        Assert.assertFalse(PlaceholderTemplate.parse("${a${b}}").isCompiled());
+        Assert.assertFalse(PlaceholderTemplate.parse("$[${format}]").isCompiled());
+        Assert.assertNull(PlaceholderTemplate.parse("${a}").render(paramsMap, date));
+        Assert.assertNull(PlaceholderTemplate.parse("${time}").render(paramsMap, date));
+        Assert.assertNull(PlaceholderTemplate.parse("$${bracket}").render(paramsMap, date));
+        Assert.assertEquals("$[yyyyMMdd]", PlaceholderTemplate.parse("${time}").render(paramsMap, null));
+
+        Assert.assertEquals("1", ParameterUtils.convertParameterPlaceholders("${a}", paramsMap));
+        Assert.assertEquals("20221001",
+                ParameterUtils.convertParameterPlaceholders("$[${format}]", withDatetime(paramsMap)));
+        Assert.assertEquals("20221001",
+                ParameterUtils.convertParameterPlaceholders("${time}", withDatetime(paramsMap)));
+        Assert.assertEquals("20221001",
+                ParameterUtils.convertParameterPlaceholders("$${bracket}", withDatetime(paramsMap)));
+    }
+
+    @Test
+    public void testCompileCached() {
+        String template = "echo ${name} $[yyyyMMdd]";
+        PlaceholderTemplate compiledTemplate = PlaceholderTemplate.compile(1L, 1, template);
+        Assert.assertSame(compiledTemplate, PlaceholderTemplate.compile(1L, 1, new String(template)));
+        Assert.assertNotSame(compiledTemplate, PlaceholderTemplate.compile(1L, 2, template));
+        Assert.assertNotSame(PlaceholderTemplate.compile(template), PlaceholderTemplate.compile(template));
+
+        // the version is reused by another text
+        PlaceholderTemplate reusedTemplate = PlaceholderTemplate.compile(1L, 1, "echo ${name}");
+        Assert.assertEquals("echo ${name}", reusedTemplate.getTemplate());
+        Assert.assertSame(reusedTemplate, PlaceholderTemplate.compile(1L, 1, "echo ${name}"));
+
+        // the text without placeholders isn't cached
+        Assert.assertNotSame(PlaceholderTemplate.compile(1L, 3, "echo 1"), PlaceholderTemplate.compile(1L, 3, "echo 1"));
+
+        Map<String, String> paramsMap = new HashMap<>();
+        paramsMap.put("name", "ds");
+        Assert.assertEquals("echo ds", ParameterUtils.convertScriptPlaceholders(1L, 1, "echo ${name}", paramsMap));
+        Assert.assertEquals("echo ds 1", ParameterUtils.convertScriptPlaceholders(1L, 1, "echo ${name} 1", paramsMap));
+    }
+
+    private Map<String, String> withDatetime(Map<String, String> paramsMap) {
+        Map<String, String> result = new HashMap<>(paramsMap);
+        result.put("system.datetime", "20221001123000");
+        return result;
+    }
+}
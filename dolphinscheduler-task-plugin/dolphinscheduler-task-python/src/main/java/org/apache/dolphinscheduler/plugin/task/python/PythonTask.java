@@ -215,7 +215,8 @@ public class PythonTask extends AbstractTask {
         logger.info("raw python script : {}", pythonParameters.getRawScript());
         String rawPythonScript = pythonParameters.getRawScript().replaceAll("\\r\\n", "\n");
         Map<String, Property> paramsMap = mergeParamsWithContext(pythonParameters);
-        return ParameterUtils.convertParameterPlaceholders(rawPythonScript, ParamUtils.convert(paramsMap));
+        return ParameterUtils.convertScriptPlaceholders(taskRequest.getTaskCode(),
+                taskRequest.getTaskDefinitionVersion(), rawPythonScript, ParamUtils.convert(paramsMap));
     }
 
     protected Map<String, Property> mergeParamsWithContext(AbstractParameters parameters) {
@@ -161,6 +161,7 @@ public class ShellTask extends AbstractTask {
     private String parseScript(String script) {
         // combining local and global parameters
         Map<String, Property> paramsMap = taskExecutionContext.getPrepareParamsMap();
-        return ParameterUtils.convertParameterPlaceholders(script, ParamUtils.convert(paramsMap));
+        return ParameterUtils.convertScriptPlaceholders(taskExecutionContext.getTaskCode(),
+                taskExecutionContext.getTaskDefinitionVersion(), script, ParamUtils.convert(paramsMap));
     }
 }
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.sql;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Stream the rows of a query result, only one row is held in memory while reading.
+ * <p>
+ * The rows are written to a local file as json lines, the first display rows are logged, and the rows are kept as
+ * the preview of the result until the preview bytes are exceeded. The columns of the out parameters are collected
+ * for all the rows, since a LIST out parameter needs the whole column.
+ */
+public class SqlQueryResultWriter implements Closeable {
+
+    private final Logger logger;
+
+    private final int limit;
+
+    private final int displayRows;
+
+    private final long previewMaxBytes;
+
+    private final List<Property> outProperties;
+
+    private final Path resultFile;
+
+    private BufferedWriter resultFileWriter;
+
+    private final StringBuilder preview = new StringBuilder("[");
+
+    private boolean previewTruncated;
+
+    private final ArrayNode outParamRows = JSONUtils.createArrayNode();
+
+    private int rowCount;
+
+    /**
+     * @param logger task logger
+     * @param limit max rows to read
+     * @param displayRows rows to log
+     * @param previewMaxBytes max bytes of the preview
+     * @param outProperties out parameters of the task
+     * @param resultFile the file to write the rows, null if the rows are not written
+     */
+    public SqlQueryResultWriter(Logger logger, int limit, int displayRows, long previewMaxBytes,
+                                List<Property> outProperties, Path resultFile) {
+        this.logger = logger;
+        this.limit = limit;
+        this.displayRows = displayRows;
+        this.previewMaxBytes = previewMaxBytes;
+        this.outProperties = outProperties == null ? new ArrayList<>() : outProperties;
+        this.resultFile = resultFile;
+    }
+
+    /**
+     * Read the rows of the result set until the limit.
+     *
+     * @param resultSet result set
+     */
+    public void write(ResultSet resultSet) throws SQLException, IOException {
+        if (resultFile != null) {
+            Files.createDirectories(resultFile.getParent());
+            resultFileWriter = Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8);
+        }
+        ResultSetMetaData md = resultSet.getMetaData();
+        int num = md.getColumnCount();
+        String[] columnLabels = new String[num];
+        for (int i = 1; i <= num; i++) {
+            columnLabels[i - 1] = md.getColumnLabel(i);
+        }
+        if (displayRows > 0) {
+            logger.info("display sql result {} rows at most as follows:", displayRows);
+        }
+        while (resultSet.next()) {
+            if (rowCount == limit) {
+                logger.info("sql result limit : {} exceeding results are filtered", limit);
+                break;
+            }
+            ObjectNode row = JSONUtils.createObjectNode();
+            for (int i = 1; i <= num; i++) {
+                row.set(columnLabels[i - 1], JSONUtils.toJsonNode(resultSet.getObject(i)));
+            }
+            rowCount++;
+            writeRow(row);
+        }
+        if (resultFileWriter != null) {
+            resultFileWriter.flush();
+        }
+        logger.info("sql result {} rows{}", rowCount,
+                resultFile == null ? "" : ", the rows are written to " + resultFile);
+    }
+
+    private void writeRow(ObjectNode row) throws IOException {
+        String rowJson = JSONUtils.toJsonString(row);
+        if (rowCount <= displayRows) {
+            logger.info("row {} : {}", rowCount, rowJson);
+        }
+        if (resultFileWriter != null) {
+            resultFileWriter.write(rowJson);
+            resultFileWriter.newLine();
+        }
+        if (!previewTruncated) {
+            // the chars are counted as bytes, which is accurate enough as a bound
+            if (preview.length() + rowJson.length() + 2 > previewMaxBytes) {
+                previewTruncated = true;
+                logger.info("sql result preview is truncated at {} rows, exceeding {} bytes", rowCount - 1,
+                        previewMaxBytes);
+            } else {
+                if (preview.length() > 1) {
+                    preview.append(',');
+                }
+                preview.append(rowJson);
+            }
+        }
+        if (!outProperties.isEmpty()) {
+            ObjectNode outParamRow = JSONUtils.createObjectNode();
+            for (Property outProperty : outProperties) {
+                if (row.has(outProperty.getProp())) {
+                    outParamRow.set(outProperty.getProp(), row.get(outProperty.getProp()));
+                }
+            }
+            outParamRows.add(outParamRow);
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the json array of the rows kept in memory, it is the whole result if it is not truncated
+     */
+    public String getPreview() {
+        return preview + "]";
+    }
+
+    public boolean isPreviewTruncated() {
+        return previewTruncated;
+    }
+
+    /**
+     * @return the json array of the out parameter columns of all the rows
+     */
+    public String getOutParamResult() {
+        return JSONUtils.toJsonString(outParamRows);
+    }
+
+    public Path getResultFile() {
+        return resultFile;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (resultFileWriter != null) {
+            resultFileWriter.close();
+        }
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.plugin.task.sql;
 
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.plugin.datasource.api.utils.CommonUtils;
 import org.apache.dolphinscheduler.plugin.datasource.api.utils.DataSourceUtils;
 import org.apache.dolphinscheduler.plugin.task.api.AbstractTask;
@@ -42,10 +43,11 @@ import org.apache.dolphinscheduler.spi.enums.DbType;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.MessageFormat;
@@ -60,9 +62,6 @@ import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-
 public class SqlTask extends AbstractTask {
 
     /**
@@ -92,6 +91,11 @@ public class SqlTask extends AbstractTask {
      */
     private static final int QUERY_LIMIT = 10000;
 
+    /**
+     * the file to write the query result rows, in the task execute path
+     */
+    private static final String QUERY_RESULT_FILE_FORMAT = "%s_query_result.jsonl";
+
     private SQLTaskExecutionContext sqlTaskExecutionContext;
 
     /**
@@ -241,49 +245,42 @@ public class SqlTask extends AbstractTask {
     }
 
     /**
-     * result process
+     * result process, the rows are streamed to a file in the task execute path, and only a bounded preview is kept
      *
      * @param resultSet resultSet
+     * @return the out parameter columns of the result
      * @throws Exception Exception
      */
     private String resultProcess(ResultSet resultSet) throws Exception {
-        ArrayNode resultJSONArray = JSONUtils.createArrayNode();
+        int limit = sqlParameters.getLimit() == 0 ? QUERY_LIMIT : sqlParameters.getLimit();
+        int displayRows = sqlParameters.getDisplayRows() > 0 ? sqlParameters.getDisplayRows()
+                : TaskConstants.DEFAULT_DISPLAY_ROWS;
+        long previewMaxBytes = PropertyUtils.getLong(TaskConstants.SQL_TASK_RESULT_PREVIEW_MAX_BYTES,
+                TaskConstants.DEFAULT_SQL_TASK_RESULT_PREVIEW_MAX_BYTES);
+        List<Property> outProperties = CollectionUtils.isEmpty(sqlParameters.getLocalParams()) ? null
+                : sqlParameters.getOutProperty(sqlParameters.getLocalParams());
+        Path resultFile = StringUtils.isEmpty(taskExecutionContext.getExecutePath()) ? null
+                : Paths.get(taskExecutionContext.getExecutePath(),
+                        String.format(QUERY_RESULT_FILE_FORMAT, taskExecutionContext.getTaskInstanceId()));
+
+        String preview = "[]";
+        String outParamResult = "[]";
         if (resultSet != null) {
-            ResultSetMetaData md = resultSet.getMetaData();
-            int num = md.getColumnCount();
-
-            int rowCount = 0;
-            int limit = sqlParameters.getLimit() == 0 ? QUERY_LIMIT : sqlParameters.getLimit();
-
-            while (resultSet.next()) {
-                if (rowCount == limit) {
-                    logger.info("sql result limit : {} exceeding results are filtered", limit);
-                    break;
-                }
-                ObjectNode mapOfColValues = JSONUtils.createObjectNode();
-                for (int i = 1; i <= num; i++) {
-                    mapOfColValues.set(md.getColumnLabel(i), JSONUtils.toJsonNode(resultSet.getObject(i)));
-                }
-                resultJSONArray.add(mapOfColValues);
-                rowCount++;
-            }
-            int displayRows = sqlParameters.getDisplayRows() > 0 ? sqlParameters.getDisplayRows()
-                    : TaskConstants.DEFAULT_DISPLAY_ROWS;
-            displayRows = Math.min(displayRows, rowCount);
-            logger.info("display sql result {} rows as follows:", displayRows);
-            for (int i = 0; i < displayRows; i++) {
-                String row = JSONUtils.toJsonString(resultJSONArray.get(i));
-                logger.info("row {} : {}", i + 1, row);
+            try (
+                    SqlQueryResultWriter resultWriter = new SqlQueryResultWriter(logger, limit, displayRows,
+                            previewMaxBytes, outProperties, resultFile)) {
+                resultWriter.write(resultSet);
+                preview = resultWriter.getPreview();
+                outParamResult = resultWriter.getOutParamResult();
             }
         }
-        String result = JSONUtils.toJsonString(resultJSONArray);
         if (Boolean.TRUE.equals(sqlParameters.getSendEmail())) {
             sendAttachment(sqlParameters.getGroupId(), StringUtils.isNotEmpty(sqlParameters.getTitle())
                     ? sqlParameters.getTitle()
-                    : taskExecutionContext.getTaskName() + " query result sets", result);
+                    : taskExecutionContext.getTaskName() + " query result sets", preview);
         }
-        logger.debug("execute sql result : {}", result);
-        return result;
+        logger.debug("execute sql result : {}", preview);
+        return outParamResult;
     }
 
     /**
@@ -303,8 +300,14 @@ public class SqlTask extends AbstractTask {
 
     private String executeQuery(Connection connection, SqlBinds sqlBinds, String handlerType) throws Exception {
         try (PreparedStatement statement = prepareStatementAndBind(connection, sqlBinds)) {
-            ResultSet resultSet = statement.executeQuery();
-            return resultProcess(resultSet);
+            int fetchSize = PropertyUtils.getInt(TaskConstants.SQL_TASK_FETCH_SIZE,
+                    TaskConstants.DEFAULT_SQL_TASK_FETCH_SIZE);
+            if (fetchSize > 0) {
+                statement.setFetchSize(fetchSize);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultProcess(resultSet);
+            }
         }
     }
 
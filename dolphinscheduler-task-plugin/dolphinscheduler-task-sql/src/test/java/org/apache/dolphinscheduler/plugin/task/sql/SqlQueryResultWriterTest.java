@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.sql;
+
+import org.apache.dolphinscheduler.plugin.task.api.enums.DataType;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+public class SqlQueryResultWriterTest {
+
+    private static final String ROW_1 = "{\"id\":1,\"name\":\"a\"}";
+    private static final String ROW_2 = "{\"id\":2,\"name\":\"b\"}";
+    private static final String ROW_3 = "{\"id\":3,\"name\":\"c\"}";
+
+    @TempDir
+    Path tempDir;
+
+    private Logger logger;
+
+    private ResultSet resultSet;
+
+    @BeforeEach
+    public void before() throws SQLException {
+        logger = Mockito.mock(Logger.class);
+        resultSet = mockResultSet(new Object[]{1, "a"}, new Object[]{2, "b"}, new Object[]{3, "c"});
+    }
+
+    @Test
+    public void testWriteRowsToFile() throws SQLException, IOException {
+        Path resultFile = tempDir.resolve("result").resolve("1_query_result.jsonl");
+        try (SqlQueryResultWriter writer = new SqlQueryResultWriter(logger, 10, 2, 1024, null, resultFile)) {
+            writer.write(resultSet);
+            Assertions.assertEquals(3, writer.getRowCount());
+            Assertions.assertEquals("[" + ROW_1 + "," + ROW_2 + "," + ROW_3 + "]", writer.getPreview());
+            Assertions.assertFalse(writer.isPreviewTruncated());
+            Assertions.assertEquals("[]", writer.getOutParamResult());
+        }
+        Assertions.assertEquals(Arrays.asList(ROW_1, ROW_2, ROW_3),
+                Files.readAllLines(resultFile, StandardCharsets.UTF_8));
+        // only the display rows are logged
+        Mockito.verify(logger, Mockito.times(2))
+                .info(ArgumentMatchers.eq("row {} : {}"), ArgumentMatchers.anyInt(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void testWriteRowsUntilLimit() throws SQLException, IOException {
+        Path resultFile = tempDir.resolve("1_query_result.jsonl");
+        try (SqlQueryResultWriter writer = new SqlQueryResultWriter(logger, 2, 0, 1024, null, resultFile)) {
+            writer.write(resultSet);
+            Assertions.assertEquals(2, writer.getRowCount());
+            Assertions.assertEquals("[" + ROW_1 + "," + ROW_2 + "]", writer.getPreview());
+        }
+        Assertions.assertEquals(Arrays.asList(ROW_1, ROW_2), Files.readAllLines(resultFile, StandardCharsets.UTF_8));
+        Mockito.verify(logger, Mockito.never())
+                .info(ArgumentMatchers.eq("row {} : {}"), ArgumentMatchers.anyInt(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void testPreviewTruncated() throws SQLException, IOException {
+        Path resultFile = tempDir.resolve("1_query_result.jsonl");
+        List<Property> outProperties = Collections.singletonList(outProperty("name"));
+        // room for the first row with the brackets only
+        long previewMaxBytes = ROW_1.length() + 3;
+        try (
+                SqlQueryResultWriter writer =
+                        new SqlQueryResultWriter(logger, 10, 0, previewMaxBytes, outProperties, resultFile)) {
+            writer.write(resultSet);
+            Assertions.assertEquals(3, writer.getRowCount());
+            Assertions.assertTrue(writer.isPreviewTruncated());
+            Assertions.assertEquals("[" + ROW_1 + "]", writer.getPreview());
+            // the out parameters and the result file still have all the rows
+            Assertions.assertEquals("[{\"name\":\"a\"},{\"name\":\"b\"},{\"name\":\"c\"}]",
+                    writer.getOutParamResult());
+        }
+        Assertions.assertEquals(3, Files.readAllLines(resultFile, StandardCharsets.UTF_8).size());
+    }
+
+    @Test
+    public void testOutParamResult() throws SQLException, IOException {
+        List<Property> outProperties = Arrays.asList(outProperty("id"), outProperty("missing"));
+        try (SqlQueryResultWriter writer = new SqlQueryResultWriter(logger, 2, 0, 1024, outProperties, null)) {
+            writer.write(resultSet);
+            Assertions.assertNull(writer.getResultFile());
+            Assertions.assertEquals("[{\"id\":1},{\"id\":2}]", writer.getOutParamResult());
+        }
+    }
+
+    private Property outProperty(String prop) {
+        Property property = new Property();
+        property.setProp(prop);
+        property.setDirect(Direct.OUT);
+        property.setType(DataType.LIST);
+        return property;
+    }
+
+    private ResultSet mockResultSet(Object[]... rows) throws SQLException {
+        ResultSetMetaData metaData = Mockito.mock(ResultSetMetaData.class);
+        Mockito.when(metaData.getColumnCount()).thenReturn(2);
+        Mockito.when(metaData.getColumnLabel(1)).thenReturn("id");
+        Mockito.when(metaData.getColumnLabel(2)).thenReturn("name");
+        ResultSet mockResultSet = Mockito.mock(ResultSet.class);
+        AtomicInteger cursor = new AtomicInteger(-1);
+        Mockito.when(mockResultSet.getMetaData()).thenReturn(metaData);
+        Mockito.when(mockResultSet.next()).thenAnswer(invocation -> cursor.incrementAndGet() < rows.length);
+        Mockito.when(mockResultSet.getObject(Mockito.anyInt()))
+                .thenAnswer(invocation -> rows[cursor.get()][invocation.<Integer>getArgument(0) - 1]);
+        return mockResultSet;
+    }
+}
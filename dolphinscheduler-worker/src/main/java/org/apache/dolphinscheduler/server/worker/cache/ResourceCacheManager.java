@@ -0,0 +1,275 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.server.worker.config.ResourceCacheProperties;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
+import org.apache.dolphinscheduler.service.storage.StorageOperate;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Worker-wide cache of the resource files downloaded from the storage.
+ * <p>
+ * The cached file is named by the hash of the resource path and its version in the storage, so an overwritten
+ * resource is downloaded again. The tasks get their own copies of the cached files in their execute paths, so a task
+ * can never change the cached file which is shared with other tasks. The tasks need the same resource at the same
+ * time share one download, and the least recently used files are evicted once the cached files exceed the max size.
+ */
+@Component
+public class ResourceCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceCacheManager.class);
+
+    private static final String TMP_FILE_SUFFIX = ".tmp";
+
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    private Path cacheDir;
+
+    private long maxCachedBytes;
+
+    /**
+     * The sizes of the cached files in access order, guarded by this.
+     */
+    private final LinkedHashMap<String, Long> cachedFiles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile long cachedBytes;
+
+    private final ConcurrentHashMap<String, CompletableFuture<Path>> downloadingFiles = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        ResourceCacheProperties resourceCacheProperties = workerConfig.getResourceCache();
+        if (!resourceCacheProperties.isEnabled()) {
+            logger.info("The resource cache is disabled");
+            return;
+        }
+        init(Paths.get(resourceCacheProperties.getPath()), resourceCacheProperties.getMaxSize().toBytes());
+        WorkerServerMetrics.registerWorkerResourceCacheSizeGauge(() -> cachedBytes);
+    }
+
+    void init(Path cacheDir, long maxCachedBytes) throws IOException {
+        Files.createDirectories(cacheDir);
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            files = stream.collect(Collectors.toList());
+        }
+        List<Path> cachedFileList = new ArrayList<>();
+        for (Path file : files) {
+            if (file.getFileName().toString().endsWith(TMP_FILE_SUFFIX)) {
+                // the download is interrupted by the last shutdown
+                Files.deleteIfExists(file);
+            } else if (Files.isRegularFile(file)) {
+                cachedFileList.add(file);
+            }
+        }
+        cachedFileList.sort(Comparator.comparingLong(file -> file.toFile().lastModified()));
+        synchronized (this) {
+            this.cacheDir = cacheDir;
+            this.maxCachedBytes = maxCachedBytes;
+            for (Path file : cachedFileList) {
+                long size = Files.size(file);
+                cachedFiles.put(file.getFileName().toString(), size);
+                cachedBytes += size;
+            }
+            evict(null);
+        }
+        logger.info("The resource cache is initialized, path: {}, cached files: {}, cached bytes: {}",
+                cacheDir, cachedFiles.size(), cachedBytes);
+    }
+
+    public boolean isEnabled() {
+        return cacheDir != null;
+    }
+
+    /**
+     * Get the resource file from the cache to the target path, the file is downloaded into the cache if absent.
+     *
+     * @param storageOperate storage
+     * @param tenantCode tenant code
+     * @param resPath the full path of the resource in the storage
+     * @param target the target path, it should not exist
+     */
+    public void fetch(StorageOperate storageOperate, String tenantCode, String resPath,
+                      Path target) throws IOException {
+        String version = storageOperate.getFileVersion(tenantCode, resPath);
+        String key = DigestUtils.sha256Hex(resPath + '\n' + version);
+        while (true) {
+            boolean cacheHit = true;
+            if (!containsCachedFile(key)) {
+                CompletableFuture<Path> download = new CompletableFuture<>();
+                CompletableFuture<Path> sharedDownload = downloadingFiles.putIfAbsent(key, download);
+                if (sharedDownload != null) {
+                    // another task is downloading the same resource
+                    awaitDownload(sharedDownload);
+                } else if (!containsCachedFile(key)) {
+                    cacheHit = false;
+                    try {
+                        download(storageOperate, tenantCode, resPath, key);
+                        download.complete(cacheDir.resolve(key));
+                    } catch (IOException | RuntimeException e) {
+                        download.completeExceptionally(e);
+                        throw e;
+                    } finally {
+                        downloadingFiles.remove(key, download);
+                    }
+                } else {
+                    downloadingFiles.remove(key, download);
+                }
+            }
+            try {
+                long size = copyCachedFile(key, target);
+                if (cacheHit) {
+                    WorkerServerMetrics.incWorkerResourceCacheHitCount();
+                    WorkerServerMetrics.incWorkerResourceCacheHitBytes(size);
+                } else {
+                    WorkerServerMetrics.incWorkerResourceCacheMissCount();
+                }
+                return;
+            } catch (NoSuchFileException e) {
+                // the cached file is evicted just now, fetch it again
+                logger.info("The cached file of resource: {} is evicted, will fetch it again", resPath);
+            }
+        }
+    }
+
+    private synchronized boolean containsCachedFile(String key) {
+        return cachedFiles.get(key) != null;
+    }
+
+    private void awaitDownload(CompletableFuture<Path> download) throws IOException {
+        try {
+            download.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the resource download");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Download resource file error", e.getCause());
+        }
+    }
+
+    private void download(StorageOperate storageOperate, String tenantCode, String resPath,
+                          String key) throws IOException {
+        Path tmpFile = cacheDir.resolve(key + "." + UUID.randomUUID() + TMP_FILE_SUFFIX);
+        try {
+            long resourceDownloadStartTime = System.currentTimeMillis();
+            storageOperate.download(tenantCode, resPath, tmpFile.toString(), false, true);
+            WorkerServerMetrics
+                    .recordWorkerResourceDownloadTime(System.currentTimeMillis() - resourceDownloadStartTime);
+            long size = Files.size(tmpFile);
+            WorkerServerMetrics.recordWorkerResourceDownloadSize(size);
+            tmpFile.toFile().setReadOnly();
+            Files.move(tmpFile, cacheDir.resolve(key), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this) {
+                Long replacedSize = cachedFiles.put(key, size);
+                cachedBytes += size - (replacedSize == null ? 0 : replacedSize);
+                evict(key);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /**
+     * Copy the cached file to the target path.
+     *
+     * @return the size of the file
+     * @throws NoSuchFileException if the cached file has been evicted
+     */
+    private long copyCachedFile(String key, Path target) throws IOException {
+        Path cachedFile = cacheDir.resolve(key);
+        Files.createDirectories(target.getParent());
+        InputStream cachedFileStream;
+        long size;
+        synchronized (this) {
+            // the cached file is evicted under the lock, so it exists here
+            Long cachedSize = cachedFiles.get(key);
+            if (cachedSize == null) {
+                throw new NoSuchFileException(cachedFile.toString());
+            }
+            size = cachedSize;
+            // the opened file can still be read after it is evicted
+            cachedFileStream = Files.newInputStream(cachedFile);
+        }
+        try (InputStream inputStream = cachedFileStream) {
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return size;
+    }
+
+    /**
+     * Evict the least recently used files except the given one, should be called with this locked.
+     */
+    private void evict(String retainedKey) {
+        Iterator<Map.Entry<String, Long>> iterator = cachedFiles.entrySet().iterator();
+        while (cachedBytes > maxCachedBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getKey().equals(retainedKey)) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(cacheDir.resolve(entry.getKey()));
+            } catch (IOException e) {
+                logger.warn("Delete the cached resource file: {} error", entry.getKey(), e);
+                continue;
+            }
+            cachedBytes -= entry.getValue();
+            iterator.remove();
+            WorkerServerMetrics.incWorkerResourceCacheEvictCount();
+        }
+    }
+
+    long getCachedBytes() {
+        return cachedBytes;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.config;
+
+import org.apache.dolphinscheduler.common.utils.FileUtils;
+
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+@Data
+public class ResourceCacheProperties {
+
+    /**
+     * Whether to cache the resource files downloaded from the storage on the worker, disabled by default since the
+     * cached files take up to {@link #maxSize} of the disk.
+     */
+    private boolean enabled = false;
+
+    private String path = FileUtils.DATA_BASEDIR + "/resource-cache";
+
+    /**
+     * The least recently used files are evicted once the cached files exceed this size.
+     */
+    private DataSize maxSize = DataSize.ofGigabytes(10);
+
+}
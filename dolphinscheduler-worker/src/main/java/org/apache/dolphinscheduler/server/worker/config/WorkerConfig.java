@@ -21,6 +21,7 @@ import static org.apache.dolphinscheduler.common.constants.Constants.REGISTRY_DO
 
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.registry.api.ConnectStrategyProperties;
+import org.apache.dolphinscheduler.remote.command.CommandBodySerializer;
 
 import java.time.Duration;
 
@@ -53,6 +54,12 @@ public class WorkerConfig implements Validator {
     private String alertListenHost = "localhost";
     private int alertListenPort = 50052;
     private ConnectStrategyProperties registryDisconnectStrategy = new ConnectStrategyProperties();
+    private ResourceCacheProperties resourceCache = new ResourceCacheProperties();
+    /**
+     * The body serializer of the task running and result commands, PROTOSTUFF is smaller and faster than JSON, but it
+     * can only be enabled after all of the masters are upgraded.
+     */
+    private CommandBodySerializer taskCommandSerializer = CommandBodySerializer.JSON;
 
     /**
      * This field doesn't need to set at config file, it will be calculated by workerIp:listenPort
@@ -76,6 +83,9 @@ public class WorkerConfig implements Validator {
         if (workerConfig.getHeartbeatInterval().getSeconds() <= 0) {
             errors.rejectValue("heartbeat-interval", null, "shoule be a valid duration");
         }
+        if (workerConfig.getResourceCache().getMaxSize().isNegative()) {
+            errors.rejectValue("resource-cache.max-size", null, "should not be negative");
+        }
         if (workerConfig.getMaxCpuLoadAvg() <= 0) {
             workerConfig.setMaxCpuLoadAvg(Runtime.getRuntime().availableProcessors() * 2);
         }
@@ -97,6 +107,8 @@ public class WorkerConfig implements Validator {
         logger.info("Worker config: alertListenHost -> {}", alertListenHost);
         logger.info("Worker config: alertListenPort -> {}", alertListenPort);
         logger.info("Worker config: registryDisconnectStrategy -> {}", registryDisconnectStrategy);
+        logger.info("Worker config: resourceCache -> {}", resourceCache);
+        logger.info("Worker config: taskCommandSerializer -> {}", taskCommandSerializer);
         logger.info("Worker config: workerAddress -> {}", workerAddress);
         logger.info("Worker config: workerRegistryPath: {}", workerRegistryPath);
         logger.info("Worker config: taskExecuteThreadsFullPolicy: {}", taskExecuteThreadsFullPolicy);
@@ -39,7 +39,8 @@ public class TaskExecuteResultMessageSender implements MessageSender<TaskExecute
 
     @Override
     public void sendMessage(TaskExecuteResultCommand message) throws RemotingException {
-        workerRpcClient.send(Host.of(message.getMessageReceiverAddress()), message.convert2Command());
+        workerRpcClient.send(Host.of(message.getMessageReceiverAddress()),
+                message.convert2Command(workerConfig.getTaskCommandSerializer()));
     }
 
     public TaskExecuteResultCommand buildMessage(TaskExecutionContext taskExecutionContext,
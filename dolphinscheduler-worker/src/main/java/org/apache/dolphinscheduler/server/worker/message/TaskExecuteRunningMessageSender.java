@@ -41,7 +41,8 @@ public class TaskExecuteRunningMessageSender implements MessageSender<TaskExecut
 
     @Override
     public void sendMessage(TaskExecuteRunningCommand message) throws RemotingException {
-        workerRpcClient.send(Host.of(message.getMessageReceiverAddress()), message.convert2Command());
+        workerRpcClient.send(Host.of(message.getMessageReceiverAddress()),
+                message.convert2Command(workerConfig.getTaskCommandSerializer()));
     }
 
     public TaskExecuteRunningCommand buildMessage(@NonNull TaskExecutionContext taskExecutionContext,
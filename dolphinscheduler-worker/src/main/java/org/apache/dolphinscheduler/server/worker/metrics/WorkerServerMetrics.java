@@ -17,11 +17,14 @@
 
 package org.apache.dolphinscheduler.server.worker.metrics;
 
+import org.apache.dolphinscheduler.plugin.task.api.TaskOutputLogBuffer;
+
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Timer;
@@ -67,6 +70,29 @@ public class WorkerServerMetrics {
             .description("size of downloaded resource files on worker")
             .register(Metrics.globalRegistry);
 
+    private final Counter workerResourceCacheHitCounter =
+            Counter.builder("ds.worker.resource.cache.count")
+                    .tag("result", "hit")
+                    .description("worker resource cache hit count")
+                    .register(Metrics.globalRegistry);
+
+    private final Counter workerResourceCacheMissCounter =
+            Counter.builder("ds.worker.resource.cache.count")
+                    .tag("result", "miss")
+                    .description("worker resource cache miss count")
+                    .register(Metrics.globalRegistry);
+
+    private final Counter workerResourceCacheEvictCounter =
+            Counter.builder("ds.worker.resource.cache.evict.count")
+                    .description("worker resource cache evicted files count")
+                    .register(Metrics.globalRegistry);
+
+    private final Counter workerResourceCacheHitBytesCounter =
+            Counter.builder("ds.worker.resource.cache.hit.bytes")
+                    .baseUnit("bytes")
+                    .description("bytes of the resource files got from the cache on workers")
+                    .register(Metrics.globalRegistry);
+
     public void incWorkerOverloadCount() {
         workerOverloadCounter.increment();
     }
@@ -91,6 +117,46 @@ public class WorkerServerMetrics {
         workerResourceDownloadSizeDistribution.record(size);
     }
 
+    public void incWorkerResourceCacheHitCount() {
+        workerResourceCacheHitCounter.increment();
+    }
+
+    public void incWorkerResourceCacheMissCount() {
+        workerResourceCacheMissCounter.increment();
+    }
+
+    public void incWorkerResourceCacheEvictCount() {
+        workerResourceCacheEvictCounter.increment();
+    }
+
+    public void incWorkerResourceCacheHitBytes(final long size) {
+        workerResourceCacheHitBytesCounter.increment(size);
+    }
+
+    public void registerWorkerResourceCacheSizeGauge(final Supplier<Number> supplier) {
+        Gauge.builder("ds.worker.resource.cache.size", supplier)
+                .baseUnit("bytes")
+                .description("size of the cached resource files on workers")
+                .register(Metrics.globalRegistry);
+    }
+
+    public void registerWorkerTaskLogBufferMetrics() {
+        Gauge.builder("ds.worker.task.log.buffered.bytes", TaskOutputLogBuffer::getTotalBufferedBytes)
+                .baseUnit("bytes")
+                .description("estimated bytes of the task output logs buffered on workers")
+                .register(Metrics.globalRegistry);
+        FunctionCounter.builder("ds.worker.task.log.blocked.time", TaskOutputLogBuffer.class,
+                clazz -> TaskOutputLogBuffer.getTotalBlockedSeconds())
+                .baseUnit("seconds")
+                .description("time of the task output readers blocked by the full log buffers on workers")
+                .register(Metrics.globalRegistry);
+        FunctionCounter.builder("ds.worker.task.log.dropped.bytes", TaskOutputLogBuffer.class,
+                clazz -> TaskOutputLogBuffer.getTotalDroppedBytes())
+                .baseUnit("bytes")
+                .description("estimated bytes of the task output logs dropped on workers")
+                .register(Metrics.globalRegistry);
+    }
+
     public void registerWorkerRunningTaskGauge(final Supplier<Number> supplier) {
         Gauge.builder("ds.task.running", supplier)
             .description("number of running tasks on workers")
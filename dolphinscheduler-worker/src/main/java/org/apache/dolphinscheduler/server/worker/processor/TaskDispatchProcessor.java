@@ -18,7 +18,6 @@
 package org.apache.dolphinscheduler.server.worker.processor;
 
 import org.apache.dolphinscheduler.common.utils.DateUtils;
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContextCacheManager;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
@@ -26,6 +25,7 @@ import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
@@ -83,6 +83,9 @@ public class TaskDispatchProcessor implements NettyRequestProcessor {
     @Autowired(required = false)
     private StorageOperate storageOperate;
 
+    @Autowired
+    private ResourceCacheManager resourceCacheManager;
+
     @Counted(value = "ds.task.execution.count", description = "task execute total count")
     @Timed(value = "ds.task.execution.duration", percentiles = {0.5, 0.75, 0.95, 0.99}, histogram = true)
     @Override
@@ -90,7 +93,7 @@ public class TaskDispatchProcessor implements NettyRequestProcessor {
         Preconditions.checkArgument(CommandType.TASK_DISPATCH_REQUEST == command.getType(),
                 String.format("invalid command type : %s", command.getType()));
 
-        TaskDispatchCommand taskDispatchCommand = JSONUtils.parseObject(command.getBody(), TaskDispatchCommand.class);
+        TaskDispatchCommand taskDispatchCommand = command.getBody(TaskDispatchCommand.class);
 
         if (taskDispatchCommand == null) {
             logger.error("task execute request command content is null");
@@ -132,7 +135,8 @@ public class TaskDispatchProcessor implements NettyRequestProcessor {
                             workerMessageSender,
                             alertClientService,
                             taskPluginManager,
-                            storageOperate)
+                            storageOperate,
+                            resourceCacheManager)
                     .createWorkerTaskExecuteRunnable();
             // submit task to manager
             boolean offer = workerManager.offer(workerTaskExecuteRunnable);
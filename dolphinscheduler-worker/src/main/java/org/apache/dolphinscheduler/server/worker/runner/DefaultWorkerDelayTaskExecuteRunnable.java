@@ -21,6 +21,7 @@ import lombok.NonNull;
 import org.apache.dolphinscheduler.plugin.task.api.TaskCallBack;
 import org.apache.dolphinscheduler.plugin.task.api.TaskException;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
@@ -37,8 +38,9 @@ public class DefaultWorkerDelayTaskExecuteRunnable extends WorkerDelayTaskExecut
                                                  @NonNull WorkerMessageSender workerMessageSender,
                                                  @NonNull AlertClientService alertClientService,
                                                  @NonNull TaskPluginManager taskPluginManager,
-                                                 @Nullable StorageOperate storageOperate) {
-        super(taskExecutionContext, workerConfig, workflowMaster, workerMessageSender, alertClientService, taskPluginManager, storageOperate);
+                                                 @Nullable StorageOperate storageOperate,
+                                                 @NonNull ResourceCacheManager resourceCacheManager) {
+        super(taskExecutionContext, workerConfig, workflowMaster, workerMessageSender, alertClientService, taskPluginManager, storageOperate, resourceCacheManager);
     }
 
     @Override
@@ -19,6 +19,7 @@ package org.apache.dolphinscheduler.server.worker.runner;
 
 import lombok.NonNull;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
@@ -35,8 +36,9 @@ public class DefaultWorkerDelayTaskExecuteRunnableFactory extends WorkerDelayTas
                                                            @NonNull WorkerMessageSender workerMessageSender,
                                                            @NonNull AlertClientService alertClientService,
                                                            @NonNull TaskPluginManager taskPluginManager,
-                                                           @Nullable StorageOperate storageOperate) {
-        super(taskExecutionContext, workerConfig, workflowMasterAddress, workerMessageSender, alertClientService, taskPluginManager, storageOperate);
+                                                           @Nullable StorageOperate storageOperate,
+                                                           @NonNull ResourceCacheManager resourceCacheManager) {
+        super(taskExecutionContext, workerConfig, workflowMasterAddress, workerMessageSender, alertClientService, taskPluginManager, storageOperate, resourceCacheManager);
     }
 
     @Override
@@ -48,6 +50,7 @@ public class DefaultWorkerDelayTaskExecuteRunnableFactory extends WorkerDelayTas
                 workerMessageSender,
                 alertClientService,
                 taskPluginManager,
-                storageOperate);
+                storageOperate,
+                resourceCacheManager);
     }
 }
@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.server.worker.runner;
 import lombok.NonNull;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
@@ -38,8 +39,9 @@ public abstract class WorkerDelayTaskExecuteRunnable extends WorkerTaskExecuteRu
                                              @NonNull WorkerMessageSender workerMessageSender,
                                              @NonNull AlertClientService alertClientService,
                                              @NonNull TaskPluginManager taskPluginManager,
-                                             @Nullable StorageOperate storageOperate) {
-        super(taskExecutionContext, workerConfig, masterAddress, workerMessageSender, alertClientService, taskPluginManager, storageOperate);
+                                             @Nullable StorageOperate storageOperate,
+                                             @NonNull ResourceCacheManager resourceCacheManager) {
+        super(taskExecutionContext, workerConfig, masterAddress, workerMessageSender, alertClientService, taskPluginManager, storageOperate, resourceCacheManager);
     }
 
     @Override
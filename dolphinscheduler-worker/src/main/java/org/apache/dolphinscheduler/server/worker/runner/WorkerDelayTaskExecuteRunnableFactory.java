@@ -19,6 +19,7 @@ package org.apache.dolphinscheduler.server.worker.runner;
 
 import lombok.NonNull;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
@@ -36,6 +37,7 @@ public abstract class WorkerDelayTaskExecuteRunnableFactory<T extends WorkerDela
     protected final @NonNull AlertClientService alertClientService;
     protected final @NonNull TaskPluginManager taskPluginManager;
     protected final @Nullable StorageOperate storageOperate;
+    protected final @NonNull ResourceCacheManager resourceCacheManager;
 
     protected WorkerDelayTaskExecuteRunnableFactory(
             @NonNull TaskExecutionContext taskExecutionContext,
@@ -44,7 +46,8 @@ public abstract class WorkerDelayTaskExecuteRunnableFactory<T extends WorkerDela
             @NonNull WorkerMessageSender workerMessageSender,
             @NonNull AlertClientService alertClientService,
             @NonNull TaskPluginManager taskPluginManager,
-            @Nullable StorageOperate storageOperate) {
+            @Nullable StorageOperate storageOperate,
+            @NonNull ResourceCacheManager resourceCacheManager) {
         this.taskExecutionContext = taskExecutionContext;
         this.workerConfig = workerConfig;
         this.workflowMasterAddress = workflowMasterAddress;
@@ -52,6 +55,7 @@ public abstract class WorkerDelayTaskExecuteRunnableFactory<T extends WorkerDela
         this.alertClientService = alertClientService;
         this.taskPluginManager = taskPluginManager;
         this.storageOperate = storageOperate;
+        this.resourceCacheManager = resourceCacheManager;
     }
 
 
@@ -58,6 +58,7 @@ public class WorkerExecService {
         this.listeningExecutorService = MoreExecutors.listeningDecorator(this.execService);
         this.taskExecuteThreadMap = taskExecuteThreadMap;
         WorkerServerMetrics.registerWorkerRunningTaskGauge(taskExecuteThreadMap::size);
+        WorkerServerMetrics.registerWorkerTaskLogBufferMetrics();
     }
 
     public void submit(final WorkerTaskExecuteRunnable taskExecuteThread) {
@@ -35,6 +35,7 @@ import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
 import org.apache.dolphinscheduler.plugin.task.api.model.TaskAlertInfo;
 import org.apache.dolphinscheduler.plugin.task.api.utils.LogUtils;
 import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.server.worker.utils.TaskExecutionCheckerUtils;
@@ -73,6 +74,7 @@ public abstract class WorkerTaskExecuteRunnable implements Runnable {
     protected final AlertClientService alertClientService;
     protected final TaskPluginManager taskPluginManager;
     protected final @Nullable StorageOperate storageOperate;
+    protected final @NonNull ResourceCacheManager resourceCacheManager;
 
     protected @Nullable AbstractTask task;
 
@@ -83,7 +85,8 @@ public abstract class WorkerTaskExecuteRunnable implements Runnable {
                                         @NonNull WorkerMessageSender workerMessageSender,
                                         @NonNull AlertClientService alertClientService,
                                         @NonNull TaskPluginManager taskPluginManager,
-                                        @Nullable StorageOperate storageOperate) {
+                                        @Nullable StorageOperate storageOperate,
+                                        @NonNull ResourceCacheManager resourceCacheManager) {
         this.taskExecutionContext = taskExecutionContext;
         this.workerConfig = workerConfig;
         this.masterAddress = masterAddress;
@@ -91,6 +94,7 @@ public abstract class WorkerTaskExecuteRunnable implements Runnable {
         this.alertClientService = alertClientService;
         this.taskPluginManager = taskPluginManager;
         this.storageOperate = storageOperate;
+        this.resourceCacheManager = resourceCacheManager;
         String taskLogName = LoggerUtils.buildTaskId(taskExecutionContext.getFirstSubmitTime(),
                 taskExecutionContext.getProcessDefineCode(),
                 taskExecutionContext.getProcessDefineVersion(),
@@ -213,7 +217,8 @@ public abstract class WorkerTaskExecuteRunnable implements Runnable {
         TaskExecutionCheckerUtils.createProcessLocalPathIfAbsent(taskExecutionContext);
         logger.info("ProcessExecDir:{} check success", taskExecutionContext.getExecutePath());
 
-        TaskExecutionCheckerUtils.downloadResourcesIfNeeded(storageOperate, taskExecutionContext, logger);
+        TaskExecutionCheckerUtils.downloadResourcesIfNeeded(storageOperate, resourceCacheManager, taskExecutionContext,
+                logger);
         logger.info("Resources:{} check success", taskExecutionContext.getResources());
 
         TaskChannel taskChannel = taskPluginManager.getTaskChannelMap().get(taskExecutionContext.getTaskType());
@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.server.worker.runner;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
@@ -37,14 +38,16 @@ public class WorkerTaskExecuteRunnableFactoryBuilder {
                                                                                                        @NonNull WorkerMessageSender workerMessageSender,
                                                                                                        @NonNull AlertClientService alertClientService,
                                                                                                        @NonNull TaskPluginManager taskPluginManager,
-                                                                                                       @Nullable StorageOperate storageOperate) {
+                                                                                                       @Nullable StorageOperate storageOperate,
+                                                                                                       @NonNull ResourceCacheManager resourceCacheManager) {
         return new DefaultWorkerDelayTaskExecuteRunnableFactory(taskExecutionContext,
                 workerConfig,
                 workflowMasterAddress,
                 workerMessageSender,
                 alertClientService,
                 taskPluginManager,
-                storageOperate);
+                storageOperate,
+                resourceCacheManager);
     }
 
 }
@@ -23,6 +23,7 @@ import org.apache.dolphinscheduler.common.utils.OSUtils;
 import org.apache.dolphinscheduler.common.utils.PropertyUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskException;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
 import org.apache.dolphinscheduler.service.storage.StorageOperate;
@@ -95,6 +96,7 @@ public class TaskExecutionCheckerUtils {
     }
 
     public static void downloadResourcesIfNeeded(StorageOperate storageOperate,
+                                                 ResourceCacheManager resourceCacheManager,
                                                  TaskExecutionContext taskExecutionContext, Logger logger) {
         String execLocalPath = taskExecutionContext.getExecutePath();
         Map<String, String> projectRes = taskExecutionContext.getResources();
@@ -122,6 +124,13 @@ public class TaskExecutionCheckerUtils {
                     String fullName = fileDownload.getLeft();
                     String tenantCode = fileDownload.getRight();
                     String resPath = storageOperate.getResourceFileName(tenantCode, fullName);
+                    if (resourceCacheManager.isEnabled()) {
+                        logger.info("get resource file from path:{} through the resource cache", resPath);
+                        resourceCacheManager.fetch(storageOperate, tenantCode, resPath,
+                                Paths.get(execLocalPath, fullName));
+                        WorkerServerMetrics.incWorkerResourceDownloadSuccessCount();
+                        continue;
+                    }
                     logger.info("get resource file from path:{}", resPath);
                     long resourceDownloadStartTime = System.currentTimeMillis();
                     storageOperate.download(tenantCode, resPath, execLocalPath + File.separator + fullName, false,
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.service.storage.StorageOperate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+
+public class ResourceCacheManagerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StorageOperate storageOperate;
+
+    private Path cacheDir;
+
+    private Path execDir;
+
+    @Before
+    public void before() throws IOException {
+        storageOperate = Mockito.mock(StorageOperate.class);
+        Mockito.when(storageOperate.getFileVersion(Mockito.anyString(), Mockito.anyString())).thenReturn("v1");
+        Mockito.doAnswer(invocation -> {
+            String resPath = invocation.getArgument(1);
+            Files.write(Paths.get((String) invocation.getArgument(2)), resPath.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(storageOperate).download(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyBoolean(), Mockito.anyBoolean());
+        cacheDir = temporaryFolder.newFolder("cache").toPath();
+        execDir = temporaryFolder.newFolder("exec").toPath();
+    }
+
+    @Test
+    public void testFetchFromCache() throws IOException {
+        ResourceCacheManager resourceCacheManager = new ResourceCacheManager();
+        resourceCacheManager.init(cacheDir, 1024);
+
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/a.jar", execDir.resolve("1/a.jar"));
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/a.jar", execDir.resolve("2/a.jar"));
+        Assert.assertEquals("/resources/a.jar",
+                new String(Files.readAllBytes(execDir.resolve("2/a.jar")), StandardCharsets.UTF_8));
+        Mockito.verify(storageOperate, Mockito.times(1)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+
+        // the resource is overwritten in the storage
+        Mockito.when(storageOperate.getFileVersion(Mockito.anyString(), Mockito.anyString())).thenReturn("v2");
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/a.jar", execDir.resolve("3/a.jar"));
+        Mockito.verify(storageOperate, Mockito.times(2)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+
+        // the cached files are loaded after restart
+        ResourceCacheManager restartedResourceCacheManager = new ResourceCacheManager();
+        restartedResourceCacheManager.init(cacheDir, 1024);
+        Assert.assertEquals(resourceCacheManager.getCachedBytes(), restartedResourceCacheManager.getCachedBytes());
+    }
+
+    @Test
+    public void testCachedFileNotChangedByTask() throws IOException {
+        ResourceCacheManager resourceCacheManager = new ResourceCacheManager();
+        resourceCacheManager.init(cacheDir, 1024);
+
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/a.sh", execDir.resolve("1/a.sh"));
+        Files.write(execDir.resolve("1/a.sh"), "changed".getBytes(StandardCharsets.UTF_8));
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/a.sh", execDir.resolve("2/a.sh"));
+        Assert.assertEquals("/resources/a.sh",
+                new String(Files.readAllBytes(execDir.resolve("2/a.sh")), StandardCharsets.UTF_8));
+        Mockito.verify(storageOperate, Mockito.times(1)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws IOException {
+        ResourceCacheManager resourceCacheManager = new ResourceCacheManager();
+        // each file is 12 bytes
+        resourceCacheManager.init(cacheDir, 30);
+
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/1", execDir.resolve("1/1"));
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/2", execDir.resolve("1/2"));
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/1", execDir.resolve("2/1"));
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/3", execDir.resolve("1/3"));
+        Assert.assertEquals(24, resourceCacheManager.getCachedBytes());
+
+        // the file copied to the execute path is still there after evicted
+        Assert.assertTrue(Files.exists(execDir.resolve("1/2")));
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/1", execDir.resolve("3/1"));
+        resourceCacheManager.fetch(storageOperate, "tenant", "/resources/2", execDir.resolve("3/2"));
+        Mockito.verify(storageOperate, Mockito.times(2)).download(Mockito.anyString(),
+                Mockito.eq("/resources/2"), Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+        Mockito.verify(storageOperate, Mockito.times(1)).download(Mockito.anyString(),
+                Mockito.eq("/resources/1"), Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+
+    @Test
+    public void testSingleFlightDownload() throws Exception {
+        CountDownLatch downloadStarted = new CountDownLatch(1);
+        CountDownLatch downloadReleased = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            downloadStarted.countDown();
+            downloadReleased.await(10, TimeUnit.SECONDS);
+            Files.write(Paths.get((String) invocation.getArgument(2)), new byte[]{1});
+            return null;
+        }).when(storageOperate).download(Mockito.anyString(), Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyBoolean(), Mockito.anyBoolean());
+        ResourceCacheManager resourceCacheManager = new ResourceCacheManager();
+        resourceCacheManager.init(cacheDir, 1024);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executorService.submit(() -> {
+                resourceCacheManager.fetch(storageOperate, "tenant", "/resources/a.jar", execDir.resolve("1/a.jar"));
+                return null;
+            });
+            Assert.assertTrue(downloadStarted.await(10, TimeUnit.SECONDS));
+            Future<?> second = executorService.submit(() -> {
+                resourceCacheManager.fetch(storageOperate, "tenant", "/resources/a.jar", execDir.resolve("2/a.jar"));
+                return null;
+            });
+            downloadReleased.countDown();
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+        Assert.assertTrue(Files.exists(execDir.resolve("2/a.jar")));
+        Mockito.verify(storageOperate, Mockito.times(1)).download(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean());
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.TaskDispatchCommand;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.server.worker.runner.WorkerManagerThread;
@@ -65,6 +66,9 @@ public class TaskDispatchProcessorTest {
     @Mock
     private StorageOperate storageOperate;
 
+    @Mock
+    private ResourceCacheManager resourceCacheManager;
+
     @Test
     public void process() {
         Channel channel = Mockito.mock(Channel.class);
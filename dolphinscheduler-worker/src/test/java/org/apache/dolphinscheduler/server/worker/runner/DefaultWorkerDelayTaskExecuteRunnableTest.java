@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.server.worker.runner;
 import org.apache.dolphinscheduler.common.constants.Constants;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskExecutionStatus;
+import org.apache.dolphinscheduler.server.worker.cache.ResourceCacheManager;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.rpc.WorkerMessageSender;
 import org.apache.dolphinscheduler.service.alert.AlertClientService;
@@ -47,6 +48,8 @@ public class DefaultWorkerDelayTaskExecuteRunnableTest {
 
     private StorageOperate storageOperate = Mockito.mock(StorageOperate.class);
 
+    private ResourceCacheManager resourceCacheManager = Mockito.mock(ResourceCacheManager.class);
+
     @Test
     public void testDryRun() {
         TaskExecutionContext taskExecutionContext = TaskExecutionContext.builder()
@@ -63,7 +66,8 @@ public class DefaultWorkerDelayTaskExecuteRunnableTest {
                 workerMessageSender,
                 alertClientService,
                 taskPluginManager,
-                storageOperate
+                storageOperate,
+                resourceCacheManager
         );
 
         Assertions.assertAll(workerTaskExecuteRunnable::run);